@@ -0,0 +1,53 @@
+#!/bin/sh
+# Measures time-to-first-request: from JVM launch until /actuator/health answers.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [java options...]
+#   scripts/startup-benchmark.sh 5
+#   scripts/startup-benchmark.sh 5 -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=prod,fast-startup
+#
+# JAR (default target/quiz-app-0.0.1-SNAPSHOT.jar) and PORT (default 8080) can be overridden from the environment.
+
+RUNS=${1:-5}
+[ $# -gt 0 ] && shift
+JAR=${JAR:-target/quiz-app-0.0.1-SNAPSHOT.jar}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/actuator/health"
+
+now_ms() {
+    date +%s%3N
+}
+
+if [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL")" != "000" ]; then
+    echo "Something is already listening on port ${PORT}" >&2
+    exit 1
+fi
+
+total=0
+best=
+i=1
+while [ "$i" -le "$RUNS" ]; do
+    start=$(now_ms)
+    java "$@" -Dserver.port="$PORT" -jar "$JAR" > /tmp/startup-benchmark.log 2>&1 &
+    pid=$!
+
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL")" != "000" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited during startup, see /tmp/startup-benchmark.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null
+
+    echo "run $i: time-to-first-request ${elapsed} ms"
+    total=$((total + elapsed))
+    if [ -z "$best" ] || [ "$elapsed" -lt "$best" ]; then
+        best=$elapsed
+    fi
+    i=$((i + 1))
+done
+
+echo "average: $((total / RUNS)) ms, best: ${best} ms over ${RUNS} runs"
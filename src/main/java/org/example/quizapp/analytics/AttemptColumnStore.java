@@ -0,0 +1,221 @@
+package org.example.quizapp.analytics;
+
+import org.example.quizapp.entity.Quiz;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Append-only column store of attempts. Rows live in fixed-size segments of primitive
+// arrays; a single writer appends while any number of readers scan a published prefix.
+public class AttemptColumnStore {
+
+    public static final int SEGMENT_BITS = 16;
+    public static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    public static final int BYTES_PER_ROW = 4 + 4 + 4 + 4 + 2 + 1;
+
+    public enum Dimension {
+        CATEGORY, DIFFICULTY, QUIZ, DAY, WEEK
+    }
+
+    private static final Quiz.Difficulty[] DIFFICULTIES = Quiz.Difficulty.values();
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    // 1970-01-01 was a Thursday; shift so weeks start on Monday
+    private static final int EPOCH_WEEK_OFFSET_DAYS = 3;
+
+    private final Map<String, Short> categoryCodes = new HashMap<>();
+    private final List<String> categories = new ArrayList<>();
+
+    private volatile Segment[] segments = new Segment[0];
+    private volatile long size;
+
+    public synchronized void append(long quizId, long userId, int epochMinute, float score,
+                                    String category, Quiz.Difficulty difficulty) {
+        long row = size;
+        int segmentIndex = (int) (row >>> SEGMENT_BITS);
+        Segment[] current = segments;
+        if (segmentIndex == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[segmentIndex] = new Segment();
+            segments = current;
+        }
+        Segment segment = current[segmentIndex];
+        int offset = (int) (row & (SEGMENT_SIZE - 1));
+        segment.quizIds[offset] = Math.toIntExact(quizId);
+        segment.userIds[offset] = Math.toIntExact(userId);
+        segment.epochMinutes[offset] = epochMinute;
+        segment.scores[offset] = score;
+        segment.categories[offset] = encodeCategory(category);
+        segment.difficulties[offset] = (byte) difficulty.ordinal();
+        // Volatile write publishes the row to readers
+        size = row + 1;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return (long) segments.length * SEGMENT_SIZE * BYTES_PER_ROW;
+    }
+
+    public synchronized String decodeCategory(short code) {
+        return categories.get(code);
+    }
+
+    public Result query(Filter filter, List<Dimension> groupBy) {
+        long rows = size;
+        Segment[] snapshot = segments;
+        int segmentCount = (int) ((rows + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+        int categoryCode = -1;
+        if (filter.category() != null) {
+            synchronized (this) {
+                Short code = categoryCodes.get(filter.category());
+                if (code == null) {
+                    return new Result(new GroupAggregates(), rows);
+                }
+                categoryCode = code;
+            }
+        }
+        GroupKeyEncoder encoder = new GroupKeyEncoder(groupBy);
+        int finalCategoryCode = categoryCode;
+
+        GroupAggregates merged = IntStream.range(0, segmentCount).parallel()
+                .mapToObj(s -> scanSegment(snapshot[s],
+                        (int) Math.min(SEGMENT_SIZE, rows - ((long) s << SEGMENT_BITS)),
+                        filter, finalCategoryCode, encoder))
+                .reduce(GroupAggregates::merge)
+                .orElseGet(GroupAggregates::new);
+        return new Result(merged, rows);
+    }
+
+    private GroupAggregates scanSegment(Segment segment, int rows, Filter filter, int categoryCode,
+                                        GroupKeyEncoder encoder) {
+        GroupAggregates aggregates = new GroupAggregates();
+        int difficulty = filter.difficulty() != null ? filter.difficulty().ordinal() : -1;
+        int fromMinute = filter.fromEpochMinute();
+        int toMinute = filter.toEpochMinute();
+        int quizId = filter.quizId() != null ? Math.toIntExact(filter.quizId()) : -1;
+        int userId = filter.userId() != null ? Math.toIntExact(filter.userId()) : -1;
+
+        for (int i = 0; i < rows; i++) {
+            int minute = segment.epochMinutes[i];
+            if (minute < fromMinute || minute >= toMinute
+                    || (categoryCode >= 0 && segment.categories[i] != categoryCode)
+                    || (difficulty >= 0 && segment.difficulties[i] != difficulty)
+                    || (quizId >= 0 && segment.quizIds[i] != quizId)
+                    || (userId >= 0 && segment.userIds[i] != userId)) {
+                continue;
+            }
+            long key = encoder.encode(segment.categories[i], segment.difficulties[i], segment.quizIds[i], minute);
+            aggregates.add(key, segment.scores[i]);
+        }
+        return aggregates;
+    }
+
+    private short encodeCategory(String category) {
+        Short code = categoryCodes.get(category);
+        if (code == null) {
+            if (categories.size() > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct categories");
+            }
+            code = (short) categories.size();
+            categories.add(category);
+            categoryCodes.put(category, code);
+        }
+        return code;
+    }
+
+    // Submission times are zone-less LocalDateTimes, so minutes are counted on the UTC-labelled timeline
+    public static int toEpochMinute(LocalDateTime submittedAt) {
+        return (int) (submittedAt.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    public static int epochDay(int epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    }
+
+    public static int epochWeek(int epochMinute) {
+        return Math.floorDiv(epochDay(epochMinute) + EPOCH_WEEK_OFFSET_DAYS, 7);
+    }
+
+    public static long weekStartEpochDay(int epochWeek) {
+        return (long) epochWeek * 7 - EPOCH_WEEK_OFFSET_DAYS;
+    }
+
+    public static Quiz.Difficulty difficulty(int ordinal) {
+        return DIFFICULTIES[ordinal];
+    }
+
+    public record Filter(String category, Quiz.Difficulty difficulty, Long quizId, Long userId,
+                         int fromEpochMinute, int toEpochMinute) {
+    }
+
+    public record Result(GroupAggregates aggregates, long rowsScanned) {
+    }
+
+    // Packs the selected dimensions into one long so grouping never allocates per row.
+    // Category and difficulty are dropped when grouping by quiz because the quiz determines them.
+    public static final class GroupKeyEncoder {
+        private final boolean category;
+        private final boolean difficulty;
+        private final boolean quiz;
+        private final boolean day;
+        private final boolean week;
+
+        GroupKeyEncoder(List<Dimension> groupBy) {
+            quiz = groupBy.contains(Dimension.QUIZ);
+            category = !quiz && groupBy.contains(Dimension.CATEGORY);
+            difficulty = !quiz && groupBy.contains(Dimension.DIFFICULTY);
+            day = groupBy.contains(Dimension.DAY);
+            week = !day && groupBy.contains(Dimension.WEEK);
+        }
+
+        long encode(short categoryCode, byte difficultyCode, int quizId, int epochMinute) {
+            long period = day ? epochDay(epochMinute) : week ? epochWeek(epochMinute) : 0;
+            long key = period & 0xFFFFFF;
+            if (quiz) {
+                key |= ((long) quizId) << 24;
+            } else {
+                if (category) {
+                    key |= ((long) categoryCode) << 26;
+                }
+                if (difficulty) {
+                    key |= ((long) difficultyCode) << 24;
+                }
+            }
+            return key;
+        }
+
+        public static int period(long key) {
+            int period = (int) (key & 0xFFFFFF);
+            return (period << 8) >> 8; // sign-extend 24 bits
+        }
+
+        public static int quizId(long key) {
+            return (int) (key >>> 24);
+        }
+
+        public static short category(long key) {
+            return (short) ((key >>> 26) & 0xFFFF);
+        }
+
+        public static int difficulty(long key) {
+            return (int) ((key >>> 24) & 0x3);
+        }
+    }
+
+    private static final class Segment {
+        private final int[] quizIds = new int[SEGMENT_SIZE];
+        private final int[] userIds = new int[SEGMENT_SIZE];
+        private final int[] epochMinutes = new int[SEGMENT_SIZE];
+        private final float[] scores = new float[SEGMENT_SIZE];
+        private final short[] categories = new short[SEGMENT_SIZE];
+        private final byte[] difficulties = new byte[SEGMENT_SIZE];
+    }
+}
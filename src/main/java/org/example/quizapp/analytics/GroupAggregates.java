@@ -0,0 +1,119 @@
+package org.example.quizapp.analytics;
+
+import java.util.Arrays;
+
+// Open-addressing map from a packed group key to count/sum/min/max of scores
+public class GroupAggregates {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] counts;
+    private double[] sums;
+    private float[] mins;
+    private float[] maxs;
+    private int size;
+
+    public GroupAggregates() {
+        allocate(16);
+    }
+
+    public void add(long key, float score) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            mins[slot] = score;
+            maxs[slot] = score;
+            if (++size * 2 > keys.length) {
+                rehash();
+                slot = slot(key);
+            }
+        }
+        counts[slot]++;
+        sums[slot] += score;
+        if (score < mins[slot]) {
+            mins[slot] = score;
+        }
+        if (score > maxs[slot]) {
+            maxs[slot] = score;
+        }
+    }
+
+    public GroupAggregates merge(GroupAggregates other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            long key = other.keys[i];
+            if (key == EMPTY) {
+                continue;
+            }
+            int slot = slot(key);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                mins[slot] = other.mins[i];
+                maxs[slot] = other.maxs[i];
+                if (++size * 2 > keys.length) {
+                    rehash();
+                    slot = slot(key);
+                }
+            }
+            counts[slot] += other.counts[i];
+            sums[slot] += other.sums[i];
+            mins[slot] = Math.min(mins[slot], other.mins[i]);
+            maxs[slot] = Math.max(maxs[slot], other.maxs[i]);
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(GroupVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], counts[i], sums[i], mins[i], maxs[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        double[] oldSums = sums;
+        float[] oldMins = mins;
+        float[] oldMaxs = maxs;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                sums[slot] = oldSums[i];
+                mins[slot] = oldMins[i];
+                maxs[slot] = oldMaxs[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        counts = new long[capacity];
+        sums = new double[capacity];
+        mins = new float[capacity];
+        maxs = new float[capacity];
+    }
+
+    @FunctionalInterface
+    public interface GroupVisitor {
+        void visit(long key, long count, double sum, float min, float max);
+    }
+}
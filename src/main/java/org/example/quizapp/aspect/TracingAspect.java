@@ -0,0 +1,62 @@
+package org.example.quizapp.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.quizapp.tracing.SpanScope;
+import org.example.quizapp.tracing.Tracer;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Spans around service methods, user lookups and every repository call, including the inherited
+// CrudRepository methods. Nothing is recorded outside a traced request.
+@Aspect
+@Component
+public class TracingAspect {
+
+    @Autowired
+    private Tracer tracer;
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(public * org.example.quizapp.service.*.*(..)) || " +
+            "execution(public * org.example.quizapp.security.CustomUserDetailsService.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!tracer.isActive()) {
+            return joinPoint.proceed();
+        }
+        return proceed(joinPoint, joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName());
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!tracer.isActive()) {
+            return joinPoint.proceed();
+        }
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), proxyClass -> {
+            for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis())) {
+                if (type.getName().startsWith("org.example.quizapp")) {
+                    return type.getSimpleName();
+                }
+            }
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        });
+        return proceed(joinPoint, repository + "." + joinPoint.getSignature().getName());
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint, String name) throws Throwable {
+        try (SpanScope scope = tracer.startSpan(name)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                scope.error(e);
+                throw e;
+            }
+        }
+    }
+}
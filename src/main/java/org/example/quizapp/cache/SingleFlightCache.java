@@ -0,0 +1,256 @@
+package org.example.quizapp.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// TTL cache where concurrent misses for one key share a single in-flight load.
+// The first caller runs the loader on its own thread; later callers wait on its future
+// up to loadTimeout and see the same value or the same exception. Failures are not cached.
+public class SingleFlightCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightCache.class);
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Function<K, V> loader;
+    private final Executor refreshExecutor;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final long loadTimeoutNanos;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter refreshes;
+
+    public SingleFlightCache(String name, Function<K, V> loader, Executor refreshExecutor,
+                             long ttlMillis, long refreshAheadMillis, long loadTimeoutMillis, int maxEntries,
+                             MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.refreshExecutor = refreshExecutor;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.refreshAheadNanos = TimeUnit.MILLISECONDS.toNanos(Math.min(refreshAheadMillis, ttlMillis));
+        this.loadTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(loadTimeoutMillis);
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("quiz.cache.requests", "cache", name, "result", "hit");
+        this.misses = meterRegistry.counter("quiz.cache.requests", "cache", name, "result", "miss");
+        this.coalesced = meterRegistry.counter("quiz.cache.requests", "cache", name, "result", "coalesced");
+        this.refreshes = meterRegistry.counter("quiz.cache.refreshes", "cache", name);
+        Gauge.builder("quiz.cache.size", entries, Map::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public V get(K key) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.isLoaded() && !entry.isExpired(now)) {
+            hits.increment();
+            if (refreshAheadNanos > 0 && now - (entry.expiresAt - refreshAheadNanos) >= 0
+                    && entry.refreshing.compareAndSet(false, true)) {
+                refreshAsync(key, entry);
+            }
+            return entry.future.join();
+        }
+
+        Entry<V> mine = new Entry<>();
+        Entry<V> winner = entries.compute(key, (k, current) ->
+                current == null || current.isExpired(now) || current.future.isCompletedExceptionally() ? mine : current);
+        if (winner != mine) {
+            coalesced.increment();
+            return await(key, winner);
+        }
+
+        misses.increment();
+        evictIfFull();
+        try {
+            V value = loader.apply(key);
+            mine.complete(value, System.nanoTime() + ttlNanos);
+            return value;
+        } catch (RuntimeException e) {
+            mine.future.completeExceptionally(e);
+            entries.remove(key, mine);
+            throw e;
+        }
+    }
+
+    // get() for many keys at once. Every miss this caller claims is loaded by one batchLoader call;
+    // keys already in flight elsewhere are joined. Keys the loader returns nothing for are left out
+    // of the result and not cached.
+    public Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> batchLoader) {
+        long now = System.nanoTime();
+        Map<K, V> values = new HashMap<>();
+        Map<K, Entry<V>> claimed = new LinkedHashMap<>();
+        Map<K, Entry<V>> joined = new HashMap<>();
+        for (K key : keys) {
+            if (values.containsKey(key) || claimed.containsKey(key) || joined.containsKey(key)) {
+                continue;
+            }
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.isLoaded() && !entry.isExpired(now)) {
+                hits.increment();
+                values.put(key, entry.future.join());
+                continue;
+            }
+            Entry<V> mine = new Entry<>();
+            Entry<V> winner = entries.compute(key, (k, current) ->
+                    current == null || current.isExpired(now) || current.future.isCompletedExceptionally() ? mine : current);
+            if (winner == mine) {
+                misses.increment();
+                claimed.put(key, mine);
+            } else {
+                coalesced.increment();
+                joined.put(key, winner);
+            }
+        }
+
+        if (!claimed.isEmpty()) {
+            evictIfFull();
+            Map<K, V> loaded;
+            try {
+                loaded = batchLoader.apply(claimed.keySet());
+            } catch (RuntimeException e) {
+                claimed.forEach((key, entry) -> {
+                    entry.future.completeExceptionally(e);
+                    entries.remove(key, entry);
+                });
+                throw e;
+            }
+            long expiresAt = System.nanoTime() + ttlNanos;
+            claimed.forEach((key, entry) -> {
+                V value = loaded.get(key);
+                if (value != null) {
+                    entry.complete(value, expiresAt);
+                    values.put(key, value);
+                } else {
+                    entry.future.completeExceptionally(new MissingValueException(key));
+                    entries.remove(key, entry);
+                }
+            });
+        }
+
+        joined.forEach((key, entry) -> {
+            try {
+                values.put(key, await(key, entry));
+            } catch (MissingValueException e) {
+                // Absent for the batch that claimed it too
+            }
+        });
+        return values;
+    }
+
+    // A loaded, unexpired value or null; never loads and never waits on an in-flight load
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || !entry.isLoaded() || entry.isExpired(System.nanoTime())) {
+            return null;
+        }
+        hits.increment();
+        return entry.future.join();
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private V await(K key, Entry<V> entry) {
+        try {
+            return entry.future.get(loadTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for in-flight load of " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for in-flight load of " + key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    // Reloads a hot entry before it expires so readers never queue behind a miss
+    private void refreshAsync(K key, Entry<V> stale) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Entry<V> fresh = new Entry<>();
+                    fresh.complete(loader.apply(key), System.nanoTime() + ttlNanos);
+                    // Only replaces the entry it refreshed, so a concurrent invalidate wins
+                    if (entries.replace(key, stale, fresh)) {
+                        refreshes.increment();
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Refresh-ahead of {} failed, serving cached value until expiry", key, e);
+                    stale.refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.debug("Refresh-ahead of {} rejected by executor", key, e);
+            stale.refreshing.set(false);
+        }
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> candidate = iterator.next();
+            if (candidate.getValue().isLoaded()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    // Fails single-key callers that joined a batch load which found nothing for their key
+    public static final class MissingValueException extends RuntimeException {
+        MissingValueException(Object key) {
+            super("No value for " + key);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long expiresAt;
+
+        void complete(V value, long expiresAt) {
+            this.expiresAt = expiresAt;
+            future.complete(value);
+        }
+
+        boolean isLoaded() {
+            return future.isDone() && !future.isCompletedExceptionally();
+        }
+
+        // In-flight and failed entries never expire; callers join or replace them instead
+        boolean isExpired(long now) {
+            return isLoaded() && now - expiresAt >= 0;
+        }
+    }
+}
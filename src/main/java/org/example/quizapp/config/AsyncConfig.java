@@ -1,9 +1,31 @@
 package org.example.quizapp.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.quizapp.tracing.Tracer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @EnableAsync
 public class AsyncConfig {
+
+    // Picked up by the auto-configured @Async executor, whose queue depth is
+    // already exported as executor.queued{name="applicationTaskExecutor"}.
+    // The executor only applies a single TaskDecorator bean, so trace propagation is composed in here.
+    @Bean
+    public TaskDecorator queueWaitTaskDecorator(MeterRegistry meterRegistry, Tracer tracer) {
+        Timer queueWait = meterRegistry.timer("quiz.async.queue.wait");
+        return runnable -> {
+            long enqueuedAt = System.nanoTime();
+            return tracer.propagate(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                runnable.run();
+            });
+        };
+    }
 }
@@ -0,0 +1,64 @@
+package org.example.quizapp.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    // Static so it is registered before any other configuration class is instantiated
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans() {
+        return new LazyPackagesPostProcessor();
+    }
+
+    static class LazyPackagesPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+        private String[] lazyPackages = new String[0];
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            lazyPackages = environment.getProperty("startup.lazy-packages", String[].class, new String[0]);
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            if (lazyPackages.length == 0) {
+                return;
+            }
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String type = declaringType(beanFactory, definition);
+                if (type != null && isLazyPackage(type)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        }
+
+        // @Bean methods have no bean class of their own, so judge them by their configuration class
+        private String declaringType(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+            if (definition.getBeanClassName() != null) {
+                return definition.getBeanClassName();
+            }
+            String factoryBeanName = definition.getFactoryBeanName();
+            if (factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)) {
+                return beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName();
+            }
+            return null;
+        }
+
+        private boolean isLazyPackage(String type) {
+            for (String lazyPackage : lazyPackages) {
+                if (type.startsWith(lazyPackage + ".")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.quizapp.config;
+
+import org.example.quizapp.tracing.SlowQueryLog;
+import org.example.quizapp.tracing.Tracer;
+import org.example.quizapp.tracing.TracingDataSource;
+import org.example.quizapp.tracing.TracingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class TracingConfig {
+
+    // Ahead of the Spring Security filter chain (order -100)
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // Static so it is registered before the DataSource is created; the collaborators are looked up on first use
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(Environment environment, ObjectProvider<Tracer> tracer,
+                                                                   ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                boolean enabled = environment.getProperty("tracing.enabled", Boolean.class, true)
+                        || environment.getProperty("slow-query.enabled", Boolean.class, true);
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource) && enabled) {
+                    return new TracingDataSource(dataSource, tracer::getObject, slowQueryLog::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
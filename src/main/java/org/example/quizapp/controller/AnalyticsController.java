@@ -0,0 +1,36 @@
+package org.example.quizapp.controller;
+
+import org.example.quizapp.analytics.AttemptColumnStore.Dimension;
+import org.example.quizapp.dto.AttemptAnalyticsResponse;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.service.AttemptAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/analytics")
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsController {
+
+    @Autowired
+    private AttemptAnalyticsService analyticsService;
+
+    @GetMapping("/attempts")
+    public ResponseEntity<AttemptAnalyticsResponse> getAttemptAnalytics(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Quiz.Difficulty difficulty,
+            @RequestParam(required = false) Long quizId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Dimension> groupBy) {
+        return ResponseEntity.ok(analyticsService.query(category, difficulty, quizId, userId, from, to,
+                groupBy != null ? groupBy : List.of()));
+    }
+}
@@ -3,7 +3,9 @@ package org.example.quizapp.controller;
 import jakarta.validation.Valid;
 import org.example.quizapp.dto.AttemptRequest;
 import org.example.quizapp.dto.AttemptResponse;
+import org.example.quizapp.dto.AttemptSessionResponse;
 import org.example.quizapp.service.AttemptService;
+import org.example.quizapp.service.AttemptSessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,11 +16,36 @@ public class AttemptController {
     @Autowired
     private AttemptService attemptService;
 
+    @Autowired
+    private AttemptSessionService attemptSessionService;
+
+    // Starts a session with its own question sample and option order; submit with its sessionId
+    @PostMapping("/quizzes/{quizId}/sessions")
+    public ResponseEntity<AttemptSessionResponse> startSession(@PathVariable Long quizId) {
+        return ResponseEntity.ok(attemptSessionService.startSession(quizId));
+    }
+
+    @GetMapping("/quizzes/{quizId}/sessions/{sessionId}")
+    public ResponseEntity<AttemptSessionResponse> getSession(@PathVariable Long quizId, @PathVariable String sessionId) {
+        return ResponseEntity.ok(attemptSessionService.getSession(quizId, sessionId));
+    }
+
+    // Kept in memory with the session and only written to the database on submit
+    @PutMapping("/quizzes/{quizId}/sessions/{sessionId}/draft")
+    public ResponseEntity<Void> saveDraft(
+            @PathVariable Long quizId,
+            @PathVariable String sessionId,
+            @RequestBody AttemptRequest request) {
+        attemptSessionService.saveDraft(quizId, sessionId, request);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/quizzes/{quizId}/attempt")
     public ResponseEntity<AttemptResponse> submitAttempt(
             @PathVariable Long quizId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody AttemptRequest request) {
-        return ResponseEntity.ok(attemptService.submitAttempt(quizId, request));
+        return ResponseEntity.ok(attemptService.submitAttempt(quizId, request, idempotencyKey));
     }
 
     @GetMapping("/results/{attemptId}")
@@ -5,8 +5,13 @@ import org.example.quizapp.dto.AuthRequest;
 import org.example.quizapp.dto.AuthResponse;
 import org.example.quizapp.dto.RegisterRequest;
 import org.example.quizapp.service.AuthService;
+import org.example.quizapp.service.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -16,6 +21,9 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
         return ResponseEntity.ok(authService.register(request));
@@ -25,4 +33,22 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        tokenRevocationService.logout(authorization);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Token check for nginx's auth_request in front of cached quiz versions; the JWT filter has
+    // already rejected invalid and revoked tokens by leaving the request unauthenticated
+    @GetMapping("/check")
+    public ResponseEntity<Void> check() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,43 @@
+package org.example.quizapp.controller;
+
+import org.example.quizapp.dto.BulkJobRequest;
+import org.example.quizapp.dto.BulkJobResponse;
+import org.example.quizapp.service.BulkOperationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class BulkOperationController {
+
+    @Autowired
+    private BulkOperationService bulkOperationService;
+
+    @PostMapping("/quizzes/archive")
+    public ResponseEntity<BulkJobResponse> archiveQuizzes(@RequestBody BulkJobRequest request) {
+        return ResponseEntity.accepted().body(bulkOperationService.startArchive(request));
+    }
+
+    @PostMapping("/quizzes/delete")
+    public ResponseEntity<BulkJobResponse> deleteQuizzes(@RequestBody BulkJobRequest request) {
+        return ResponseEntity.accepted().body(bulkOperationService.startDelete(request));
+    }
+
+    @PostMapping("/attempts/purge")
+    public ResponseEntity<BulkJobResponse> purgeAttempts(@RequestBody BulkJobRequest request) {
+        return ResponseEntity.accepted().body(bulkOperationService.startPurge(request));
+    }
+
+    @GetMapping("/bulk-jobs/{jobId}")
+    public ResponseEntity<BulkJobResponse> getBulkJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(bulkOperationService.getJob(jobId));
+    }
+
+    @PostMapping("/bulk-jobs/{jobId}/resume")
+    public ResponseEntity<BulkJobResponse> resumeBulkJob(@PathVariable Long jobId) {
+        return ResponseEntity.accepted().body(bulkOperationService.resumeJob(jobId));
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.quizapp.controller;
+
+import org.example.quizapp.dto.LiveAnswerRequest;
+import org.example.quizapp.dto.LiveSessionRequest;
+import org.example.quizapp.dto.LiveSessionResponse;
+import org.example.quizapp.live.LiveEvents;
+import org.example.quizapp.live.LiveSubscriber;
+import org.example.quizapp.live.SseFrameSink;
+import org.example.quizapp.service.LiveSessionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/live/sessions")
+public class LiveSessionController {
+
+    @Autowired
+    private LiveSessionService liveSessionService;
+
+    @Value("${live.emitter-timeout-ms:3600000}")
+    private long emitterTimeoutMs;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LiveSessionResponse> createSession(@RequestBody LiveSessionRequest request) {
+        return ResponseEntity.ok(liveSessionService.createSession(request.getQuizId(), currentUsername()));
+    }
+
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<LiveSessionResponse> getSession(@PathVariable String sessionId) {
+        return ResponseEntity.ok(liveSessionService.getSession(sessionId));
+    }
+
+    // Joins the session and streams its events until it ends or the client disconnects
+    @GetMapping(value = "/{sessionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@PathVariable String sessionId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        LiveSubscriber subscriber = liveSessionService.subscribe(sessionId, currentUsername(), new SseFrameSink(emitter));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        return emitter;
+    }
+
+    @PostMapping("/{sessionId}/answers")
+    public ResponseEntity<Void> submitAnswer(@PathVariable String sessionId, @RequestBody LiveAnswerRequest request) {
+        liveSessionService.submitAnswer(sessionId, currentUsername(), request);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/{sessionId}/next")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LiveSessionResponse> nextQuestion(@PathVariable String sessionId) {
+        return ResponseEntity.ok(liveSessionService.nextQuestion(sessionId, currentUsername()));
+    }
+
+    @PostMapping("/{sessionId}/reveal")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LiveEvents.Results> revealQuestion(@PathVariable String sessionId) {
+        return ResponseEntity.ok(liveSessionService.revealQuestion(sessionId, currentUsername()));
+    }
+
+    @PostMapping("/{sessionId}/end")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LiveSessionResponse> endSession(@PathVariable String sessionId) {
+        return ResponseEntity.ok(liveSessionService.endSession(sessionId, currentUsername()));
+    }
+
+    private static String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
@@ -1,20 +1,30 @@
 package org.example.quizapp.controller;
 
 import jakarta.validation.Valid;
+import org.example.quizapp.dto.AnswerKeyRequest;
 import org.example.quizapp.dto.QuestionRequest;
+import org.example.quizapp.dto.QuizBatchRequest;
+import org.example.quizapp.dto.QuizBatchResponse;
 import org.example.quizapp.dto.QuizRequest;
 import org.example.quizapp.dto.QuizResponse;
+import org.example.quizapp.dto.QuizSearchResponse;
+import org.example.quizapp.encoding.EncodedPayload;
+import org.example.quizapp.encoding.PayloadFormat;
 import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.service.QuizSearchService;
 import org.example.quizapp.service.QuizService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/quizzes")
@@ -23,6 +33,9 @@ public class QuizController {
     @Autowired
     private QuizService quizService;
 
+    @Autowired
+    private QuizSearchService quizSearchService;
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Quiz> createQuiz(@Valid @RequestBody QuizRequest request) {
@@ -37,18 +50,73 @@ public class QuizController {
         return ResponseEntity.ok(quizService.addQuestionsToQuiz(quizId, questionRequests));
     }
 
+    // Publishes a new version; start a rescore to apply it to stored attempts
+    @PutMapping("/{quizId}/questions/{questionId}/answer-key")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Quiz> correctAnswerKey(
+            @PathVariable Long quizId,
+            @PathVariable Long questionId,
+            @Valid @RequestBody AnswerKeyRequest request) {
+        return ResponseEntity.ok(quizService.correctAnswerKey(quizId, questionId, request));
+    }
+
     @GetMapping
     public ResponseEntity<Page<QuizResponse>> getQuizzes(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Quiz.Difficulty difficulty,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "5") int size) {
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(required = false) String fields) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(quizService.getQuizzes(category, difficulty, pageable));
+        return ResponseEntity.ok(quizService.getQuizzes(category, difficulty, fields, pageable));
+    }
+
+    // One round trip for a page of quiz cards, e.g. GET /quizzes?ids=3,1,2
+    @GetMapping(params = "ids")
+    public ResponseEntity<QuizBatchResponse> getQuizzesByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(quizService.getQuizzesByIds(ids, fields));
+    }
+
+    // Same as ?ids= for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<QuizBatchResponse> getQuizBatch(@Valid @RequestBody QuizBatchRequest request) {
+        return ResponseEntity.ok(quizService.getQuizzesByIds(request.getIds(), request.getFields()));
+    }
+
+    // Ranked full-text search over titles, categories and question text, e.g. GET /quizzes/search?q=java stre
+    @GetMapping("/search")
+    public ResponseEntity<QuizSearchResponse> searchQuizzes(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(quizSearchService.search(q, limit));
     }
 
     @GetMapping("/{quizId}")
-    public ResponseEntity<QuizResponse> getQuizById(@PathVariable Long quizId) {
-        return ResponseEntity.ok(quizService.getQuizById(quizId));
+    public ResponseEntity<QuizResponse> getQuizById(
+            @PathVariable Long quizId,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(quizService.getQuizById(quizId, fields));
+    }
+
+    // Versions never change, so browsers, nginx and CDNs may keep them indefinitely. The body is
+    // served from bytes encoded and gzipped once per format; the schema is QuizResponse.
+    @GetMapping("/{quizId}/versions/{versionId}")
+    public ResponseEntity<byte[]> getQuizVersion(
+            @PathVariable Long quizId,
+            @PathVariable Long versionId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EncodedPayload payload = quizService.getQuizVersionPayload(quizId, versionId, PayloadFormat.negotiate(accept));
+        boolean gzipped = payload.servesGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(payload.format().mediaType());
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(payload.body(gzipped));
     }
 }
@@ -0,0 +1,32 @@
+package org.example.quizapp.controller;
+
+import org.example.quizapp.dto.RescoreJobResponse;
+import org.example.quizapp.service.RescoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class RescoreController {
+
+    @Autowired
+    private RescoreService rescoreService;
+
+    @PostMapping("/quizzes/{quizId}/rescore")
+    public ResponseEntity<RescoreJobResponse> startRescore(@PathVariable Long quizId) {
+        return ResponseEntity.accepted().body(rescoreService.startJob(quizId));
+    }
+
+    @GetMapping("/rescore-jobs/{jobId}")
+    public ResponseEntity<RescoreJobResponse> getRescoreJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(rescoreService.getJob(jobId));
+    }
+
+    @PostMapping("/rescore-jobs/{jobId}/resume")
+    public ResponseEntity<RescoreJobResponse> resumeRescoreJob(@PathVariable Long jobId) {
+        return ResponseEntity.accepted().body(rescoreService.resumeJob(jobId));
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.quizapp.controller;
+
+import org.example.quizapp.dto.RevokeTokenRequest;
+import org.example.quizapp.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/tokens")
+@PreAuthorize("hasRole('ADMIN')")
+public class TokenRevocationController {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeToken(@RequestBody RevokeTokenRequest request) {
+        tokenRevocationService.revoke(request);
+        return ResponseEntity.noContent().build();
+    }
+}
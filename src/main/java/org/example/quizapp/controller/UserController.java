@@ -0,0 +1,40 @@
+package org.example.quizapp.controller;
+
+import org.example.quizapp.dto.RecommendationResponse;
+import org.example.quizapp.dto.UserProgressRebuildResponse;
+import org.example.quizapp.dto.UserProgressSummaryResponse;
+import org.example.quizapp.service.RecommendationService;
+import org.example.quizapp.service.UserProgressService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+public class UserController {
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @GetMapping("/users/me/summary")
+    public ResponseEntity<UserProgressSummaryResponse> getMySummary() {
+        return ResponseEntity.ok(userProgressService.getCurrentUserSummary());
+    }
+
+    @GetMapping("/users/me/recommendations")
+    public ResponseEntity<List<RecommendationResponse>> getMyRecommendations() {
+        return ResponseEntity.ok(recommendationService.getCurrentUserRecommendations());
+    }
+
+    // Recomputes summaries from the attempts table: for backfills and after bulk attempt changes
+    @PostMapping("/admin/users/progress/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserProgressRebuildResponse> rebuildProgress(@RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(userProgressService.rebuild(userId));
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.quizapp.controller;
+
+import org.example.quizapp.dto.DeadLetterReplayResponse;
+import org.example.quizapp.service.AttemptWriteBehindService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class WriteBehindController {
+
+    @Autowired
+    private AttemptWriteBehindService writeBehindService;
+
+    // Retries the journaled attempts the writer could not insert; those that still fail stay
+    @PostMapping("/attempt-dead-letters/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replayDeadLetters() {
+        return ResponseEntity.ok(writeBehindService.replayDeadLetters());
+    }
+}
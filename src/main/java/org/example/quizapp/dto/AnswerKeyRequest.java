@@ -0,0 +1,31 @@
+package org.example.quizapp.dto;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerKeyRequest {
+
+    private Integer correctAnswerIndex; // Single-choice questions
+
+    private List<Integer> correctAnswerIndexes; // Makes the question multi-select
+
+    @Positive(message = "Weight must be positive")
+    private Double weight;
+
+    private Boolean partialCredit;
+
+    @PositiveOrZero(message = "Negative mark must not be negative")
+    private Double negativeMark;
+
+    // Single-choice correction worth one point
+    public AnswerKeyRequest(Integer correctAnswerIndex) {
+        this(correctAnswerIndex, null, null, null, null);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.quizapp.entity.Quiz;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptAnalyticsGroup {
+    private String category;
+    private Quiz.Difficulty difficulty;
+    private Long quizId;
+    private LocalDate periodStart;
+    private Long attempts;
+    private Double averageScore;
+    private Double minScore;
+    private Double maxScore;
+}
@@ -0,0 +1,17 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptAnalyticsResponse {
+    private Long rowsScanned;
+    private Long storeMemoryBytes;
+    private Integer bytesPerRow;
+    private Long elapsedMillis;
+    private List<AttemptAnalyticsGroup> groups;
+}
@@ -1,16 +1,21 @@
 package org.example.quizapp.dto;
 
-import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.List;
 import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AttemptRequest {
-    
-    @NotNull(message = "Answers are required")
+
     private Map<Long, Integer> answers; // questionId -> selectedAnswerIndex
+
+    private Map<Long, List<Integer>> selections; // questionId -> selected indexes, for multi-select questions
+
+    private Long quizVersionId; // Version the answers were given for; must be the current one if set
+
+    private String sessionId; // Attempt session the answers belong to, in its presented option order
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -12,10 +13,14 @@ import java.util.Map;
 public class AttemptResponse {
     private Long id;
     private Long quizId;
+    private Long quizVersionId;
     private String quizTitle;
     private Double score;
     private Integer totalQuestions;
     private Integer correctAnswers;
     private LocalDateTime submittedAt;
     private Map<Long, Integer> userAnswers; // questionId -> selectedAnswerIndex
+    private Map<Long, List<Integer>> userSelections; // questionId -> selected indexes, for multi-select questions
+    private Double points;
+    private Double maxPoints;
 }
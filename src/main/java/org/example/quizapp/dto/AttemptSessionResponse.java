@@ -0,0 +1,25 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptSessionResponse {
+    private String sessionId;
+    private Long quizId;
+    private Long quizVersionId;
+    private String quizTitle;
+    private LocalDateTime expiresAt;
+    private List<QuestionResponse> questions; // Sampled questions with their options in presented order
+    private Map<Long, Integer> draftAnswers; // Saved so far, as option indexes in presented order
+    private Map<Long, List<Integer>> draftSelections;
+    private LocalDateTime deadline; // Timed quizzes only; answers are submitted automatically after it
+    private Long remainingMs; // Time left by the server clock, so client clock skew does not matter
+}
@@ -0,0 +1,15 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJobRequest {
+    private List<Long> quizIds; // Archive and delete: explicit targets...
+    private Boolean allArchived; // ...or, for delete, every archived quiz
+    private Integer olderThanDays; // Purge: attempts submitted before now minus this many days
+}
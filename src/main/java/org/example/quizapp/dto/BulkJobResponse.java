@@ -0,0 +1,25 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.quizapp.entity.BulkJob;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJobResponse {
+    private Long id;
+    private BulkJob.Type type;
+    private BulkJob.Status status;
+    private Integer quizCount;
+    private LocalDateTime olderThan;
+    private String currentStep;
+    private Long processedRows;
+    private Long totalRows;
+    private Double progressPercent;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String errorMessage;
+}
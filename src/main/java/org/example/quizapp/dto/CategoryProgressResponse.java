@@ -0,0 +1,17 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryProgressResponse {
+    private String category;
+    private Long attempts;
+    private Double averageScore;
+    private Double bestScore;
+    private LocalDate lastAttemptDate;
+}
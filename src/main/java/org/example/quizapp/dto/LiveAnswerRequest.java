@@ -0,0 +1,13 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveAnswerRequest {
+    private Long questionId;
+    private Integer answerIndex;
+}
@@ -0,0 +1,21 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveSessionResponse {
+    private String id;
+    private Long quizId;
+    private String quizTitle;
+    private String host;
+    private String state;
+    private Integer questionIndex;
+    private Integer totalQuestions;
+    private Integer participants;
+    private Integer connected;
+    private Integer answered;
+}
@@ -2,7 +2,8 @@ package org.example.quizapp.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +20,20 @@ public class QuestionRequest {
     @NotEmpty(message = "Options are required")
     private List<String> options;
     
-    @NotNull(message = "Correct answer index is required")
-    private Integer correctAnswerIndex;
+    private Integer correctAnswerIndex; // Single-choice questions
+
+    private List<Integer> correctAnswerIndexes; // Makes the question multi-select
+
+    @Positive(message = "Weight must be positive")
+    private Double weight;
+
+    private Boolean partialCredit;
+
+    @PositiveOrZero(message = "Negative mark must not be negative")
+    private Double negativeMark;
+
+    // Single-choice question worth one point
+    public QuestionRequest(String text, List<String> options, Integer correctAnswerIndex) {
+        this(text, options, correctAnswerIndex, null, null, null, null);
+    }
 }
@@ -12,5 +12,6 @@ public class QuestionResponse {
     private Long id;
     private String text;
     private List<String> options;
+    private Boolean multipleSelect;
     // Note: correctAnswerIndex is intentionally excluded from response for users
 }
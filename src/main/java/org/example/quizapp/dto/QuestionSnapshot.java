@@ -0,0 +1,25 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionSnapshot {
+    private Long id;
+    private String text;
+    private List<String> options;
+    private Integer correctAnswerIndex;
+    private Long correctAnswerMask; // Null for single-choice questions
+    private Double weight;
+    private Boolean partialCredit;
+    private Double negativeMark;
+
+    // Single-choice question worth one point
+    public QuestionSnapshot(Long id, String text, List<String> options, Integer correctAnswerIndex) {
+        this(id, text, options, correctAnswerIndex, null, null, null, null);
+    }
+}
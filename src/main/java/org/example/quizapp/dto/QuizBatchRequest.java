@@ -0,0 +1,20 @@
+package org.example.quizapp.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizBatchRequest {
+
+    @NotEmpty(message = "At least one quiz ID is required")
+    private List<@NotNull(message = "Quiz IDs cannot be null") Long> ids;
+
+    private String fields; // Optional, as in GET /quizzes/{quizId}?fields=
+}
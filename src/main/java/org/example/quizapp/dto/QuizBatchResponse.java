@@ -0,0 +1,15 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizBatchResponse {
+    private List<QuizResponse> quizzes; // In the order requested, each ID once
+    private List<Long> missingIds;
+}
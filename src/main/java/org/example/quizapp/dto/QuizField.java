@@ -0,0 +1,57 @@
+package org.example.quizapp.dto;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// QuizResponse fields a client can ask for with fields=, e.g. fields=id,title,questionCount
+public enum QuizField {
+    ID("id"),
+    TITLE("title"),
+    CATEGORY("category"),
+    DIFFICULTY("difficulty"),
+    CREATED_DATE("createdDate"),
+    VERSION_ID("versionId"),
+    TIME_LIMIT_SECONDS("timeLimitSeconds"),
+    SESSION_QUESTION_COUNT("sessionQuestionCount"),
+    QUESTION_COUNT("questionCount"),
+    QUESTIONS("questions");
+
+    private final String jsonName;
+
+    QuizField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    // Null when no fields were asked for, meaning the full default response
+    public static Set<QuizField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<QuizField> parsed = EnumSet.noneOf(QuizField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(byJsonName(trimmed));
+        }
+        if (parsed.isEmpty()) {
+            throw new RuntimeException("At least one field is required");
+        }
+        return parsed;
+    }
+
+    private static QuizField byJsonName(String name) {
+        for (QuizField field : values()) {
+            if (field.jsonName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new RuntimeException("Unknown field: " + name.toLowerCase(Locale.ROOT));
+    }
+}
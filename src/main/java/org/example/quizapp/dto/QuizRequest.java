@@ -2,6 +2,7 @@ package org.example.quizapp.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,4 +21,19 @@ public class QuizRequest {
     
     @NotNull(message = "Difficulty is required")
     private Quiz.Difficulty difficulty;
+
+    @Positive(message = "Time limit must be positive")
+    private Integer timeLimitSeconds; // Optional; attempt sessions are then timed
+
+    @Positive(message = "Session question count must be positive")
+    private Integer sessionQuestionCount; // Optional; attempt sessions then sample this many questions
+
+    // Untimed quiz
+    public QuizRequest(String title, String category, Quiz.Difficulty difficulty) {
+        this(title, category, difficulty, null, null);
+    }
+
+    public QuizRequest(String title, String category, Quiz.Difficulty difficulty, Integer timeLimitSeconds) {
+        this(title, category, difficulty, timeLimitSeconds, null);
+    }
 }
@@ -1,5 +1,6 @@
 package org.example.quizapp.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,9 +8,11 @@ import org.example.quizapp.entity.Quiz;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Fields left out by a fields= request stay null and are not written at all
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class QuizResponse {
     private Long id;
     private String title;
@@ -17,4 +20,8 @@ public class QuizResponse {
     private Quiz.Difficulty difficulty;
     private LocalDateTime createdDate;
     private List<QuestionResponse> questions;
+    private Long versionId; // Immutable version with this content; fetch it from /quizzes/{id}/versions/{versionId}
+    private Integer questionCount; // Only when asked for with fields=
+    private Integer timeLimitSeconds; // Null for untimed quizzes
+    private Integer sessionQuestionCount; // Questions per attempt session; null for all of them
 }
@@ -0,0 +1,16 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizSearchResponse {
+    private String query;
+    private Integer total; // Quizzes matching every term, of which the best `limit` are returned
+    private List<QuizSearchHit> hits;
+}
@@ -0,0 +1,25 @@
+package org.example.quizapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.quizapp.entity.Quiz;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Everything a quiz version freezes, including the answer key; never returned to clients as is
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizVersionContent {
+    @JsonIgnore
+    private Long versionId; // From the row, not stored in the JSON
+    private Long quizId;
+    private Integer versionNumber;
+    private String title;
+    private String category;
+    private Quiz.Difficulty difficulty;
+    private LocalDateTime createdDate;
+    private List<QuestionSnapshot> questions;
+}
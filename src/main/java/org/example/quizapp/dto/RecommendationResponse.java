@@ -0,0 +1,17 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.quizapp.entity.Quiz;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationResponse {
+    private Long quizId;
+    private String title;
+    private String category;
+    private Quiz.Difficulty difficulty;
+    private String reason;
+}
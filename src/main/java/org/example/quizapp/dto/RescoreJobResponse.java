@@ -0,0 +1,24 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.quizapp.entity.RescoreJob;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescoreJobResponse {
+    private Long id;
+    private Long quizId;
+    private RescoreJob.Status status;
+    private Long processedAttempts;
+    private Long changedAttempts;
+    private Long totalAttempts;
+    private Double progressPercent;
+    private Long lastAttemptId;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String errorMessage;
+}
@@ -0,0 +1,15 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokeTokenRequest {
+    private String token; // Either the full token...
+    private String tokenId; // ...or its jti claim together with its expiry
+    private LocalDateTime expiresAt;
+}
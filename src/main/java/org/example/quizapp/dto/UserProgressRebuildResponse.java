@@ -0,0 +1,15 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProgressRebuildResponse {
+    private Long users;
+    private Long attempts;
+    private Long summaryRows;
+    private Long elapsedMillis;
+}
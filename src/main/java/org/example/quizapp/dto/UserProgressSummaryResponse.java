@@ -0,0 +1,22 @@
+package org.example.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProgressSummaryResponse {
+    private String username;
+    private Long totalAttempts;
+    private Double averageScore;
+    private Double bestScore;
+    private Integer currentStreak;
+    private Integer longestStreak;
+    private LocalDate lastAttemptDate;
+    private List<CategoryProgressResponse> categories = new ArrayList<>();
+}
@@ -0,0 +1,36 @@
+package org.example.quizapp.encoding;
+
+// A response body serialized once, with its gzip variant when that is smaller
+public record EncodedPayload(PayloadFormat format, byte[] identity, byte[] gzip) {
+
+    public boolean servesGzip(String acceptEncoding) {
+        return gzip != null && acceptsGzip(acceptEncoding);
+    }
+
+    public byte[] body(boolean gzipped) {
+        return gzipped ? gzip : identity;
+    }
+
+    // An explicit gzip entry decides; otherwise a "*" entry does
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean any = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                accepted &= !parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?");
+            }
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = accepted;
+            } else if (name.equals("*")) {
+                any = accepted;
+            }
+        }
+        return gzip != null ? gzip : any;
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.quizapp.encoding;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Serializes payloads that are served many times unchanged, compressing them once at the highest
+// gzip level instead of at nginx's level 6 on every response
+@Component
+public class PayloadEncoder {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public EncodedPayload encode(Object value, PayloadFormat format) {
+        String formatTag = format.name().toLowerCase(Locale.ROOT);
+        Timer.Sample encodeSample = Timer.start(meterRegistry);
+        byte[] identity;
+        try {
+            identity = mapper(format).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error encoding payload", e);
+        }
+        encodeSample.stop(meterRegistry.timer("quiz.payload.encode", "format", formatTag));
+
+        Timer.Sample compressSample = Timer.start(meterRegistry);
+        byte[] gzip = gzip(identity);
+        compressSample.stop(meterRegistry.timer("quiz.payload.compress", "format", formatTag));
+
+        recordSize(formatTag, "identity", identity.length);
+        recordSize(formatTag, "gzip", gzip.length);
+        return new EncodedPayload(format, identity, gzip.length < identity.length ? gzip : null);
+    }
+
+    ObjectMapper mapper(PayloadFormat format) {
+        return switch (format) {
+            case JSON -> objectMapper;
+            case SMILE -> smileConverter.getObjectMapper();
+            case CBOR -> cborConverter.getObjectMapper();
+        };
+    }
+
+    private void recordSize(String format, String encoding, int bytes) {
+        DistributionSummary.builder("quiz.payload.size")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .tag("encoding", encoding)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.quizapp.encoding;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+// Representations a client can ask for with Accept. Smile and CBOR carry the same model as JSON in
+// binary, with numbers unformatted and repeated field names sent by reference.
+public enum PayloadFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    PayloadFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    // Highest quality wins, an exact type beating a wildcard at the same quality; wildcards, missing
+    // or unparseable headers get JSON
+    public static PayloadFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        PayloadFormat best = JSON;
+        double bestRank = -1;
+        try {
+            for (MediaType requested : MediaType.parseMediaTypes(accept)) {
+                boolean wildcard = requested.isWildcardType() || requested.isWildcardSubtype();
+                for (PayloadFormat format : values()) {
+                    if ((wildcard && format != JSON) || !requested.includes(format.mediaType)) {
+                        continue;
+                    }
+                    double rank = requested.getQualityValue() * 2 + (wildcard ? 0 : 1);
+                    if (requested.getQualityValue() > 0 && rank > bestRank) {
+                        best = format;
+                        bestRank = rank;
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        return best;
+    }
+}
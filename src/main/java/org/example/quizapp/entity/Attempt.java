@@ -4,17 +4,25 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.example.quizapp.scoring.AnswerSheetConverter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attempts")
+@Table(name = "attempts", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_attempts_submitted_at", columnList = "submitted_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Attempt {
     
+    // Sequence-backed so write-behind submissions can reserve IDs before the row exists
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attempts_seq")
+    @SequenceGenerator(name = "attempts_seq", sequenceName = "attempts_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -25,15 +33,33 @@ public class Attempt {
     @JoinColumn(name = "quiz_id", nullable = false)
     private Quiz quiz;
     
+    // Version the attempt was scored against; null for attempts from before quiz versions
+    @Column(name = "quiz_version_id")
+    private Long quizVersionId;
+    
     @Column(nullable = false)
     private Double score;
     
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String answers; // Stored as JSON string
+    @Column(columnDefinition = "TEXT")
+    private String answers; // Legacy JSON answers, cleared once migrated to answers_bin
+
+    @Convert(converter = AnswerSheetConverter.class)
+    @Column(name = "answers_bin", length = 1_000_000)
+    private AnswerSheet answerSheet; // Stored in the compact AnswerCodec format
     
     @Column(nullable = false)
     private LocalDateTime submittedAt;
     
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey; // Client supplied Idempotency-Key header
+    
+    // Attempts from a session were scored on the questions its seed sampled; null otherwise
+    @Column(name = "session_seed")
+    private Long sessionSeed;
+    
+    @Column(name = "session_questions")
+    private Integer sessionQuestions;
+    
     @PrePersist
     protected void onCreate() {
         submittedAt = LocalDateTime.now();
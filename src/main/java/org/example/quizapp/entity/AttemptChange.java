@@ -0,0 +1,27 @@
+package org.example.quizapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Marks that attempts were changed outside the regular insert path: rescored, deleted, purged, or
+// inserted long after they were submitted. Every instance reloads its analytics store on a new row.
+@Entity
+@Table(name = "attempt_changes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 100)
+    private String reason;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,36 @@
+package org.example.quizapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A journaled attempt the write-behind writer could not insert, e.g. because its quiz was deleted
+// first. Kept with its full journal entry so it can be replayed once the cause is fixed.
+@Entity
+@Table(name = "attempt_dead_letters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptDeadLetter {
+    
+    @Id
+    @Column(name = "attempt_id")
+    private Long attemptId;
+    
+    @Column(nullable = false)
+    private String username;
+    
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+    
+    @Column(nullable = false, length = 1_000_000)
+    private byte[] entry; // JournalEntry encoding
+    
+    @Column(length = 1000)
+    private String reason;
+    
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,44 @@
+package org.example.quizapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.example.quizapp.scoring.AnswerSheetConverter;
+
+// A timed attempt session that has not been submitted yet. Sessions otherwise live in memory only;
+// timed ones are kept here too, so they can still be auto-submitted after a restart.
+@Entity
+@Table(name = "attempt_deadlines")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptDeadline {
+    
+    @Id
+    @Column(name = "session_id", length = 32)
+    private String sessionId;
+    
+    @Column(nullable = false)
+    private String username;
+    
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+    
+    @Column(name = "quiz_version_id", nullable = false)
+    private Long quizVersionId;
+    
+    @Column(nullable = false)
+    private Long seed;
+    
+    @Column(name = "question_count", nullable = false)
+    private Integer questionCount;
+    
+    @Column(name = "deadline_at", nullable = false)
+    private Long deadlineAt; // Epoch millis by the server clock
+    
+    @Convert(converter = AnswerSheetConverter.class)
+    @Column(name = "draft_bin", length = 1_000_000)
+    private AnswerSheet draft; // In the presented option order
+}
@@ -0,0 +1,66 @@
+package org.example.quizapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "bulk_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    @Column(columnDefinition = "TEXT")
+    private String quizIds; // Comma-separated targets of ARCHIVE_QUIZZES and DELETE_QUIZZES
+    
+    private LocalDateTime olderThan; // Cutoff of PURGE_ATTEMPTS
+    
+    private String currentStep; // Table being processed
+    
+    @Column(nullable = false)
+    private Long lastId = 0L; // Checkpoint: every quiz (or, when purging, attempt) up to this ID is done
+    
+    @Column(nullable = false)
+    private Long processedRows = 0L;
+    
+    @Column(nullable = false)
+    private Long totalRows = 0L;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    private LocalDateTime finishedAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    public enum Type {
+        ARCHIVE_QUIZZES, DELETE_QUIZZES, PURGE_ATTEMPTS
+    }
+    
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
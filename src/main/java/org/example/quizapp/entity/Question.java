@@ -27,5 +27,18 @@ public class Question {
     private String options; // Stored as JSON string array
     
     @Column(nullable = false)
-    private Integer correctAnswerIndex;
+    private Integer correctAnswerIndex; // Lowest correct option for multi-select questions
+    
+    // Bit i set when option i is correct; null for single-choice questions
+    @Column(name = "correct_answer_mask")
+    private Long correctAnswerMask;
+    
+    @Column(name = "weight")
+    private Double weight; // Points for a correct answer, 1 when null
+    
+    @Column(name = "partial_credit")
+    private Boolean partialCredit; // Multi-select: credit for a partly correct selection
+    
+    @Column(name = "negative_mark")
+    private Double negativeMark; // Points deducted for a wrong answer
 }
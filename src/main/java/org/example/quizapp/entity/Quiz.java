@@ -32,6 +32,22 @@ public class Quiz {
     @Column(nullable = false)
     private LocalDateTime createdDate;
     
+    // Archived quizzes are hidden from listings and take no new attempts
+    @Column(nullable = false)
+    private Boolean archived = false;
+    
+    // Latest published QuizVersion; new attempts are scored against it
+    @Column(name = "current_version_id")
+    private Long currentVersionId;
+    
+    // Sessions on a timed quiz are submitted automatically when the time runs out; null for no limit
+    @Column(name = "time_limit_seconds")
+    private Integer timeLimitSeconds;
+    
+    // Questions sampled for each attempt session; null for all of them. Set by the quiz author, never the taker
+    @Column(name = "session_question_count")
+    private Integer sessionQuestionCount;
+    
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Question> questions = new ArrayList<>();
     
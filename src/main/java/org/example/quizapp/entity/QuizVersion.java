@@ -0,0 +1,41 @@
+package org.example.quizapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+
+// Published snapshot of a quiz and its answer key. Never updated: changing a quiz publishes a new version.
+@Entity
+@Immutable
+@Table(name = "quiz_versions", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"quiz_id", "version_number"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Column(name = "version_number", nullable = false)
+    private Integer versionNumber;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content; // QuizVersionContent as JSON
+
+    @Column(nullable = false)
+    private LocalDateTime publishedDate;
+
+    @PrePersist
+    protected void onCreate() {
+        publishedDate = LocalDateTime.now();
+    }
+}
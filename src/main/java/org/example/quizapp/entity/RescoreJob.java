@@ -0,0 +1,57 @@
+package org.example.quizapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "rescore_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescoreJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long quizId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    @Column(nullable = false)
+    private Long lastAttemptId = 0L; // Checkpoint: every attempt up to this ID is rescored
+    
+    @Column(nullable = false)
+    private Long processedAttempts = 0L;
+    
+    @Column(nullable = false)
+    private Long changedAttempts = 0L;
+    
+    @Column(nullable = false)
+    private Long totalAttempts = 0L;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    private LocalDateTime finishedAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
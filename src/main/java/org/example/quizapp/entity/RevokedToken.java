@@ -0,0 +1,37 @@
+package org.example.quizapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true, length = 36)
+    private String tokenId; // jti claim
+    
+    private String username;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt; // Row can be purged after this
+    
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+    
+    private String revokedBy;
+    
+    @PrePersist
+    protected void onCreate() {
+        revokedAt = LocalDateTime.now();
+    }
+}
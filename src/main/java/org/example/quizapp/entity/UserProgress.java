@@ -0,0 +1,54 @@
+package org.example.quizapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "user_progress")
+@IdClass(UserProgress.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProgress {
+    
+    // Category value of the row holding a user's totals across all categories
+    public static final String OVERALL = "*";
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Id
+    @Column(nullable = false)
+    private String category;
+    
+    @Column(nullable = false)
+    private Long attempts;
+    
+    @Column(nullable = false)
+    private Double totalScore;
+    
+    @Column(nullable = false)
+    private Double bestScore;
+    
+    @Column(nullable = false)
+    private LocalDate lastAttemptDate;
+    
+    @Column(nullable = false)
+    private Integer currentStreak; // Consecutive days with an attempt, ending at lastAttemptDate
+    
+    @Column(nullable = false)
+    private Integer longestStreak;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String category;
+    }
+}
@@ -0,0 +1,518 @@
+package org.example.quizapp.fixtures;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.quizapp.dto.QuestionSnapshot;
+import org.example.quizapp.dto.QuizVersionContent;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.scoring.AnswerCodec;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.example.quizapp.scoring.ScoringPlan;
+import org.example.quizapp.service.RecommendationService;
+import org.example.quizapp.service.UserProgressService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Seeded bulk data for performance work (run with the "fixtures" profile, see DEPLOYMENT.md). Quiz
+// popularity and user activity are Zipfian and question counts skew short. Every partition of rows
+// draws from its own generator derived from the seed, so a seed always produces the same data,
+// whatever the thread count. Rows go in as multi-row INSERTs, one transaction per partition.
+@Component
+@Profile("fixtures")
+public class FixtureGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureGenerator.class);
+
+    private static final int ROWS_PER_INSERT = 100;
+    private static final int STATEMENTS_PER_BATCH = 10;
+    private static final int ID_BLOCK_SIZE = 50; // allocationSize of attempts_seq
+    private static final double UNANSWERED_RATIO = 0.03;
+    private static final double ARCHIVED_RATIO = 0.02;
+
+    // Independent random streams per kind of row
+    private static final int QUIZ_SHAPES = 0;
+    private static final int USERS = 1;
+    private static final int QUIZZES = 2;
+    private static final int ATTEMPTS = 3;
+
+    private static final String[] CATEGORIES = {
+            "Programming", "Mathematics", "Science", "History", "Geography", "Literature", "Music", "Sports"};
+    private static final String[][] TOPICS = {
+            {"Java", "Python", "SQL", "Spring", "Concurrency", "Algorithms", "Git", "Docker"},
+            {"Algebra", "Geometry", "Calculus", "Probability", "Statistics", "Trigonometry", "Number Theory", "Logic"},
+            {"Physics", "Chemistry", "Biology", "Astronomy", "Genetics", "Ecology", "Optics", "Thermodynamics"},
+            {"Ancient Rome", "Renaissance", "World War II", "Cold War", "Industrial Revolution", "Ancient Egypt",
+                    "Middle Ages", "French Revolution"},
+            {"Capitals", "Rivers", "Mountains", "Oceans", "Deserts", "Islands", "Climate", "Borders"},
+            {"Shakespeare", "Poetry", "Mythology", "Novels", "Drama", "Fairy Tales", "Classics", "Authors"},
+            {"Jazz", "Classical", "Rock", "Instruments", "Opera", "Music Theory", "Composers", "Film Scores"},
+            {"Football", "Tennis", "Olympics", "Cricket", "Basketball", "Chess", "Cycling", "Formula One"}};
+    private static final String[] TITLE_SUFFIXES = {
+            "Basics", "Essentials", "Fundamentals", "Challenge", "Deep Dive", "Practice", "Masterclass", "Trivia",
+            "Review", "Quick Quiz"};
+    private static final String[] ADJECTIVES = {
+            "common", "famous", "early", "key", "basic", "advanced", "typical", "notable", "modern", "classic"};
+    private static final String[] NOUNS = {"statement", "fact", "claim", "example", "definition", "property"};
+    private static final List<String> SINGLE_OPTIONS = List.of("Option A", "Option B", "Option C", "Option D");
+    private static final List<String> MULTI_OPTIONS = List.of("Option A", "Option B", "Option C", "Option D", "Option E");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Value("${fixtures.on-startup:true}")
+    private boolean onStartup;
+
+    @Value("${fixtures.seed:42}")
+    private long seed;
+
+    @Value("${fixtures.users:100000}")
+    private int users;
+
+    @Value("${fixtures.quizzes:10000}")
+    private int quizzes;
+
+    @Value("${fixtures.attempts:1000000}")
+    private long attempts;
+
+    @Value("${fixtures.min-questions:5}")
+    private int minQuestions;
+
+    @Value("${fixtures.max-questions:40}")
+    private int maxQuestions;
+
+    @Value("${fixtures.multi-select-ratio:0.1}")
+    private double multiSelectRatio;
+
+    @Value("${fixtures.quiz-popularity-exponent:1.0}")
+    private double quizPopularityExponent;
+
+    @Value("${fixtures.user-activity-exponent:0.8}")
+    private double userActivityExponent;
+
+    @Value("${fixtures.days:180}")
+    private int days;
+
+    @Value("${fixtures.threads:4}")
+    private int threads;
+
+    @Value("${fixtures.partition-size:50000}")
+    private int partitionSize;
+
+    @Value("${fixtures.password:password}")
+    private String password;
+
+    @Value("${fixtures.rebuild-derived:true}")
+    private boolean rebuildDerived;
+
+    private boolean postgres;
+
+    public record Summary(long firstUserId, long firstQuizId, long firstQuestionId, long firstAttemptId, int users,
+                          int quizzes, long questions, long attempts, long elapsedMs) {
+    }
+
+    // Shapes of the generated quizzes, kept in memory for the attempt phase
+    private record Catalog(int[] questionStart, long firstQuestionId, long[] correctMasks, byte[] difficulties,
+                           ScoringPlan[] scoringPlans, long firstQuizId, long firstVersionId) {
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask {
+        void run(Connection connection, SplittableRandom random, long from, long to) throws Exception;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateOnStartup() {
+        if (onStartup) {
+            generate();
+        }
+    }
+
+    public Summary generate() {
+        long start = System.currentTimeMillis();
+        logger.info("Generating fixtures with seed {}: {} users, {} quizzes, {} attempts", seed, users, quizzes, attempts);
+        LocalDateTime anchor = LocalDate.now().atStartOfDay();
+        postgres = isPostgres();
+
+        // Question counts first, so every quiz partition knows where its question ids start
+        SplittableRandom shapes = random(QUIZ_SHAPES, 0);
+        int[] questionStart = new int[quizzes + 1];
+        for (int quiz = 0; quiz < quizzes; quiz++) {
+            double skew = shapes.nextDouble();
+            questionStart[quiz + 1] = questionStart[quiz] + minQuestions
+                    + (int) ((maxQuestions - minQuestions + 1) * skew * skew);
+        }
+        int questions = questionStart[quizzes];
+
+        // Id ranges are reserved up front, so concurrent writers allocate past them
+        long firstUserId = reserveIdentity("users", users);
+        long firstQuizId = reserveIdentity("quizzes", quizzes);
+        long firstQuestionId = reserveIdentity("questions", questions);
+        long firstVersionId = reserveIdentity("quiz_versions", quizzes);
+        long firstAttemptId = reserveAttemptIds(attempts);
+
+        Catalog catalog = new Catalog(questionStart, firstQuestionId, new long[questions], new byte[quizzes],
+                new ScoringPlan[quizzes], firstQuizId, firstVersionId);
+        String passwordHash = passwordEncoder.encode(password);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fixtures-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            runPartitions(pool, USERS, users, (connection, random, from, to) ->
+                    insertUsers(connection, firstUserId, passwordHash, from, to));
+            runPartitions(pool, QUIZZES, quizzes, (connection, random, from, to) ->
+                    insertQuizzes(connection, random, catalog, anchor, from, to));
+            long attemptsStart = System.currentTimeMillis();
+            ZipfSampler quizSampler = new ZipfSampler(quizzes, quizPopularityExponent);
+            ZipfSampler userSampler = new ZipfSampler(users, userActivityExponent);
+            runPartitions(pool, ATTEMPTS, attempts, (connection, random, from, to) ->
+                    insertAttempts(connection, random, catalog, quizSampler, userSampler, firstUserId,
+                            firstAttemptId, anchor, from, to));
+            long attemptsMs = Math.max(1, System.currentTimeMillis() - attemptsStart);
+            logger.info("Inserted {} attempts in {} ms ({} attempts/min)", attempts, attemptsMs,
+                    attempts * 60_000 / attemptsMs);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (rebuildDerived) {
+            userProgressService.rebuild(null);
+            recommendationService.refreshAll();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Generated fixtures in {} ms: {} users from id {}, {} quizzes from id {}, {} questions, "
+                + "{} attempts from id {}", elapsed, users, firstUserId, quizzes, firstQuizId, questions, attempts,
+                firstAttemptId);
+        return new Summary(firstUserId, firstQuizId, firstQuestionId, firstAttemptId, users, quizzes, questions,
+                attempts, elapsed);
+    }
+
+    private void insertUsers(Connection connection, long firstUserId, String passwordHash, long from, long to)
+            throws SQLException {
+        try (BatchInsert insert = new BatchInsert(connection, "users", "id, username, password, role", 4)) {
+            for (long user = from; user < to; user++) {
+                long id = firstUserId + user;
+                insert.add(id, "fixture-" + id, passwordHash, "USER");
+            }
+        }
+    }
+
+    private void insertQuizzes(Connection connection, SplittableRandom random, Catalog catalog, LocalDateTime anchor,
+                               long from, long to) throws SQLException, JsonProcessingException {
+        try (BatchInsert quizInsert = new BatchInsert(connection, "quizzes",
+                "id, title, category, difficulty, created_date, archived, current_version_id", 7);
+             BatchInsert questionInsert = new BatchInsert(connection, "questions",
+                     "id, quiz_id, text, options, correct_answer_index, correct_answer_mask, weight, partial_credit, "
+                             + "negative_mark", 9, quizInsert);
+             BatchInsert versionInsert = new BatchInsert(connection, "quiz_versions",
+                     "id, quiz_id, version_number, content, published_date", 5)) {
+            for (int quiz = (int) from; quiz < to; quiz++) {
+                long quizId = catalog.firstQuizId() + quiz;
+                long versionId = catalog.firstVersionId() + quiz;
+                int category = random.nextInt(CATEGORIES.length);
+                String topic = TOPICS[category][random.nextInt(TOPICS[category].length)];
+                String title = topic + " " + TITLE_SUFFIXES[random.nextInt(TITLE_SUFFIXES.length)];
+                double roll = random.nextDouble();
+                Quiz.Difficulty difficulty = roll < 0.4 ? Quiz.Difficulty.EASY
+                        : roll < 0.8 ? Quiz.Difficulty.MEDIUM : Quiz.Difficulty.HARD;
+                catalog.difficulties()[quiz] = (byte) difficulty.ordinal();
+                // Created before the attempt window starts
+                LocalDateTime created = anchor.minusDays(days + random.nextInt(365))
+                        .plusSeconds(random.nextInt(86_400));
+                quizInsert.add(quizId, title, CATEGORIES[category], difficulty.name(), Timestamp.valueOf(created),
+                        random.nextDouble() < ARCHIVED_RATIO, versionId);
+
+                List<QuestionSnapshot> snapshots = new ArrayList<>();
+                for (int question = catalog.questionStart()[quiz]; question < catalog.questionStart()[quiz + 1]; question++) {
+                    long questionId = catalog.firstQuestionId() + question;
+                    boolean multiSelect = random.nextDouble() < multiSelectRatio;
+                    List<String> options = multiSelect ? MULTI_OPTIONS : SINGLE_OPTIONS;
+                    long mask = 1L << random.nextInt(options.size());
+                    if (multiSelect) {
+                        // Two or three correct options
+                        while (Long.bitCount(mask) < 2 + random.nextInt(2)) {
+                            mask |= 1L << random.nextInt(options.size());
+                        }
+                    }
+                    catalog.correctMasks()[question] = mask;
+                    String text = "Which " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                            + NOUNS[random.nextInt(NOUNS.length)] + (multiSelect ? "s are" : " is")
+                            + " true about " + topic + "?";
+                    int correctIndex = Long.numberOfTrailingZeros(mask);
+                    Long storedMask = multiSelect ? mask : null;
+                    Boolean partialCredit = multiSelect ? Boolean.TRUE : null;
+                    questionInsert.add(questionId, quizId, text, objectMapper.writeValueAsString(options), correctIndex,
+                            storedMask, null, partialCredit, null);
+                    snapshots.add(new QuestionSnapshot(questionId, text, options, correctIndex, storedMask, null,
+                            partialCredit, null));
+                }
+                catalog.scoringPlans()[quiz] = ScoringPlan.compile(snapshots);
+
+                QuizVersionContent content = new QuizVersionContent(null, quizId, 1, title, CATEGORIES[category],
+                        difficulty, created, snapshots);
+                versionInsert.add(versionId, quizId, 1, objectMapper.writeValueAsString(content),
+                        Timestamp.valueOf(created));
+            }
+        }
+    }
+
+    private void insertAttempts(Connection connection, SplittableRandom random, Catalog catalog,
+                                ZipfSampler quizSampler, ZipfSampler userSampler, long firstUserId,
+                                long firstAttemptId, LocalDateTime anchor, long from, long to) throws SQLException {
+        LocalDateTime windowStart = anchor.minusDays(days);
+        long windowSeconds = days * 86_400L;
+        try (BatchInsert insert = new BatchInsert(connection, "attempts",
+                "id, user_id, quiz_id, quiz_version_id, score, answers_bin, submitted_at, idempotency_key", 8)) {
+            for (long attempt = from; attempt < to; attempt++) {
+                int user = userSampler.sample(random);
+                int quiz = quizSampler.sample(random);
+                double chance = Math.min(0.98, Math.max(0.05,
+                        skill(user) + 0.15 - 0.15 * catalog.difficulties()[quiz]));
+
+                int first = catalog.questionStart()[quiz];
+                long[] selected = new long[catalog.questionStart()[quiz + 1] - first];
+                AnswerSheet.Builder answers = AnswerSheet.builder(selected.length);
+                for (int i = 0; i < selected.length; i++) {
+                    if (random.nextDouble() < UNANSWERED_RATIO) {
+                        continue;
+                    }
+                    long mask = catalog.correctMasks()[first + i];
+                    boolean multiSelect = Long.bitCount(mask) > 1;
+                    long pick = random.nextDouble() < chance ? mask : wrongPick(random, mask, multiSelect);
+                    selected[i] = pick;
+                    long questionId = catalog.firstQuestionId() + first + i;
+                    if (multiSelect) {
+                        int[] indexes = new int[Long.bitCount(pick)];
+                        long bits = pick;
+                        for (int k = 0; k < indexes.length; k++, bits &= bits - 1) {
+                            indexes[k] = Long.numberOfTrailingZeros(bits);
+                        }
+                        answers.selection(questionId, indexes);
+                    } else {
+                        answers.answer(questionId, Long.numberOfTrailingZeros(pick));
+                    }
+                }
+
+                double score = catalog.scoringPlans()[quiz].evaluate(selected).percent();
+                LocalDateTime submitted = windowStart.plusSeconds((long) (random.nextDouble() * windowSeconds));
+                insert.add(firstAttemptId + attempt, firstUserId + user, catalog.firstQuizId() + quiz,
+                        catalog.firstVersionId() + quiz, score, AnswerCodec.encode(answers.build()),
+                        Timestamp.valueOf(submitted), null);
+            }
+        }
+    }
+
+    // Single-choice: another option; multi-select: one option toggled, never leaving nothing selected
+    private static long wrongPick(SplittableRandom random, long mask, boolean multiSelect) {
+        int options = multiSelect ? MULTI_OPTIONS.size() : SINGLE_OPTIONS.size();
+        if (!multiSelect) {
+            int correct = Long.numberOfTrailingZeros(mask);
+            return 1L << ((correct + 1 + random.nextInt(options - 1)) % options);
+        }
+        long pick;
+        do {
+            pick = mask ^ (1L << random.nextInt(options));
+        } while (pick == 0);
+        return pick;
+    }
+
+    // Per-user ability between 0.35 and 0.9, a pure function of seed and user so partitions agree
+    private double skill(int user) {
+        return 0.35 + 0.55 * new SplittableRandom(seed * 31 + user).nextDouble();
+    }
+
+    private SplittableRandom random(int stream, long partition) {
+        return new SplittableRandom(seed + stream * 0x9E3779B97F4A7C15L + partition * 0xBF58476D1CE4E5B9L);
+    }
+
+    private void runPartitions(ExecutorService pool, int stream, long rows, PartitionTask task) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (long from = 0, partition = 0; from < rows; from += partitionSize, partition++) {
+            long start = from;
+            long end = Math.min(rows, from + partitionSize);
+            SplittableRandom random = random(stream, partition);
+            futures.add(pool.submit(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    connection.setAutoCommit(false);
+                    try {
+                        task.run(connection, random, start, end);
+                        connection.commit();
+                    } catch (Exception e) {
+                        connection.rollback();
+                        throw e;
+                    }
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Fixture generation interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Error generating fixtures", e.getCause());
+        }
+    }
+
+    // setval covers both serial and identity columns on PostgreSQL
+    private long reserveIdentity(String table, long count) {
+        long first = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+        if (postgres) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), ?, false)",
+                    Long.class, first + count);
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (first + count));
+        }
+        return first;
+    }
+
+    // Moves attempts_seq past the range, keeping the pooled-lo block layout shared with Hibernate
+    private long reserveAttemptIds(long count) {
+        String nextIdSql = postgres ? "SELECT nextval('attempts_seq')" : "SELECT NEXT VALUE FOR attempts_seq";
+        long first = jdbcTemplate.queryForObject(nextIdSql, Long.class);
+        long blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE attempts_seq RESTART WITH " + (first + blocks * ID_BLOCK_SIZE));
+        return first;
+    }
+
+    private boolean isPostgres() {
+        try {
+            return "PostgreSQL".equalsIgnoreCase(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not detect database product, using standard sequence syntax", e);
+            return false;
+        }
+    }
+
+    // Buffers rows into INSERTs of ROWS_PER_INSERT rows each and executes them in JDBC batches. A child
+    // table's insert flushes its parent first, so foreign keys always find their row.
+    private static final class BatchInsert implements AutoCloseable {
+        private final Connection connection;
+        private final String sql;
+        private final int columns;
+        private final BatchInsert parent;
+        private final PreparedStatement multiRow;
+        private final Object[] buffer;
+        private int bufferedRows;
+        private int batchedStatements;
+
+        BatchInsert(Connection connection, String table, String columnList, int columns) throws SQLException {
+            this(connection, table, columnList, columns, null);
+        }
+
+        BatchInsert(Connection connection, String table, String columnList, int columns, BatchInsert parent)
+                throws SQLException {
+            this.connection = connection;
+            this.columns = columns;
+            this.parent = parent;
+            sql = "INSERT INTO " + table + " (" + columnList + ") VALUES ";
+            multiRow = connection.prepareStatement(sql + placeholders(ROWS_PER_INSERT));
+            buffer = new Object[ROWS_PER_INSERT * columns];
+        }
+
+        void add(Object... values) throws SQLException {
+            System.arraycopy(values, 0, buffer, bufferedRows * columns, columns);
+            if (++bufferedRows < ROWS_PER_INSERT) {
+                return;
+            }
+            for (int i = 0; i < buffer.length; i++) {
+                multiRow.setObject(i + 1, buffer[i]);
+            }
+            multiRow.addBatch();
+            bufferedRows = 0;
+            if (++batchedStatements == STATEMENTS_PER_BATCH) {
+                executeBatch();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (batchedStatements > 0) {
+                executeBatch();
+            }
+            if (bufferedRows > 0) {
+                if (parent != null) {
+                    parent.flush();
+                }
+                try (PreparedStatement rest = connection.prepareStatement(sql + placeholders(bufferedRows))) {
+                    for (int i = 0; i < bufferedRows * columns; i++) {
+                        rest.setObject(i + 1, buffer[i]);
+                    }
+                    rest.executeUpdate();
+                }
+                bufferedRows = 0;
+            }
+        }
+
+        private void executeBatch() throws SQLException {
+            if (parent != null) {
+                parent.flush();
+            }
+            multiRow.executeBatch();
+            batchedStatements = 0;
+        }
+
+        private String placeholders(int rows) {
+            return String.join(", ", Collections.nCopies(rows, "(" + "?, ".repeat(columns - 1) + "?)"));
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                multiRow.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.example.quizapp.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only journal of memory-mapped, fixed-size segment files.
+// Record layout: int payload length, int CRC32C of the payload, payload. A zero length marks the end of a segment.
+// Appends only write to the mapping; awaitDurable() forces it to disk, and callers that arrive
+// while a force is running share the next one (group commit).
+public class AttemptJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptJournal.class);
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "attempts-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    public record Appended(long sequence, JournalPosition end) {
+    }
+
+    public record Record(byte[] payload, JournalPosition end) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+
+    // Guarded by this
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+    private long appendedSequence;
+
+    private final Object syncLock = new Object();
+    private long durableSequence; // Guarded by syncLock
+    private boolean syncing; // Guarded by syncLock
+
+    public AttemptJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        List<Long> segments = listSegments();
+        segmentIndex = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        segment = map(segmentIndex);
+        int end = scan(segment, 0, null);
+        // The CRC is written before the length, so a non-zero header past the end is a partial record
+        if (end <= segmentSize - HEADER_BYTES && segment.getLong(end) != 0) {
+            // Torn write from a crash: clear it so later appends are not followed by stale bytes
+            logger.warn("Discarding torn journal record in segment {} at offset {}", segmentIndex, end);
+            for (int i = end; i < segmentSize; i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.force();
+        }
+        segment.position(end);
+    }
+
+    public synchronized Appended append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes + HEADER_BYTES > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + payload.length + " bytes exceeds segment size");
+        }
+        if (segment.remaining() < recordBytes + HEADER_BYTES) {
+            roll();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        int start = segment.position();
+        // Length goes last so a reader never sees a length without its payload
+        segment.position(start + 4);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        segment.putInt(start, payload.length);
+        appendedSequence++;
+        return new Appended(appendedSequence, new JournalPosition(segmentIndex, segment.position()));
+    }
+
+    // Blocks until the record with this sequence is on disk
+    public void awaitDurable(long sequence) {
+        while (true) {
+            synchronized (syncLock) {
+                while (syncing && durableSequence < sequence) {
+                    try {
+                        syncLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted waiting for journal sync", e);
+                    }
+                }
+                if (durableSequence >= sequence) {
+                    return;
+                }
+                syncing = true;
+            }
+
+            long target;
+            MappedByteBuffer buffer;
+            synchronized (this) {
+                target = appendedSequence;
+                buffer = segment;
+            }
+            boolean synced = false;
+            try {
+                // Older segments were forced when they were rolled
+                buffer.force();
+                synced = true;
+            } finally {
+                synchronized (syncLock) {
+                    syncing = false;
+                    if (synced) {
+                        durableSequence = Math.max(durableSequence, target);
+                    }
+                    syncLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    // Every record after the checkpoint, in append order
+    public List<Record> readFrom(JournalPosition from) throws IOException {
+        List<Record> records = new ArrayList<>();
+        for (long index : listSegments()) {
+            if (index < from.segment()) {
+                continue;
+            }
+            MappedByteBuffer buffer;
+            synchronized (this) {
+                buffer = index == segmentIndex ? segment.duplicate() : null;
+            }
+            if (buffer == null) {
+                buffer = map(index);
+            }
+            int start = index == from.segment() ? from.offset() : 0;
+            scan(buffer, start, (payload, end) -> records.add(new Record(payload, new JournalPosition(index, end))));
+        }
+        return records;
+    }
+
+    public JournalPosition readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return JournalPosition.START;
+        }
+        String[] parts = Files.readString(file, StandardCharsets.US_ASCII).trim().split(" ");
+        return new JournalPosition(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    // Records up to this position are in the database: persist that, then drop fully applied segments
+    public void checkpoint(JournalPosition applied) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap((applied.segment() + " " + applied.offset()).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long index : listSegments()) {
+            if (index < applied.segment()) {
+                Files.deleteIfExists(segmentPath(index));
+            }
+        }
+    }
+
+    public static boolean hasSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.anyMatch(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        segment.force();
+    }
+
+    private void roll() {
+        segment.force();
+        segmentIndex++;
+        try {
+            segment = map(segmentIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create journal segment " + segmentIndex, e);
+        }
+        logger.info("Rolled attempt journal to segment {}", segmentIndex);
+    }
+
+    private MappedByteBuffer map(long index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(byte[] payload, int end);
+    }
+
+    // Returns the offset just past the last intact record
+    private int scan(ByteBuffer buffer, int offset, RecordVisitor visitor) {
+        CRC32C crc = new CRC32C();
+        while (offset <= segmentSize - HEADER_BYTES) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || length > segmentSize - offset - HEADER_BYTES) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+            if (visitor != null) {
+                visitor.visit(payload, offset);
+            }
+        }
+        return offset;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%020d", index) + SEGMENT_SUFFIX);
+    }
+}
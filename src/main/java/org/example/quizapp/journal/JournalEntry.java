@@ -0,0 +1,101 @@
+package org.example.quizapp.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+
+// One accepted attempt, with everything needed to insert it into the attempts table later
+public record JournalEntry(long attemptId, long userId, String username, long quizId, Long quizVersionId,
+                           double score, LocalDateTime submittedAt, String idempotencyKey, byte[] answers,
+                           Long sessionSeed, Integer sessionQuestions) {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    // An attempt outside a session
+    public JournalEntry(long attemptId, long userId, String username, long quizId, Long quizVersionId,
+                        double score, LocalDateTime submittedAt, String idempotencyKey, byte[] answers) {
+        this(attemptId, userId, username, quizId, quizVersionId, score, submittedAt, idempotencyKey, answers, null, null);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + answers.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(attemptId);
+            out.writeLong(userId);
+            out.writeUTF(username);
+            out.writeLong(quizId);
+            out.writeLong(quizVersionId != null ? quizVersionId : 0);
+            out.writeDouble(score);
+            out.writeLong(submittedAt.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(submittedAt.getNano());
+            out.writeBoolean(idempotencyKey != null);
+            if (idempotencyKey != null) {
+                out.writeUTF(idempotencyKey);
+            }
+            out.writeInt(answers.length);
+            out.write(answers);
+            out.writeBoolean(sessionSeed != null);
+            if (sessionSeed != null) {
+                out.writeLong(sessionSeed);
+                out.writeInt(sessionQuestions);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof JournalEntry entry && attemptId == entry.attemptId && userId == entry.userId
+                && quizId == entry.quizId && Double.compare(score, entry.score) == 0
+                && username.equals(entry.username) && Objects.equals(quizVersionId, entry.quizVersionId)
+                && submittedAt.equals(entry.submittedAt) && Objects.equals(idempotencyKey, entry.idempotencyKey)
+                && Arrays.equals(answers, entry.answers) && Objects.equals(sessionSeed, entry.sessionSeed)
+                && Objects.equals(sessionQuestions, entry.sessionQuestions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(attemptId, userId, username, quizId, quizVersionId, score, submittedAt, idempotencyKey,
+                sessionSeed, sessionQuestions) * 31 + Arrays.hashCode(answers);
+    }
+
+    public static JournalEntry decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported journal entry version " + version);
+            }
+            long attemptId = in.readLong();
+            long userId = in.readLong();
+            String username = in.readUTF();
+            long quizId = in.readLong();
+            long storedVersionId = in.readLong();
+            Long quizVersionId = storedVersionId != 0 ? storedVersionId : null;
+            double score = in.readDouble();
+            LocalDateTime submittedAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            String idempotencyKey = in.readBoolean() ? in.readUTF() : null;
+            byte[] answerBytes = new byte[in.readInt()];
+            in.readFully(answerBytes);
+            Long sessionSeed = null;
+            Integer sessionQuestions = null;
+            if (in.readBoolean()) {
+                sessionSeed = in.readLong();
+                sessionQuestions = in.readInt();
+            }
+            return new JournalEntry(attemptId, userId, username, quizId, quizVersionId, score, submittedAt, idempotencyKey,
+                    answerBytes, sessionSeed, sessionQuestions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.quizapp.live;
+
+import java.io.IOException;
+
+// Connection a participant's frames are written to
+public interface FrameSink {
+
+    void write(LiveFrame frame) throws IOException;
+
+    void close();
+}
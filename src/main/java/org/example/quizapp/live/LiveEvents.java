@@ -0,0 +1,36 @@
+package org.example.quizapp.live;
+
+import java.util.List;
+
+// Payloads of the server-sent events of a live session, named by their event type
+public final class LiveEvents {
+
+    private LiveEvents() {
+    }
+
+    // "state": sent on connect so a (re)joining participant can resync
+    public record State(String sessionId, String quizTitle, String state, int questionIndex, int totalQuestions,
+                        int participants) {
+    }
+
+    // "question": the correct answer is only revealed with the results
+    public record Question(String sessionId, int questionIndex, int totalQuestions, Long questionId, String text,
+                           List<String> options) {
+    }
+
+    // "progress": periodic answer count while a question is open
+    public record Progress(int questionIndex, int answered, int participants) {
+    }
+
+    // "results": after the host closes a question
+    public record Results(int questionIndex, Long questionId, int correctAnswerIndex, long[] optionCounts,
+                          int answered, int correct, List<Standing> leaderboard) {
+    }
+
+    // "ended"
+    public record Ended(String sessionId, List<Standing> leaderboard) {
+    }
+
+    public record Standing(String username, int correctAnswers) {
+    }
+}
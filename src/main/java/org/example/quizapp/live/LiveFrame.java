@@ -0,0 +1,36 @@
+package org.example.quizapp.live;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+// A fully encoded server-sent event. Built once per broadcast and shared by every subscriber,
+// so fan-out costs one JSON serialization regardless of audience size.
+public final class LiveFrame {
+
+    public static final LiveFrame HEARTBEAT = new LiveFrame(":\n\n".getBytes(StandardCharsets.UTF_8));
+    public static final LiveFrame CLOSE = new LiveFrame(new byte[0]); // Completes the stream after earlier frames
+
+    private final byte[] bytes;
+    private final Set<DataWithMediaType> items;
+
+    private LiveFrame(byte[] bytes) {
+        this.bytes = bytes;
+        this.items = Set.of(new DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM));
+    }
+
+    // JSON from Jackson has no raw newlines, so it fits in a single data line
+    public static LiveFrame event(String name, String json) {
+        return new LiveFrame(("event:" + name + "\ndata:" + json + "\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public Set<DataWithMediaType> items() {
+        return items;
+    }
+}
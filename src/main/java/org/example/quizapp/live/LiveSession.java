@@ -0,0 +1,245 @@
+package org.example.quizapp.live;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// State of one hosted session. Participants get a dense index on join; answers to the open question
+// land in an int array slot per participant with a single CAS, so collection takes no locks.
+// Only the host advances the session, and host actions are serialized by the service.
+public class LiveSession {
+
+    public enum State {
+        WAITING, QUESTION_OPEN, QUESTION_CLOSED, ENDED
+    }
+
+    public record Question(Long id, String text, List<String> options, int correctAnswerIndex) {
+    }
+
+    // Answer + 1 per participant for one opened question, 0 if unanswered. Each question gets its own,
+    // so answers arriving after it closes never touch the in-flight count the close waits on.
+    private record Round(Question question, AtomicIntegerArray answers, AtomicInteger inFlight) {
+    }
+
+    private final String id;
+    private final Long quizId;
+    private final String quizTitle;
+    private final String host;
+    private final List<Question> questions;
+    private final int maxParticipants;
+
+    private final Map<String, Integer> participantIndexes = new ConcurrentHashMap<>();
+    private final AtomicInteger participantCount = new AtomicInteger();
+    private final AtomicReferenceArray<String> usernames;
+    private final AtomicIntegerArray correctCounts;
+
+    // One connection per user; a reconnect replaces the previous one
+    private final Map<String, LiveSubscriber> subscribers = new ConcurrentHashMap<>();
+    private final long createdAtMillis = System.currentTimeMillis();
+
+    private volatile State state = State.WAITING;
+    private volatile int questionIndex = -1;
+    // Null while no question is open
+    private volatile Round openRound;
+    private final AtomicInteger answered = new AtomicInteger();
+    private int lastReportedAnswered = -1; // Progress ticker only
+
+    public LiveSession(String id, Long quizId, String quizTitle, String host, List<Question> questions, int maxParticipants) {
+        this.id = id;
+        this.quizId = quizId;
+        this.quizTitle = quizTitle;
+        this.host = host;
+        this.questions = questions;
+        this.maxParticipants = maxParticipants;
+        this.usernames = new AtomicReferenceArray<>(maxParticipants);
+        this.correctCounts = new AtomicIntegerArray(maxParticipants);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public String getQuizTitle() {
+        return quizTitle;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getQuestionIndex() {
+        return questionIndex;
+    }
+
+    public int getTotalQuestions() {
+        return questions.size();
+    }
+
+    public int getParticipantCount() {
+        return participantCount.get();
+    }
+
+    public int getAnsweredCount() {
+        return answered.get();
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public Map<String, LiveSubscriber> getSubscribers() {
+        return subscribers;
+    }
+
+    // True if the answer count changed since the last call
+    public boolean takeProgressChange() {
+        int current = answered.get();
+        if (current == lastReportedAnswered) {
+            return false;
+        }
+        lastReportedAnswered = current;
+        return true;
+    }
+
+    public Question currentQuestion() {
+        int index = questionIndex;
+        return index >= 0 && index < questions.size() ? questions.get(index) : null;
+    }
+
+    // Same index on reconnect; -1 when the session is full
+    public int join(String username) {
+        Integer existing = participantIndexes.get(username);
+        if (existing != null) {
+            return existing;
+        }
+        return participantIndexes.computeIfAbsent(username, name -> {
+            int index = participantCount.getAndIncrement();
+            if (index >= maxParticipants) {
+                participantCount.decrementAndGet();
+                return -1;
+            }
+            usernames.set(index, name);
+            return index;
+        });
+    }
+
+    public Question openNextQuestion() {
+        int next = questionIndex + 1;
+        if (next >= questions.size()) {
+            return null;
+        }
+        Question question = questions.get(next);
+        answered.set(0);
+        lastReportedAnswered = -1;
+        questionIndex = next;
+        state = State.QUESTION_OPEN;
+        openRound = new Round(question, new AtomicIntegerArray(maxParticipants), new AtomicInteger());
+        return question;
+    }
+
+    public enum AnswerOutcome {
+        ACCEPTED, NOT_OPEN, WRONG_QUESTION, NOT_JOINED, INVALID_OPTION, ALREADY_ANSWERED
+    }
+
+    public AnswerOutcome answer(String username, Long questionId, int answerIndex) {
+        Integer participant = participantIndexes.get(username);
+        if (participant == null || participant < 0) {
+            return AnswerOutcome.NOT_JOINED;
+        }
+        Round round = openRound;
+        if (round == null) {
+            return AnswerOutcome.NOT_OPEN;
+        }
+        // Registered before the re-check so closeQuestion() can wait for answers already past it
+        round.inFlight().incrementAndGet();
+        try {
+            if (openRound != round) {
+                return AnswerOutcome.NOT_OPEN;
+            }
+            Question question = round.question();
+            if (!question.id().equals(questionId)) {
+                return AnswerOutcome.WRONG_QUESTION;
+            }
+            if (answerIndex < 0 || answerIndex >= question.options().size()) {
+                return AnswerOutcome.INVALID_OPTION;
+            }
+            if (!round.answers().compareAndSet(participant, 0, answerIndex + 1)) {
+                return AnswerOutcome.ALREADY_ANSWERED;
+            }
+            answered.incrementAndGet();
+            return AnswerOutcome.ACCEPTED;
+        } finally {
+            round.inFlight().decrementAndGet();
+        }
+    }
+
+    public LiveEvents.Results closeQuestion(int leaderboardSize) {
+        Round round = openRound;
+        openRound = null;
+        state = State.QUESTION_CLOSED;
+        // Only answers that read the round before it was cleared can still be running, and each leaves
+        // at its re-check at the latest
+        while (round.inFlight().get() > 0) {
+            Thread.onSpinWait();
+        }
+        Question question = round.question();
+        AtomicIntegerArray collected = round.answers();
+        long[] optionCounts = new long[question.options().size()];
+        int correct = 0;
+        int participants = Math.min(participantCount.get(), maxParticipants);
+        for (int i = 0; i < participants; i++) {
+            int answer = collected.get(i) - 1;
+            if (answer < 0) {
+                continue;
+            }
+            optionCounts[answer]++;
+            if (answer == question.correctAnswerIndex()) {
+                correctCounts.incrementAndGet(i);
+                correct++;
+            }
+        }
+        return new LiveEvents.Results(questionIndex, question.id(), question.correctAnswerIndex(), optionCounts,
+                answered.get(), correct, leaderboard(leaderboardSize));
+    }
+
+    public void end() {
+        openRound = null;
+        state = State.ENDED;
+    }
+
+    public List<LiveEvents.Standing> leaderboard(int size) {
+        PriorityQueue<Integer> top = new PriorityQueue<>(Comparator
+                .comparingInt((Integer i) -> correctCounts.get(i))
+                .thenComparing((Integer i) -> usernames.get(i), Comparator.reverseOrder()));
+        int participants = Math.min(participantCount.get(), maxParticipants);
+        for (int i = 0; i < participants; i++) {
+            if (usernames.get(i) == null) {
+                continue;
+            }
+            top.add(i);
+            if (top.size() > size) {
+                top.poll();
+            }
+        }
+        List<LiveEvents.Standing> standings = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int i = top.poll();
+            standings.add(0, new LiveEvents.Standing(usernames.get(i), correctCounts.get(i)));
+        }
+        return standings;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.quizapp.live;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// One participant connection with a bounded outbound queue. Broadcasters never block on a
+// connection: a subscriber whose queue is full is disconnected and resyncs when it reconnects.
+public class LiveSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSubscriber.class);
+
+    private final long id;
+    private final String username;
+    private final FrameSink sink;
+    private final ArrayBlockingQueue<LiveFrame> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Consumer<LiveSubscriber> onClose;
+
+    public LiveSubscriber(long id, String username, FrameSink sink, int queueCapacity, Consumer<LiveSubscriber> onClose) {
+        this.id = id;
+        this.username = username;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.onClose = onClose;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    // Returns false if the subscriber is closed or was just dropped as a slow consumer
+    public boolean enqueue(LiveFrame frame, Executor writers) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!queue.offer(frame)) {
+            logger.debug("Dropping slow live subscriber {} ({})", id, username);
+            close();
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            writers.execute(this::drain);
+        }
+        return true;
+    }
+
+    // At most one drain per subscriber runs at a time, so frames keep their order
+    private void drain() {
+        do {
+            LiveFrame frame;
+            while ((frame = queue.poll()) != null && !closed.get()) {
+                if (frame == LiveFrame.CLOSE) {
+                    close();
+                    return;
+                }
+                try {
+                    sink.write(frame);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away
+                    close();
+                    return;
+                }
+            }
+            draining.set(false);
+        } while (!queue.isEmpty() && !closed.get() && draining.compareAndSet(false, true));
+    }
+
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            try {
+                sink.close();
+            } catch (RuntimeException e) {
+                logger.debug("Error closing live subscriber {}", id, e);
+            }
+            onClose.accept(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.quizapp.live;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+public class SseFrameSink implements FrameSink {
+
+    private final SseEmitter emitter;
+
+    public SseFrameSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void write(LiveFrame frame) throws IOException {
+        // Pre-encoded bytes go straight through the byte array converter
+        emitter.send(frame.items());
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
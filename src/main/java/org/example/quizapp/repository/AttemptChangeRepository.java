@@ -0,0 +1,13 @@
+package org.example.quizapp.repository;
+
+import org.example.quizapp.entity.AttemptChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttemptChangeRepository extends JpaRepository<AttemptChange, Long> {
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM AttemptChange c")
+    long findLatestId();
+}
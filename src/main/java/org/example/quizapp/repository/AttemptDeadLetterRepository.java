@@ -0,0 +1,9 @@
+package org.example.quizapp.repository;
+
+import org.example.quizapp.entity.AttemptDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttemptDeadLetterRepository extends JpaRepository<AttemptDeadLetter, Long> {
+}
@@ -0,0 +1,21 @@
+package org.example.quizapp.repository;
+
+import org.example.quizapp.entity.AttemptDeadline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AttemptDeadlineRepository extends JpaRepository<AttemptDeadline, String> {
+    
+    // Zero when another submit already claimed the session; that one holds the row lock until it commits
+    @Modifying
+    @Query("DELETE FROM AttemptDeadline d WHERE d.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+
+    Optional<AttemptDeadline> findFirstByUsernameAndQuizId(String username, Long quizId);
+}
@@ -1,9 +1,17 @@
 package org.example.quizapp.repository;
 
 import org.example.quizapp.entity.Attempt;
+import org.example.quizapp.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Optional;
 
 @Repository
 public interface AttemptRepository extends JpaRepository<Attempt, Long> {
+    Optional<Attempt> findByUserAndIdempotencyKey(User user, String idempotencyKey);
+
+    // Result views need the owner and the quiz; one join instead of two lazy loads
+    @EntityGraph(attributePaths = {"user", "quiz"})
+    Optional<Attempt> findWithUserAndQuizById(Long id);
 }
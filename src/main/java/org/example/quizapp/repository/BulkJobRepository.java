@@ -0,0 +1,12 @@
+package org.example.quizapp.repository;
+
+import org.example.quizapp.entity.BulkJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BulkJobRepository extends JpaRepository<BulkJob, Long> {
+    List<BulkJob> findByStatusIn(Collection<BulkJob.Status> statuses);
+}
@@ -4,11 +4,23 @@ import org.example.quizapp.entity.Quiz;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface QuizRepository extends JpaRepository<Quiz, Long> {
-    Page<Quiz> findByCategoryAndDifficulty(String category, Quiz.Difficulty difficulty, Pageable pageable);
-    Page<Quiz> findByCategory(String category, Pageable pageable);
-    Page<Quiz> findByDifficulty(Quiz.Difficulty difficulty, Pageable pageable);
+public interface QuizRepository extends JpaRepository<Quiz, Long>, QuizSummaryRepository {
+    Page<Quiz> findByCategoryAndDifficultyAndArchivedFalse(String category, Quiz.Difficulty difficulty, Pageable pageable);
+    Page<Quiz> findByCategoryAndArchivedFalse(String category, Pageable pageable);
+    Page<Quiz> findByDifficultyAndArchivedFalse(Quiz.Difficulty difficulty, Pageable pageable);
+    Page<Quiz> findByArchivedFalse(Pageable pageable);
+
+    @Query("SELECT q FROM Quiz q LEFT JOIN FETCH q.questions WHERE q.id = :id")
+    Optional<Quiz> findWithQuestionsById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT q FROM Quiz q LEFT JOIN FETCH q.questions WHERE q.id IN :ids")
+    List<Quiz> findWithQuestionsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,18 @@
+package org.example.quizapp.repository;
+
+import org.example.quizapp.dto.QuizField;
+import org.example.quizapp.dto.QuizResponse;
+import org.example.quizapp.entity.Quiz;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+import java.util.Set;
+
+// Quiz responses built from only the requested columns; questions are never loaded here
+public interface QuizSummaryRepository {
+
+    Page<QuizResponse> findSummaries(String category, Quiz.Difficulty difficulty, Set<QuizField> fields, Pageable pageable);
+
+    Optional<QuizResponse> findSummaryById(Long id, Set<QuizField> fields);
+}
@@ -0,0 +1,127 @@
+package org.example.quizapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import org.example.quizapp.dto.QuizField;
+import org.example.quizapp.dto.QuizResponse;
+import org.example.quizapp.entity.Question;
+import org.example.quizapp.entity.Quiz;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class QuizSummaryRepositoryImpl implements QuizSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<QuizResponse> findSummaries(String category, Quiz.Difficulty difficulty, Set<QuizField> fields,
+                                            Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Quiz> quiz = query.from(Quiz.class);
+        query.multiselect(selections(cb, query, quiz, fields)).where(listed(cb, quiz, category, difficulty));
+        List<QuizResponse> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList().stream()
+                .map(tuple -> toResponse(tuple, fields))
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(category, difficulty));
+    }
+
+    @Override
+    public Optional<QuizResponse> findSummaryById(Long id, Set<QuizField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Quiz> quiz = query.from(Quiz.class);
+        query.multiselect(selections(cb, query, quiz, fields)).where(cb.equal(quiz.get("id"), id));
+        return entityManager.createQuery(query).getResultList().stream()
+                .findFirst()
+                .map(tuple -> toResponse(tuple, fields));
+    }
+
+    private long count(String category, Quiz.Difficulty difficulty) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Quiz> quiz = query.from(Quiz.class);
+        query.select(cb.count(quiz)).where(listed(cb, quiz, category, difficulty));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Same filters as the derived findBy...ArchivedFalse queries
+    private static Predicate[] listed(CriteriaBuilder cb, Root<Quiz> quiz, String category, Quiz.Difficulty difficulty) {
+        List<Predicate> predicates = new ArrayList<>(3);
+        predicates.add(cb.isFalse(quiz.get("archived")));
+        if (category != null) {
+            predicates.add(cb.equal(quiz.get("category"), category));
+        }
+        if (difficulty != null) {
+            predicates.add(cb.equal(quiz.get("difficulty"), difficulty));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    // The question count is a correlated subquery, so no question row is read into memory
+    private static List<Selection<?>> selections(CriteriaBuilder cb, CriteriaQuery<Tuple> query, Root<Quiz> quiz,
+                                                 Set<QuizField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+        selections.add(quiz.get("id").alias(QuizField.ID.jsonName()));
+        for (QuizField field : fields) {
+            switch (field) {
+                case TITLE -> selections.add(quiz.get("title").alias(field.jsonName()));
+                case CATEGORY -> selections.add(quiz.get("category").alias(field.jsonName()));
+                case DIFFICULTY -> selections.add(quiz.get("difficulty").alias(field.jsonName()));
+                case CREATED_DATE -> selections.add(quiz.get("createdDate").alias(field.jsonName()));
+                case VERSION_ID -> selections.add(quiz.get("currentVersionId").alias(field.jsonName()));
+                case TIME_LIMIT_SECONDS -> selections.add(quiz.get("timeLimitSeconds").alias(field.jsonName()));
+                case SESSION_QUESTION_COUNT -> selections.add(quiz.get("sessionQuestionCount").alias(field.jsonName()));
+                case QUESTION_COUNT -> {
+                    Subquery<Long> questions = query.subquery(Long.class);
+                    Root<Question> question = questions.from(Question.class);
+                    questions.select(cb.count(question)).where(cb.equal(question.get("quiz"), quiz));
+                    selections.add(questions.alias(field.jsonName()));
+                }
+                default -> {
+                    // ID is always selected; questions are not a column
+                }
+            }
+        }
+        return selections;
+    }
+
+    private static QuizResponse toResponse(Tuple tuple, Set<QuizField> fields) {
+        QuizResponse response = new QuizResponse();
+        for (QuizField field : fields) {
+            switch (field) {
+                case ID -> response.setId(tuple.get(field.jsonName(), Long.class));
+                case TITLE -> response.setTitle(tuple.get(field.jsonName(), String.class));
+                case CATEGORY -> response.setCategory(tuple.get(field.jsonName(), String.class));
+                case DIFFICULTY -> response.setDifficulty(tuple.get(field.jsonName(), Quiz.Difficulty.class));
+                case CREATED_DATE -> response.setCreatedDate(tuple.get(field.jsonName(), LocalDateTime.class));
+                case VERSION_ID -> response.setVersionId(tuple.get(field.jsonName(), Long.class));
+                case TIME_LIMIT_SECONDS -> response.setTimeLimitSeconds(tuple.get(field.jsonName(), Integer.class));
+                case SESSION_QUESTION_COUNT ->
+                        response.setSessionQuestionCount(tuple.get(field.jsonName(), Integer.class));
+                case QUESTION_COUNT -> response.setQuestionCount(tuple.get(field.jsonName(), Long.class).intValue());
+                default -> {
+                }
+            }
+        }
+        return response;
+    }
+}
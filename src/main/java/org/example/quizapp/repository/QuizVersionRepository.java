@@ -0,0 +1,14 @@
+package org.example.quizapp.repository;
+
+import org.example.quizapp.entity.QuizVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface QuizVersionRepository extends JpaRepository<QuizVersion, Long> {
+
+    @Query("SELECT COALESCE(MAX(v.versionNumber), 0) FROM QuizVersion v WHERE v.quizId = :quizId")
+    int findLatestVersionNumber(@Param("quizId") Long quizId);
+}
@@ -0,0 +1,12 @@
+package org.example.quizapp.repository;
+
+import org.example.quizapp.entity.RescoreJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RescoreJobRepository extends JpaRepository<RescoreJob, Long> {
+    List<RescoreJob> findByStatusIn(Collection<RescoreJob.Status> statuses);
+}
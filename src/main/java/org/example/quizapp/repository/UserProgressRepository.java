@@ -0,0 +1,15 @@
+package org.example.quizapp.repository;
+
+import org.example.quizapp.entity.UserProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface UserProgressRepository extends JpaRepository<UserProgress, UserProgress.Key> {
+    
+    @Query("SELECT p FROM UserProgress p, User u WHERE u.id = p.userId AND u.username = :username")
+    List<UserProgress> findByUsername(@Param("username") String username);
+}
@@ -0,0 +1,239 @@
+package org.example.quizapp.scoring;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Binary form of an AnswerSheet, stored in attempts.answers_bin:
+//   format version byte, varint entry count, then per entry (ascending question id) a varint header
+//   (questionIdDelta << 4 | code). Code 0-13 is a single answer with that index, 14 a single answer
+//   whose zigzag varint index follows, 15 a multi-select answer: varint count, zigzag varint indexes.
+//   A delta of 0 means the absolute question id follows as a zigzag varint.
+// A typical answer is one byte, against eight or more as JSON. decode() also reads the legacy JSON
+// object, which starts with '{' and so can never be mistaken for a version byte.
+public final class AnswerCodec {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int INLINE_INDEXES = 14;
+    private static final int ESCAPED_INDEX = 14;
+    private static final int MULTI_SELECT = 15;
+    private static final long MAX_DELTA = 1L << 59;
+
+    private AnswerCodec() {
+    }
+
+    public static byte[] encode(AnswerSheet sheet) {
+        int bound = 6;
+        for (int i = 0; i < sheet.size(); i++) {
+            bound += 20 + (sheet.isMultiSelect(i) ? 5 + 5 * sheet.selection(i).length : 5);
+        }
+        byte[] out = new byte[bound];
+        int pos = 0;
+        out[pos++] = FORMAT_VERSION;
+        pos = writeVarint(out, pos, sheet.size());
+        long previous = 0;
+        for (int i = 0; i < sheet.size(); i++) {
+            long questionId = sheet.questionId(i);
+            int code;
+            if (sheet.isMultiSelect(i)) {
+                code = MULTI_SELECT;
+            } else {
+                int answer = sheet.answer(i);
+                code = answer >= 0 && answer < INLINE_INDEXES ? answer : ESCAPED_INDEX;
+            }
+            boolean relative = questionId > previous && questionId - previous > 0 && questionId - previous < MAX_DELTA;
+            pos = writeVarint(out, pos, (relative ? (questionId - previous) << 4 : 0) | code);
+            if (!relative) {
+                pos = writeVarint(out, pos, zigzag(questionId));
+            }
+            previous = questionId;
+            if (code == MULTI_SELECT) {
+                int[] selection = sheet.selection(i);
+                pos = writeVarint(out, pos, selection.length);
+                for (int index : selection) {
+                    pos = writeVarint(out, pos, zigzag(index));
+                }
+            } else if (code == ESCAPED_INDEX) {
+                pos = writeVarint(out, pos, zigzag(sheet.answer(i)));
+            }
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    public static AnswerSheet decode(byte[] data) {
+        if (data.length > 0 && data[0] == '{') {
+            return parseJson(new String(data, StandardCharsets.UTF_8));
+        }
+        if (data.length == 0 || data[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported answers format " + (data.length > 0 ? data[0] : "(empty)"));
+        }
+        Reader in = new Reader(data, 1);
+        int count = (int) in.varint();
+        AnswerSheet.Builder builder = AnswerSheet.builder(count);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long header = in.varint();
+            long delta = header >>> 4;
+            int code = (int) (header & 0xF);
+            long questionId = delta != 0 ? previous + delta : unzigzag(in.varint());
+            previous = questionId;
+            if (code == MULTI_SELECT) {
+                int[] indexes = new int[(int) in.varint()];
+                for (int j = 0; j < indexes.length; j++) {
+                    indexes[j] = (int) unzigzag(in.varint());
+                }
+                builder.selection(questionId, indexes);
+            } else if (code == ESCAPED_INDEX) {
+                builder.answer(questionId, (int) unzigzag(in.varint()));
+            } else {
+                builder.answer(questionId, code);
+            }
+        }
+        return builder.build();
+    }
+
+    // The legacy attempts.answers JSON: {"questionId": index, "questionId": [indexes], ...}, parsed
+    // without building a map
+    public static AnswerSheet parseJson(String json) {
+        JsonReader in = new JsonReader(json);
+        AnswerSheet.Builder builder = AnswerSheet.builder(16);
+        in.expect('{');
+        if (in.peek() == '}') {
+            return builder.build();
+        }
+        do {
+            in.expect('"');
+            long questionId = in.number();
+            in.expect('"');
+            in.expect(':');
+            char next = in.peek();
+            if (next == 'n') {
+                in.literalNull();
+            } else if (next == '[') {
+                in.expect('[');
+                int[] indexes = new int[4];
+                int count = 0;
+                if (in.peek() != ']') {
+                    do {
+                        if (count == indexes.length) {
+                            indexes = Arrays.copyOf(indexes, count * 2);
+                        }
+                        if (in.peek() == 'n') {
+                            in.literalNull();
+                            indexes[count++] = AnswerSheet.INVALID_INDEX;
+                        } else {
+                            indexes[count++] = (int) in.number();
+                        }
+                    } while (in.consume(','));
+                }
+                in.expect(']');
+                builder.selection(questionId, Arrays.copyOf(indexes, count));
+            } else {
+                builder.answer(questionId, (int) in.number());
+            }
+        } while (in.consume(','));
+        in.expect('}');
+        return builder.build();
+    }
+
+    private static int writeVarint(byte[] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos == data.length) {
+                    throw new IllegalArgumentException("Truncated answers");
+                }
+                byte b = data[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in answers");
+        }
+    }
+
+    private static final class JsonReader {
+        private final String json;
+        private int pos;
+
+        JsonReader(String json) {
+            this.json = json;
+        }
+
+        char peek() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+            if (pos == json.length()) {
+                throw new IllegalArgumentException("Truncated answers JSON");
+            }
+            return json.charAt(pos);
+        }
+
+        void expect(char c) {
+            if (peek() != c) {
+                throw new IllegalArgumentException("Expected '" + c + "' at " + pos + " in answers JSON");
+            }
+            pos++;
+        }
+
+        boolean consume(char c) {
+            if (pos < json.length() && peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        long number() {
+            peek();
+            boolean negative = json.charAt(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            int start = pos;
+            long value = 0;
+            while (pos < json.length() && json.charAt(pos) >= '0' && json.charAt(pos) <= '9') {
+                value = value * 10 + (json.charAt(pos++) - '0');
+            }
+            if (pos == start) {
+                throw new IllegalArgumentException("Expected a number at " + pos + " in answers JSON");
+            }
+            return negative ? -value : value;
+        }
+
+        void literalNull() {
+            peek();
+            if (!json.startsWith("null", pos)) {
+                throw new IllegalArgumentException("Expected null at " + pos + " in answers JSON");
+            }
+            pos += 4;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.example.quizapp.scoring;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The answers stored with an attempt, sorted by question id: one option index per question, or the
+// selected indexes for multi-select answers. Held in primitive arrays so decoding and scoring never box;
+// the maps only exist at the API edge.
+public final class AnswerSheet {
+
+    // Stands in for a null index inside a multi-select answer; never a valid option
+    static final int INVALID_INDEX = -1;
+
+    private final long[] questionIds;
+    private final int[] answers;
+    private final int[][] selections; // Null where the question has a single answer
+
+    private AnswerSheet(long[] questionIds, int[] answers, int[][] selections) {
+        this.questionIds = questionIds;
+        this.answers = answers;
+        this.selections = selections;
+    }
+
+    public static AnswerSheet of(Map<Long, Integer> answers, Map<Long, ? extends Collection<Integer>> selections) {
+        Builder builder = new Builder((answers != null ? answers.size() : 0) + (selections != null ? selections.size() : 0));
+        if (answers != null) {
+            for (Map.Entry<Long, Integer> answer : answers.entrySet()) {
+                if (answer.getKey() != null && answer.getValue() != null) {
+                    builder.answer(answer.getKey(), answer.getValue());
+                }
+            }
+        }
+        if (selections != null) {
+            for (Map.Entry<Long, ? extends Collection<Integer>> selection : selections.entrySet()) {
+                if (selection.getKey() == null || selection.getValue() == null) {
+                    continue;
+                }
+                int[] indexes = new int[selection.getValue().size()];
+                int i = 0;
+                for (Integer index : selection.getValue()) {
+                    indexes[i++] = index != null ? index : INVALID_INDEX;
+                }
+                builder.selection(selection.getKey(), indexes);
+            }
+        }
+        return builder.build();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public long questionId(int i) {
+        return questionIds[i];
+    }
+
+    public boolean isMultiSelect(int i) {
+        return selections[i] != null;
+    }
+
+    public int answer(int i) {
+        return answers[i];
+    }
+
+    public int[] selection(int i) {
+        return selections[i];
+    }
+
+    public Map<Long, Integer> answerMap() {
+        Map<Long, Integer> map = new LinkedHashMap<>();
+        for (int i = 0; i < questionIds.length; i++) {
+            if (selections[i] == null) {
+                map.put(questionIds[i], answers[i]);
+            }
+        }
+        return map;
+    }
+
+    public Map<Long, List<Integer>> selectionMap() {
+        Map<Long, List<Integer>> map = new LinkedHashMap<>();
+        for (int i = 0; i < questionIds.length; i++) {
+            if (selections[i] != null) {
+                map.put(questionIds[i], Arrays.stream(selections[i]).boxed().toList());
+            }
+        }
+        return map;
+    }
+
+    // This sheet with the other one's answers added, replacing any to the same questions
+    public AnswerSheet merge(AnswerSheet later) {
+        Builder builder = new Builder(size() + later.size());
+        for (AnswerSheet sheet : new AnswerSheet[]{this, later}) {
+            for (int i = 0; i < sheet.size(); i++) {
+                builder.add(sheet.questionIds[i], sheet.answers[i], sheet.selections[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    public boolean hasSelections() {
+        for (int[] selection : selections) {
+            if (selection != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AnswerSheet sheet && Arrays.equals(questionIds, sheet.questionIds)
+                && Arrays.equals(answers, sheet.answers) && Arrays.deepEquals(selections, sheet.selections);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(questionIds) + Arrays.hashCode(answers)) + Arrays.deepHashCode(selections);
+    }
+
+    @Override
+    public String toString() {
+        return "AnswerSheet" + answerMap() + selectionMap();
+    }
+
+    // Collects answers in any order; build() sorts them by question id, a later answer to the same
+    // question replacing an earlier one. Build once: the sheet may take over the builder's arrays.
+    public static final class Builder {
+        // Answer sheets are usually short enough to sort with their arrival index packed into the id
+        private static final int PACKED_SORT_LIMIT = 256;
+        private static final long MAX_PACKED_ID = Long.MAX_VALUE >>> 8;
+
+        private long[] questionIds;
+        private int[] answers;
+        private int[][] selections;
+        private int size;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 4);
+            questionIds = new long[capacity];
+            answers = new int[capacity];
+            selections = new int[capacity][];
+        }
+
+        public Builder answer(long questionId, int index) {
+            add(questionId, index, null);
+            return this;
+        }
+
+        public Builder selection(long questionId, int[] indexes) {
+            add(questionId, 0, indexes);
+            return this;
+        }
+
+        private void add(long questionId, int answer, int[] selection) {
+            if (size == questionIds.length) {
+                questionIds = Arrays.copyOf(questionIds, size * 2);
+                answers = Arrays.copyOf(answers, size * 2);
+                selections = Arrays.copyOf(selections, size * 2);
+            }
+            questionIds[size] = questionId;
+            answers[size] = answer;
+            selections[size] = selection;
+            size++;
+        }
+
+        public AnswerSheet build() {
+            boolean ascending = true;
+            for (int i = 1; i < size && ascending; i++) {
+                ascending = questionIds[i - 1] < questionIds[i];
+            }
+            if (ascending) {
+                // Decoded sheets arrive sorted
+                return trimmed();
+            }
+            if (size <= PACKED_SORT_LIMIT && packable()) {
+                sortPacked();
+                return deduplicated();
+            }
+            long[] sortedIds = Arrays.copyOf(questionIds, size);
+            Arrays.sort(sortedIds);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || sortedIds[unique - 1] != sortedIds[i]) {
+                    sortedIds[unique++] = sortedIds[i];
+                }
+            }
+            sortedIds = Arrays.copyOf(sortedIds, unique);
+            int[] sortedAnswers = new int[unique];
+            int[][] sortedSelections = new int[unique][];
+            for (int i = 0; i < size; i++) {
+                int position = Arrays.binarySearch(sortedIds, questionIds[i]);
+                sortedAnswers[position] = answers[i];
+                sortedSelections[position] = selections[i];
+            }
+            return new AnswerSheet(sortedIds, sortedAnswers, sortedSelections);
+        }
+
+        private boolean packable() {
+            for (int i = 0; i < size; i++) {
+                if (questionIds[i] < 0 || questionIds[i] > MAX_PACKED_ID) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Sorts one long[] of (questionId << 8 | arrival) rather than three parallel arrays; ties keep
+        // arrival order, so the later of two answers to one question stays last
+        private void sortPacked() {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = questionIds[i] << 8 | i;
+            }
+            Arrays.sort(keys);
+            int[] sortedAnswers = new int[size];
+            int[][] sortedSelections = new int[size][];
+            for (int i = 0; i < size; i++) {
+                int arrival = (int) (keys[i] & 0xFF);
+                keys[i] >>>= 8;
+                sortedAnswers[i] = answers[arrival];
+                sortedSelections[i] = selections[arrival];
+            }
+            questionIds = keys;
+            answers = sortedAnswers;
+            selections = sortedSelections;
+        }
+
+        private AnswerSheet deduplicated() {
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique > 0 && questionIds[unique - 1] == questionIds[i]) {
+                    unique--;
+                }
+                questionIds[unique] = questionIds[i];
+                answers[unique] = answers[i];
+                selections[unique] = selections[i];
+                unique++;
+            }
+            size = unique;
+            return trimmed();
+        }
+
+        // Hands the builder's arrays over when they are already the right length
+        private AnswerSheet trimmed() {
+            if (questionIds.length == size) {
+                return new AnswerSheet(questionIds, answers, selections);
+            }
+            return new AnswerSheet(Arrays.copyOf(questionIds, size), Arrays.copyOf(answers, size),
+                    Arrays.copyOf(selections, size));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.quizapp.scoring;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class AnswerSheetConverter implements AttributeConverter<AnswerSheet, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(AnswerSheet sheet) {
+        return sheet != null ? AnswerCodec.encode(sheet) : null;
+    }
+
+    @Override
+    public AnswerSheet convertToEntityAttribute(byte[] data) {
+        return data != null ? AnswerCodec.decode(data) : null;
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.quizapp.scoring;
+
+import org.example.quizapp.dto.QuestionSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// The questions an attempt session presents and the order of each question's options, derived from
+// the version's question list and the session seed alone, so a session stores eight bytes rather than
+// its own copy of the quiz. Questions are sampled without replacement in random order, then each
+// sampled question's options are shuffled. Answers given against the presented order are mapped back
+// to the original option indexes, which is how they are stored and scored.
+public final class AttemptLayout {
+
+    private final long[] questionIds; // Presented order
+    private final int[] positions; // Index of each presented question in the version
+    private final int[][] optionOrders; // Presented option index -> original option index
+
+    // Question ids sorted, with each id's slot in the arrays above
+    private final long[] sortedIds;
+    private final int[] sortedSlots;
+
+    private AttemptLayout(long[] questionIds, int[] positions, int[][] optionOrders) {
+        this.questionIds = questionIds;
+        this.positions = positions;
+        this.optionOrders = optionOrders;
+        sortedIds = new long[questionIds.length];
+        sortedSlots = new int[questionIds.length];
+        Integer[] order = new Integer[questionIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(questionIds[a], questionIds[b]));
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = questionIds[order[i]];
+            sortedSlots[i] = order[i];
+        }
+    }
+
+    // Same version, seed and count always give the same layout. A count of zero, or more than the
+    // version has, presents every question.
+    public static AttemptLayout of(List<QuestionSnapshot> questions, long seed, int count) {
+        int total = questions.size();
+        int size = count > 0 ? Math.min(count, total) : total;
+        SplittableRandom random = new SplittableRandom(seed);
+
+        // Partial Fisher-Yates: the first size slots end up a uniform sample in random order
+        int[] shuffled = new int[total];
+        for (int i = 0; i < total; i++) {
+            shuffled[i] = i;
+        }
+        for (int i = 0; i < size; i++) {
+            int j = i + random.nextInt(total - i);
+            int tmp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = tmp;
+        }
+
+        long[] questionIds = new long[size];
+        int[] positions = Arrays.copyOf(shuffled, size);
+        int[][] optionOrders = new int[size][];
+        for (int i = 0; i < size; i++) {
+            QuestionSnapshot question = questions.get(positions[i]);
+            questionIds[i] = question.getId();
+            int[] order = new int[question.getOptions() != null ? question.getOptions().size() : 0];
+            for (int k = 0; k < order.length; k++) {
+                order[k] = k;
+            }
+            for (int k = order.length - 1; k > 0; k--) {
+                int j = random.nextInt(k + 1);
+                int tmp = order[k];
+                order[k] = order[j];
+                order[j] = tmp;
+            }
+            optionOrders[i] = order;
+        }
+        return new AttemptLayout(questionIds, positions, optionOrders);
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public long[] questionIds() {
+        return questionIds;
+    }
+
+    public int position(int i) {
+        return positions[i];
+    }
+
+    public int[] optionOrder(int i) {
+        return optionOrders[i];
+    }
+
+    public boolean contains(long questionId) {
+        return Arrays.binarySearch(sortedIds, questionId) >= 0;
+    }
+
+    // Maps answers from the presented option order back to the original one. Questions outside the
+    // sample are dropped; indexes outside the options are kept as they are, so they still score as wrong.
+    public AnswerSheet toOriginal(AnswerSheet presented) {
+        AnswerSheet.Builder builder = AnswerSheet.builder(presented.size());
+        for (int i = 0; i < presented.size(); i++) {
+            int found = Arrays.binarySearch(sortedIds, presented.questionId(i));
+            if (found < 0) {
+                continue;
+            }
+            int[] order = optionOrders[sortedSlots[found]];
+            if (!presented.isMultiSelect(i)) {
+                builder.answer(presented.questionId(i), original(order, presented.answer(i)));
+                continue;
+            }
+            int[] selection = presented.selection(i);
+            int[] mapped = new int[selection.length];
+            for (int k = 0; k < selection.length; k++) {
+                mapped[k] = original(order, selection[k]);
+            }
+            builder.selection(presented.questionId(i), mapped);
+        }
+        return builder.build();
+    }
+
+    // Drops answers to questions outside the sample, keeping the presented option order
+    public AnswerSheet retain(AnswerSheet presented) {
+        AnswerSheet.Builder builder = AnswerSheet.builder(presented.size());
+        for (int i = 0; i < presented.size(); i++) {
+            if (!contains(presented.questionId(i))) {
+                continue;
+            }
+            if (presented.isMultiSelect(i)) {
+                builder.selection(presented.questionId(i), presented.selection(i));
+            } else {
+                builder.answer(presented.questionId(i), presented.answer(i));
+            }
+        }
+        return builder.build();
+    }
+
+    public ScoringPlan scoringPlan(ScoringPlan full) {
+        return full.restrictTo(questionIds);
+    }
+
+    private static int original(int[] order, int index) {
+        return index >= 0 && index < order.length ? order[index] : index;
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.quizapp.scoring;
+
+import org.example.quizapp.dto.QuestionSnapshot;
+import org.example.quizapp.entity.Question;
+
+import java.util.Arrays;
+import java.util.List;
+
+// A quiz's answer key compiled once into primitive arrays. Each selection is a bitmask of chosen
+// options, so single-choice, multi-select, weights, partial credit and negative marking are all
+// evaluated in one loop without boxing or map lookups.
+public final class ScoringPlan {
+
+    // Selection for an answer outside 0..63; can never be fully correct
+    private static final long INVALID_SELECTION = -1L;
+
+    public record Result(int correct, double points, double maxPoints) {
+
+        // Negative totals from negative marking are floored at zero
+        public double percent() {
+            return maxPoints > 0 ? Math.max(0.0, points) * 100.0 / maxPoints : 0.0;
+        }
+    }
+
+    private final long[] correctMasks;
+    private final int[] correctCounts;
+    private final double[] weights;
+    private final double[] negativeMarks;
+    private final boolean[] partialCredit;
+    private final double maxPoints;
+
+    // Question ids sorted, with each id's position in the arrays above
+    private final long[] sortedIds;
+    private final int[] sortedPositions;
+
+    private ScoringPlan(long[] correctMasks, double[] weights, double[] negativeMarks, boolean[] partialCredit,
+                        long[] questionIds) {
+        this.correctMasks = correctMasks;
+        this.weights = weights;
+        this.negativeMarks = negativeMarks;
+        this.partialCredit = partialCredit;
+        correctCounts = new int[correctMasks.length];
+        double total = 0;
+        for (int i = 0; i < correctMasks.length; i++) {
+            correctCounts[i] = Long.bitCount(correctMasks[i]);
+            total += weights[i];
+        }
+        maxPoints = total;
+
+        Integer[] order = new Integer[questionIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(questionIds[a], questionIds[b]));
+        sortedIds = new long[order.length];
+        sortedPositions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = questionIds[order[i]];
+            sortedPositions[i] = order[i];
+        }
+    }
+
+    public static ScoringPlan compile(List<QuestionSnapshot> questions) {
+        int size = questions.size();
+        long[] correctMasks = new long[size];
+        double[] weights = new double[size];
+        double[] negativeMarks = new double[size];
+        boolean[] partialCredit = new boolean[size];
+        long[] questionIds = new long[size];
+        for (int i = 0; i < size; i++) {
+            QuestionSnapshot question = questions.get(i);
+            // Versions published before multi-select only carry the single index
+            correctMasks[i] = question.getCorrectAnswerMask() != null
+                    ? question.getCorrectAnswerMask()
+                    : bit(question.getCorrectAnswerIndex());
+            weights[i] = question.getWeight() != null ? question.getWeight() : 1.0;
+            negativeMarks[i] = question.getNegativeMark() != null ? question.getNegativeMark() : 0.0;
+            partialCredit[i] = Boolean.TRUE.equals(question.getPartialCredit());
+            questionIds[i] = question.getId();
+        }
+        return new ScoringPlan(correctMasks, weights, negativeMarks, partialCredit, questionIds);
+    }
+
+    // From the live question list, for attempts and rescoring outside quiz versions
+    public static ScoringPlan compileQuestions(List<Question> questions) {
+        return compile(questions.stream()
+                .map(question -> new QuestionSnapshot(question.getId(), question.getText(), null,
+                        question.getCorrectAnswerIndex(), question.getCorrectAnswerMask(), question.getWeight(),
+                        question.getPartialCredit(), question.getNegativeMark()))
+                .toList());
+    }
+
+    // The plan for some of the questions, e.g. those sampled for an attempt session; ids not in this
+    // plan are skipped
+    public ScoringPlan restrictTo(long[] questionIds) {
+        long[] masks = new long[questionIds.length];
+        double[] pickedWeights = new double[questionIds.length];
+        double[] pickedNegativeMarks = new double[questionIds.length];
+        boolean[] pickedPartialCredit = new boolean[questionIds.length];
+        long[] ids = new long[questionIds.length];
+        int size = 0;
+        for (long questionId : questionIds) {
+            int found = Arrays.binarySearch(sortedIds, questionId);
+            if (found < 0) {
+                continue;
+            }
+            int position = sortedPositions[found];
+            masks[size] = correctMasks[position];
+            pickedWeights[size] = weights[position];
+            pickedNegativeMarks[size] = negativeMarks[position];
+            pickedPartialCredit[size] = partialCredit[position];
+            ids[size++] = questionId;
+        }
+        return new ScoringPlan(Arrays.copyOf(masks, size), Arrays.copyOf(pickedWeights, size),
+                Arrays.copyOf(pickedNegativeMarks, size), Arrays.copyOf(pickedPartialCredit, size),
+                Arrays.copyOf(ids, size));
+    }
+
+    public int size() {
+        return correctMasks.length;
+    }
+
+    // One bitmask of selected options per question, in plan order; 0 is unanswered. Sheet and plan
+    // are both sorted by question id, so this is a single merge walk.
+    public long[] selections(AnswerSheet sheet) {
+        long[] selected = new long[correctMasks.length];
+        int next = 0;
+        for (int i = 0; i < sheet.size() && next < sortedIds.length; i++) {
+            long questionId = sheet.questionId(i);
+            while (next < sortedIds.length && sortedIds[next] < questionId) {
+                next++;
+            }
+            if (next == sortedIds.length || sortedIds[next] != questionId) {
+                continue;
+            }
+            int position = sortedPositions[next];
+            if (!sheet.isMultiSelect(i)) {
+                selected[position] = bit(sheet.answer(i));
+                continue;
+            }
+            long mask = 0;
+            for (int option : sheet.selection(i)) {
+                long bit = bit(option);
+                if (bit == INVALID_SELECTION) {
+                    mask = INVALID_SELECTION;
+                    break;
+                }
+                mask |= bit;
+            }
+            selected[position] = mask;
+        }
+        return selected;
+    }
+
+    // A question counts as correct only when exactly the right options are selected. Partial credit
+    // is the share of right options picked minus wrong ones; an answer earning nothing costs its
+    // negative mark, an unanswered question costs nothing.
+    public Result evaluate(long[] selected) {
+        int correct = 0;
+        double points = 0;
+        for (int i = 0; i < correctMasks.length; i++) {
+            long pick = selected[i];
+            if (pick == 0) {
+                continue;
+            }
+            long key = correctMasks[i];
+            if (pick == key) {
+                correct++;
+                points += weights[i];
+            } else if (partialCredit[i]) {
+                int net = Long.bitCount(pick & key) - Long.bitCount(pick & ~key);
+                if (net > 0) {
+                    points += weights[i] * net / correctCounts[i];
+                } else {
+                    points -= negativeMarks[i];
+                }
+            } else {
+                points -= negativeMarks[i];
+            }
+        }
+        return new Result(correct, points, maxPoints);
+    }
+
+    private static long bit(int option) {
+        return option >= 0 && option < Long.SIZE ? 1L << option : INVALID_SELECTION;
+    }
+}
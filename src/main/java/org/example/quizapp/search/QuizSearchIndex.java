@@ -0,0 +1,422 @@
+package org.example.quizapp.search;
+
+import org.example.quizapp.entity.Quiz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index with one document per quiz: its title, category and question text. Each
+// term maps to postings held in two int arrays, document numbers (ascending) and term frequencies, and
+// queries are ranked with BM25. Documents are only appended: re-indexing a quiz tombstones its old
+// document, and tombstones are dropped when the index is rebuilt.
+public final class QuizSearchIndex {
+
+    // Frequencies are weighted by field, so a title match counts as three body matches
+    static final int TITLE_BOOST = 3;
+    static final int CATEGORY_BOOST = 2;
+    static final int TEXT_BOOST = 1;
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    // The last query term also matches longer terms starting with it, ranked below an exact match
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    static final float PREFIX_WEIGHT = 0.5f;
+    static final int MAX_QUERY_TERMS = 16;
+
+    // Rough heap cost of a term: hash and tree entries, string and the postings object
+    private static final int TERM_OVERHEAD_BYTES = 48 + 40 + 56 + 32;
+
+    public record Document(long quizId, String title, String category, Quiz.Difficulty difficulty,
+                           List<String> questionTexts) {
+    }
+
+    public record Hit(long quizId, String title, String category, Quiz.Difficulty difficulty, double score) {
+    }
+
+    public record Result(int total, List<Hit> hits) {
+    }
+
+    // A tokenized document, so the expensive part of indexing can run in parallel and off the lock
+    public static final class Analyzed {
+        final Document document;
+        final String[] terms;
+        final int[] freqs;
+        final int length;
+
+        private Analyzed(Document document, String[] terms, int[] freqs, int length) {
+            this.document = document;
+            this.terms = terms;
+            this.freqs = freqs;
+            this.length = length;
+        }
+    }
+
+    private static final class Postings {
+        int[] docs = new int[2];
+        int[] freqs = new int[2];
+        int size;
+    }
+
+    private record Clause(Postings[] postings, float[] weights, long cost) {
+    }
+
+    // Score accumulator per query thread; only the entries a query touched are cleared afterwards
+    private static final class Scratch {
+        float[] scores = new float[0];
+        byte[] matched = new byte[0];
+        int[] candidates = new int[64];
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Terms are looked up by hash; the sorted copy is only walked for prefix matches
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final TreeMap<String, Postings> sortedTerms = new TreeMap<>();
+    private final Map<Long, Integer> docByQuiz = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] quizIds = new long[16];
+    private int[] lengths = new int[16];
+    private String[] titles = new String[16];
+    private String[] categories = new String[16];
+    private Quiz.Difficulty[] difficulties = new Quiz.Difficulty[16];
+    private int maxDoc;
+    private int deletedDocs;
+    private long totalLength;
+    private long postingBytes;
+    private long storedBytes;
+
+    public static Analyzed analyze(Document document) {
+        Map<String, int[]> freqs = new HashMap<>();
+        addTerms(freqs, document.title(), TITLE_BOOST);
+        addTerms(freqs, document.category(), CATEGORY_BOOST);
+        for (String text : document.questionTexts()) {
+            addTerms(freqs, text, TEXT_BOOST);
+        }
+        String[] terms = new String[freqs.size()];
+        int[] termFreqs = new int[freqs.size()];
+        int length = 0;
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : freqs.entrySet()) {
+            terms[i] = entry.getKey();
+            termFreqs[i] = entry.getValue()[0];
+            length += termFreqs[i];
+            i++;
+        }
+        return new Analyzed(document, terms, termFreqs, length);
+    }
+
+    private static void addTerms(Map<String, int[]> freqs, String text, int boost) {
+        for (String term : Tokenizer.tokenize(text)) {
+            freqs.computeIfAbsent(term, key -> new int[1])[0] += boost;
+        }
+    }
+
+    // Adds the document, replacing any earlier one for the same quiz
+    public void put(Analyzed analyzed) {
+        Document document = analyzed.document;
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.quizId());
+            if (maxDoc == quizIds.length) {
+                int capacity = maxDoc + (maxDoc >> 1);
+                quizIds = Arrays.copyOf(quizIds, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                difficulties = Arrays.copyOf(difficulties, capacity);
+            }
+            int doc = maxDoc++;
+            quizIds[doc] = document.quizId();
+            lengths[doc] = analyzed.length;
+            titles[doc] = document.title();
+            categories[doc] = document.category();
+            difficulties[doc] = document.difficulty();
+            for (int i = 0; i < analyzed.terms.length; i++) {
+                Postings termPostings = postings.get(analyzed.terms[i]);
+                if (termPostings == null) {
+                    termPostings = new Postings();
+                    postings.put(analyzed.terms[i], termPostings);
+                    sortedTerms.put(analyzed.terms[i], termPostings);
+                    postingBytes += TERM_OVERHEAD_BYTES + 2L * analyzed.terms[i].length() + 2 * (16 + 8);
+                }
+                if (termPostings.size == termPostings.docs.length) {
+                    int capacity = termPostings.size + (termPostings.size >> 1) + 1;
+                    termPostings.docs = Arrays.copyOf(termPostings.docs, capacity);
+                    termPostings.freqs = Arrays.copyOf(termPostings.freqs, capacity);
+                    postingBytes += 8L * (capacity - termPostings.size);
+                }
+                termPostings.docs[termPostings.size] = doc;
+                termPostings.freqs[termPostings.size] = analyzed.freqs[i];
+                termPostings.size++;
+            }
+            docByQuiz.put(document.quizId(), doc);
+            totalLength += analyzed.length;
+            storedBytes += storedBytes(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long quizId) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(quizId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(long quizId) {
+        Integer doc = docByQuiz.remove(quizId);
+        if (doc == null) {
+            return false;
+        }
+        deleted.set(doc);
+        deletedDocs++;
+        totalLength -= lengths[doc];
+        storedBytes -= storedBytes(doc);
+        titles[doc] = null;
+        categories[doc] = null;
+        return true;
+    }
+
+    // Quizzes matching every query term, best first. Only the postings of the query terms are read,
+    // rarest term first, so the cost follows how common the terms are rather than the index size.
+    public Result search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return new Result(0, List.of());
+        }
+        if (tokens.size() > MAX_QUERY_TERMS) {
+            tokens = tokens.subList(0, MAX_QUERY_TERMS);
+        }
+        lock.readLock().lock();
+        try {
+            int liveDocs = maxDoc - deletedDocs;
+            if (liveDocs == 0) {
+                return new Result(0, List.of());
+            }
+            List<Clause> clauses = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                Clause clause = clause(tokens.get(i), i == tokens.size() - 1, liveDocs);
+                if (clause == null) {
+                    return new Result(0, List.of());
+                }
+                clauses.add(clause);
+            }
+            clauses.sort((a, c) -> Long.compare(a.cost(), c.cost()));
+            return collect(clauses, (float) totalLength / liveDocs, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Clause clause(String token, boolean last, int liveDocs) {
+        List<Postings> matches = new ArrayList<>();
+        List<Float> weights = new ArrayList<>();
+        Postings exact = postings.get(token);
+        if (exact != null) {
+            matches.add(exact);
+            weights.add(idf(exact.size, liveDocs));
+        }
+        if (last && token.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, Postings> entry : sortedTerms.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                if (matches.size() == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matches.add(entry.getValue());
+                weights.add(PREFIX_WEIGHT * idf(entry.getValue().size, liveDocs));
+            }
+        }
+        if (matches.isEmpty()) {
+            return null;
+        }
+        float[] clauseWeights = new float[weights.size()];
+        long cost = 0;
+        for (int i = 0; i < clauseWeights.length; i++) {
+            clauseWeights[i] = weights.get(i);
+            cost += matches.get(i).size;
+        }
+        return new Clause(matches.toArray(new Postings[0]), clauseWeights, cost);
+    }
+
+    // Document frequencies still count tombstoned documents until the next rebuild
+    private static float idf(int docFreq, int liveDocs) {
+        return (float) Math.log(1 + (liveDocs - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    private Result collect(List<Clause> clauses, float averageLength, int limit) {
+        Scratch scratch = SCRATCH.get();
+        if (scratch.scores.length < maxDoc) {
+            scratch.scores = new float[quizIds.length];
+            scratch.matched = new byte[quizIds.length];
+        }
+        float[] scores = scratch.scores;
+        byte[] matched = scratch.matched;
+        int candidateCount = 0;
+        try {
+            // The first clause picks the candidates; later clauses only score documents matched by all
+            // clauses before them
+            for (int c = 0; c < clauses.size(); c++) {
+                Clause clause = clauses.get(c);
+                for (int p = 0; p < clause.postings().length; p++) {
+                    Postings termPostings = clause.postings()[p];
+                    float weight = clause.weights()[p];
+                    for (int i = 0; i < termPostings.size; i++) {
+                        int doc = termPostings.docs[i];
+                        if (matched[doc] < c) {
+                            continue;
+                        }
+                        if (matched[doc] == 0) {
+                            if (candidateCount == scratch.candidates.length) {
+                                scratch.candidates = Arrays.copyOf(scratch.candidates, candidateCount * 2);
+                            }
+                            scratch.candidates[candidateCount++] = doc;
+                        }
+                        float freq = termPostings.freqs[i];
+                        float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                        scores[doc] += weight * freq * (K1 + 1) / (freq + norm);
+                        matched[doc] = (byte) (c + 1);
+                    }
+                }
+            }
+
+            int total = 0;
+            int[] heap = new int[Math.min(limit, candidateCount)];
+            int heapSize = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                int doc = scratch.candidates[i];
+                if (matched[doc] != clauses.size() || deleted.get(doc)) {
+                    continue;
+                }
+                total++;
+                if (heapSize < heap.length) {
+                    heap[heapSize++] = doc;
+                    siftUp(heap, heapSize - 1, scores);
+                } else if (heap.length > 0 && ranksBefore(doc, heap[0], scores)) {
+                    heap[0] = doc;
+                    siftDown(heap, heapSize, scores);
+                }
+            }
+
+            // Popping the worst hit each time fills the page from the back
+            Hit[] hits = new Hit[heapSize];
+            for (int size = heapSize; size > 0; size--) {
+                int doc = heap[0];
+                hits[size - 1] = new Hit(quizIds[doc], titles[doc], categories[doc], difficulties[doc], scores[doc]);
+                heap[0] = heap[size - 1];
+                siftDown(heap, size - 1, scores);
+            }
+            return new Result(total, List.of(hits));
+        } finally {
+            for (int i = 0; i < candidateCount; i++) {
+                scores[scratch.candidates[i]] = 0;
+                matched[scratch.candidates[i]] = 0;
+            }
+        }
+    }
+
+    // Higher score first, then the earlier document
+    private static boolean ranksBefore(int doc, int other, float[] scores) {
+        return scores[doc] > scores[other] || (scores[doc] == scores[other] && doc < other);
+    }
+
+    // Min-heap on rank: the root is the worst hit kept so far
+    private static void siftUp(int[] heap, int i, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksBefore(heap[parent], heap[i], scores)) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int i = 0;
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            if (left < size && ranksBefore(heap[worst], heap[left], scores)) {
+                worst = left;
+            }
+            if (left + 1 < size && ranksBefore(heap[worst], heap[left + 1], scores)) {
+                worst = left + 1;
+            }
+            if (worst == i) {
+                return;
+            }
+            swap(heap, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    public boolean contains(long quizId) {
+        lock.readLock().lock();
+        try {
+            return docByQuiz.containsKey(quizId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int liveDocs() {
+        lock.readLock().lock();
+        try {
+            return maxDoc - deletedDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int deletedDocs() {
+        lock.readLock().lock();
+        try {
+            return deletedDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int terms() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Titles and categories kept for hits, counted at two bytes a char
+    private long storedBytes(int doc) {
+        return 2L * (titles[doc].length() + categories[doc].length());
+    }
+
+    // Postings plus the per-document arrays and the quiz id map
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return postingBytes + storedBytes + 36L * quizIds.length + 48L * docByQuiz.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.quizapp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    // Declared in priority order: a saturated group sheds every group after it
+    public enum EndpointGroup {
+        SUBMIT, RESULTS, CATALOG
+    }
+
+    private static final double SATURATION = 0.9;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    private static final long MIN_RTT_WINDOW_NANOS = 30_000_000_000L;
+
+    private final boolean enabled;
+    private final Map<EndpointGroup, GroupLimit> groups = new EnumMap<>(EndpointGroup.class);
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${concurrency.limit.enabled:true}") boolean enabled,
+                                      @Value("${concurrency.limit.initial:20}") int initialLimit,
+                                      @Value("${concurrency.limit.min:4}") int minLimit,
+                                      @Value("${concurrency.limit.max:200}") int maxLimit) {
+        this.enabled = enabled;
+        for (EndpointGroup group : EndpointGroup.values()) {
+            GroupLimit limit = new GroupLimit(initialLimit, minLimit, maxLimit);
+            limit.rejected = Counter.builder("quiz.concurrency.rejected")
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+            Gauge.builder("quiz.concurrency.limit", limit, GroupLimit::currentLimit)
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+            Gauge.builder("quiz.concurrency.inflight", limit, l -> l.inFlight.get())
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+            groups.put(group, limit);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean tryAcquire(EndpointGroup group) {
+        for (EndpointGroup higher : EndpointGroup.values()) {
+            if (higher == group) {
+                break;
+            }
+            if (groups.get(higher).isSaturated()) {
+                groups.get(group).rejected.increment();
+                return false;
+            }
+        }
+        GroupLimit limit = groups.get(group);
+        while (true) {
+            int current = limit.inFlight.get();
+            if (current >= (int) limit.limit) {
+                limit.rejected.increment();
+                return false;
+            }
+            if (limit.inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(EndpointGroup group, long rttNanos, int inFlightAtStart) {
+        GroupLimit limit = groups.get(group);
+        limit.inFlight.decrementAndGet();
+        limit.onSample(rttNanos, inFlightAtStart);
+    }
+
+    public void onDropped(EndpointGroup group) {
+        GroupLimit limit = groups.get(group);
+        limit.inFlight.decrementAndGet();
+        limit.onDrop();
+    }
+
+    public boolean isSaturated(EndpointGroup group) {
+        return enabled && groups.get(group).isSaturated();
+    }
+
+    public int inFlight(EndpointGroup group) {
+        return groups.get(group).inFlight.get();
+    }
+
+    public double currentLimit(EndpointGroup group) {
+        return groups.get(group).currentLimit();
+    }
+
+    private static class GroupLimit {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final int minLimit;
+        private final int maxLimit;
+        private volatile double limit;
+        private Counter rejected;
+
+        private long minRttNanos = Long.MAX_VALUE;
+        private long minRttResetAt;
+        private double smoothedRttNanos;
+
+        GroupLimit(int initialLimit, int minLimit, int maxLimit) {
+            this.limit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+
+        double currentLimit() {
+            return limit;
+        }
+
+        boolean isSaturated() {
+            return inFlight.get() >= limit * SATURATION;
+        }
+
+        // Gradient step: shrink in proportion to how far latency drifted above the
+        // no-load baseline, then probe upwards by a sqrt(limit) queue allowance
+        synchronized void onSample(long rttNanos, int inFlightAtStart) {
+            long now = System.nanoTime();
+            if (rttNanos < minRttNanos || now - minRttResetAt > MIN_RTT_WINDOW_NANOS) {
+                minRttNanos = rttNanos;
+                minRttResetAt = now;
+            }
+            smoothedRttNanos = smoothedRttNanos == 0 ? rttNanos
+                    : smoothedRttNanos * (1 - SMOOTHING) + rttNanos * SMOOTHING;
+
+            double gradient = Math.max(0.5, Math.min(1.0, minRttNanos / smoothedRttNanos));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            if (newLimit > limit && inFlightAtStart < limit / 2) {
+                // Application limited: low concurrency tells us nothing about capacity
+                return;
+            }
+            newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        }
+
+        synchronized void onDrop() {
+            limit = Math.max(minLimit, limit * BACKOFF);
+        }
+    }
+}
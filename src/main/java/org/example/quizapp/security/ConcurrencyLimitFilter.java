@@ -0,0 +1,100 @@
+package org.example.quizapp.security;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.quizapp.security.AdaptiveConcurrencyLimiter.EndpointGroup;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.io.IOException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.TimeoutException;
+
+public class ConcurrencyLimitFilter implements Filter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, int retryAfterSeconds) {
+        this.limiter = limiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        EndpointGroup group = limiter.isEnabled() ? classify(httpRequest) : null;
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire(group)) {
+            httpResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            httpResponse.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write("{\"error\":\"Server is busy, please retry\"}");
+            return;
+        }
+
+        int inFlightAtStart = limiter.inFlight(group);
+        long start = System.nanoTime();
+        // Only overload counts as a drop. Services signal bad input with RuntimeExceptions too (quiz not
+        // found, time limit exceeded), and those must not shrink the limit for everyone else; they are
+        // sampled for latency like any completed request.
+        boolean dropped = false;
+        try {
+            chain.doFilter(request, response);
+            dropped = httpResponse.getStatus() == HttpServletResponse.SC_SERVICE_UNAVAILABLE
+                    || httpResponse.getStatus() == HttpServletResponse.SC_GATEWAY_TIMEOUT;
+        } catch (IOException | ServletException | RuntimeException e) {
+            dropped = isOverload(e);
+            throw e;
+        } finally {
+            if (dropped) {
+                limiter.onDropped(group);
+            } else {
+                limiter.onSuccess(group, System.nanoTime() - start, inFlightAtStart);
+            }
+        }
+    }
+
+    // Timeouts, lock waits and an exhausted connection pool, anywhere in the cause chain
+    static boolean isOverload(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof TransactionTimedOutException
+                    || cause instanceof PessimisticLockingFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private EndpointGroup classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/results/")) {
+            return EndpointGroup.RESULTS;
+        }
+        if (path.startsWith("/quizzes")) {
+            if ("POST".equals(request.getMethod()) && path.endsWith("/attempt")) {
+                return EndpointGroup.SUBMIT;
+            }
+            return EndpointGroup.CATALOG;
+        }
+        return null;
+    }
+}
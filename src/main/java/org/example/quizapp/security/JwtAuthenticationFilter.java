@@ -1,23 +1,52 @@
 package org.example.quizapp.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.example.quizapp.tracing.SpanScope;
+import org.example.quizapp.tracing.Tracer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class JwtAuthenticationFilter implements Filter {
 
+    private enum Failure {
+        REVOKED, EXPIRED, SIGNATURE, MALFORMED, INVALID, REJECTED
+    }
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationList revocationList;
+    private final Tracer tracer;
+    private final Timer verifyTimer;
+    private final Map<Failure, Counter> failureCounters = new EnumMap<>(Failure.class);
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+                                   TokenRevocationList revocationList, MeterRegistry meterRegistry, Tracer tracer) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revocationList = revocationList;
+        this.tracer = tracer;
+        this.verifyTimer = meterRegistry.timer("quiz.jwt.verify");
+        for (Failure failure : Failure.values()) {
+            failureCounters.put(failure, Counter.builder("quiz.jwt.failures")
+                    .tag("reason", failure.name().toLowerCase())
+                    .register(meterRegistry));
+        }
     }
 
     @Override
@@ -34,10 +63,26 @@ public class JwtAuthenticationFilter implements Filter {
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
+            long start = System.nanoTime();
+            try (SpanScope ignored = tracer.startSpan("jwt.verify")) {
+                Claims claims = jwtUtil.extractAllClaims(jwt);
+                // In-memory check, no database lookup on the request path
+                if (revocationList.isRevoked(claims.getId(), claims.getExpiration().getTime())) {
+                    recordFailure(Failure.REVOKED);
+                } else {
+                    username = claims.getSubject();
+                }
+            } catch (ExpiredJwtException e) {
+                recordFailure(Failure.EXPIRED);
+            } catch (SignatureException e) {
+                recordFailure(Failure.SIGNATURE);
+            } catch (MalformedJwtException e) {
+                recordFailure(Failure.MALFORMED);
             } catch (Exception e) {
                 // JWT parsing failed - continue without authentication
+                recordFailure(Failure.INVALID);
+            } finally {
+                verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
         }
 
@@ -49,8 +94,14 @@ public class JwtAuthenticationFilter implements Filter {
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(httpRequest));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            } else {
+                recordFailure(Failure.REJECTED);
             }
         }
         chain.doFilter(request, response);
     }
+
+    private void recordFailure(Failure failure) {
+        failureCounters.get(failure).increment();
+    }
 }
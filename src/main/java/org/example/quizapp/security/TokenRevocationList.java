@@ -0,0 +1,214 @@
+package org.example.quizapp.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Revoked token IDs (UUID jti claims), bucketed by the hour their token expires.
+// Buckets live in a ring sized to the token lifetime, so a whole hour of revocations is dropped
+// at once when its tokens can no longer be valid. Lookups take no locks and allocate nothing.
+@Component
+public class TokenRevocationList {
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final int INITIAL_BUCKET_CAPACITY = 64;
+    private static final long INVALID = 0; // Never stored: high == 0 marks an empty slot
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            HEX_VALUES[Character.forDigit(i, 16)] = (byte) i;
+            HEX_VALUES[Character.toUpperCase(Character.forDigit(i, 16))] = (byte) i;
+        }
+    }
+
+    @Value("${jwt.expiration}")
+    private long expirationMs;
+
+    private Bucket[] buckets;
+
+    @PostConstruct
+    public void init() {
+        // Current hour plus every hour a live token can expire in
+        buckets = new Bucket[(int) Math.ceil(expirationMs / (double) HOUR_MS) + 2];
+    }
+
+    public boolean isRevoked(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || tokenId.length() != 36) {
+            return false;
+        }
+        long hour = Math.floorDiv(expiresAtMillis, HOUR_MS);
+        Bucket bucket = buckets[slot(hour)];
+        if (bucket == null || bucket.hour != hour) {
+            return false;
+        }
+        long high = parseHex(tokenId, 0, 18);
+        long low = parseHex(tokenId, 19, 36);
+        // Malformed IDs parse to INVALID and can never have been revoked
+        return high != INVALID && low != INVALID && bucket.contains(high, low);
+    }
+
+    // Returns false if the token has already expired and needs no entry
+    public synchronized boolean revoke(String tokenId, long expiresAtMillis, long nowMillis) {
+        if (!isTokenId(tokenId)) {
+            throw new IllegalArgumentException("Token ID must be a UUID");
+        }
+        if (expiresAtMillis <= nowMillis) {
+            return false;
+        }
+        long hour = Math.floorDiv(expiresAtMillis, HOUR_MS);
+        if (hour - Math.floorDiv(nowMillis, HOUR_MS) >= buckets.length) {
+            throw new IllegalArgumentException("Token expiry is beyond the configured token lifetime");
+        }
+        int slot = slot(hour);
+        Bucket bucket = buckets[slot];
+        if (bucket == null || bucket.hour != hour) {
+            // The slot can only hold an hour that has fully expired
+            bucket = new Bucket(hour);
+            buckets[slot] = bucket;
+        }
+        bucket.add(high(tokenId), low(tokenId));
+        return true;
+    }
+
+    public synchronized void dropExpired(long nowMillis) {
+        long currentHour = Math.floorDiv(nowMillis, HOUR_MS);
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != null && buckets[i].hour < currentHour) {
+                buckets[i] = null;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (Bucket bucket : buckets) {
+            size += bucket != null ? bucket.size : 0;
+        }
+        return size;
+    }
+
+    public synchronized long memoryBytes() {
+        long bytes = 0;
+        for (Bucket bucket : buckets) {
+            bytes += bucket != null ? bucket.table.length() * 8L : 0;
+        }
+        return bytes;
+    }
+
+    // Canonical 8-4-4-4-12 hex form, as produced by UUID.toString()
+    public static boolean isTokenId(String tokenId) {
+        if (tokenId == null || tokenId.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = tokenId.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : hexValue(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hexValue(char c) {
+        return c < 128 ? HEX_VALUES[c] : -1;
+    }
+
+    private int slot(long hour) {
+        return (int) Math.floorMod(hour, (long) buckets.length);
+    }
+
+    private static long high(String tokenId) {
+        return parseHex(tokenId, 0, 18);
+    }
+
+    private static long low(String tokenId) {
+        return parseHex(tokenId, 19, 36);
+    }
+
+    // 16 hex digits of the canonical form, skipping dashes; INVALID on any other character
+    private static long parseHex(String tokenId, int from, int to) {
+        long value = 0;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = tokenId.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            int digit = hexValue(c);
+            if (digit < 0) {
+                return INVALID;
+            }
+            value = (value << 4) | digit;
+            digits++;
+        }
+        return digits == 16 ? value : INVALID;
+    }
+
+    // Open-addressing set of (high, low) pairs; high == 0 marks an empty slot, which random
+    // (version 4) UUIDs never produce. Single writer under the list's lock, lock-free readers.
+    private static final class Bucket {
+        private final long hour;
+        private volatile AtomicLongArray table = new AtomicLongArray(INITIAL_BUCKET_CAPACITY * 2);
+        private int size;
+
+        private Bucket(long hour) {
+            this.hour = hour;
+        }
+
+        boolean contains(long high, long low) {
+            AtomicLongArray current = table;
+            int mask = current.length() / 2 - 1;
+            int index = mix(high, low) & mask;
+            while (true) {
+                long storedHigh = current.get(index * 2);
+                if (storedHigh == 0) {
+                    return false;
+                }
+                if (storedHigh == high && current.get(index * 2 + 1) == low) {
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        void add(long high, long low) {
+            if (high == 0 || contains(high, low)) {
+                return;
+            }
+            if ((size + 1) * 2 > table.length() / 2) {
+                // Readers keep probing the old table until the grown one is published
+                AtomicLongArray grown = new AtomicLongArray(table.length() * 2);
+                for (int i = 0; i < table.length(); i += 2) {
+                    if (table.get(i) != 0) {
+                        insert(grown, table.get(i), table.get(i + 1));
+                    }
+                }
+                table = grown;
+            }
+            insert(table, high, low);
+            size++;
+        }
+
+        private static void insert(AtomicLongArray target, long high, long low) {
+            int mask = target.length() / 2 - 1;
+            int index = mix(high, low) & mask;
+            while (target.get(index * 2) != 0) {
+                index = (index + 1) & mask;
+            }
+            // Low first: a reader that sees the high half also sees the low half
+            target.set(index * 2 + 1, low);
+            target.set(index * 2, high);
+        }
+
+        private static int mix(long high, long low) {
+            long h = (high ^ low) * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
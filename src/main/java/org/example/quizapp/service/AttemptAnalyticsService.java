@@ -0,0 +1,212 @@
+package org.example.quizapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.quizapp.analytics.AttemptColumnStore;
+import org.example.quizapp.analytics.AttemptColumnStore.Dimension;
+import org.example.quizapp.analytics.AttemptColumnStore.GroupKeyEncoder;
+import org.example.quizapp.dto.AttemptAnalyticsGroup;
+import org.example.quizapp.dto.AttemptAnalyticsResponse;
+import org.example.quizapp.entity.AttemptChange;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.repository.AttemptChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class AttemptAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptAnalyticsService.class);
+
+    private static final String LOAD_SQL =
+            "SELECT a.id, a.quiz_id, a.user_id, a.submitted_at, a.score, q.category, q.difficulty " +
+            "FROM attempts a JOIN quizzes q ON q.id = a.quiz_id %s";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AttemptChangeRepository attemptChangeRepository;
+
+    @Value("${analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${analytics.load-fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${analytics.rescan-window-ms:60000}")
+    private long rescanWindowMs;
+
+    private volatile AttemptColumnStore store = new AttemptColumnStore();
+
+    // Only touched by the scheduled loader, which is the store's single writer
+    private long loadedChangeId = -1;
+    private final Map<Long, LocalDateTime> recentAttempts = new HashMap<>(); // ID -> submitted at, inside the window
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("quiz.analytics.rows", this, service -> service.store.size())
+                .register(meterRegistry);
+        Gauge.builder("quiz.analytics.memory", this, service -> service.store.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Incremental load: every pass re-reads the attempts submitted within analytics.rescan-window-ms and
+    // skips the ones already loaded. Attempt IDs are handed out in blocks per instance, so they commit
+    // out of ID order; submission times only trail the commit by the length of the transaction.
+    // Changes outside that window are recorded in attempt_changes and load a fresh copy of the table.
+    @Scheduled(initialDelayString = "${analytics.initial-delay-ms:10000}",
+            fixedDelayString = "${analytics.refresh-interval-ms:5000}")
+    public synchronized void loadNewAttempts() {
+        if (!enabled) {
+            return;
+        }
+        long changeId = attemptChangeRepository.findLatestId();
+        LocalDateTime windowStart = LocalDateTime.now().minus(rescanWindowMs, ChronoUnit.MILLIS);
+        if (changeId != loadedChangeId) {
+            // The current copy keeps serving queries until the new one is complete
+            long start = System.currentTimeMillis();
+            AttemptColumnStore fresh = new AttemptColumnStore();
+            recentAttempts.clear();
+            load(fresh, null, windowStart);
+            store = fresh;
+            loadedChangeId = changeId;
+            logger.info("Loaded {} attempts into a new analytics store in {} ms", fresh.size(),
+                    System.currentTimeMillis() - start);
+            return;
+        }
+
+        recentAttempts.values().removeIf(submittedAt -> submittedAt.isBefore(windowStart));
+        long before = store.size();
+        load(store, windowStart, windowStart);
+        long loaded = store.size() - before;
+        if (loaded > 0) {
+            logger.info("Loaded {} attempts into the analytics store ({} rows total)", loaded, store.size());
+        }
+    }
+
+    // Recorded once the change is committed, e.g. at the end of a rescore or bulk job
+    public void recordChange(String reason) {
+        attemptChangeRepository.save(new AttemptChange(null, reason, LocalDateTime.now()));
+    }
+
+    public boolean isOutsideRescanWindow(LocalDateTime submittedAt) {
+        return submittedAt.isBefore(LocalDateTime.now().minus(rescanWindowMs, ChronoUnit.MILLIS));
+    }
+
+    // Loads the attempts submitted since the given time, or all of them
+    private void load(AttemptColumnStore target, LocalDateTime since, LocalDateTime windowStart) {
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(fetchSize);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String filter = since != null ? "WHERE a.submitted_at >= ?" : "";
+        Object[] args = since != null ? new Object[]{Timestamp.valueOf(since)} : new Object[0];
+        // A transaction lets PostgreSQL stream through a cursor instead of buffering every row
+        readOnly.executeWithoutResult(status -> streamingTemplate.query(LOAD_SQL.formatted(filter), rs -> {
+            LocalDateTime submittedAt = rs.getTimestamp(4).toLocalDateTime();
+            if (!submittedAt.isBefore(windowStart) && recentAttempts.putIfAbsent(rs.getLong(1), submittedAt) != null) {
+                return;
+            }
+            target.append(rs.getLong(2), rs.getLong(3), AttemptColumnStore.toEpochMinute(submittedAt),
+                    (float) rs.getDouble(5), rs.getString(6), Quiz.Difficulty.valueOf(rs.getString(7)));
+        }, args));
+    }
+
+    public AttemptAnalyticsResponse query(String category, Quiz.Difficulty difficulty, Long quizId, Long userId,
+                                          LocalDate from, LocalDate to, List<Dimension> groupBy) {
+        long start = System.currentTimeMillis();
+        AttemptColumnStore store = this.store;
+        int fromMinute = from != null ? (int) (from.toEpochDay() * 24 * 60) : Integer.MIN_VALUE;
+        int toMinute = to != null ? (int) (to.plusDays(1).toEpochDay() * 24 * 60) : Integer.MAX_VALUE;
+        AttemptColumnStore.Result result = store.query(
+                new AttemptColumnStore.Filter(category, difficulty, quizId, userId, fromMinute, toMinute), groupBy);
+
+        boolean byQuiz = groupBy.contains(Dimension.QUIZ);
+        boolean byDay = groupBy.contains(Dimension.DAY);
+        boolean byWeek = !byDay && groupBy.contains(Dimension.WEEK);
+        Map<Integer, QuizDimensions> quizDimensions = byQuiz ? loadQuizDimensions() : Map.of();
+
+        List<AttemptAnalyticsGroup> groups = new ArrayList<>();
+        result.aggregates().forEach((key, count, sum, min, max) -> {
+            AttemptAnalyticsGroup group = new AttemptAnalyticsGroup();
+            if (byQuiz) {
+                int id = GroupKeyEncoder.quizId(key);
+                group.setQuizId((long) id);
+                QuizDimensions dimensions = quizDimensions.get(id);
+                if (dimensions != null) {
+                    group.setCategory(dimensions.category());
+                    group.setDifficulty(dimensions.difficulty());
+                }
+            } else {
+                if (groupBy.contains(Dimension.CATEGORY)) {
+                    group.setCategory(store.decodeCategory(GroupKeyEncoder.category(key)));
+                }
+                if (groupBy.contains(Dimension.DIFFICULTY)) {
+                    group.setDifficulty(AttemptColumnStore.difficulty(GroupKeyEncoder.difficulty(key)));
+                }
+            }
+            if (byDay) {
+                group.setPeriodStart(LocalDate.ofEpochDay(GroupKeyEncoder.period(key)));
+            } else if (byWeek) {
+                group.setPeriodStart(LocalDate.ofEpochDay(AttemptColumnStore.weekStartEpochDay(GroupKeyEncoder.period(key))));
+            }
+            group.setAttempts(count);
+            group.setAverageScore(sum / count);
+            group.setMinScore((double) min);
+            group.setMaxScore((double) max);
+            groups.add(group);
+        });
+        groups.sort(Comparator.comparing(AttemptAnalyticsGroup::getPeriodStart, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(AttemptAnalyticsGroup::getCategory, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(AttemptAnalyticsGroup::getDifficulty, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(AttemptAnalyticsGroup::getQuizId, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        AttemptAnalyticsResponse response = new AttemptAnalyticsResponse();
+        response.setRowsScanned(result.rowsScanned());
+        response.setStoreMemoryBytes(store.memoryBytes());
+        response.setBytesPerRow(AttemptColumnStore.BYTES_PER_ROW);
+        response.setElapsedMillis(System.currentTimeMillis() - start);
+        response.setGroups(groups);
+        return response;
+    }
+
+    private Map<Integer, QuizDimensions> loadQuizDimensions() {
+        Map<Integer, QuizDimensions> dimensions = new ConcurrentHashMap<>();
+        new JdbcTemplate(dataSource).query("SELECT id, category, difficulty FROM quizzes", rs -> {
+            dimensions.put(rs.getInt(1), new QuizDimensions(rs.getString(2), Quiz.Difficulty.valueOf(rs.getString(3))));
+        });
+        return dimensions;
+    }
+
+    private record QuizDimensions(String category, Quiz.Difficulty difficulty) {
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.quizapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.quizapp.scoring.AnswerCodec;
+import org.example.quizapp.security.AdaptiveConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Rewrites attempts still holding legacy JSON answers into answers_bin, a small batch per run, so
+// the table converts in the background while reads keep accepting both formats
+@Service
+public class AttemptAnswersMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptAnswersMigrationService.class);
+
+    private static final String PENDING_SQL = "SELECT id, answers FROM attempts"
+            + " WHERE answers_bin IS NULL AND answers IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+    private static final String MIGRATE_SQL =
+            "UPDATE attempts SET answers_bin = ?, answers = NULL WHERE id = ? AND answers_bin IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${answers-migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${answers-migration.batch-size:500}")
+    private int batchSize;
+
+    private Counter migrated;
+    private long lastAttemptId;
+    private boolean finished;
+
+    @PostConstruct
+    public void init() {
+        migrated = meterRegistry.counter("quiz.attempt.answers.migrated");
+    }
+
+    @Scheduled(initialDelayString = "${answers-migration.initial-delay-ms:60000}",
+            fixedDelayString = "${answers-migration.interval-ms:1000}")
+    public void migrateBatch() {
+        if (!enabled || finished) {
+            return;
+        }
+        // Foreground submits come first
+        if (concurrencyLimiter.isSaturated(AdaptiveConcurrencyLimiter.EndpointGroup.SUBMIT)) {
+            return;
+        }
+        int count = migrateAfter(lastAttemptId);
+        if (count == 0) {
+            finished = true;
+            logger.info("Attempt answers migration finished, {} attempts converted", (long) migrated.count());
+        }
+    }
+
+    // Returns how many legacy rows were read after the given id; unreadable rows are skipped, not retried
+    int migrateAfter(long afterAttemptId) {
+        List<Object[]> updates = new ArrayList<>(batchSize);
+        long[] last = {afterAttemptId};
+        int[] read = {0};
+        jdbcTemplate.query(PENDING_SQL, rs -> {
+            long id = rs.getLong(1);
+            last[0] = id;
+            read[0]++;
+            try {
+                updates.add(new Object[]{AnswerCodec.encode(AnswerCodec.parseJson(rs.getString(2))), id});
+            } catch (IllegalArgumentException e) {
+                // Left as JSON; reading it reports the error as it always has
+                logger.warn("Skipping attempt {} with unreadable answers: {}", id, e.getMessage());
+            }
+        }, afterAttemptId, batchSize);
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(MIGRATE_SQL, updates);
+            for (int updated : counts) {
+                if (updated > 0) {
+                    migrated.increment();
+                }
+            }
+        }
+        lastAttemptId = last[0];
+        return read[0];
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.quizapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Submits timed sessions whose time ran out, with whatever draft they have, through the regular
+// attempt scoring path. Expired sessions are taken from AttemptDeadlineService in batches by a single
+// worker thread, so a wave of deadlines is worked off at a steady pace instead of all at once.
+@Service
+public class AttemptAutoSubmitService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptAutoSubmitService.class);
+
+    private static final long POLL_INTERVAL_MS = 1000;
+
+    @Autowired
+    private AttemptDeadlineService attemptDeadlineService;
+
+    @Autowired
+    private AttemptService attemptService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${attempt.timed.batch-size:200}")
+    private int batchSize;
+
+    private Thread worker;
+    private volatile boolean running;
+    private Counter submitted;
+    private Counter failed;
+
+    // After recovery has queued the deadlines that passed while the application was down
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        submitted = meterRegistry.counter("quiz.attempt.auto_submitted");
+        failed = meterRegistry.counter("quiz.attempt.auto_submit.failed");
+        running = true;
+        worker = new Thread(this::runWorker, "attempt-auto-submit");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void runWorker() {
+        while (running) {
+            List<String> batch;
+            try {
+                batch = attemptDeadlineService.takeExpired(batchSize, POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (String sessionId : batch) {
+                submit(sessionId);
+            }
+        }
+    }
+
+    // One transaction per session, so one failure does not hold back the rest. A failed session keeps
+    // its stored deadline and is tried again after the next restart.
+    private void submit(String sessionId) {
+        try {
+            if (attemptService.submitExpired(sessionId) != null) {
+                submitted.increment();
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            logger.error("Could not auto-submit attempt session {}", sessionId, e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.quizapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.quizapp.timing.HashedTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Deadlines of timed attempt sessions. Rather than a scheduled task per session, every deadline sits in
+// one hashed timing wheel that a single ticker thread advances; expired sessions are queued for the
+// auto-submit worker. Submissions are accepted until attempt.timed.grace-ms after the deadline, by
+// the server clock, which is also when the auto-submit fires.
+@Service
+public class AttemptDeadlineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptDeadlineService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${attempt.timed.grace-ms:5000}")
+    private long graceMs;
+
+    @Value("${attempt.timed.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${attempt.timed.wheel-size:4096}")
+    private int wheelSize;
+
+    private HashedTimingWheel<String> wheel;
+
+    // Session ID -> its timeout, for cancelling on submit
+    private final Map<String, HashedTimingWheel.Timeout<String>> timeouts = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<String> expired = new LinkedBlockingQueue<>();
+
+    private Thread ticker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        wheel = new HashedTimingWheel<>(System.currentTimeMillis(), tickMs, wheelSize);
+        Gauge.builder("quiz.attempt.deadlines", timeouts, Map::size).register(meterRegistry);
+
+        running = true;
+        ticker = new Thread(this::runTicker, "attempt-deadline-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    // Timed sessions still open when the last instance stopped; those already overdue fire on the next tick
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int[] recovered = new int[1];
+        jdbcTemplate.query("SELECT session_id, deadline_at FROM attempt_deadlines", rs -> {
+            schedule(rs.getString(1), rs.getLong(2));
+            recovered[0]++;
+        });
+        if (recovered[0] > 0) {
+            logger.info("Recovered {} attempt deadlines", recovered[0]);
+        }
+    }
+
+    // Scheduling a session that is already in the wheel keeps the existing timeout
+    public void schedule(String sessionId, long deadline) {
+        timeouts.computeIfAbsent(sessionId, id -> wheel.schedule(id, deadline + graceMs));
+    }
+
+    public void cancel(String sessionId) {
+        HashedTimingWheel.Timeout<String> timeout = timeouts.remove(sessionId);
+        if (timeout != null) {
+            wheel.cancel(timeout);
+        }
+    }
+
+    public boolean isOpen(long deadline) {
+        return System.currentTimeMillis() <= deadline + graceMs;
+    }
+
+    // Waits up to timeoutMs for the first expired session, then takes whatever else is ready up to max
+    public List<String> takeExpired(int max, long timeoutMs) throws InterruptedException {
+        List<String> batch = new ArrayList<>(max);
+        String first = expired.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (first != null) {
+            batch.add(first);
+            expired.drainTo(batch, max - 1);
+        }
+        return batch;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        ticker.interrupt();
+        ticker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void runTicker() {
+        while (running) {
+            try {
+                Thread.sleep(tickMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (String sessionId : wheel.advance(System.currentTimeMillis())) {
+                timeouts.remove(sessionId);
+                expired.add(sessionId);
+            }
+        }
+    }
+}
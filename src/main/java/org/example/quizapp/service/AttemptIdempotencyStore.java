@@ -0,0 +1,63 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.AttemptResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class AttemptIdempotencyStore {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // Insertion ordered, so the eldest entry is always the first to expire
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public AttemptIdempotencyStore(@Value("${attempt.idempotency.max-entries:10000}") int maxEntries,
+                                   @Value("${attempt.idempotency.ttl-ms:600000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public synchronized AttemptResponse get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.response;
+    }
+
+    public synchronized void put(String key, AttemptResponse response) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        entries.remove(key);
+        entries.put(key, new Entry(response, now + ttlMillis));
+        while (entries.size() > maxEntries) {
+            Iterator<String> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext() && it.next().getValue().expiresAt <= now) {
+            it.remove();
+        }
+    }
+
+    private record Entry(AttemptResponse response, long expiresAt) {
+    }
+}
@@ -1,31 +1,44 @@
 package org.example.quizapp.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.example.quizapp.dto.AttemptRequest;
 import org.example.quizapp.dto.AttemptResponse;
 import org.example.quizapp.entity.Attempt;
-import org.example.quizapp.entity.Question;
 import org.example.quizapp.entity.Quiz;
 import org.example.quizapp.entity.User;
+import org.example.quizapp.journal.JournalEntry;
 import org.example.quizapp.repository.AttemptRepository;
 import org.example.quizapp.repository.QuizRepository;
 import org.example.quizapp.repository.UserRepository;
+import org.example.quizapp.scoring.AnswerCodec;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.example.quizapp.scoring.AttemptLayout;
+import org.example.quizapp.scoring.ScoringPlan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Map;
+import java.time.LocalDateTime;
 
 @Service
 public class AttemptService {
 
     private static final Logger logger = LoggerFactory.getLogger(AttemptService.class);
 
+    // Idempotency key of an auto-submit, so a retried one replays instead of storing a second attempt
+    private static final String EXPIRED_KEY_PREFIX = "deadline:";
+
     @Autowired
     private AttemptRepository attemptRepository;
 
@@ -36,50 +49,225 @@ public class AttemptService {
     private UserRepository userRepository;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private NotificationService notificationService;
 
     @Autowired
-    private NotificationService notificationService;
+    private AttemptIdempotencyStore idempotencyStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private AttemptWriteBehindService writeBehindService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private AttemptSessionService attemptSessionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Timer scoringTimer;
+    private DistributionSummary questionsSummary;
+
+    @PostConstruct
+    public void registerMetrics() {
+        scoringTimer = meterRegistry.timer("quiz.attempt.scoring");
+        questionsSummary = DistributionSummary.builder("quiz.attempt.questions")
+                .baseUnit("questions")
+                .register(meterRegistry);
+    }
 
-    @Transactional
     public AttemptResponse submitAttempt(Long quizId, AttemptRequest request) {
+        return submitAttempt(quizId, request, null);
+    }
+
+    // The transaction is opened here rather than with @Transactional: when two requests with the same
+    // idempotency key race, the loser fails on the unique constraint and replays the winner's attempt,
+    // which needs a transaction of its own
+    public AttemptResponse submitAttempt(Long quizId, AttemptRequest request, String idempotencyKey) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        try {
+            return new TransactionTemplate(transactionManager)
+                    .execute(status -> submitAttempt(username, quizId, request, idempotencyKey, false));
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            AttemptResponse replayed = readOnly.execute(status -> userRepository.findByUsername(username)
+                    .flatMap(user -> attemptRepository.findByUserAndIdempotencyKey(user, idempotencyKey))
+                    .map(existing -> toAttemptResponse(existing, parseAnswers(existing)))
+                    .orElse(null));
+            if (replayed == null) {
+                throw e;
+            }
+            logger.info("Replaying concurrently stored attempt {} for idempotency key {}", replayed.getId(), idempotencyKey);
+            idempotencyStore.put(username + ":" + idempotencyKey, replayed);
+            return checkReplayedQuiz(replayed, quizId);
+        }
+    }
+
+    // Auto-submit of a timed session whose time ran out, with the draft saved so far. Returns null if the
+    // session was submitted in the meantime or its quiz is gone.
+    @Transactional
+    public AttemptResponse submitExpired(String sessionId) {
+        AttemptSessionStore.Session session = attemptSessionService.findSession(sessionId);
+        if (session == null || !attemptSessionService.claim(sessionId, session)) {
+            return null;
+        }
+        if (!quizRepository.existsById(session.quizId())) {
+            logger.warn("Dropping attempt session {}: quiz {} no longer exists", sessionId, session.quizId());
+            attemptSessionService.finishAfterCommit(sessionId);
+            return null;
+        }
+        AttemptRequest request = new AttemptRequest();
+        request.setSessionId(sessionId);
+        logger.info("Time limit reached on session {}, submitting for user {}", sessionId, session.username());
+        return submitAttempt(session.username(), session.quizId(), request, EXPIRED_KEY_PREFIX + sessionId, true);
+    }
+
+    private AttemptResponse submitAttempt(String username, Long quizId, AttemptRequest request, String idempotencyKey,
+                                          boolean expired) {
         logger.info("User {} attempting quiz {}", username, quizId);
+
+        String dedupeKey = idempotencyKey != null ? username + ":" + idempotencyKey : null;
+        if (dedupeKey != null) {
+            AttemptResponse cached = idempotencyStore.get(dedupeKey);
+            if (cached != null) {
+                logger.info("Replaying attempt {} for idempotency key {}", cached.getId(), idempotencyKey);
+                return checkReplayedQuiz(cached, quizId);
+            }
+        }
         
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        if (idempotencyKey != null) {
+            JournalEntry pendingEntry = writeBehindService.getPendingByIdempotencyKey(username, idempotencyKey);
+            if (pendingEntry != null) {
+                logger.info("Replaying journaled attempt {} for idempotency key {}", pendingEntry.attemptId(), idempotencyKey);
+                AttemptResponse replayed = toAttemptResponse(pendingEntry);
+                idempotencyStore.put(dedupeKey, replayed);
+                return checkReplayedQuiz(replayed, quizId);
+            }
+
+            // Another node (or an evicted entry) may already have stored this attempt
+            Attempt existing = attemptRepository.findByUserAndIdempotencyKey(user, idempotencyKey).orElse(null);
+            if (existing != null) {
+                logger.info("Replaying stored attempt {} for idempotency key {}", existing.getId(), idempotencyKey);
+                AttemptResponse replayed = toAttemptResponse(existing, parseAnswers(existing));
+                idempotencyStore.put(dedupeKey, replayed);
+                return checkReplayedQuiz(replayed, quizId);
+            }
+        }
+
         Quiz quiz = quizRepository.findById(quizId)
                 .orElseThrow(() -> new RuntimeException("Quiz not found"));
+        // An attempt already under way when its quiz was archived is still submitted when its time runs out
+        if (Boolean.TRUE.equals(quiz.getArchived()) && !expired) {
+            throw new RuntimeException("Quiz is archived");
+        }
 
-        // Calculate score
-        int correctAnswers = 0;
-        int totalQuestions = quiz.getQuestions().size();
+        // A session brings its own version, question sample and option order, and any saved draft
+        AttemptSessionStore.Session session = request.getSessionId() != null
+                ? attemptSessionService.requireSession(request.getSessionId(), username, quizId)
+                : null;
+        if (request.getAnswers() == null && request.getSelections() == null && session == null) {
+            throw new RuntimeException("Answers are required");
+        }
+        // Otherwise the clock would never start
+        if (quiz.getTimeLimitSeconds() != null && session == null) {
+            throw new RuntimeException("Timed quizzes are taken through an attempt session");
+        }
+        // The auto-submit claimed its session already
+        if (session != null && !expired) {
+            attemptSessionService.checkOpen(session);
+            if (!attemptSessionService.claim(request.getSessionId(), session)) {
+                throw new RuntimeException("Attempt session not found or expired");
+            }
+        }
 
-        for (Question question : quiz.getQuestions()) {
-            Integer userAnswer = request.getAnswers().get(question.getId());
-            if (userAnswer != null && userAnswer.equals(question.getCorrectAnswerIndex())) {
-                correctAnswers++;
+        // Calculate score against the version the user answered, so later edits cannot change it. Only a
+        // session pins an older version; a client must not pick the answer key it is scored by.
+        Long quizVersionId = session != null ? Long.valueOf(session.quizVersionId()) : quiz.getCurrentVersionId();
+        if (session == null && request.getQuizVersionId() != null
+                && !request.getQuizVersionId().equals(quizVersionId)) {
+            throw new RuntimeException("Quiz has changed since it was loaded, please reload it");
+        }
+        ScoringPlan scoringPlan = scoringPlan(quiz, quizVersionId);
+        Timer.Sample scoringSample = Timer.start(meterRegistry);
+        AnswerSheet answerSheet = AnswerSheet.of(request.getAnswers(), request.getSelections());
+        if (session != null) {
+            AnswerSheet draft = attemptSessionService.draft(session);
+            if (draft != null) {
+                answerSheet = draft.merge(answerSheet);
             }
+            AttemptLayout layout = attemptSessionService.layout(session);
+            answerSheet = layout.toOriginal(answerSheet);
+            scoringPlan = layout.scoringPlan(scoringPlan);
         }
+        int totalQuestions = scoringPlan.size();
+        ScoringPlan.Result result = scoringPlan.evaluate(scoringPlan.selections(answerSheet));
+        int correctAnswers = result.correct();
+        scoringSample.stop(scoringTimer);
+        questionsSummary.record(totalQuestions);
 
-        double score = totalQuestions > 0 ? (correctAnswers * 100.0) / totalQuestions : 0.0;
+        double score = result.percent();
         logger.info("User {} scored {}/{} ({}%) on quiz {}", username, correctAnswers, totalQuestions, score, quiz.getTitle());
 
         // Save attempt
         Attempt attempt = new Attempt();
         attempt.setUser(user);
         attempt.setQuiz(quiz);
+        attempt.setQuizVersionId(quizVersionId);
         attempt.setScore(score);
-        try {
-            attempt.setAnswers(objectMapper.writeValueAsString(request.getAnswers()));
-        } catch (JsonProcessingException e) {
-            logger.error("Error processing answers for quiz attempt", e);
-            throw new RuntimeException("Error processing answers", e);
+        attempt.setIdempotencyKey(idempotencyKey);
+        attempt.setAnswerSheet(answerSheet);
+        if (session != null) {
+            attempt.setSessionSeed(session.seed());
+            attempt.setSessionQuestions(session.questionCount());
         }
 
-        attempt = attemptRepository.save(attempt);
-        logger.info("Quiz attempt saved with ID: {}", attempt.getId());
+        if (writeBehindService.accepts()) {
+            // Write-behind: durable in the local journal now, inserted by the background writer
+            JournalEntry entry = new JournalEntry(writeBehindService.nextAttemptId(), user.getId(), username,
+                    quiz.getId(), quizVersionId, score, LocalDateTime.now(), idempotencyKey, AnswerCodec.encode(answerSheet),
+                    attempt.getSessionSeed(), attempt.getSessionQuestions());
+            JournalEntry journaled = writeBehindService.append(entry);
+            if (journaled != entry) {
+                logger.info("Replaying journaled attempt {} for idempotency key {}", journaled.attemptId(), idempotencyKey);
+                AttemptResponse replayed = toAttemptResponse(journaled);
+                idempotencyStore.put(dedupeKey, replayed);
+                return checkReplayedQuiz(replayed, quizId);
+            }
+            attempt.setId(entry.attemptId());
+            attempt.setSubmittedAt(entry.submittedAt());
+            logger.info("Quiz attempt journaled with ID: {}", attempt.getId());
+            recommendationService.dropCandidate(username, quiz.getId());
+        } else {
+            attempt = attemptRepository.save(attempt);
+            // Surfaces a duplicate idempotency key here, before anything else is written
+            attemptRepository.flush();
+            logger.info("Quiz attempt saved with ID: {}", attempt.getId());
+
+            // Keep the per-user dashboard summary current in the same transaction
+            userProgressService.recordAttempt(user.getId(), quiz.getCategory(), score, attempt.getSubmittedAt().toLocalDate());
+            recommendationService.onAttempt(username, user.getId(), quiz.getId());
+        }
+
+        if (session != null) {
+            attemptSessionService.finishAfterCommit(request.getSessionId());
+        }
 
         // Send async notification
         notificationService.sendQuizAttemptNotification(username, quiz.getTitle(), score);
@@ -88,20 +276,60 @@ public class AttemptService {
         AttemptResponse response = new AttemptResponse();
         response.setId(attempt.getId());
         response.setQuizId(quiz.getId());
+        response.setQuizVersionId(quizVersionId);
         response.setQuizTitle(quiz.getTitle());
         response.setScore(score);
         response.setTotalQuestions(totalQuestions);
         response.setCorrectAnswers(correctAnswers);
         response.setSubmittedAt(attempt.getSubmittedAt());
-        response.setUserAnswers(request.getAnswers());
+        if (session != null) {
+            // As stored: the original option indexes
+            response.setUserAnswers(answerSheet.answerMap());
+            response.setUserSelections(answerSheet.hasSelections() ? answerSheet.selectionMap() : null);
+        } else {
+            response.setUserAnswers(request.getAnswers());
+            response.setUserSelections(request.getSelections());
+        }
+        response.setPoints(result.points());
+        response.setMaxPoints(result.maxPoints());
+
+        if (dedupeKey != null) {
+            rememberAfterCommit(dedupeKey, response);
+        }
 
         return response;
     }
 
+    // A submit that rolls back must not be replayed, so the response is only remembered once committed
+    private void rememberAfterCommit(String dedupeKey, AttemptResponse response) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    idempotencyStore.put(dedupeKey, response);
+                }
+            });
+        } else {
+            idempotencyStore.put(dedupeKey, response);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public AttemptResponse getAttemptResult(Long attemptId) {
         logger.info("Fetching attempt result for ID: {}", attemptId);
+
+        JournalEntry pendingEntry = writeBehindService.getPending(attemptId);
+        if (pendingEntry != null) {
+            String username = SecurityContextHolder.getContext().getAuthentication().getName();
+            if (!pendingEntry.username().equals(username)) {
+                logger.warn("User {} attempted to view attempt {} belonging to {}",
+                        username, attemptId, pendingEntry.username());
+                throw new RuntimeException("You can only view your own attempts");
+            }
+            return toAttemptResponse(pendingEntry);
+        }
         
-        Attempt attempt = attemptRepository.findById(attemptId)
+        Attempt attempt = attemptRepository.findWithUserAndQuizById(attemptId)
                 .orElseThrow(() -> new RuntimeException("Attempt not found"));
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -111,36 +339,78 @@ public class AttemptService {
             throw new RuntimeException("You can only view your own attempts");
         }
 
-        // Parse answers
-        Map<Long, Integer> userAnswers;
+        return toAttemptResponse(attempt, parseAnswers(attempt));
+    }
+
+    // Attempts not yet migrated to answers_bin still hold their answers as JSON
+    private AnswerSheet parseAnswers(Attempt attempt) {
+        if (attempt.getAnswerSheet() != null) {
+            return attempt.getAnswerSheet();
+        }
         try {
-            userAnswers = objectMapper.readValue(attempt.getAnswers(), new TypeReference<Map<Long, Integer>>() {});
-        } catch (JsonProcessingException e) {
+            return AnswerCodec.parseJson(attempt.getAnswers());
+        } catch (IllegalArgumentException e) {
             throw new RuntimeException("Error processing answers", e);
         }
+    }
 
-        // Calculate correct answers count
-        int correctAnswers = 0;
-        int totalQuestions = attempt.getQuiz().getQuestions().size();
+    private AttemptResponse checkReplayedQuiz(AttemptResponse response, Long quizId) {
+        if (!response.getQuizId().equals(quizId)) {
+            throw new RuntimeException("Idempotency key was already used for another quiz");
+        }
+        return response;
+    }
 
-        for (Question question : attempt.getQuiz().getQuestions()) {
-            Integer userAnswer = userAnswers.get(question.getId());
-            if (userAnswer != null && userAnswer.equals(question.getCorrectAnswerIndex())) {
-                correctAnswers++;
-            }
+    // Journaled attempts are not in the table yet, so the response is built from the journal entry
+    private AttemptResponse toAttemptResponse(JournalEntry entry) {
+        Attempt attempt = new Attempt();
+        attempt.setId(entry.attemptId());
+        attempt.setQuiz(quizRepository.findById(entry.quizId())
+                .orElseThrow(() -> new RuntimeException("Quiz not found")));
+        attempt.setQuizVersionId(entry.quizVersionId());
+        attempt.setScore(entry.score());
+        attempt.setAnswerSheet(AnswerCodec.decode(entry.answers()));
+        attempt.setSubmittedAt(entry.submittedAt());
+        attempt.setSessionSeed(entry.sessionSeed());
+        attempt.setSessionQuestions(entry.sessionQuestions());
+        return toAttemptResponse(attempt, parseAnswers(attempt));
+    }
+
+    private AttemptResponse toAttemptResponse(Attempt attempt, AnswerSheet answerSheet) {
+        // Calculate correct answers count
+        ScoringPlan scoringPlan = scoringPlan(attempt.getQuiz(), attempt.getQuizVersionId());
+        if (attempt.getSessionSeed() != null) {
+            scoringPlan = attemptSessionService.layout(quizService.getVersionContent(attempt.getQuizVersionId()),
+                    attempt.getSessionSeed(), attempt.getSessionQuestions()).scoringPlan(scoringPlan);
         }
+        ScoringPlan.Result result = scoringPlan.evaluate(scoringPlan.selections(answerSheet));
 
         // Create response
         AttemptResponse response = new AttemptResponse();
         response.setId(attempt.getId());
         response.setQuizId(attempt.getQuiz().getId());
+        response.setQuizVersionId(attempt.getQuizVersionId());
         response.setQuizTitle(attempt.getQuiz().getTitle());
         response.setScore(attempt.getScore());
-        response.setTotalQuestions(totalQuestions);
-        response.setCorrectAnswers(correctAnswers);
+        response.setTotalQuestions(scoringPlan.size());
+        response.setCorrectAnswers(result.correct());
         response.setSubmittedAt(attempt.getSubmittedAt());
-        response.setUserAnswers(userAnswers);
+        response.setUserAnswers(answerSheet.answerMap());
+        if (answerSheet.hasSelections()) {
+            response.setUserSelections(answerSheet.selectionMap());
+        }
+        response.setPoints(result.points());
+        response.setMaxPoints(result.maxPoints());
 
         return response;
     }
+
+    // Versioned quizzes are scored from the cached immutable snapshot; quizzes and attempts from
+    // before versioning fall back to the live question list
+    private ScoringPlan scoringPlan(Quiz quiz, Long quizVersionId) {
+        if (quizVersionId == null) {
+            return ScoringPlan.compileQuestions(quiz.getQuestions());
+        }
+        return quizService.getScoringPlan(quiz.getId(), quizVersionId);
+    }
 }
@@ -0,0 +1,239 @@
+package org.example.quizapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.quizapp.dto.AttemptRequest;
+import org.example.quizapp.dto.AttemptSessionResponse;
+import org.example.quizapp.dto.QuestionResponse;
+import org.example.quizapp.dto.QuestionSnapshot;
+import org.example.quizapp.dto.QuizVersionContent;
+import org.example.quizapp.entity.AttemptDeadline;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.repository.AttemptDeadlineRepository;
+import org.example.quizapp.repository.QuizRepository;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.example.quizapp.scoring.AttemptLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Attempt sessions: each user gets their own sample of a quiz's questions with shuffled options,
+// derived from a per-session seed, so answers cannot simply be shared. Sessions live in memory only;
+// drafts are kept with the session and written to the database as part of the attempt on submit.
+// Sessions on a timed quiz have a deadline and are also stored in attempt_deadlines, draft included,
+// so they survive a restart and can be auto-submitted.
+@Service
+public class AttemptSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptSessionService.class);
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private AttemptSessionStore sessionStore;
+
+    @Autowired
+    private AttemptDeadlineRepository attemptDeadlineRepository;
+
+    @Autowired
+    private AttemptDeadlineService attemptDeadlineService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("quiz.attempt.sessions", sessionStore, AttemptSessionStore::size).register(meterRegistry);
+    }
+
+    // Returns the user's open session on the quiz if there is one, so restarting cannot redraw the sample
+    public AttemptSessionResponse startSession(Long quizId) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+        if (Boolean.TRUE.equals(quiz.getArchived())) {
+            throw new RuntimeException("Quiz is archived");
+        }
+        String openSessionId = findOpenSessionId(username, quizId);
+        if (openSessionId != null) {
+            logger.info("User {} resumed session {} on quiz {}", username, openSessionId, quizId);
+            return getSession(quizId, openSessionId);
+        }
+        if (quiz.getCurrentVersionId() == null) {
+            throw new RuntimeException("Quiz has no published version");
+        }
+        QuizVersionContent content = quizService.getVersionContent(quiz.getCurrentVersionId());
+        int total = content.getQuestions().size();
+        if (total == 0) {
+            throw new RuntimeException("Quiz has no questions");
+        }
+        int questionCount = quiz.getSessionQuestionCount() != null
+                ? Math.min(quiz.getSessionQuestionCount(), total)
+                : total;
+
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        String sessionId = Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+        long seed = random.nextLong();
+        long deadline = 0;
+        if (quiz.getTimeLimitSeconds() != null) {
+            // The clock starts now, on the server, whatever the client shows
+            deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(quiz.getTimeLimitSeconds());
+            attemptDeadlineRepository.save(new AttemptDeadline(sessionId, username, quizId, quiz.getCurrentVersionId(),
+                    seed, questionCount, deadline, null));
+        }
+        AttemptSessionStore.Session session = sessionStore.start(sessionId, username, quizId,
+                quiz.getCurrentVersionId(), seed, questionCount, deadline);
+        if (session.isTimed()) {
+            attemptDeadlineService.schedule(sessionId, deadline);
+        }
+        logger.info("User {} started session {} on quiz {} with {} of {} questions",
+                username, sessionId, quizId, questionCount, total);
+        return toResponse(sessionId, session, content);
+    }
+
+    // Resuming, e.g. after a reload: the same questions and option order, with the draft saved so far
+    public AttemptSessionResponse getSession(Long quizId, String sessionId) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        AttemptSessionStore.Session session = requireSession(sessionId, username, quizId);
+        return toResponse(sessionId, session, quizService.getVersionContent(session.quizVersionId()));
+    }
+
+    // Timed drafts are also written through to attempt_deadlines, for the auto-submit after a restart
+    @Transactional
+    public void saveDraft(Long quizId, String sessionId, AttemptRequest request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        AttemptSessionStore.Session session = requireSession(sessionId, username, quizId);
+        checkOpen(session);
+        AnswerSheet answers = layout(session).retain(AnswerSheet.of(request.getAnswers(), request.getSelections()));
+        AnswerSheet draft = sessionStore.mergeDraft(session, answers);
+        if (session.isTimed()) {
+            attemptDeadlineRepository.findById(sessionId).ifPresent(row -> row.setDraft(draft));
+        }
+    }
+
+    public AttemptSessionStore.Session requireSession(String sessionId, String username, Long quizId) {
+        AttemptSessionStore.Session session = findSession(sessionId);
+        if (session == null || !session.username().equals(username) || session.quizId() != quizId) {
+            throw new RuntimeException("Attempt session not found or expired");
+        }
+        return session;
+    }
+
+    // Timed sessions missing from memory, after a restart or eviction, are restored from storage
+    public AttemptSessionStore.Session findSession(String sessionId) {
+        AttemptSessionStore.Session session = sessionStore.get(sessionId);
+        if (session != null) {
+            return session;
+        }
+        return attemptDeadlineRepository.findById(sessionId)
+                .map(row -> sessionStore.restore(sessionId, row.getUsername(), row.getQuizId(), row.getQuizVersionId(),
+                        row.getSeed(), row.getQuestionCount(), row.getDeadlineAt(), row.getDraft()))
+                .orElse(null);
+    }
+
+    // Timed sessions are looked up in storage too, since this node may not have the one started elsewhere
+    private String findOpenSessionId(String username, Long quizId) {
+        String sessionId = sessionStore.openSessionId(username, quizId);
+        if (sessionId != null) {
+            return sessionId;
+        }
+        return attemptDeadlineRepository.findFirstByUsernameAndQuizId(username, quizId)
+                .filter(row -> findSession(row.getSessionId()) != null)
+                .map(AttemptDeadline::getSessionId)
+                .orElse(null);
+    }
+
+    // By the server clock, with the grace period for answers still in flight at the deadline
+    public void checkOpen(AttemptSessionStore.Session session) {
+        if (session.isTimed() && !attemptDeadlineService.isOpen(session.deadline())) {
+            throw new RuntimeException("Time limit exceeded");
+        }
+    }
+
+    // Within the submit transaction. A timed session's row can only be deleted once, so of a user's
+    // submit and the auto-submit racing each other exactly one goes through.
+    public boolean claim(String sessionId, AttemptSessionStore.Session session) {
+        return !session.isTimed() || attemptDeadlineRepository.deleteBySessionId(sessionId) > 0;
+    }
+
+    // From the cached version; no table reads
+    public AttemptLayout layout(AttemptSessionStore.Session session) {
+        return layout(quizService.getVersionContent(session.quizVersionId()), session.seed(), session.questionCount());
+    }
+
+    public AttemptLayout layout(QuizVersionContent content, long seed, int questionCount) {
+        return AttemptLayout.of(content.getQuestions(), seed, questionCount);
+    }
+
+    public AnswerSheet draft(AttemptSessionStore.Session session) {
+        return sessionStore.draft(session);
+    }
+
+    // A session takes one attempt; it stays open if the submit rolls back
+    public void finishAfterCommit(String sessionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    finish(sessionId);
+                }
+            });
+        } else {
+            finish(sessionId);
+        }
+    }
+
+    private void finish(String sessionId) {
+        sessionStore.remove(sessionId);
+        attemptDeadlineService.cancel(sessionId);
+    }
+
+    private AttemptSessionResponse toResponse(String sessionId, AttemptSessionStore.Session session,
+                                              QuizVersionContent content) {
+        AttemptLayout layout = layout(content, session.seed(), session.questionCount());
+        List<QuestionResponse> questions = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            QuestionSnapshot question = content.getQuestions().get(layout.position(i));
+            int[] order = layout.optionOrder(i);
+            List<String> options = new ArrayList<>(order.length);
+            for (int original : order) {
+                options.add(question.getOptions().get(original));
+            }
+            questions.add(new QuestionResponse(question.getId(), question.getText(), options,
+                    question.getCorrectAnswerMask() != null));
+        }
+        AnswerSheet draft = sessionStore.draft(session);
+        return new AttemptSessionResponse(sessionId, session.quizId(), session.quizVersionId(), content.getTitle(),
+                toDateTime(session.expiresAt()), questions,
+                draft != null ? draft.answerMap() : null,
+                draft != null && draft.hasSelections() ? draft.selectionMap() : null,
+                session.isTimed() ? toDateTime(session.deadline()) : null,
+                session.isTimed() ? Math.max(0, session.deadline() - System.currentTimeMillis()) : null);
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
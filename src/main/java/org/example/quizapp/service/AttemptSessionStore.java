@@ -0,0 +1,177 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.scoring.AnswerSheet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Attempt sessions in progress. A session keeps its seed, the version it was started on and the draft
+// answers saved so far; the questions it presents are derived from the seed. Sessions expire
+// attempt.session.ttl-ms after they start, and the oldest go first past attempt.session.max-entries.
+// Timed sessions are kept until the TTL after their deadline; they are also stored in attempt_deadlines,
+// so one evicted from here can be restored. A user has at most one open session per quiz, so starting
+// over does not draw a new sample.
+@Component
+public class AttemptSessionStore {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // Insertion ordered with a fixed TTL, so the eldest session is nearly always the first to expire.
+    // A timed session can outlive later ones; those are then dropped when read rather than swept.
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>();
+
+    // "username:quizId" -> the user's open session on that quiz
+    private final Map<String, String> openSessions = new HashMap<>();
+
+    public AttemptSessionStore(@Value("${attempt.session.max-entries:100000}") int maxEntries,
+                               @Value("${attempt.session.ttl-ms:7200000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static final class Session {
+        private final String username;
+        private final long quizId;
+        private final long quizVersionId;
+        private final long seed;
+        private final int questionCount;
+        private final long deadline; // Epoch millis; 0 for untimed sessions
+        private final long expiresAt;
+        private AnswerSheet draft; // Answers in the presented option order; null until one is saved
+
+        Session(String username, long quizId, long quizVersionId, long seed, int questionCount, long deadline,
+                long expiresAt) {
+            this.username = username;
+            this.quizId = quizId;
+            this.quizVersionId = quizVersionId;
+            this.seed = seed;
+            this.questionCount = questionCount;
+            this.deadline = deadline;
+            this.expiresAt = expiresAt;
+        }
+
+        public String username() {
+            return username;
+        }
+
+        public long quizId() {
+            return quizId;
+        }
+
+        public long quizVersionId() {
+            return quizVersionId;
+        }
+
+        public long seed() {
+            return seed;
+        }
+
+        public int questionCount() {
+            return questionCount;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public boolean isTimed() {
+            return deadline != 0;
+        }
+
+        public long expiresAt() {
+            return expiresAt;
+        }
+    }
+
+    public synchronized Session start(String sessionId, String username, long quizId, long quizVersionId, long seed,
+                                      int questionCount, long deadline) {
+        return put(sessionId, new Session(username, quizId, quizVersionId, seed, questionCount, deadline,
+                expiry(deadline)), null);
+    }
+
+    // Brings back a timed session from storage, unless it is already here
+    public synchronized Session restore(String sessionId, String username, long quizId, long quizVersionId, long seed,
+                                        int questionCount, long deadline, AnswerSheet draft) {
+        Session existing = get(sessionId);
+        if (existing != null) {
+            return existing;
+        }
+        return put(sessionId, new Session(username, quizId, quizVersionId, seed, questionCount, deadline,
+                expiry(deadline)), draft);
+    }
+
+    public synchronized Session get(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        if (session.expiresAt <= System.currentTimeMillis()) {
+            remove(sessionId);
+            return null;
+        }
+        return session;
+    }
+
+    // Null when the user has no open session on the quiz here
+    public synchronized String openSessionId(String username, long quizId) {
+        String sessionId = openSessions.get(openKey(username, quizId));
+        return sessionId != null && get(sessionId) != null ? sessionId : null;
+    }
+
+    public synchronized AnswerSheet draft(Session session) {
+        return session.draft;
+    }
+
+    // Answers saved earlier stay unless the new ones replace them
+    public synchronized AnswerSheet mergeDraft(Session session, AnswerSheet answers) {
+        session.draft = session.draft != null ? session.draft.merge(answers) : answers;
+        return session.draft;
+    }
+
+    public synchronized void remove(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session != null) {
+            openSessions.remove(openKey(session.username, session.quizId), sessionId);
+        }
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    private Session put(String sessionId, Session session, AnswerSheet draft) {
+        evictExpired(System.currentTimeMillis());
+        session.draft = draft;
+        sessions.put(sessionId, session);
+        openSessions.put(openKey(session.username, session.quizId), sessionId);
+        while (sessions.size() > maxEntries) {
+            remove(sessions.keySet().iterator().next());
+        }
+        return session;
+    }
+
+    private static String openKey(String username, long quizId) {
+        return username + ":" + quizId;
+    }
+
+    private long expiry(long deadline) {
+        return Math.max(System.currentTimeMillis(), deadline) + ttlMillis;
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Session>> it = sessions.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Session> eldest = it.next();
+            if (eldest.getValue().expiresAt > now) {
+                break;
+            }
+            it.remove();
+            openSessions.remove(openKey(eldest.getValue().username, eldest.getValue().quizId), eldest.getKey());
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package org.example.quizapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.quizapp.dto.DeadLetterReplayResponse;
+import org.example.quizapp.entity.AttemptDeadLetter;
+import org.example.quizapp.journal.AttemptJournal;
+import org.example.quizapp.journal.JournalEntry;
+import org.example.quizapp.journal.JournalPosition;
+import org.example.quizapp.repository.AttemptDeadLetterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Optional write-behind persistence for submitted attempts. Accepted attempts are appended to a local
+// journal and become durable with the journal's group commit; a single writer thread inserts them into
+// the attempts table in batches and checkpoints the journal. Unapplied entries are replayed on startup.
+// An entry the database rejects outright is moved to attempt_dead_letters rather than lost.
+@Service
+public class AttemptWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptWriteBehindService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO attempts (id, user_id, quiz_id, quiz_version_id, score, answers_bin, submitted_at, idempotency_key, " +
+            "session_seed, session_questions) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM attempts WHERE id IN (:ids)";
+    private static final String QUIZ_CATEGORIES_SQL = "SELECT id, category FROM quizzes WHERE id IN (:ids)";
+    private static final String DEAD_LETTER_SQL =
+            "INSERT INTO attempt_dead_letters (attempt_id, username, quiz_id, entry, reason, failed_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_REASON_LENGTH = 1000;
+
+    // Must match the allocationSize of the attempts_seq generator on Attempt (pooled-lo)
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private record QueuedEntry(JournalEntry entry, JournalPosition end) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private AttemptDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private AttemptAnalyticsService attemptAnalyticsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${attempt.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attempt.write-behind.journal-dir:data/journal}")
+    private String journalDir;
+
+    @Value("${attempt.write-behind.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${attempt.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attempt.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${attempt.write-behind.max-pending:200000}")
+    private int maxPending;
+
+    private AttemptJournal journal;
+    private String nextIdSql;
+    private long nextId;
+    private long idBlockEnd; // Exclusive; guarded by this together with nextId
+
+    // Accepted but not yet inserted, readable by getAttemptResult
+    private final Map<Long, JournalEntry> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> pendingByIdempotencyKey = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<QueuedEntry> queue = new LinkedBlockingQueue<>();
+    private final Object appendLock = new Object();
+
+    private Thread writer;
+    private volatile boolean running;
+    private Timer journalCommit;
+    private Counter deadLettered;
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path directory = Path.of(journalDir);
+        // Leftover entries are replayed even when write-behind has since been switched off
+        if (!enabled && !AttemptJournal.hasSegments(directory)) {
+            return;
+        }
+        journal = new AttemptJournal(directory, segmentSizeMb * 1024 * 1024);
+        nextIdSql = isPostgres() ? "SELECT nextval('attempts_seq')" : "SELECT NEXT VALUE FOR attempts_seq";
+
+        List<AttemptJournal.Record> unapplied = journal.readFrom(journal.readCheckpoint());
+        for (AttemptJournal.Record record : unapplied) {
+            track(JournalEntry.decode(record.payload()), record.end());
+        }
+        if (!unapplied.isEmpty()) {
+            logger.info("Replaying {} journaled attempts not yet written to the database", unapplied.size());
+        }
+
+        journalCommit = meterRegistry.timer("quiz.attempt.journal.commit");
+        deadLettered = meterRegistry.counter("quiz.attempt.journal.dead_lettered");
+        Gauge.builder("quiz.attempt.journal.pending", pending, Map::size)
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::runWriter, "attempt-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // New submissions only go through the journal while enabled and the backlog is bounded
+    public boolean accepts() {
+        return enabled && journal != null && pending.size() < maxPending;
+    }
+
+    // Hands out IDs from the same sequence and block layout Hibernate uses, so both paths can mix
+    public synchronized long nextAttemptId() {
+        if (nextId == idBlockEnd) {
+            nextId = jdbcTemplate.queryForObject(nextIdSql, Long.class);
+            idBlockEnd = nextId + ID_BLOCK_SIZE;
+        }
+        return nextId++;
+    }
+
+    // Returns once the entry is durable. If the idempotency key already belongs to a pending attempt,
+    // nothing is appended and that attempt is returned instead.
+    public JournalEntry append(JournalEntry entry) {
+        byte[] payload = entry.encode();
+        AttemptJournal.Appended appended;
+        synchronized (appendLock) {
+            if (entry.idempotencyKey() != null) {
+                Long existingId = pendingByIdempotencyKey.get(dedupeKey(entry));
+                JournalEntry existing = existingId != null ? pending.get(existingId) : null;
+                if (existing != null) {
+                    return existing;
+                }
+            }
+            appended = journal.append(payload);
+            track(entry, appended.end());
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        journal.awaitDurable(appended.sequence());
+        sample.stop(journalCommit);
+        return entry;
+    }
+
+    public JournalEntry getPending(Long attemptId) {
+        return pending.get(attemptId);
+    }
+
+    public JournalEntry getPendingByIdempotencyKey(String username, String idempotencyKey) {
+        Long attemptId = pendingByIdempotencyKey.get(username + ":" + idempotencyKey);
+        return attemptId != null ? pending.get(attemptId) : null;
+    }
+
+    // Waits until no accepted attempt on these quizzes is still waiting to be inserted. Entries left
+    // behind by a stopped writer are replayed on the next start instead.
+    public void awaitWritten(Collection<Long> quizIds) throws InterruptedException {
+        Set<Long> quizzes = new HashSet<>(quizIds);
+        while (writer != null && writer.isAlive()
+                && pending.values().stream().anyMatch(entry -> quizzes.contains(entry.quizId()))) {
+            Thread.sleep(flushIntervalMs);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        journal.close();
+    }
+
+    private void track(JournalEntry entry, JournalPosition end) {
+        pending.put(entry.attemptId(), entry);
+        if (entry.idempotencyKey() != null) {
+            pendingByIdempotencyKey.put(dedupeKey(entry), entry.attemptId());
+        }
+        queue.add(new QueuedEntry(entry, end));
+    }
+
+    private void runWriter() {
+        List<QueuedEntry> batch = new ArrayList<>(batchSize);
+        // On shutdown the queue is drained first, unless the database is unreachable
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEntry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!writeBatch(batch)) {
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Retries until the batch is written, so a database outage only grows the journal.
+    // Returns false if shutdown interrupted the retries; the entries stay in the journal.
+    private boolean writeBatch(List<QueuedEntry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                try {
+                    insert(batch.stream().map(QueuedEntry::entry).toList());
+                } catch (DataIntegrityViolationException e) {
+                    logger.warn("Batch of {} journaled attempts rejected, inserting individually", batch.size(), e);
+                    insertIndividually(batch);
+                }
+                break;
+            } catch (DataAccessException e) {
+                logger.error("Could not write {} journaled attempts, retrying", batch.size(), e);
+                if (!running) {
+                    return false;
+                }
+                Thread.sleep(RETRY_BACKOFF_MS);
+            }
+        }
+
+        try {
+            journal.checkpoint(batch.get(batch.size() - 1).end());
+        } catch (IOException e) {
+            // Harmless: the entries are replayed and skipped as already inserted on the next start
+            logger.error("Could not checkpoint attempt journal", e);
+        }
+        for (QueuedEntry queued : batch) {
+            pending.remove(queued.entry().attemptId());
+            if (queued.entry().idempotencyKey() != null) {
+                pendingByIdempotencyKey.remove(dedupeKey(queued.entry()), queued.entry().attemptId());
+            }
+        }
+        return true;
+    }
+
+    private void insert(List<JournalEntry> batch) {
+        NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // A crash between insert and checkpoint replays entries that are already in the table
+            Set<Long> existing = new HashSet<>(namedTemplate.queryForList(EXISTING_IDS_SQL,
+                    Map.of("ids", batch.stream().map(JournalEntry::attemptId).toList()), Long.class));
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            List<JournalEntry> inserted = new ArrayList<>(batch.size());
+            for (JournalEntry entry : batch) {
+                if (!existing.contains(entry.attemptId())) {
+                    rows.add(new Object[]{entry.attemptId(), entry.userId(), entry.quizId(), entry.quizVersionId(), entry.score(),
+                            entry.answers(), Timestamp.valueOf(entry.submittedAt()),
+                            entry.idempotencyKey(), entry.sessionSeed(), entry.sessionQuestions()});
+                    inserted.add(entry);
+                }
+            }
+            if (inserted.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+            // Progress summaries are maintained here rather than on the submit path
+            Map<Long, String> categories = new HashMap<>();
+            namedTemplate.query(QUIZ_CATEGORIES_SQL, Map.of("ids", inserted.stream().map(JournalEntry::quizId).distinct().toList()),
+                    rs -> {
+                        categories.put(rs.getLong(1), rs.getString(2));
+                    });
+            for (JournalEntry entry : inserted) {
+                userProgressService.recordAttempt(entry.userId(), categories.get(entry.quizId()), entry.score(),
+                        entry.submittedAt().toLocalDate());
+                recommendationService.onAttempt(entry.username(), entry.userId(), entry.quizId());
+            }
+            // After a backlog or a dead-letter replay, too late for the analytics loader's re-scan window
+            if (inserted.stream().anyMatch(entry -> attemptAnalyticsService.isOutsideRescanWindow(entry.submittedAt()))) {
+                attemptAnalyticsService.recordChange("late journaled attempts");
+            }
+        });
+    }
+
+    // Only integrity violations are dead-lettered; any other failure propagates and the batch is retried,
+    // so an entry leaves the journal only once it is in attempts or attempt_dead_letters
+    private void insertIndividually(List<QueuedEntry> batch) {
+        for (QueuedEntry queued : batch) {
+            JournalEntry entry = queued.entry();
+            try {
+                insert(List.of(entry));
+            } catch (DataIntegrityViolationException e) {
+                // e.g. the quiz was deleted in the meantime; the row cannot be inserted as it is
+                logger.error("Moving journaled attempt {} for user {} on quiz {} to the dead letters",
+                        entry.attemptId(), entry.username(), entry.quizId(), e);
+                deadLetter(entry, e);
+            }
+        }
+    }
+
+    private void deadLetter(JournalEntry entry, DataIntegrityViolationException cause) {
+        try {
+            jdbcTemplate.update(DEAD_LETTER_SQL, entry.attemptId(), entry.username(), entry.quizId(), entry.encode(),
+                    reason(cause), Timestamp.valueOf(LocalDateTime.now()));
+            deadLettered.increment();
+        } catch (DuplicateKeyException e) {
+            // Already moved by an earlier try of this batch
+        }
+    }
+
+    // Each success is inserted like a journaled attempt, progress and recommendations included, and its
+    // dead letter removed; failures keep theirs with the latest reason
+    public DeadLetterReplayResponse replayDeadLetters() {
+        long replayed = 0;
+        long remaining = 0;
+        for (AttemptDeadLetter deadLetter : deadLetterRepository.findAll()) {
+            try {
+                insert(List.of(JournalEntry.decode(deadLetter.getEntry())));
+                deadLetterRepository.deleteById(deadLetter.getAttemptId());
+                replayed++;
+            } catch (DataIntegrityViolationException e) {
+                deadLetter.setReason(reason(e));
+                deadLetter.setFailedAt(LocalDateTime.now());
+                deadLetterRepository.save(deadLetter);
+                remaining++;
+            }
+        }
+        logger.info("Replayed {} dead-lettered attempts, {} still failing", replayed, remaining);
+        return new DeadLetterReplayResponse(replayed, remaining);
+    }
+
+    private static String reason(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        return message.length() > MAX_REASON_LENGTH ? message.substring(0, MAX_REASON_LENGTH) : message;
+    }
+
+    private boolean isPostgres() {
+        try {
+            return "PostgreSQL".equalsIgnoreCase(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not detect database product, using standard sequence syntax", e);
+            return false;
+        }
+    }
+
+    private static String dedupeKey(JournalEntry entry) {
+        return entry.username() + ":" + entry.idempotencyKey();
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.quizapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.quizapp.security.AdaptiveConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Runs the admin batch jobs (rescores, bulk operations) in the background. Each batch waits for
+// foreground headroom and is throttled to its job's row rate; jobs checkpoint on their own rows.
+@Component
+public class BatchJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobRunner.class);
+
+    private static final long SATURATION_BACKOFF_MS = 200;
+
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    // One job at a time: jobs compete with foreground traffic for the same database
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "batch-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    public void submit(Long jobId, Consumer<Long> runJob) {
+        jobExecutor.submit(() -> runJob.accept(jobId));
+    }
+
+    // Jobs interrupted by a restart pick up again from their last checkpoint
+    public void resume(String kind, List<Long> jobIds, Consumer<Long> runJob) {
+        for (Long jobId : jobIds) {
+            logger.info("Resuming {} job {}", kind, jobId);
+            submit(jobId, runJob);
+        }
+    }
+
+    // False if shutdown interrupted the work: the job is left RUNNING so it resumes on the next start.
+    // Any other failure goes to onFailure.
+    public boolean execute(Work work, Consumer<Exception> onFailure) {
+        try {
+            work.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            onFailure.accept(e);
+        }
+        return true;
+    }
+
+    // Attempt submissions always win: pause while the submit endpoint is near its concurrency limit
+    public void waitForForegroundHeadroom() throws InterruptedException {
+        while (concurrencyLimiter.isSaturated(AdaptiveConcurrencyLimiter.EndpointGroup.SUBMIT)) {
+            Thread.sleep(SATURATION_BACKOFF_MS);
+        }
+    }
+
+    // Stay under the configured row rate even when the database keeps up
+    public void throttle(int rows, long elapsedMs, int maxRowsPerSecond) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long budgetMs = rows * 1000L / maxRowsPerSecond;
+        if (budgetMs > elapsedMs) {
+            Thread.sleep(budgetMs - elapsedMs);
+        }
+    }
+
+    // Progress summaries and recommendations are derived from attempts. Without the affected users, as
+    // after a resume, every user's summaries are rebuilt. The analytics store reloads on its own.
+    public void rebuildDerivedData(Set<Long> affectedUsers) {
+        if (affectedUsers == null) {
+            userProgressService.rebuild(null);
+        } else {
+            for (Long userId : affectedUsers) {
+                userProgressService.rebuild(userId);
+            }
+        }
+        recommendationService.scheduleRefreshAll();
+    }
+}
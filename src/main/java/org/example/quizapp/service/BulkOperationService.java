@@ -0,0 +1,342 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.BulkJobRequest;
+import org.example.quizapp.dto.BulkJobResponse;
+import org.example.quizapp.entity.BulkJob;
+import org.example.quizapp.repository.BulkJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Admin bulk operations as set-based SQL in bounded batches: each batch is its own short statement,
+// nothing is loaded into the persistence context, and progress is checkpointed on the job row
+@Service
+public class BulkOperationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOperationService.class);
+
+    // Child tables of a quiz, emptied in this order before the quiz rows themselves
+    private static final List<String> QUIZ_CHILD_TABLES = List.of("attempts", "questions", "quiz_versions");
+
+    private static final String ATTEMPT_USERS_SQL = "SELECT DISTINCT user_id FROM attempts WHERE id IN (:ids)";
+
+    // Quizzes handled together; keeps IN lists short
+    private static final int QUIZ_GROUP_SIZE = 100;
+    private static final int MAX_QUIZ_DELETE_TRIES = 10;
+
+    @Autowired
+    private BulkJobRepository bulkJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Autowired
+    private AttemptAnalyticsService attemptAnalyticsService;
+
+    @Autowired
+    private AttemptWriteBehindService writeBehindService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bulk.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${bulk.max-rows-per-second:50000}")
+    private int maxRowsPerSecond;
+
+    public BulkJobResponse startArchive(BulkJobRequest request) {
+        List<Long> quizIds = request.getQuizIds();
+        if (quizIds == null || quizIds.isEmpty()) {
+            throw new RuntimeException("No quizzes selected");
+        }
+        BulkJob job = newJob(BulkJob.Type.ARCHIVE_QUIZZES);
+        job.setQuizIds(joinIds(quizIds));
+        job.setTotalRows((long) quizIds.size());
+        return start(job);
+    }
+
+    public BulkJobResponse startDelete(BulkJobRequest request) {
+        List<Long> quizIds = Boolean.TRUE.equals(request.getAllArchived())
+                ? jdbcTemplate.queryForList("SELECT id FROM quizzes WHERE archived = TRUE", Long.class)
+                : request.getQuizIds();
+        if (quizIds == null || quizIds.isEmpty()) {
+            throw new RuntimeException("No quizzes selected");
+        }
+        BulkJob job = newJob(BulkJob.Type.DELETE_QUIZZES);
+        job.setQuizIds(joinIds(quizIds));
+        long total = quizIds.size();
+        NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        for (List<Long> group : partition(quizIds)) {
+            for (String table : QUIZ_CHILD_TABLES) {
+                total += namedTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE quiz_id IN (:ids)",
+                        Map.of("ids", group), Long.class);
+            }
+        }
+        job.setTotalRows(total);
+        return start(job);
+    }
+
+    public BulkJobResponse startPurge(BulkJobRequest request) {
+        if (request.getOlderThanDays() == null || request.getOlderThanDays() < 1) {
+            throw new RuntimeException("olderThanDays must be at least 1");
+        }
+        BulkJob job = newJob(BulkJob.Type.PURGE_ATTEMPTS);
+        job.setOlderThan(LocalDateTime.now().minusDays(request.getOlderThanDays()));
+        job.setTotalRows(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attempts WHERE submitted_at < ?",
+                Long.class, Timestamp.valueOf(job.getOlderThan())));
+        return start(job);
+    }
+
+    public BulkJobResponse resumeJob(Long jobId) {
+        BulkJob job = bulkJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Bulk job not found"));
+        if (job.getStatus() == BulkJob.Status.COMPLETED) {
+            throw new RuntimeException("Bulk job already completed");
+        }
+        job.setStatus(BulkJob.Status.PENDING);
+        job.setErrorMessage(null);
+        bulkJobRepository.save(job);
+        submit(jobId);
+        return toResponse(job);
+    }
+
+    public BulkJobResponse getJob(Long jobId) {
+        return toResponse(bulkJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Bulk job not found")));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        batchJobRunner.resume("bulk", bulkJobRepository.findByStatusIn(EnumSet.of(BulkJob.Status.PENDING, BulkJob.Status.RUNNING))
+                .stream().map(BulkJob::getId).toList(), this::runJob);
+    }
+
+    private BulkJob newJob(BulkJob.Type type) {
+        BulkJob job = new BulkJob();
+        job.setType(type);
+        job.setStatus(BulkJob.Status.PENDING);
+        return job;
+    }
+
+    private BulkJobResponse start(BulkJob job) {
+        job = bulkJobRepository.save(job);
+        logger.info("Created bulk job {} ({}) covering {} rows", job.getId(), job.getType(), job.getTotalRows());
+        submit(job.getId());
+        return toResponse(job);
+    }
+
+    private void submit(Long jobId) {
+        batchJobRunner.submit(jobId, this::runJob);
+    }
+
+    private void runJob(Long jobId) {
+        BulkJob stored = bulkJobRepository.findById(jobId).orElse(null);
+        if (stored == null || stored.getStatus() == BulkJob.Status.COMPLETED) {
+            return;
+        }
+        // A job resumed after a restart or failure no longer knows whose attempts it already deleted
+        boolean resumed = stored.getProcessedRows() > 0;
+        stored.setStatus(BulkJob.Status.RUNNING);
+        stored.setUpdatedAt(LocalDateTime.now());
+        BulkJob job = bulkJobRepository.save(stored);
+
+        Set<Long> affectedUsers = new HashSet<>();
+        boolean finished = batchJobRunner.execute(() -> {
+            switch (job.getType()) {
+                case ARCHIVE_QUIZZES -> archiveQuizzes(job);
+                case DELETE_QUIZZES -> deleteQuizzes(job, affectedUsers);
+                case PURGE_ATTEMPTS -> purgeAttempts(job, affectedUsers);
+            }
+            if (job.getType() != BulkJob.Type.ARCHIVE_QUIZZES) {
+                job.setCurrentStep("user_progress");
+                batchJobRunner.rebuildDerivedData(resumed ? null : affectedUsers);
+            }
+            job.setStatus(BulkJob.Status.COMPLETED);
+            job.setCurrentStep(null);
+            job.setFinishedAt(LocalDateTime.now());
+            logger.info("Bulk job {} ({}) completed: {} rows", jobId, job.getType(), job.getProcessedRows());
+        }, e -> {
+            logger.error("Bulk job {} ({}) failed after ID {}", jobId, job.getType(), job.getLastId(), e);
+            job.setStatus(BulkJob.Status.FAILED);
+            job.setErrorMessage(e.getMessage());
+        });
+        if (!finished) {
+            return;
+        }
+        if (job.getType() != BulkJob.Type.ARCHIVE_QUIZZES && job.getProcessedRows() > 0) {
+            attemptAnalyticsService.recordChange(job.getType().name().toLowerCase() + " job " + jobId);
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        bulkJobRepository.save(job);
+    }
+
+    private void archiveQuizzes(BulkJob job) {
+        NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        job.setCurrentStep("quizzes");
+        for (List<Long> group : partition(remainingQuizIds(job))) {
+            namedTemplate.update("UPDATE quizzes SET archived = TRUE WHERE id IN (:ids)", Map.of("ids", group));
+            quizService.evictQuizzes(group, List.of());
+            checkpoint(job, group.get(group.size() - 1), group.size());
+        }
+    }
+
+    // Quizzes are archived first so no new attempts arrive while their rows are deleted, and journaled
+    // attempts accepted before that are inserted first so they are deleted rather than dead-lettered
+    private void deleteQuizzes(BulkJob job, Set<Long> affectedUsers) throws InterruptedException {
+        NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        for (List<Long> group : partition(remainingQuizIds(job))) {
+            Map<String, Object> quizParams = Map.of("ids", group);
+            namedTemplate.update("UPDATE quizzes SET archived = TRUE WHERE id IN (:ids)", quizParams);
+            quizService.evictQuizzes(group, List.of());
+            writeBehindService.awaitWritten(group);
+
+            List<Long> versionIds = new ArrayList<>();
+            for (String table : QUIZ_CHILD_TABLES) {
+                job.setCurrentStep(table);
+                String selectSql = "SELECT id FROM " + table + " WHERE quiz_id IN (:ids) ORDER BY id LIMIT " + batchSize;
+                String deleteSql = "DELETE FROM " + table + " WHERE id IN (:ids)";
+                List<Long> ids;
+                while (!(ids = namedTemplate.queryForList(selectSql, quizParams, Long.class)).isEmpty()) {
+                    long start = System.currentTimeMillis();
+                    batchJobRunner.waitForForegroundHeadroom();
+                    if (table.equals("attempts")) {
+                        affectedUsers.addAll(namedTemplate.queryForList(ATTEMPT_USERS_SQL, Map.of("ids", ids), Long.class));
+                    }
+                    int deleted = namedTemplate.update(deleteSql, Map.of("ids", ids));
+                    if (table.equals("quiz_versions")) {
+                        versionIds.addAll(ids);
+                    }
+                    progress(job, deleted);
+                    batchJobRunner.throttle(deleted, System.currentTimeMillis() - start, maxRowsPerSecond);
+                }
+            }
+
+            job.setCurrentStep("quizzes");
+            int deleted = deleteQuizRows(job, namedTemplate, group, affectedUsers);
+            quizService.evictQuizzes(group, versionIds);
+            checkpoint(job, group.get(group.size() - 1), deleted);
+        }
+    }
+
+    // Attempts can still commit after their pass: a submit that loaded its quiz before the archive, or a
+    // timed session that ran out. Those are deleted in the same transaction as the quiz rows; one that
+    // commits in between fails the quiz delete on its foreign key, and both deletes run again.
+    private int deleteQuizRows(BulkJob job, NamedParameterJdbcTemplate namedTemplate, List<Long> group,
+                               Set<Long> affectedUsers) throws InterruptedException {
+        Map<String, Object> quizParams = Map.of("ids", group);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int tries = 1; ; tries++) {
+            writeBehindService.awaitWritten(group);
+            try {
+                int[] deleted = transaction.execute(status -> {
+                    affectedUsers.addAll(namedTemplate.queryForList(
+                            "SELECT DISTINCT user_id FROM attempts WHERE quiz_id IN (:ids)", quizParams, Long.class));
+                    int attempts = namedTemplate.update("DELETE FROM attempts WHERE quiz_id IN (:ids)", quizParams);
+                    return new int[]{attempts, namedTemplate.update("DELETE FROM quizzes WHERE id IN (:ids)", quizParams)};
+                });
+                job.setProcessedRows(job.getProcessedRows() + deleted[0]);
+                return deleted[1];
+            } catch (DataIntegrityViolationException e) {
+                if (tries == MAX_QUIZ_DELETE_TRIES) {
+                    throw e;
+                }
+                logger.info("New attempts on quizzes being deleted by bulk job {}, deleting again", job.getId());
+            }
+        }
+    }
+
+    // Keyset batches over the primary key, so each batch starts where the previous one stopped
+    private void purgeAttempts(BulkJob job, Set<Long> affectedUsers) throws InterruptedException {
+        NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        String selectSql = "SELECT id FROM attempts WHERE submitted_at < :cutoff AND id > :lastId ORDER BY id LIMIT " + batchSize;
+        job.setCurrentStep("attempts");
+        List<Long> ids;
+        while (!(ids = namedTemplate.queryForList(selectSql,
+                Map.of("cutoff", Timestamp.valueOf(job.getOlderThan()), "lastId", job.getLastId()), Long.class)).isEmpty()) {
+            long start = System.currentTimeMillis();
+            batchJobRunner.waitForForegroundHeadroom();
+            affectedUsers.addAll(namedTemplate.queryForList(ATTEMPT_USERS_SQL, Map.of("ids", ids), Long.class));
+            int deleted = namedTemplate.update("DELETE FROM attempts WHERE id IN (:ids)", Map.of("ids", ids));
+            checkpoint(job, ids.get(ids.size() - 1), deleted);
+            batchJobRunner.throttle(deleted, System.currentTimeMillis() - start, maxRowsPerSecond);
+        }
+    }
+
+    private List<Long> remainingQuizIds(BulkJob job) {
+        return Arrays.stream(job.getQuizIds().split(","))
+                .map(Long::valueOf)
+                .filter(id -> id > job.getLastId())
+                .sorted()
+                .distinct()
+                .toList();
+    }
+
+    private void progress(BulkJob job, int rows) {
+        job.setProcessedRows(job.getProcessedRows() + rows);
+        job.setUpdatedAt(LocalDateTime.now());
+        bulkJobRepository.save(job);
+    }
+
+    private void checkpoint(BulkJob job, long lastId, int rows) {
+        job.setLastId(lastId);
+        progress(job, rows);
+    }
+
+    private static List<List<Long>> partition(List<Long> ids) {
+        List<List<Long>> groups = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += QUIZ_GROUP_SIZE) {
+            groups.add(ids.subList(i, Math.min(ids.size(), i + QUIZ_GROUP_SIZE)));
+        }
+        return groups;
+    }
+
+    private static String joinIds(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private BulkJobResponse toResponse(BulkJob job) {
+        BulkJobResponse response = new BulkJobResponse();
+        response.setId(job.getId());
+        response.setType(job.getType());
+        response.setStatus(job.getStatus());
+        response.setQuizCount(job.getQuizIds() != null ? job.getQuizIds().split(",").length : null);
+        response.setOlderThan(job.getOlderThan());
+        response.setCurrentStep(job.getCurrentStep());
+        response.setProcessedRows(job.getProcessedRows());
+        response.setTotalRows(job.getTotalRows());
+        response.setProgressPercent(job.getTotalRows() > 0
+                ? Math.min(100.0, job.getProcessedRows() * 100.0 / job.getTotalRows())
+                : (job.getStatus() == BulkJob.Status.COMPLETED ? 100.0 : 0.0));
+        response.setCreatedAt(job.getCreatedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setErrorMessage(job.getErrorMessage());
+        return response;
+    }
+}
@@ -0,0 +1,317 @@
+package org.example.quizapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.quizapp.dto.LiveAnswerRequest;
+import org.example.quizapp.dto.LiveSessionResponse;
+import org.example.quizapp.entity.Question;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.live.FrameSink;
+import org.example.quizapp.live.LiveEvents;
+import org.example.quizapp.live.LiveFrame;
+import org.example.quizapp.live.LiveSession;
+import org.example.quizapp.live.LiveSubscriber;
+import org.example.quizapp.repository.QuizRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hosted live sessions: the host advances questions, participants receive each question and its results
+// as server-sent events. Every broadcast is serialized once and queued to all subscribers; a small writer
+// pool drains the queues, so a broadcast returns as soon as the frame is queued everywhere.
+@Service
+public class LiveSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSessionService.class);
+
+    private static final int LEADERBOARD_SIZE = 10;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${live.writer-threads:16}")
+    private int writerThreads;
+
+    @Value("${live.subscriber-queue-capacity:32}")
+    private int subscriberQueueCapacity;
+
+    @Value("${live.max-participants:20000}")
+    private int maxParticipants;
+
+    @Value("${live.max-session-age-ms:21600000}")
+    private long maxSessionAgeMs;
+
+    private final Map<String, LiveSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicInteger connected = new AtomicInteger();
+
+    private ExecutorService writers;
+    private Timer broadcastTimer;
+    private Counter framesQueued;
+    private Counter droppedSubscribers;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        broadcastTimer = meterRegistry.timer("quiz.live.broadcast");
+        framesQueued = meterRegistry.counter("quiz.live.frames");
+        droppedSubscribers = meterRegistry.counter("quiz.live.subscribers.dropped");
+        Gauge.builder("quiz.live.sessions", sessions, Map::size).register(meterRegistry);
+        Gauge.builder("quiz.live.subscribers", connected, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sessions.values().forEach(session -> session.getSubscribers().values().forEach(LiveSubscriber::close));
+        writers.shutdown();
+    }
+
+    @Transactional(readOnly = true)
+    public LiveSessionResponse createSession(Long quizId, String host) {
+        Quiz quiz = quizRepository.findWithQuestionsById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+        if (Boolean.TRUE.equals(quiz.getArchived())) {
+            throw new RuntimeException("Quiz is archived");
+        }
+        if (quiz.getQuestions().isEmpty()) {
+            throw new RuntimeException("Quiz has no questions");
+        }
+        List<LiveSession.Question> questions = new ArrayList<>(quiz.getQuestions().size());
+        for (Question question : quiz.getQuestions()) {
+            if (question.getCorrectAnswerMask() != null) {
+                throw new RuntimeException("Live sessions only support single-choice questions");
+            }
+            questions.add(new LiveSession.Question(question.getId(), question.getText(),
+                    parseOptions(question.getOptions()), question.getCorrectAnswerIndex()));
+        }
+        LiveSession session = new LiveSession(UUID.randomUUID().toString(), quiz.getId(), quiz.getTitle(), host,
+                List.copyOf(questions), maxParticipants);
+        sessions.put(session.getId(), session);
+        logger.info("Live session {} for quiz {} created by {}", session.getId(), quizId, host);
+        return toResponse(session);
+    }
+
+    public LiveSessionResponse getSession(String sessionId) {
+        return toResponse(findSession(sessionId));
+    }
+
+    // Joins the user (unless it is the host) and queues a snapshot so late joiners and reconnects resync
+    public LiveSubscriber subscribe(String sessionId, String username, FrameSink sink) {
+        LiveSession session = findSession(sessionId);
+        if (session.getState() == LiveSession.State.ENDED) {
+            throw new RuntimeException("Live session has ended");
+        }
+        if (!username.equals(session.getHost()) && session.join(username) < 0) {
+            throw new RuntimeException("Live session is full");
+        }
+
+        LiveSubscriber subscriber = new LiveSubscriber(subscriberIds.incrementAndGet(), username, sink,
+                subscriberQueueCapacity, closed -> {
+                    session.getSubscribers().remove(username, closed);
+                    connected.decrementAndGet();
+                });
+        connected.incrementAndGet();
+        LiveSubscriber previous = session.getSubscribers().put(username, subscriber);
+        if (previous != null) {
+            previous.close();
+        }
+        if (session.getState() == LiveSession.State.ENDED) {
+            // Raced with end(), which may already have closed the other subscribers
+            subscriber.close();
+            throw new RuntimeException("Live session has ended");
+        }
+
+        subscriber.enqueue(frame("state", new LiveEvents.State(session.getId(), session.getQuizTitle(),
+                session.getState().name(), session.getQuestionIndex(), session.getTotalQuestions(),
+                session.getParticipantCount())), writers);
+        LiveSession.Question question = session.currentQuestion();
+        if (session.getState() == LiveSession.State.QUESTION_OPEN && question != null) {
+            subscriber.enqueue(frame("question", toQuestionEvent(session, question)), writers);
+        }
+        return subscriber;
+    }
+
+    public void submitAnswer(String sessionId, String username, LiveAnswerRequest request) {
+        LiveSession session = findSession(sessionId);
+        if (request.getQuestionId() == null || request.getAnswerIndex() == null) {
+            throw new RuntimeException("Question and answer are required");
+        }
+        switch (session.answer(username, request.getQuestionId(), request.getAnswerIndex())) {
+            case ACCEPTED -> {
+            }
+            case NOT_JOINED -> throw new RuntimeException("Not a participant of this live session");
+            case NOT_OPEN -> throw new RuntimeException("No question is open");
+            case WRONG_QUESTION -> throw new RuntimeException("Question is not the open question");
+            case INVALID_OPTION -> throw new RuntimeException("Invalid answer index");
+            case ALREADY_ANSWERED -> throw new RuntimeException("Question already answered");
+        }
+    }
+
+    public LiveSessionResponse nextQuestion(String sessionId, String username) {
+        LiveSession session = findHostedSession(sessionId, username);
+        synchronized (session) {
+            if (session.getState() == LiveSession.State.QUESTION_OPEN) {
+                throw new RuntimeException("Reveal the open question first");
+            }
+            if (session.getState() == LiveSession.State.ENDED) {
+                throw new RuntimeException("Live session has ended");
+            }
+            LiveSession.Question question = session.openNextQuestion();
+            if (question == null) {
+                throw new RuntimeException("No more questions");
+            }
+            broadcast(session, "question", toQuestionEvent(session, question));
+        }
+        return toResponse(session);
+    }
+
+    public LiveEvents.Results revealQuestion(String sessionId, String username) {
+        LiveSession session = findHostedSession(sessionId, username);
+        synchronized (session) {
+            if (session.getState() != LiveSession.State.QUESTION_OPEN) {
+                throw new RuntimeException("No question is open");
+            }
+            LiveEvents.Results results = session.closeQuestion(LEADERBOARD_SIZE);
+            broadcast(session, "results", results);
+            return results;
+        }
+    }
+
+    public LiveSessionResponse endSession(String sessionId, String username) {
+        LiveSession session = findHostedSession(sessionId, username);
+        synchronized (session) {
+            end(session);
+        }
+        return toResponse(session);
+    }
+
+    @Scheduled(fixedDelayString = "${live.progress-interval-ms:1000}")
+    public void publishProgress() {
+        for (LiveSession session : sessions.values()) {
+            if (session.getState() == LiveSession.State.QUESTION_OPEN && session.takeProgressChange()) {
+                broadcast(session, "progress", new LiveEvents.Progress(session.getQuestionIndex(),
+                        session.getAnsweredCount(), session.getParticipantCount()));
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${live.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (LiveSession session : sessions.values()) {
+            if (now - session.getCreatedAtMillis() > maxSessionAgeMs) {
+                logger.info("Ending abandoned live session {}", session.getId());
+                synchronized (session) {
+                    end(session);
+                }
+                continue;
+            }
+            queue(session, LiveFrame.HEARTBEAT);
+        }
+    }
+
+    private void end(LiveSession session) {
+        if (session.getState() == LiveSession.State.ENDED) {
+            return;
+        }
+        session.end();
+        broadcast(session, "ended", new LiveEvents.Ended(session.getId(), session.leaderboard(LEADERBOARD_SIZE)));
+        queue(session, LiveFrame.CLOSE);
+        sessions.remove(session.getId());
+    }
+
+    private void broadcast(LiveSession session, String event, Object payload) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        queue(session, frame(event, payload));
+        sample.stop(broadcastTimer);
+    }
+
+    private void queue(LiveSession session, LiveFrame frame) {
+        int queued = 0;
+        for (LiveSubscriber subscriber : session.getSubscribers().values()) {
+            if (subscriber.enqueue(frame, writers)) {
+                queued++;
+            } else if (frame != LiveFrame.CLOSE) {
+                droppedSubscribers.increment();
+            }
+        }
+        framesQueued.increment(queued);
+    }
+
+    private LiveFrame frame(String event, Object payload) {
+        try {
+            return LiveFrame.event(event, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing live event", e);
+        }
+    }
+
+    private LiveSession findSession(String sessionId) {
+        LiveSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new RuntimeException("Live session not found");
+        }
+        return session;
+    }
+
+    private LiveSession findHostedSession(String sessionId, String username) {
+        LiveSession session = findSession(sessionId);
+        if (!session.getHost().equals(username)) {
+            throw new RuntimeException("Only the host can control this live session");
+        }
+        return session;
+    }
+
+    private List<String> parseOptions(String options) {
+        try {
+            return objectMapper.readValue(options, new TypeReference<List<String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error processing options", e);
+        }
+    }
+
+    private static LiveEvents.Question toQuestionEvent(LiveSession session, LiveSession.Question question) {
+        return new LiveEvents.Question(session.getId(), session.getQuestionIndex(), session.getTotalQuestions(),
+                question.id(), question.text(), question.options());
+    }
+
+    private static LiveSessionResponse toResponse(LiveSession session) {
+        return new LiveSessionResponse(session.getId(), session.getQuizId(), session.getQuizTitle(), session.getHost(),
+                session.getState().name(), session.getQuestionIndex(), session.getTotalQuestions(),
+                session.getParticipantCount(), session.getSubscribers().size(), session.getAnsweredCount());
+    }
+}
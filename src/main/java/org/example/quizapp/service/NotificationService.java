@@ -1,10 +1,14 @@
 package org.example.quizapp.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class NotificationService {
 
@@ -12,9 +16,13 @@ public class NotificationService {
     private static final Logger smsLogger = LoggerFactory.getLogger("SMS_LOGGER");
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Async
     public void sendEmailNotification(String to, String subject, String body) {
         logger.info("Sending email notification to: {}", to);
+        long start = System.nanoTime();
         try {
             // Simulate email sending delay
             Thread.sleep(1000);
@@ -31,12 +39,15 @@ public class NotificationService {
         } catch (InterruptedException e) {
             logger.error("Error sending email notification to: {}", to, e);
             Thread.currentThread().interrupt();
+        } finally {
+            recordSend("email", start);
         }
     }
 
     @Async
     public void sendSMSNotification(String phoneNumber, String message) {
         logger.info("Sending SMS notification to: {}", phoneNumber);
+        long start = System.nanoTime();
         try {
             // Simulate SMS sending delay
             Thread.sleep(800);
@@ -52,6 +63,8 @@ public class NotificationService {
         } catch (InterruptedException e) {
             logger.error("Error sending SMS notification to: {}", phoneNumber, e);
             Thread.currentThread().interrupt();
+        } finally {
+            recordSend("sms", start);
         }
     }
 
@@ -78,4 +91,9 @@ public class NotificationService {
         String smsMessage = String.format("Welcome %s! Your quiz account is ready.", username);
         sendSMSNotification("+1234567890", smsMessage);
     }
+
+    private void recordSend(String channel, long startNanos) {
+        meterRegistry.timer("quiz.notification.send", "channel", channel)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
 }
@@ -0,0 +1,299 @@
+package org.example.quizapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.quizapp.dto.QuizSearchHit;
+import org.example.quizapp.dto.QuizSearchResponse;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.search.QuizSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Full-text search over quiz titles, categories and question text, served from an in-memory inverted
+// index. The index is built at startup from one streaming scan, tokenizing quizzes in parallel a chunk
+// at a time; quizzes created or given questions are re-indexed once committed, and bulk changes reload
+// the quizzes they touched. Archived quizzes are not indexed.
+@Service
+public class QuizSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizSearchService.class);
+
+    private static final String DOCUMENTS_SQL =
+            "SELECT q.id, q.title, q.category, q.difficulty, qs.text FROM quizzes q " +
+            "LEFT JOIN questions qs ON qs.quiz_id = q.id WHERE q.archived = FALSE";
+    private static final String ALL_DOCUMENTS_SQL = DOCUMENTS_SQL + " ORDER BY q.id, qs.id";
+    private static final String QUIZ_DOCUMENTS_SQL = DOCUMENTS_SQL + " AND q.id IN (:ids) ORDER BY q.id, qs.id";
+
+    private static final int QUIZZES_PER_CHUNK = 1000;
+
+    // Tombstones below this count are never worth a rebuild
+    private static final int MIN_DELETED_FOR_REBUILD = 1000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor rebuildExecutor;
+
+    @Value("${search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${search.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${search.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${search.rebuild-deleted-ratio:0.25}")
+    private double rebuildDeletedRatio;
+
+    private final ForkJoinPool indexingPool =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile QuizSearchIndex index = new QuizSearchIndex();
+
+    // Quizzes changed while a rebuild scans; they are reloaded into the new index once it is swapped in
+    private volatile Set<Long> changedDuringRebuild;
+
+    private Timer searchTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("quiz.search.documents", this, service -> service.index.liveDocs()).register(meterRegistry);
+        Gauge.builder("quiz.search.terms", this, service -> service.index.terms()).register(meterRegistry);
+        Gauge.builder("quiz.search.memory", this, service -> service.index.estimatedBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        searchTimer = Timer.builder("quiz.search.query").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexingPool.shutdownNow();
+    }
+
+    // Searches answer from an empty index until the first build is swapped in
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            scheduleRebuild();
+        }
+    }
+
+    public QuizSearchResponse search(String query, Integer limit) {
+        int size = limit != null ? Math.max(1, Math.min(limit, maxLimit)) : defaultLimit;
+        if (!enabled || query == null || query.isBlank()) {
+            return new QuizSearchResponse(query, 0, List.of());
+        }
+        QuizSearchIndex.Result result = searchTimer.record(() -> index.search(query, size));
+        List<QuizSearchHit> hits = new ArrayList<>(result.hits().size());
+        for (QuizSearchIndex.Hit hit : result.hits()) {
+            hits.add(new QuizSearchHit(hit.quizId(), hit.title(), hit.category(), hit.difficulty(), hit.score()));
+        }
+        return new QuizSearchResponse(query, result.total(), hits);
+    }
+
+    // Indexes the quiz as saved in the caller's transaction once it commits, so a rolled back change is
+    // never searchable
+    public void indexAfterCommit(QuizSearchIndex.Document document) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(document);
+                }
+            });
+        } else {
+            apply(document);
+        }
+    }
+
+    // For bulk operations that change quizzes with plain SQL: quizzes no longer found or archived drop out
+    public void reindex(Collection<Long> quizIds) {
+        if (!enabled || quizIds.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.addAll(quizIds);
+        }
+        reload(index, quizIds);
+        checkTombstones();
+    }
+
+    private void apply(QuizSearchIndex.Document document) {
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(document.quizId());
+        }
+        index.put(QuizSearchIndex.analyze(document));
+        checkTombstones();
+    }
+
+    private void reload(QuizSearchIndex target, Collection<Long> quizIds) {
+        Set<Long> missing = new HashSet<>(quizIds);
+        NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        DocumentCollector collector = new DocumentCollector(document -> {
+            missing.remove(document.quizId());
+            target.put(QuizSearchIndex.analyze(document));
+        });
+        namedTemplate.query(QUIZ_DOCUMENTS_SQL, Map.of("ids", quizIds), collector);
+        collector.flush();
+        missing.forEach(target::remove);
+    }
+
+    // Re-indexing leaves the old documents behind as tombstones; a rebuild drops them
+    private void checkTombstones() {
+        QuizSearchIndex current = index;
+        int deleted = current.deletedDocs();
+        if (deleted >= MIN_DELETED_FOR_REBUILD && deleted > rebuildDeletedRatio * current.liveDocs()) {
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.warn("Could not rebuild the quiz search index", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        QuizSearchIndex rebuilt = new QuizSearchIndex();
+        try {
+            JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+            streamingTemplate.setFetchSize(fetchSize);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+
+            // Rows arrive grouped by quiz; quizzes are tokenized in parallel a chunk at a time
+            List<QuizSearchIndex.Document> chunk = new ArrayList<>(QUIZZES_PER_CHUNK);
+            DocumentCollector collector = new DocumentCollector(document -> {
+                chunk.add(document);
+                if (chunk.size() == QUIZZES_PER_CHUNK) {
+                    indexChunk(rebuilt, chunk);
+                }
+            });
+            readOnly.executeWithoutResult(status -> streamingTemplate.query(ALL_DOCUMENTS_SQL, collector));
+            collector.flush();
+            indexChunk(rebuilt, chunk);
+
+            index = rebuilt;
+        } finally {
+            changedDuringRebuild = null;
+        }
+        // Changes made during the scan may have missed it; a change recorded after this copy was taken
+        // went to the new index directly
+        if (!changed.isEmpty()) {
+            reload(rebuilt, List.copyOf(changed));
+        }
+        logger.info("Built the quiz search index: {} quizzes, {} terms, ~{} bytes in {}ms",
+                rebuilt.liveDocs(), rebuilt.terms(), rebuilt.estimatedBytes(), System.currentTimeMillis() - start);
+    }
+
+    private void indexChunk(QuizSearchIndex target, List<QuizSearchIndex.Document> chunk) {
+        QuizSearchIndex.Analyzed[] analyzed = new QuizSearchIndex.Analyzed[chunk.size()];
+        indexingPool.submit(() -> Arrays.parallelSetAll(analyzed, i -> QuizSearchIndex.analyze(chunk.get(i)))).join();
+        for (QuizSearchIndex.Analyzed document : analyzed) {
+            target.put(document);
+        }
+        chunk.clear();
+    }
+
+    // Turns rows ordered by quiz into one document per quiz; call flush() after the last row
+    private static final class DocumentCollector implements RowCallbackHandler {
+        private final Consumer<QuizSearchIndex.Document> sink;
+        private long quizId = -1;
+        private String title;
+        private String category;
+        private Quiz.Difficulty difficulty;
+        private List<String> texts;
+
+        DocumentCollector(Consumer<QuizSearchIndex.Document> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != quizId) {
+                flush();
+                quizId = id;
+                title = rs.getString(2);
+                category = rs.getString(3);
+                difficulty = Quiz.Difficulty.valueOf(rs.getString(4));
+                texts = new ArrayList<>();
+            }
+            String text = rs.getString(5);
+            if (text != null) {
+                texts.add(text);
+            }
+        }
+
+        void flush() {
+            if (quizId >= 0) {
+                sink.accept(new QuizSearchIndex.Document(quizId, title, category, difficulty, texts));
+                quizId = -1;
+            }
+        }
+    }
+}
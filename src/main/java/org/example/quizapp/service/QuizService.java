@@ -1,20 +1,43 @@
 package org.example.quizapp.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.quizapp.dto.*;
 import org.example.quizapp.entity.Question;
 import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.QuizVersion;
 import org.example.quizapp.repository.QuestionRepository;
 import org.example.quizapp.repository.QuizRepository;
+import org.example.quizapp.repository.QuizVersionRepository;
+import org.example.quizapp.scoring.ScoringPlan;
+import org.example.quizapp.search.QuizSearchIndex;
+import jakarta.annotation.PostConstruct;
+import org.example.quizapp.cache.SingleFlightCache;
+import org.example.quizapp.encoding.EncodedPayload;
+import org.example.quizapp.encoding.PayloadEncoder;
+import org.example.quizapp.encoding.PayloadFormat;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,16 +49,84 @@ public class QuizService {
     @Autowired
     private QuestionRepository questionRepository;
 
+    @Autowired
+    private QuizVersionRepository quizVersionRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PayloadEncoder payloadEncoder;
+
+    @Autowired
+    private QuizSearchService quizSearchService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor refreshExecutor;
+
+    @Value("${quiz.cache.ttl-ms:30000}")
+    private long cacheTtlMs;
+
+    @Value("${quiz.cache.refresh-ahead-ms:5000}")
+    private long cacheRefreshAheadMs;
+
+    @Value("${quiz.cache.load-timeout-ms:3000}")
+    private long cacheLoadTimeoutMs;
+
+    @Value("${quiz.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${quiz.version-cache.max-entries:10000}")
+    private int versionCacheMaxEntries;
+
+    @Value("${quiz.batch.max-ids:100}")
+    private int batchMaxIds;
+
+    @Value("${quiz.version-payload-cache.max-entries:2000}")
+    private int versionPayloadCacheMaxEntries;
+
+    // Quiz details with parsed questions; concurrent misses share one database load
+    private SingleFlightCache<Long, QuizResponse> quizCache;
+
+    // Published versions by version ID, each with its compiled scoring plan. They never change, so
+    // there is nothing to invalidate; the TTL only lets versions nobody reads any more age out.
+    private SingleFlightCache<Long, CompiledVersion> versionCache;
+
+    private record CompiledVersion(QuizVersionContent content, ScoringPlan scoringPlan) {
+    }
+
+    // Version responses serialized and gzipped once per format, as served to clients
+    private SingleFlightCache<VersionPayloadKey, EncodedPayload> versionPayloadCache;
+
+    private record VersionPayloadKey(Long versionId, PayloadFormat format) {
+    }
+
+    @PostConstruct
+    public void initQuizCache() {
+        quizCache = new SingleFlightCache<>("quiz", this::loadQuizResponse, refreshExecutor,
+                cacheTtlMs, cacheRefreshAheadMs, cacheLoadTimeoutMs, cacheMaxEntries, meterRegistry);
+        versionCache = new SingleFlightCache<>("quiz-version", this::loadVersionContent, refreshExecutor,
+                TimeUnit.DAYS.toMillis(1), 0, cacheLoadTimeoutMs, versionCacheMaxEntries, meterRegistry);
+        versionPayloadCache = new SingleFlightCache<>("quiz-version-payload", this::loadVersionPayload, refreshExecutor,
+                TimeUnit.DAYS.toMillis(1), 0, cacheLoadTimeoutMs, versionPayloadCacheMaxEntries, meterRegistry);
+    }
+
     @Transactional
     public Quiz createQuiz(QuizRequest request) {
         Quiz quiz = new Quiz();
         quiz.setTitle(request.getTitle());
         quiz.setCategory(request.getCategory());
         quiz.setDifficulty(request.getDifficulty());
-        return quizRepository.save(quiz);
+        quiz.setTimeLimitSeconds(request.getTimeLimitSeconds());
+        quiz.setSessionQuestionCount(request.getSessionQuestionCount());
+        Quiz saved = quizRepository.save(quiz);
+        publishVersion(saved);
+        indexForSearch(saved);
+        return saved;
     }
 
     @Transactional
@@ -52,35 +143,353 @@ public class QuizService {
             } catch (JsonProcessingException e) {
                 throw new RuntimeException("Error processing options", e);
             }
-            question.setCorrectAnswerIndex(qr.getCorrectAnswerIndex());
+            setAnswerKey(question, qr);
             quiz.getQuestions().add(question);
         }
 
-        return quizRepository.save(quiz);
+        Quiz saved = quizRepository.saveAndFlush(quiz);
+        publishVersion(saved);
+        evictAfterCommit(quizId);
+        indexForSearch(saved);
+        return saved;
+    }
+
+    // Publishes a new version like any other change. Stored attempts keep their score until a rescore
+    @Transactional
+    public Quiz correctAnswerKey(Long quizId, Long questionId, AnswerKeyRequest request) {
+        Quiz quiz = quizRepository.findWithQuestionsById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+        Question question = quiz.getQuestions().stream()
+                .filter(candidate -> candidate.getId().equals(questionId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Question not found"));
+        setAnswerKey(question, new QuestionRequest(question.getText(), parseOptions(question.getOptions()),
+                request.getCorrectAnswerIndex(), request.getCorrectAnswerIndexes(), request.getWeight(),
+                request.getPartialCredit(), request.getNegativeMark()));
+
+        Quiz saved = quizRepository.saveAndFlush(quiz);
+        publishVersion(saved);
+        evictAfterCommit(quizId);
+        return saved;
+    }
+
+    // For rescoring: the version's questions with the answer key of the current version, published as a
+    // new version if that changes any key. Questions since removed from the quiz keep their key.
+    @Transactional
+    public Long rekeyVersion(Long quizId, Long versionId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+        QuizVersionContent content = getVersionContent(versionId);
+        if (!content.getQuizId().equals(quizId)) {
+            throw new RuntimeException("Quiz version not found");
+        }
+        if (quiz.getCurrentVersionId() == null || versionId.equals(quiz.getCurrentVersionId())) {
+            return versionId;
+        }
+        Map<Long, QuestionSnapshot> currentKeys = new HashMap<>();
+        for (QuestionSnapshot question : getVersionContent(quiz.getCurrentVersionId()).getQuestions()) {
+            currentKeys.put(question.getId(), question);
+        }
+
+        List<QuestionSnapshot> questions = new ArrayList<>(content.getQuestions().size());
+        boolean changed = false;
+        for (QuestionSnapshot question : content.getQuestions()) {
+            QuestionSnapshot current = currentKeys.get(question.getId());
+            if (current == null || sameAnswerKey(question, current)) {
+                questions.add(question);
+            } else {
+                questions.add(new QuestionSnapshot(question.getId(), question.getText(), question.getOptions(),
+                        current.getCorrectAnswerIndex(), current.getCorrectAnswerMask(), current.getWeight(),
+                        current.getPartialCredit(), current.getNegativeMark()));
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return versionId;
+        }
+        return saveVersion(new QuizVersionContent(null, quizId, quizVersionRepository.findLatestVersionNumber(quizId) + 1,
+                content.getTitle(), content.getCategory(), content.getDifficulty(), content.getCreatedDate(), questions))
+                .getId();
+    }
+
+    private static boolean sameAnswerKey(QuestionSnapshot a, QuestionSnapshot b) {
+        return Objects.equals(a.getCorrectAnswerIndex(), b.getCorrectAnswerIndex())
+                && Objects.equals(a.getCorrectAnswerMask(), b.getCorrectAnswerMask())
+                && Objects.equals(a.getWeight(), b.getWeight())
+                && Objects.equals(a.getPartialCredit(), b.getPartialCredit())
+                && Objects.equals(a.getNegativeMark(), b.getNegativeMark());
+    }
+
+    private void setAnswerKey(Question question, QuestionRequest request) {
+        List<Integer> correctIndexes = request.getCorrectAnswerIndexes();
+        if (correctIndexes != null && !correctIndexes.isEmpty()) {
+            long mask = 0;
+            for (Integer index : correctIndexes) {
+                checkAnswerIndex(index, request);
+                mask |= 1L << index;
+            }
+            question.setCorrectAnswerMask(mask);
+            question.setCorrectAnswerIndex(Long.numberOfTrailingZeros(mask));
+        } else if (request.getCorrectAnswerIndex() != null) {
+            checkAnswerIndex(request.getCorrectAnswerIndex(), request);
+            question.setCorrectAnswerMask(null);
+            question.setCorrectAnswerIndex(request.getCorrectAnswerIndex());
+        } else {
+            throw new RuntimeException("Correct answer index is required");
+        }
+        question.setWeight(request.getWeight());
+        question.setPartialCredit(request.getPartialCredit());
+        question.setNegativeMark(request.getNegativeMark());
+    }
+
+    // Past the options or the 64 bits of a mask, an index compiles to the invalid-selection marker,
+    // which out-of-range answers would then match
+    private void checkAnswerIndex(Integer index, QuestionRequest request) {
+        if (index == null || index < 0 || index >= request.getOptions().size() || index >= Long.SIZE) {
+            throw new RuntimeException("Invalid correct answer index");
+        }
+    }
+
+    // Copy-on-write: snapshots the current questions and answer key as a new immutable version
+    private void publishVersion(Quiz quiz) {
+        List<QuestionSnapshot> questions = new ArrayList<>(quiz.getQuestions().size());
+        for (Question question : quiz.getQuestions()) {
+            questions.add(new QuestionSnapshot(question.getId(), question.getText(),
+                    parseOptions(question.getOptions()), question.getCorrectAnswerIndex(), question.getCorrectAnswerMask(),
+                    question.getWeight(), question.getPartialCredit(), question.getNegativeMark()));
+        }
+        QuizVersionContent content = new QuizVersionContent(null, quiz.getId(),
+                quizVersionRepository.findLatestVersionNumber(quiz.getId()) + 1, quiz.getTitle(), quiz.getCategory(),
+                quiz.getDifficulty(), quiz.getCreatedDate(), questions);
+        quiz.setCurrentVersionId(saveVersion(content).getId());
+    }
+
+    private QuizVersion saveVersion(QuizVersionContent content) {
+        QuizVersion version = new QuizVersion();
+        version.setQuizId(content.getQuizId());
+        version.setVersionNumber(content.getVersionNumber());
+        try {
+            version.setContent(objectMapper.writeValueAsString(content));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error processing quiz version", e);
+        }
+        return quizVersionRepository.save(version);
+    }
+
+    public QuizResponse getQuizVersion(Long quizId, Long versionId) {
+        QuizVersionContent content = getVersionContent(versionId);
+        if (!content.getQuizId().equals(quizId)) {
+            throw new RuntimeException("Quiz version not found");
+        }
+        QuizResponse response = new QuizResponse();
+        response.setId(content.getQuizId());
+        response.setTitle(content.getTitle());
+        response.setCategory(content.getCategory());
+        response.setDifficulty(content.getDifficulty());
+        response.setCreatedDate(content.getCreatedDate());
+        response.setVersionId(content.getVersionId());
+        response.setQuestions(content.getQuestions().stream()
+                .map(question -> new QuestionResponse(question.getId(), question.getText(), question.getOptions(),
+                        question.getCorrectAnswerMask() != null))
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    public EncodedPayload getQuizVersionPayload(Long quizId, Long versionId, PayloadFormat format) {
+        if (!getVersionContent(versionId).getQuizId().equals(quizId)) {
+            throw new RuntimeException("Quiz version not found");
+        }
+        return versionPayloadCache.get(new VersionPayloadKey(versionId, format));
+    }
+
+    private EncodedPayload loadVersionPayload(VersionPayloadKey key) {
+        QuizVersionContent content = getVersionContent(key.versionId());
+        return payloadEncoder.encode(getQuizVersion(content.getQuizId(), key.versionId()), key.format());
+    }
+
+    // Includes the answer key; for scoring, not for clients
+    public QuizVersionContent getVersionContent(Long versionId) {
+        return versionCache.get(versionId).content();
+    }
+
+    public ScoringPlan getScoringPlan(Long quizId, Long versionId) {
+        CompiledVersion version = versionCache.get(versionId);
+        if (!version.content().getQuizId().equals(quizId)) {
+            throw new RuntimeException("Quiz version not found");
+        }
+        return version.scoringPlan();
+    }
+
+    private CompiledVersion loadVersionContent(Long versionId) {
+        QuizVersion version = quizVersionRepository.findById(versionId)
+                .orElseThrow(() -> new RuntimeException("Quiz version not found"));
+        try {
+            QuizVersionContent content = objectMapper.readValue(version.getContent(), QuizVersionContent.class);
+            content.setVersionId(version.getId());
+            return new CompiledVersion(content, ScoringPlan.compile(content.getQuestions()));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error processing quiz version", e);
+        }
     }
 
     public Page<QuizResponse> getQuizzes(String category, Quiz.Difficulty difficulty, Pageable pageable) {
         Page<Quiz> quizzes;
         
         if (category != null && difficulty != null) {
-            quizzes = quizRepository.findByCategoryAndDifficulty(category, difficulty, pageable);
+            quizzes = quizRepository.findByCategoryAndDifficultyAndArchivedFalse(category, difficulty, pageable);
         } else if (category != null) {
-            quizzes = quizRepository.findByCategory(category, pageable);
+            quizzes = quizRepository.findByCategoryAndArchivedFalse(category, pageable);
         } else if (difficulty != null) {
-            quizzes = quizRepository.findByDifficulty(difficulty, pageable);
+            quizzes = quizRepository.findByDifficultyAndArchivedFalse(difficulty, pageable);
         } else {
-            quizzes = quizRepository.findAll(pageable);
+            quizzes = quizRepository.findByArchivedFalse(pageable);
         }
 
         return quizzes.map(this::convertToQuizResponse);
     }
 
+    // Sparse listing: only the requested columns are selected
+    public Page<QuizResponse> getQuizzes(String category, Quiz.Difficulty difficulty, String fields, Pageable pageable) {
+        Set<QuizField> requested = QuizField.parse(fields);
+        if (requested == null) {
+            return getQuizzes(category, difficulty, pageable);
+        }
+        if (requested.contains(QuizField.QUESTIONS)) {
+            throw new RuntimeException("Questions are only available for a single quiz");
+        }
+        return quizRepository.findSummaries(category, difficulty, requested, pageable);
+    }
+
     public QuizResponse getQuizById(Long quizId) {
-        Quiz quiz = quizRepository.findById(quizId)
+        return quizCache.get(quizId);
+    }
+
+    // A cached quiz is trimmed in memory; otherwise questions are only loaded when asked for
+    public QuizResponse getQuizById(Long quizId, String fields) {
+        Set<QuizField> requested = QuizField.parse(fields);
+        if (requested == null) {
+            return getQuizById(quizId);
+        }
+        QuizResponse cached = requested.contains(QuizField.QUESTIONS)
+                ? quizCache.get(quizId) : quizCache.getIfPresent(quizId);
+        if (cached != null) {
+            return select(cached, requested);
+        }
+        return quizRepository.findSummaryById(quizId, requested)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+    }
+
+    // Cached quizzes are served from the quiz cache; the rest load together in one query and are
+    // cached for later detail reads
+    public QuizBatchResponse getQuizzesByIds(List<Long> quizIds, String fields) {
+        Set<QuizField> requested = QuizField.parse(fields);
+        List<Long> uniqueIds = quizIds.stream().distinct().toList();
+        if (uniqueIds.size() > batchMaxIds) {
+            throw new RuntimeException("At most " + batchMaxIds + " quiz IDs per request");
+        }
+        Map<Long, QuizResponse> found = quizCache.getAll(uniqueIds, this::loadQuizResponses);
+        List<QuizResponse> quizzes = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long quizId : uniqueIds) {
+            QuizResponse quiz = found.get(quizId);
+            if (quiz == null) {
+                missingIds.add(quizId);
+            } else {
+                quizzes.add(requested == null ? quiz : select(quiz, requested));
+            }
+        }
+        return new QuizBatchResponse(quizzes, missingIds);
+    }
+
+    private Map<Long, QuizResponse> loadQuizResponses(Collection<Long> quizIds) {
+        Map<Long, QuizResponse> responses = new HashMap<>();
+        for (Quiz quiz : quizRepository.findWithQuestionsByIdIn(quizIds)) {
+            responses.put(quiz.getId(), convertToQuizResponseWithQuestions(quiz));
+        }
+        return responses;
+    }
+
+    private QuizResponse select(QuizResponse quiz, Set<QuizField> fields) {
+        QuizResponse response = new QuizResponse();
+        if (fields.contains(QuizField.ID)) {
+            response.setId(quiz.getId());
+        }
+        if (fields.contains(QuizField.TITLE)) {
+            response.setTitle(quiz.getTitle());
+        }
+        if (fields.contains(QuizField.CATEGORY)) {
+            response.setCategory(quiz.getCategory());
+        }
+        if (fields.contains(QuizField.DIFFICULTY)) {
+            response.setDifficulty(quiz.getDifficulty());
+        }
+        if (fields.contains(QuizField.CREATED_DATE)) {
+            response.setCreatedDate(quiz.getCreatedDate());
+        }
+        if (fields.contains(QuizField.VERSION_ID)) {
+            response.setVersionId(quiz.getVersionId());
+        }
+        if (fields.contains(QuizField.TIME_LIMIT_SECONDS)) {
+            response.setTimeLimitSeconds(quiz.getTimeLimitSeconds());
+        }
+        if (fields.contains(QuizField.SESSION_QUESTION_COUNT)) {
+            response.setSessionQuestionCount(quiz.getSessionQuestionCount());
+        }
+        if (fields.contains(QuizField.QUESTION_COUNT)) {
+            response.setQuestionCount(quiz.getQuestions().size());
+        }
+        if (fields.contains(QuizField.QUESTIONS)) {
+            response.setQuestions(quiz.getQuestions());
+        }
+        return response;
+    }
+
+    // Runs on the first caller's thread or the refresh executor, so questions are fetched eagerly
+    private QuizResponse loadQuizResponse(Long quizId) {
+        Quiz quiz = quizRepository.findWithQuestionsById(quizId)
                 .orElseThrow(() -> new RuntimeException("Quiz not found"));
         return convertToQuizResponseWithQuestions(quiz);
     }
 
+    // For bulk operations that change quizzes with plain SQL
+    public void evictQuizzes(Collection<Long> quizIds, Collection<Long> versionIds) {
+        quizIds.forEach(quizCache::invalidate);
+        quizSearchService.reindex(quizIds);
+        for (Long versionId : versionIds) {
+            versionCache.invalidate(versionId);
+            for (PayloadFormat format : PayloadFormat.values()) {
+                versionPayloadCache.invalidate(new VersionPayloadKey(versionId, format));
+            }
+        }
+    }
+
+    // Archived quizzes stay out of search even when their questions change
+    private void indexForSearch(Quiz quiz) {
+        if (Boolean.TRUE.equals(quiz.getArchived())) {
+            return;
+        }
+        List<String> texts = new ArrayList<>(quiz.getQuestions().size());
+        for (Question question : quiz.getQuestions()) {
+            texts.add(question.getText());
+        }
+        quizSearchService.indexAfterCommit(new QuizSearchIndex.Document(quiz.getId(), quiz.getTitle(),
+                quiz.getCategory(), quiz.getDifficulty(), texts));
+    }
+
+    // Evicting before commit would let a concurrent miss cache the old question list again
+    private void evictAfterCommit(Long quizId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    quizCache.invalidate(quizId);
+                }
+            });
+        } else {
+            quizCache.invalidate(quizId);
+        }
+    }
+
     private QuizResponse convertToQuizResponse(Quiz quiz) {
         QuizResponse response = new QuizResponse();
         response.setId(quiz.getId());
@@ -88,6 +497,9 @@ public class QuizService {
         response.setCategory(quiz.getCategory());
         response.setDifficulty(quiz.getDifficulty());
         response.setCreatedDate(quiz.getCreatedDate());
+        response.setVersionId(quiz.getCurrentVersionId());
+        response.setTimeLimitSeconds(quiz.getTimeLimitSeconds());
+        response.setSessionQuestionCount(quiz.getSessionQuestionCount());
         response.setQuestions(new ArrayList<>()); // Empty for list view
         return response;
     }
@@ -106,12 +518,21 @@ public class QuizService {
         QuestionResponse response = new QuestionResponse();
         response.setId(question.getId());
         response.setText(question.getText());
+        response.setMultipleSelect(question.getCorrectAnswerMask() != null);
+        Timer.Sample parseSample = Timer.start(meterRegistry);
+        try {
+            response.setOptions(parseOptions(question.getOptions()));
+        } finally {
+            parseSample.stop(meterRegistry.timer("quiz.options.parse"));
+        }
+        return response;
+    }
+
+    private List<String> parseOptions(String options) {
         try {
-            List<String> options = objectMapper.readValue(question.getOptions(), List.class);
-            response.setOptions(options);
+            return objectMapper.readValue(options, new TypeReference<List<String>>() {});
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error processing options", e);
         }
-        return response;
     }
 }
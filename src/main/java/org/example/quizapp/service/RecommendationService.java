@@ -0,0 +1,529 @@
+package org.example.quizapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.quizapp.dto.RecommendationResponse;
+import org.example.quizapp.entity.Quiz;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// "What to attempt next", precomputed per user and served from memory. Each user keeps at most
+// recommendations.per-user quiz ids, ranked from their recent categories, the score trend in each
+// and the quizzes they have not attempted yet. A submit refreshes that user after commit; a periodic
+// batch streams all attempts once and recomputes everyone in parallel.
+@Service
+public class RecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+
+    private static final String CATALOG_SQL = "SELECT id, title, category, difficulty, archived FROM quizzes";
+    private static final String POPULARITY_SQL = "SELECT quiz_id, COUNT(*) FROM attempts GROUP BY quiz_id";
+    private static final String ALL_ATTEMPTS_SQL =
+            "SELECT a.user_id, u.username, a.quiz_id, a.score FROM attempts a JOIN users u ON u.id = a.user_id " +
+            "ORDER BY a.user_id, a.submitted_at DESC, a.id DESC";
+    private static final String USER_ATTEMPTS_SQL =
+            "SELECT quiz_id, score FROM attempts WHERE user_id = ? ORDER BY submitted_at DESC, id DESC";
+
+    // Only the most recent attempts shape the categories and the trend
+    static final int RECENT_ATTEMPTS = 20;
+    static final int TREND_WINDOW = 5;
+    static final int MAX_CATEGORIES = 3;
+    static final double STEP_UP_SCORE = 80.0;
+    static final double STEP_DOWN_SCORE = 50.0;
+
+    private static final int USERS_PER_CHUNK = 1000;
+
+    // Rough heap cost of one map entry besides its arrays: node, key string and record
+    private static final int ENTRY_OVERHEAD_BYTES = 32 + 56 + 24;
+
+    public enum Reason {
+        CONTINUE, STEP_UP, PRACTICE, EXPLORE, POPULAR
+    }
+
+    record CatalogQuiz(long id, String title, String category, Quiz.Difficulty difficulty, boolean archived) {
+    }
+
+    // Candidate ids per category and difficulty, most attempted first; archived quizzes are only kept
+    // in byId so older attempts still resolve to a category
+    static final class Catalog {
+        final Map<Long, CatalogQuiz> byId;
+        final Map<String, long[][]> byCategory;
+        final long[] popular;
+
+        Catalog(List<CatalogQuiz> quizzes, Map<Long, Long> attemptCounts) {
+            byId = new HashMap<>();
+            Map<String, List<List<CatalogQuiz>>> grouped = new HashMap<>();
+            List<CatalogQuiz> active = new ArrayList<>();
+            for (CatalogQuiz quiz : quizzes) {
+                byId.put(quiz.id(), quiz);
+                if (!quiz.archived()) {
+                    active.add(quiz);
+                }
+            }
+            Comparator<CatalogQuiz> byPopularity = Comparator
+                    .comparingLong((CatalogQuiz quiz) -> attemptCounts.getOrDefault(quiz.id(), 0L)).reversed()
+                    .thenComparing(Comparator.comparingLong(CatalogQuiz::id).reversed());
+            active.sort(byPopularity);
+            for (CatalogQuiz quiz : active) {
+                grouped.computeIfAbsent(quiz.category(), category -> {
+                    List<List<CatalogQuiz>> levels = new ArrayList<>();
+                    for (int i = 0; i < Quiz.Difficulty.values().length; i++) {
+                        levels.add(new ArrayList<>());
+                    }
+                    return levels;
+                }).get(quiz.difficulty().ordinal()).add(quiz);
+            }
+            byCategory = new HashMap<>();
+            grouped.forEach((category, levels) -> byCategory.put(category,
+                    levels.stream().map(level -> level.stream().mapToLong(CatalogQuiz::id).toArray()).toArray(long[][]::new)));
+            popular = active.stream().mapToLong(CatalogQuiz::id).toArray();
+        }
+    }
+
+    // A user's attempts, newest first: quiz ids and scores of the recent ones, and every attempted quiz sorted
+    record History(long[] recentQuizIds, double[] recentScores, long[] attempted) {
+    }
+
+    record Recommendations(long[] quizIds, byte[] reasons) {
+
+        Recommendations without(long quizId) {
+            int index = indexOf(quizIds, quizId);
+            if (index < 0) {
+                return this;
+            }
+            long[] ids = new long[quizIds.length - 1];
+            byte[] why = new byte[reasons.length - 1];
+            System.arraycopy(quizIds, 0, ids, 0, index);
+            System.arraycopy(quizIds, index + 1, ids, index, ids.length - index);
+            System.arraycopy(reasons, 0, why, 0, index);
+            System.arraycopy(reasons, index + 1, why, index, why.length - index);
+            return new Recommendations(ids, why);
+        }
+
+        long estimatedBytes() {
+            return ENTRY_OVERHEAD_BYTES + align(16 + 8L * quizIds.length) + align(16 + (long) reasons.length);
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor refreshExecutor;
+
+    @Value("${recommendations.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recommendations.per-user:5}")
+    private int perUser;
+
+    @Value("${recommendations.max-users:1000000}")
+    private int maxUsers;
+
+    @Value("${recommendations.fetch-size:10000}")
+    private int fetchSize;
+
+    private final Map<String, Recommendations> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, Long> pendingRefresh = new ConcurrentHashMap<>();
+    private final AtomicLong memoryBytes = new AtomicLong();
+    private final ForkJoinPool rankingPool =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    // The batch streams every attempt; on the scheduler it would hold a thread the short periodic jobs need
+    private final ExecutorService batchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "recommendations-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean batchRunning = new AtomicBoolean();
+
+    private volatile Catalog catalog;
+    private volatile Recommendations coldStart = new Recommendations(new long[0], new byte[0]);
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("quiz.recommendations.users", byUsername, Map::size).register(meterRegistry);
+        Gauge.builder("quiz.recommendations.memory", memoryBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+        rankingPool.shutdownNow();
+    }
+
+    // Constant time: one map lookup and at most perUser catalog lookups
+    public List<RecommendationResponse> getCurrentUserRecommendations() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!enabled) {
+            return List.of();
+        }
+        Catalog current = catalog != null ? catalog : loadCatalog();
+        Recommendations recommendations = byUsername.getOrDefault(username, coldStart);
+        List<RecommendationResponse> responses = new ArrayList<>(recommendations.quizIds().length);
+        for (int i = 0; i < recommendations.quizIds().length; i++) {
+            CatalogQuiz quiz = current.byId.get(recommendations.quizIds()[i]);
+            // Quizzes archived or deleted since the last refresh are skipped until the next one
+            if (quiz != null && !quiz.archived()) {
+                responses.add(new RecommendationResponse(quiz.id(), quiz.title(), quiz.category(), quiz.difficulty(),
+                        Reason.values()[recommendations.reasons()[i]].name()));
+            }
+        }
+        return responses;
+    }
+
+    // Drops the quiz right away; the full refresh runs once the attempt is committed
+    public void onAttempt(String username, Long userId, Long quizId) {
+        dropCandidate(username, quizId);
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRefresh(username, userId);
+                }
+            });
+        } else {
+            scheduleRefresh(username, userId);
+        }
+    }
+
+    // For journaled attempts, which are refreshed by the write-behind writer once inserted
+    public void dropCandidate(String username, Long quizId) {
+        Recommendations current = byUsername.get(username);
+        if (current != null) {
+            Recommendations updated = current.without(quizId);
+            if (updated != current && byUsername.replace(username, current, updated)) {
+                memoryBytes.addAndGet(updated.estimatedBytes() - current.estimatedBytes());
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${recommendations.initial-delay-ms:15000}",
+            fixedDelayString = "${recommendations.refresh-interval-ms:600000}")
+    public void scheduleRefreshAll() {
+        if (!enabled || !batchRunning.compareAndSet(false, true)) {
+            return;
+        }
+        batchExecutor.execute(() -> {
+            try {
+                refreshAll();
+            } catch (RuntimeException e) {
+                logger.error("Recommendation refresh failed", e);
+            } finally {
+                batchRunning.set(false);
+            }
+        });
+    }
+
+    public void refreshAll() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Catalog current = loadCatalog();
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(fetchSize);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Attempts arrive grouped by user; users are ranked in parallel a chunk at a time
+        List<String> usernames = new ArrayList<>(USERS_PER_CHUNK);
+        List<History> histories = new ArrayList<>(USERS_PER_CHUNK);
+        HistoryBuilder builder = new HistoryBuilder();
+        long[] currentUser = {-1L};
+        String[] currentUsername = {null};
+        long[] users = {0L};
+        readOnly.executeWithoutResult(status -> streamingTemplate.query(ALL_ATTEMPTS_SQL, rs -> {
+            long userId = rs.getLong(1);
+            if (userId != currentUser[0]) {
+                if (currentUsername[0] != null) {
+                    usernames.add(currentUsername[0]);
+                    histories.add(builder.build());
+                    users[0]++;
+                    if (usernames.size() == USERS_PER_CHUNK) {
+                        rankChunk(usernames, histories, current);
+                    }
+                }
+                currentUser[0] = userId;
+                currentUsername[0] = rs.getString(2);
+                builder.reset();
+            }
+            builder.add(rs.getLong(3), rs.getDouble(4));
+        }));
+        if (currentUsername[0] != null) {
+            usernames.add(currentUsername[0]);
+            histories.add(builder.build());
+            users[0]++;
+        }
+        rankChunk(usernames, histories, current);
+
+        logger.info("Refreshed recommendations for {} users in {}ms ({} cached, ~{} bytes, at most {} bytes per user)",
+                users[0], System.currentTimeMillis() - start, byUsername.size(), memoryBytes.get(),
+                new Recommendations(new long[perUser], new byte[perUser]).estimatedBytes());
+    }
+
+    public void refreshUser(String username, Long userId) {
+        Catalog current = catalog != null ? catalog : loadCatalog();
+        HistoryBuilder builder = new HistoryBuilder();
+        jdbcTemplate.query(USER_ATTEMPTS_SQL, rs -> {
+            builder.add(rs.getLong(1), rs.getDouble(2));
+        }, userId);
+        store(username, rank(builder.build(), current, perUser));
+    }
+
+    private void scheduleRefresh(String username, Long userId) {
+        // Back-to-back submits by the same user share one refresh
+        if (pendingRefresh.putIfAbsent(username, userId) == null) {
+            refreshExecutor.execute(() -> {
+                pendingRefresh.remove(username);
+                try {
+                    refreshUser(username, userId);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not refresh recommendations for {}", username, e);
+                }
+            });
+        }
+    }
+
+    private void rankChunk(List<String> usernames, List<History> histories, Catalog current) {
+        Recommendations[] ranked = new Recommendations[usernames.size()];
+        rankingPool.submit(() -> Arrays.parallelSetAll(ranked, i -> rank(histories.get(i), current, perUser))).join();
+        for (int i = 0; i < ranked.length; i++) {
+            store(usernames.get(i), ranked[i]);
+        }
+        usernames.clear();
+        histories.clear();
+    }
+
+    // Once max-users is reached, users without an entry get the cold-start list
+    private void store(String username, Recommendations recommendations) {
+        byUsername.compute(username, (key, previous) -> {
+            if (previous == null && byUsername.size() >= maxUsers) {
+                return null;
+            }
+            memoryBytes.addAndGet(recommendations.estimatedBytes() - (previous != null ? previous.estimatedBytes() : 0));
+            return recommendations;
+        });
+    }
+
+    private synchronized Catalog loadCatalog() {
+        Map<Long, Long> attemptCounts = new HashMap<>();
+        jdbcTemplate.query(POPULARITY_SQL, rs -> {
+            attemptCounts.put(rs.getLong(1), rs.getLong(2));
+        });
+        List<CatalogQuiz> quizzes = jdbcTemplate.query(CATALOG_SQL, (rs, rowNum) -> new CatalogQuiz(rs.getLong(1),
+                rs.getString(2), rs.getString(3), Quiz.Difficulty.valueOf(rs.getString(4)), rs.getBoolean(5)));
+        Catalog loaded = new Catalog(quizzes, attemptCounts);
+        coldStart = rank(new History(new long[0], new double[0], new long[0]), loaded, perUser);
+        catalog = loaded;
+        return loaded;
+    }
+
+    // Round-robin over the user's top categories, each at the difficulty its trend points to (nearest
+    // levels next), then the most attempted quizzes elsewhere. Users without history get POPULAR.
+    static Recommendations rank(History history, Catalog catalog, int limit) {
+        Map<String, double[]> signals = new LinkedHashMap<>(); // weight, score sum, scored attempts, latest difficulty
+        for (int i = 0; i < history.recentQuizIds().length; i++) {
+            CatalogQuiz quiz = catalog.byId.get(history.recentQuizIds()[i]);
+            if (quiz == null) {
+                continue;
+            }
+            double[] signal = signals.computeIfAbsent(quiz.category(),
+                    category -> new double[]{0, 0, 0, quiz.difficulty().ordinal()});
+            signal[0] += RECENT_ATTEMPTS - i;
+            if (signal[2] < TREND_WINDOW) {
+                signal[1] += history.recentScores()[i];
+                signal[2]++;
+            }
+        }
+        List<Map.Entry<String, double[]>> categories = new ArrayList<>(signals.entrySet());
+        categories.sort((a, b) -> Double.compare(b.getValue()[0], a.getValue()[0]));
+        if (categories.size() > MAX_CATEGORIES) {
+            categories = categories.subList(0, MAX_CATEGORIES);
+        }
+
+        long[] ids = new long[limit];
+        byte[] reasons = new byte[limit];
+        int count = 0;
+
+        List<long[]> candidates = new ArrayList<>();
+        List<Reason> categoryReasons = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : categories) {
+            long[][] levels = catalog.byCategory.get(entry.getKey());
+            if (levels == null) {
+                continue;
+            }
+            double[] signal = entry.getValue();
+            double average = signal[1] / signal[2];
+            int latest = (int) signal[3];
+            Reason reason = average >= STEP_UP_SCORE && latest < levels.length - 1 ? Reason.STEP_UP
+                    : average < STEP_DOWN_SCORE && latest > 0 ? Reason.PRACTICE
+                    : Reason.CONTINUE;
+            int target = reason == Reason.STEP_UP ? latest + 1 : reason == Reason.PRACTICE ? latest - 1 : latest;
+            candidates.add(byDistance(levels, target));
+            categoryReasons.add(reason);
+        }
+
+        // Keep one slot for something new once there is a history to build on
+        int personalized = categories.isEmpty() ? 0 : Math.max(1, limit - 1);
+        int[] cursors = new int[candidates.size()];
+        boolean progressed = true;
+        while (count < personalized && progressed) {
+            progressed = false;
+            for (int c = 0; c < candidates.size() && count < personalized; c++) {
+                long[] list = candidates.get(c);
+                while (cursors[c] < list.length) {
+                    long quizId = list[cursors[c]++];
+                    if (eligible(quizId, history, ids, count)) {
+                        ids[count] = quizId;
+                        reasons[count++] = (byte) categoryReasons.get(c).ordinal();
+                        progressed = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        Reason fill = categories.isEmpty() ? Reason.POPULAR : Reason.EXPLORE;
+        for (int pass = 0; pass < 2 && count < limit; pass++) {
+            for (long quizId : catalog.popular) {
+                if (count == limit) {
+                    break;
+                }
+                // Other categories first, then anything left
+                boolean elsewhere = !signals.containsKey(catalog.byId.get(quizId).category());
+                if ((pass == 1 || elsewhere) && eligible(quizId, history, ids, count)) {
+                    ids[count] = quizId;
+                    reasons[count++] = (byte) fill.ordinal();
+                }
+            }
+        }
+        return new Recommendations(Arrays.copyOf(ids, count), Arrays.copyOf(reasons, count));
+    }
+
+    private static long[] byDistance(long[][] levels, int target) {
+        int total = 0;
+        for (long[] level : levels) {
+            total += level.length;
+        }
+        long[] ordered = new long[total];
+        int offset = 0;
+        // Harder before easier at the same distance
+        for (int distance = 0; distance < levels.length; distance++) {
+            int up = target + distance;
+            int down = target - distance;
+            if (up < levels.length) {
+                System.arraycopy(levels[up], 0, ordered, offset, levels[up].length);
+                offset += levels[up].length;
+            }
+            if (distance > 0 && down >= 0) {
+                System.arraycopy(levels[down], 0, ordered, offset, levels[down].length);
+                offset += levels[down].length;
+            }
+        }
+        return ordered;
+    }
+
+    private static boolean eligible(long quizId, History history, long[] chosen, int count) {
+        return Arrays.binarySearch(history.attempted(), quizId) < 0 && indexOf(chosen, count, quizId) < 0;
+    }
+
+    private static int indexOf(long[] values, long value) {
+        return indexOf(values, values.length, value);
+    }
+
+    private static int indexOf(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Collects one user's attempts as they are read, newest first
+    static final class HistoryBuilder {
+        private final long[] recentQuizIds = new long[RECENT_ATTEMPTS];
+        private final double[] recentScores = new double[RECENT_ATTEMPTS];
+        private int recent;
+        private long[] attempted = new long[16];
+        private int attemptedCount;
+
+        void add(long quizId, double score) {
+            if (recent < RECENT_ATTEMPTS) {
+                recentQuizIds[recent] = quizId;
+                recentScores[recent++] = score;
+            }
+            if (attemptedCount == attempted.length) {
+                attempted = Arrays.copyOf(attempted, attemptedCount * 2);
+            }
+            attempted[attemptedCount++] = quizId;
+        }
+
+        History build() {
+            long[] sorted = Arrays.copyOf(attempted, attemptedCount);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return new History(Arrays.copyOf(recentQuizIds, recent), Arrays.copyOf(recentScores, recent),
+                    Arrays.copyOf(sorted, distinct));
+        }
+
+        void reset() {
+            recent = 0;
+            attemptedCount = 0;
+        }
+    }
+}
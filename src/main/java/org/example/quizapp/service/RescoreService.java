@@ -0,0 +1,359 @@
+package org.example.quizapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.quizapp.dto.RescoreJobResponse;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.RescoreJob;
+import org.example.quizapp.repository.QuizRepository;
+import org.example.quizapp.repository.RescoreJobRepository;
+import org.example.quizapp.scoring.AnswerCodec;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.example.quizapp.scoring.AttemptLayout;
+import org.example.quizapp.scoring.ScoringPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+@Service
+public class RescoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RescoreService.class);
+
+    private static final String STREAM_ATTEMPTS_SQL =
+            "SELECT id, score, answers_bin, answers, quiz_version_id, session_seed, session_questions, user_id FROM attempts " +
+            "WHERE quiz_id = ? AND id > ? ORDER BY id";
+    private static final String UPDATE_SCORE_SQL = "UPDATE attempts SET score = ?, quiz_version_id = ? WHERE id = ?";
+
+    // Below this many attempts a fork-join task scores its slice directly
+    private static final int SPLIT_THRESHOLD = 512;
+
+    @Autowired
+    private RescoreJobRepository rescoreJobRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Autowired
+    private AttemptAnalyticsService attemptAnalyticsService;
+
+    @Value("${rescore.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${rescore.max-rows-per-second:50000}")
+    private int maxRowsPerSecond;
+
+    private final ForkJoinPool scoringPool =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    public RescoreJobResponse startJob(Long quizId) {
+        if (!quizRepository.existsById(quizId)) {
+            throw new RuntimeException("Quiz not found");
+        }
+        RescoreJob job = new RescoreJob();
+        job.setQuizId(quizId);
+        job.setStatus(RescoreJob.Status.PENDING);
+        job.setTotalAttempts(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM attempts WHERE quiz_id = ?", Long.class, quizId));
+        job = rescoreJobRepository.save(job);
+        logger.info("Created rescore job {} for quiz {} covering {} attempts", job.getId(), quizId, job.getTotalAttempts());
+
+        submit(job.getId());
+        return toResponse(job);
+    }
+
+    public RescoreJobResponse resumeJob(Long jobId) {
+        RescoreJob job = rescoreJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Rescore job not found"));
+        if (job.getStatus() == RescoreJob.Status.COMPLETED) {
+            throw new RuntimeException("Rescore job already completed");
+        }
+        job.setStatus(RescoreJob.Status.PENDING);
+        job.setErrorMessage(null);
+        rescoreJobRepository.save(job);
+        submit(jobId);
+        return toResponse(job);
+    }
+
+    public RescoreJobResponse getJob(Long jobId) {
+        return toResponse(rescoreJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Rescore job not found")));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        batchJobRunner.resume("rescore", rescoreJobRepository.findByStatusIn(
+                EnumSet.of(RescoreJob.Status.PENDING, RescoreJob.Status.RUNNING)).stream().map(RescoreJob::getId).toList(),
+                this::runJob);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringPool.shutdownNow();
+    }
+
+    private void submit(Long jobId) {
+        batchJobRunner.submit(jobId, this::runJob);
+    }
+
+    private void runJob(Long jobId) {
+        RescoreJob stored = rescoreJobRepository.findById(jobId).orElse(null);
+        if (stored == null || stored.getStatus() == RescoreJob.Status.COMPLETED) {
+            return;
+        }
+        // A job resumed after a restart or failure no longer knows whose attempts it already rescored
+        boolean resumed = stored.getProcessedAttempts() > 0;
+        stored.setStatus(RescoreJob.Status.RUNNING);
+        stored.setUpdatedAt(LocalDateTime.now());
+        RescoreJob job = rescoreJobRepository.save(stored);
+
+        Set<Long> affectedUsers = new HashSet<>();
+        boolean finished = batchJobRunner.execute(() -> {
+            streamAndRescore(job, loadScoringPlan(job.getQuizId()), affectedUsers);
+            if (job.getChangedAttempts() > 0) {
+                batchJobRunner.rebuildDerivedData(resumed ? null : affectedUsers);
+            }
+            job.setStatus(RescoreJob.Status.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            logger.info("Rescore job {} completed: {} attempts processed, {} changed",
+                    jobId, job.getProcessedAttempts(), job.getChangedAttempts());
+        }, e -> {
+            logger.error("Rescore job {} failed after attempt {}", jobId, job.getLastAttemptId(), e);
+            job.setStatus(RescoreJob.Status.FAILED);
+            job.setErrorMessage(e.getMessage());
+        });
+        if (!finished) {
+            return;
+        }
+        if (job.getChangedAttempts() > 0) {
+            attemptAnalyticsService.recordChange("rescore of quiz " + job.getQuizId());
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        rescoreJobRepository.save(job);
+    }
+
+    // Only for attempts from before quiz versions, which have nothing else to be scored against
+    private ScoringPlan loadScoringPlan(Long quizId) {
+        Quiz quiz = quizRepository.findWithQuestionsById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+        return ScoringPlan.compileQuestions(quiz.getQuestions());
+    }
+
+    // A dedicated read-only connection keeps one server-side cursor open for the whole job,
+    // while score updates and checkpoints commit on their own pooled connections
+    private void streamAndRescore(RescoreJob job, ScoringPlan legacyPlan, Set<Long> affectedUsers)
+            throws SQLException, InterruptedException {
+        // Version answered -> the same questions under the current answer key
+        Map<Long, Long> rekeyed = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(STREAM_ATTEMPTS_SQL)) {
+                statement.setFetchSize(chunkSize);
+                statement.setLong(1, job.getQuizId());
+                statement.setLong(2, job.getLastAttemptId());
+                try (ResultSet rs = statement.executeQuery()) {
+                    Chunk chunk = new Chunk(chunkSize);
+                    while (rs.next()) {
+                        long versionId = rs.getLong(5);
+                        Long answeredVersionId = rs.wasNull() ? null : versionId;
+                        chunk.add(rs.getLong(1), rs.getDouble(2), rs.getBytes(3), rs.getString(4), answeredVersionId,
+                                rs.getLong(8));
+                        long sessionSeed = rs.getLong(6);
+                        if (!rs.wasNull()) {
+                            chunk.sample(sessionSeed, rs.getInt(7));
+                        }
+                        if (chunk.size == chunkSize) {
+                            processChunk(job, legacyPlan, rekeyed, chunk, affectedUsers);
+                            chunk = new Chunk(chunkSize);
+                        }
+                    }
+                    if (chunk.size > 0) {
+                        processChunk(job, legacyPlan, rekeyed, chunk, affectedUsers);
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    // Each attempt is scored on the questions of the version it answered, under the current answer key.
+    // An attempt whose key changed moves to the rekeyed version, so its results read consistently.
+    private void processChunk(RescoreJob job, ScoringPlan legacyPlan, Map<Long, Long> rekeyed, Chunk chunk,
+                              Set<Long> affectedUsers) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        batchJobRunner.waitForForegroundHeadroom();
+
+        Long quizId = job.getQuizId();
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.versionIds[i] == null) {
+                chunk.plans[i] = legacyPlan;
+                continue;
+            }
+            Long target = rekeyed.computeIfAbsent(chunk.versionIds[i], versionId -> quizService.rekeyVersion(quizId, versionId));
+            chunk.targetVersionIds[i] = target;
+            chunk.plans[i] = quizService.getScoringPlan(quizId, target);
+            // Session attempts are scored on the questions their seed sampled from that version
+            if (chunk.sessionSeeds[i] != null) {
+                chunk.plans[i] = AttemptLayout.of(quizService.getVersionContent(target).getQuestions(),
+                        chunk.sessionSeeds[i], chunk.sessionQuestions[i]).scoringPlan(chunk.plans[i]);
+            }
+        }
+
+        double[] newScores = new double[chunk.size];
+        scoringPool.invoke(new ScoreTask(chunk, newScores, 0, chunk.size));
+
+        List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < chunk.size; i++) {
+            if (Double.compare(newScores[i], chunk.scores[i]) != 0
+                    || !Objects.equals(chunk.targetVersionIds[i], chunk.versionIds[i])) {
+                updates.add(new Object[]{newScores[i], chunk.targetVersionIds[i], chunk.ids[i]});
+                affectedUsers.add(chunk.userIds[i]);
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SCORE_SQL, updates);
+        }
+
+        job.setLastAttemptId(chunk.ids[chunk.size - 1]);
+        job.setProcessedAttempts(job.getProcessedAttempts() + chunk.size);
+        job.setChangedAttempts(job.getChangedAttempts() + updates.size());
+        job.setUpdatedAt(LocalDateTime.now());
+        job.setErrorMessage(null);
+        rescoreJobRepository.save(job);
+
+        batchJobRunner.throttle(chunk.size, System.currentTimeMillis() - start, maxRowsPerSecond);
+    }
+
+    // Attempts not yet migrated to answers_bin still hold their answers as JSON
+    private static double score(ScoringPlan scoringPlan, byte[] answers, String legacyAnswers) {
+        AnswerSheet answerSheet;
+        try {
+            answerSheet = answers != null ? AnswerCodec.decode(answers) : AnswerCodec.parseJson(legacyAnswers);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Error processing answers", e);
+        }
+        return scoringPlan.evaluate(scoringPlan.selections(answerSheet)).percent();
+    }
+
+    private RescoreJobResponse toResponse(RescoreJob job) {
+        RescoreJobResponse response = new RescoreJobResponse();
+        response.setId(job.getId());
+        response.setQuizId(job.getQuizId());
+        response.setStatus(job.getStatus());
+        response.setProcessedAttempts(job.getProcessedAttempts());
+        response.setChangedAttempts(job.getChangedAttempts());
+        response.setTotalAttempts(job.getTotalAttempts());
+        response.setProgressPercent(job.getTotalAttempts() > 0
+                ? Math.min(100.0, job.getProcessedAttempts() * 100.0 / job.getTotalAttempts())
+                : (job.getStatus() == RescoreJob.Status.COMPLETED ? 100.0 : 0.0));
+        response.setLastAttemptId(job.getLastAttemptId());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setErrorMessage(job.getErrorMessage());
+        return response;
+    }
+
+    private static class Chunk {
+        private final long[] ids;
+        private final double[] scores;
+        private final byte[][] answers;
+        private final String[] legacyAnswers;
+        private final Long[] versionIds; // Null for attempts from before quiz versions
+        private final Long[] targetVersionIds;
+        private final Long[] sessionSeeds;
+        private final int[] sessionQuestions;
+        private final long[] userIds;
+        private final ScoringPlan[] plans;
+        private int size;
+
+        Chunk(int capacity) {
+            ids = new long[capacity];
+            scores = new double[capacity];
+            answers = new byte[capacity][];
+            legacyAnswers = new String[capacity];
+            versionIds = new Long[capacity];
+            targetVersionIds = new Long[capacity];
+            sessionSeeds = new Long[capacity];
+            sessionQuestions = new int[capacity];
+            userIds = new long[capacity];
+            plans = new ScoringPlan[capacity];
+        }
+
+        void add(long id, double score, byte[] answersBin, String answersJson, Long versionId, long userId) {
+            ids[size] = id;
+            scores[size] = score;
+            answers[size] = answersBin;
+            legacyAnswers[size] = answersJson;
+            versionIds[size] = versionId;
+            userIds[size] = userId;
+            size++;
+        }
+
+        // For the attempt just added
+        void sample(long seed, int questionCount) {
+            sessionSeeds[size - 1] = seed;
+            sessionQuestions[size - 1] = questionCount;
+        }
+    }
+
+    private class ScoreTask extends RecursiveAction {
+        private final Chunk chunk;
+        private final double[] out;
+        private final int from;
+        private final int to;
+
+        ScoreTask(Chunk chunk, double[] out, int from, int to) {
+            this.chunk = chunk;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    out[i] = score(chunk.plans[i], chunk.answers[i], chunk.legacyAnswers[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(chunk, out, from, mid), new ScoreTask(chunk, out, mid, to));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.quizapp.service;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.quizapp.dto.RevokeTokenRequest;
+import org.example.quizapp.entity.RevokedToken;
+import org.example.quizapp.repository.RevokedTokenRepository;
+import org.example.quizapp.security.JwtUtil;
+import org.example.quizapp.security.TokenRevocationList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Re-read this far back on every sync so rows committed late by another node are not missed
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("quiz.jwt.revoked", revocationList, TokenRevocationList::size)
+                .register(meterRegistry);
+        Gauge.builder("quiz.jwt.revoked.memory", revocationList, TokenRevocationList::memoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        // Load every live revocation before the first request is authenticated
+        syncFromDatabase();
+    }
+
+    public void logout(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            throw new RuntimeException("Missing bearer token");
+        }
+        Claims claims = parseClaims(authorizationHeader.substring(7));
+        revoke(claims.getId(), toLocalDateTime(claims.getExpiration().getTime()), claims.getSubject(), claims.getSubject());
+        logger.info("User {} logged out", claims.getSubject());
+    }
+
+    public void revoke(RevokeTokenRequest request) {
+        String admin = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (request.getToken() != null) {
+            Claims claims = parseClaims(request.getToken());
+            revoke(claims.getId(), toLocalDateTime(claims.getExpiration().getTime()), claims.getSubject(), admin);
+        } else if (request.getTokenId() != null && request.getExpiresAt() != null) {
+            revoke(request.getTokenId(), request.getExpiresAt(), null, admin);
+        } else {
+            throw new RuntimeException("Either token or tokenId and expiresAt are required");
+        }
+    }
+
+    private void revoke(String tokenId, LocalDateTime expiresAt, String username, String revokedBy) {
+        if (!TokenRevocationList.isTokenId(tokenId)) {
+            throw new RuntimeException("Token has no revocable ID");
+        }
+        long expiresAtMillis = toEpochMillis(expiresAt);
+        if (!revocationList.revoke(tokenId, expiresAtMillis, System.currentTimeMillis())) {
+            return; // Already expired
+        }
+        if (revokedTokenRepository.existsByTokenId(tokenId)) {
+            return;
+        }
+        RevokedToken revoked = new RevokedToken();
+        revoked.setTokenId(tokenId);
+        revoked.setUsername(username);
+        revoked.setExpiresAt(expiresAt);
+        revoked.setRevokedBy(revokedBy);
+        try {
+            revokedTokenRepository.save(revoked);
+            logger.info("Token {} of user {} revoked by {}", tokenId, username, revokedBy);
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Token {} was revoked concurrently", tokenId);
+        }
+    }
+
+    // Picks up revocations made on other nodes
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}",
+            initialDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void syncFromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = System.currentTimeMillis();
+        int added = 0;
+        for (RevokedToken revoked : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                lastSync.minusSeconds(SYNC_OVERLAP_SECONDS), now)) {
+            if (revocationList.revoke(revoked.getTokenId(), toEpochMillis(revoked.getExpiresAt()), nowMillis)) {
+                added++;
+            }
+        }
+        lastSync = now;
+        logger.debug("Synced {} revoked tokens from the database", added);
+    }
+
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 5 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        revocationList.dropExpired(System.currentTimeMillis());
+        int purged = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired token revocations", purged);
+        }
+    }
+
+    private Claims parseClaims(String token) {
+        try {
+            return jwtUtil.extractAllClaims(token);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid token", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,237 @@
+package org.example.quizapp.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.quizapp.dto.CategoryProgressResponse;
+import org.example.quizapp.dto.UserProgressRebuildResponse;
+import org.example.quizapp.dto.UserProgressSummaryResponse;
+import org.example.quizapp.entity.UserProgress;
+import org.example.quizapp.repository.UserProgressRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class UserProgressService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProgressService.class);
+
+    // Streak rule shared by both upserts: same day keeps the streak, the next day extends it, a gap restarts it.
+    // Parameters are (day, previous day) and the expressions only see the row's old values.
+    private static final String STREAK_EXPRESSION =
+            "CASE WHEN p.last_attempt_date >= %1$s THEN p.current_streak " +
+            "WHEN p.last_attempt_date = %2$s THEN p.current_streak + 1 ELSE 1 END";
+
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO user_progress AS p (user_id, category, attempts, total_score, best_score, " +
+            "last_attempt_date, current_streak, longest_streak) VALUES (?, ?, 1, ?, ?, ?, 1, 1) " +
+            "ON CONFLICT (user_id, category) DO UPDATE SET " +
+            "attempts = p.attempts + 1, " +
+            "total_score = p.total_score + EXCLUDED.total_score, " +
+            "best_score = GREATEST(p.best_score, EXCLUDED.best_score), " +
+            "current_streak = " + STREAK_EXPRESSION.formatted("EXCLUDED.last_attempt_date", "?") + ", " +
+            "longest_streak = GREATEST(p.longest_streak, " + STREAK_EXPRESSION.formatted("EXCLUDED.last_attempt_date", "?") + "), " +
+            "last_attempt_date = GREATEST(p.last_attempt_date, EXCLUDED.last_attempt_date)";
+
+    private static final String MERGE_UPSERT_SQL =
+            "MERGE INTO user_progress p USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), " +
+            "CAST(? AS DOUBLE PRECISION), CAST(? AS DATE), CAST(? AS DATE))) s(user_id, category, score, attempt_day, prev_day) " +
+            "ON p.user_id = s.user_id AND p.category = s.category " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "attempts = p.attempts + 1, " +
+            "total_score = p.total_score + s.score, " +
+            "best_score = GREATEST(p.best_score, s.score), " +
+            "current_streak = " + STREAK_EXPRESSION.formatted("s.attempt_day", "s.prev_day") + ", " +
+            "longest_streak = GREATEST(p.longest_streak, " + STREAK_EXPRESSION.formatted("s.attempt_day", "s.prev_day") + "), " +
+            "last_attempt_date = GREATEST(p.last_attempt_date, s.attempt_day) " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, category, attempts, total_score, best_score, " +
+            "last_attempt_date, current_streak, longest_streak) VALUES (s.user_id, s.category, 1, s.score, s.score, s.attempt_day, 1, 1)";
+
+    private static final String REBUILD_SOURCE_SQL =
+            "SELECT a.user_id, q.category, a.score, a.submitted_at FROM attempts a " +
+            "JOIN quizzes q ON q.id = a.quiz_id %s ORDER BY a.user_id, a.submitted_at";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_progress (user_id, category, attempts, total_score, best_score, " +
+            "last_attempt_date, current_streak, longest_streak) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${progress.rebuild.batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private boolean postgres;
+
+    @PostConstruct
+    public void detectDialect() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not detect database product, using MERGE for progress upserts", e);
+        }
+    }
+
+    // Runs inside the submit transaction: one atomic upsert per row, so concurrent submits never lose an update
+    public void recordAttempt(Long userId, String category, double score, LocalDate day) {
+        List<Object[]> rows = new ArrayList<>(2);
+        rows.add(upsertParameters(userId, category, score, day));
+        rows.add(upsertParameters(userId, UserProgress.OVERALL, score, day));
+        try {
+            jdbcTemplate.batchUpdate(postgres ? POSTGRES_UPSERT_SQL : MERGE_UPSERT_SQL, rows);
+        } catch (DuplicateKeyException e) {
+            // MERGE can race on a user's very first attempt; the retry takes the update branch
+            logger.debug("Retrying progress upsert for user {} after concurrent insert", userId);
+            jdbcTemplate.batchUpdate(MERGE_UPSERT_SQL, rows);
+        }
+    }
+
+    private Object[] upsertParameters(Long userId, String category, double score, LocalDate day) {
+        Date today = Date.valueOf(day);
+        Date yesterday = Date.valueOf(day.minusDays(1));
+        return postgres
+                ? new Object[]{userId, category, score, score, today, yesterday, yesterday}
+                : new Object[]{userId, category, score, today, yesterday};
+    }
+
+    public UserProgressSummaryResponse getCurrentUserSummary() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return toSummary(username, userProgressRepository.findByUsername(username), LocalDate.now());
+    }
+
+    UserProgressSummaryResponse toSummary(String username, List<UserProgress> rows, LocalDate today) {
+        UserProgressSummaryResponse summary = new UserProgressSummaryResponse();
+        summary.setUsername(username);
+        summary.setTotalAttempts(0L);
+        summary.setCurrentStreak(0);
+        summary.setLongestStreak(0);
+
+        for (UserProgress row : rows) {
+            if (UserProgress.OVERALL.equals(row.getCategory())) {
+                summary.setTotalAttempts(row.getAttempts());
+                summary.setAverageScore(row.getTotalScore() / row.getAttempts());
+                summary.setBestScore(row.getBestScore());
+                summary.setLongestStreak(row.getLongestStreak());
+                summary.setLastAttemptDate(row.getLastAttemptDate());
+                // A streak is still alive until a full day passes without an attempt
+                boolean alive = !row.getLastAttemptDate().isBefore(today.minusDays(1));
+                summary.setCurrentStreak(alive ? row.getCurrentStreak() : 0);
+            } else {
+                summary.getCategories().add(new CategoryProgressResponse(row.getCategory(), row.getAttempts(),
+                        row.getTotalScore() / row.getAttempts(), row.getBestScore(), row.getLastAttemptDate()));
+            }
+        }
+        summary.getCategories().sort(Comparator.comparing(CategoryProgressResponse::getCategory));
+        return summary;
+    }
+
+    @Transactional
+    public UserProgressRebuildResponse rebuild(Long userId) {
+        long start = System.currentTimeMillis();
+        logger.info("Rebuilding progress summaries for {}", userId != null ? "user " + userId : "all users");
+
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(rebuildBatchSize);
+        if (userId != null) {
+            jdbcTemplate.update("DELETE FROM user_progress WHERE user_id = ?", userId);
+        } else {
+            jdbcTemplate.update("DELETE FROM user_progress");
+        }
+
+        // Attempts arrive grouped by user, so only one user's accumulators are held at a time
+        List<Object[]> batch = new ArrayList<>(rebuildBatchSize);
+        Map<String, ProgressAccumulator> current = new LinkedHashMap<>();
+        long[] currentUser = {-1L};
+        long[] counts = new long[3]; // users, attempts, summary rows
+
+        String filter = userId != null ? "WHERE a.user_id = ?" : "";
+        Object[] args = userId != null ? new Object[]{userId} : new Object[0];
+        streamingTemplate.query(REBUILD_SOURCE_SQL.formatted(filter), rs -> {
+            long rowUser = rs.getLong(1);
+            if (rowUser != currentUser[0]) {
+                counts[2] += flushUser(currentUser[0], current, batch);
+                currentUser[0] = rowUser;
+                counts[0]++;
+            }
+            double score = rs.getDouble(3);
+            LocalDate day = rs.getTimestamp(4).toLocalDateTime().toLocalDate();
+            current.computeIfAbsent(rs.getString(2), c -> new ProgressAccumulator()).add(score, day);
+            current.computeIfAbsent(UserProgress.OVERALL, c -> new ProgressAccumulator()).add(score, day);
+            counts[1]++;
+        }, args);
+        counts[2] += flushUser(currentUser[0], current, batch);
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Rebuilt {} progress rows for {} users from {} attempts in {} ms", counts[2], counts[0], counts[1], elapsed);
+        return new UserProgressRebuildResponse(counts[0], counts[1], counts[2], elapsed);
+    }
+
+    private int flushUser(long userId, Map<String, ProgressAccumulator> accumulators, List<Object[]> batch) {
+        int rows = accumulators.size();
+        accumulators.forEach((category, acc) -> {
+            batch.add(new Object[]{userId, category, acc.attempts, acc.totalScore, acc.bestScore,
+                    Date.valueOf(acc.lastAttemptDate), acc.currentStreak, acc.longestStreak});
+            if (batch.size() >= rebuildBatchSize) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        });
+        accumulators.clear();
+        return rows;
+    }
+
+    // Mirrors the upsert arithmetic so rebuilt rows match incrementally maintained ones
+    private static class ProgressAccumulator {
+        private long attempts;
+        private double totalScore;
+        private double bestScore;
+        private LocalDate lastAttemptDate;
+        private int currentStreak;
+        private int longestStreak;
+
+        void add(double score, LocalDate day) {
+            if (attempts == 0) {
+                bestScore = score;
+                currentStreak = 1;
+            } else {
+                bestScore = Math.max(bestScore, score);
+                if (day.isAfter(lastAttemptDate)) {
+                    currentStreak = day.minusDays(1).equals(lastAttemptDate) ? currentStreak + 1 : 1;
+                }
+            }
+            attempts++;
+            totalScore += score;
+            if (lastAttemptDate == null || day.isAfter(lastAttemptDate)) {
+                lastAttemptDate = day;
+            }
+            longestStreak = Math.max(longestStreak, currentStreak);
+        }
+    }
+}
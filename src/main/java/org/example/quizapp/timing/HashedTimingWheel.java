@@ -0,0 +1,129 @@
+package org.example.quizapp.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hashed timing wheel (Varghese and Lauck). A timeout goes into the bucket of the tick it is due in,
+// as a node of that bucket's doubly linked list, so scheduling and cancelling are O(1) however many
+// timeouts are pending, and each tick visits one bucket. Timeouts more than one turn of the wheel away
+// carry the number of turns still to go. Deadlines are rounded up to the next tick, so a timeout fires
+// at most one tick late and never early.
+public final class HashedTimingWheel<T> {
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final int mask;
+    private final Timeout<T>[] buckets; // Head of each bucket's list
+
+    private long tick; // Next tick to process, due at startMillis + tick * tickMillis
+    private int size;
+
+    public static final class Timeout<T> {
+        private final T task;
+        private final long deadline;
+        private long rounds; // Turns of the wheel left before it fires
+        private int bucket = -1; // -1 once fired or cancelled
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+    }
+
+    // The wheel size is rounded up to a power of two, so a tick maps to its bucket with a mask
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long startMillis, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.startMillis = startMillis;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = (Timeout<T>[]) new Timeout[size];
+    }
+
+    // A deadline that has already passed fires on the next advance
+    public synchronized Timeout<T> schedule(T task, long deadlineMillis) {
+        long due = Math.max(Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis), tick);
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis);
+        timeout.rounds = (due - tick) / buckets.length;
+        link(timeout, (int) (due & mask));
+        size++;
+        return timeout;
+    }
+
+    // False when the timeout has already fired or been cancelled
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket < 0) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    // Processes every tick due by nowMillis and returns the tasks that fired, in tick order
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        while (startMillis + tick * tickMillis <= nowMillis) {
+            if (size == 0) {
+                // Nothing to visit; catch up without walking the empty ticks
+                tick = Math.floorDiv(nowMillis - startMillis, tickMillis) + 1;
+                break;
+            }
+            Timeout<T> timeout = buckets[(int) (tick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.rounds == 0) {
+                    unlink(timeout);
+                    size--;
+                    expired.add(timeout.task);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+            tick++;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void link(Timeout<T> timeout, int bucket) {
+        Timeout<T> head = buckets[bucket];
+        timeout.bucket = bucket;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.quizapp.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// /actuator/slowqueries lists the most recent slow statements, newest first
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public List<SlowQueryLog.SlowQuery> recent(@Nullable Integer limit) {
+        return slowQueryLog.recent(limit != null ? limit : DEFAULT_LIMIT);
+    }
+}
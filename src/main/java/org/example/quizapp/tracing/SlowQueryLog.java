@@ -0,0 +1,83 @@
+package org.example.quizapp.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Statements slower than slow-query.threshold-ms, most recent last, in a fixed-size ring. Parameters
+// are kept as shapes (type and length), never values, so the log is safe to expose in production.
+@Component
+public class SlowQueryLog {
+
+    public record SlowQuery(Instant at, double durationMs, String sql, List<String> parameters, int batchSize,
+                            String thread, String traceId) {
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${slow-query.enabled:true}")
+    private boolean enabled;
+
+    @Value("${slow-query.threshold-ms:200}")
+    private long thresholdMs;
+
+    @Value("${slow-query.buffer-size:100}")
+    private int bufferSize;
+
+    private SlowQuery[] ring;
+    private long recorded; // Guarded by this
+    private long thresholdNanos;
+    private Counter slowStatements;
+
+    @PostConstruct
+    public void init() {
+        ring = new SlowQuery[bufferSize];
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        slowStatements = meterRegistry.counter("quiz.jdbc.slow");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    boolean isSlow(long durationNanos) {
+        return enabled && durationNanos >= thresholdNanos;
+    }
+
+    void record(SlowQuery query) {
+        slowStatements.increment();
+        synchronized (this) {
+            ring[(int) (recorded++ % ring.length)] = query;
+        }
+    }
+
+    public synchronized List<SlowQuery> recent(int limit) {
+        List<SlowQuery> queries = new ArrayList<>(Math.min(limit, ring.length));
+        for (long i = recorded - 1; i >= 0 && i >= recorded - ring.length && queries.size() < limit; i--) {
+            queries.add(ring[(int) (i % ring.length)]);
+        }
+        return queries;
+    }
+
+    static String shape(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        if (value instanceof byte[] bytes) {
+            return "byte[" + bytes.length + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.quizapp.tracing;
+
+// An open span. Closing it records the span and makes its parent current again;
+// closing the root scope finishes the trace.
+public final class SpanScope implements AutoCloseable {
+
+    static final SpanScope NOOP = new SpanScope(null, null, 0, null, null, null, null);
+
+    private final Tracer tracer;
+    private final Trace trace;
+    private final int id;
+    private final SpanScope parent;
+    private final SpanScope previous; // Current on this thread before the span opened
+    private final String name;
+    private final String detail;
+    private final long startNanos;
+    private String error;
+
+    SpanScope(Tracer tracer, Trace trace, int id, SpanScope parent, SpanScope previous, String name, String detail) {
+        this.tracer = tracer;
+        this.trace = trace;
+        this.id = id;
+        this.parent = parent;
+        this.previous = previous;
+        this.name = name;
+        this.detail = detail;
+        this.startNanos = System.nanoTime();
+    }
+
+    Trace getTrace() {
+        return trace;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    boolean isRoot() {
+        return parent == null;
+    }
+
+    SpanScope getPrevious() {
+        return previous;
+    }
+
+    public void error(Throwable throwable) {
+        if (trace != null) {
+            error = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+            trace.markError();
+        }
+    }
+
+    public void error(String message) {
+        if (trace != null) {
+            error = message;
+            trace.markError();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (trace == null) {
+            return;
+        }
+        long endNanos = System.nanoTime();
+        trace.addSpan(new Trace.Span(id, parent != null ? parent.id : 0, name, detail,
+                startNanos - trace.getStartNanos(), endNanos - startNanos, Thread.currentThread().getName(), error));
+        tracer.closed(this, endNanos);
+    }
+}
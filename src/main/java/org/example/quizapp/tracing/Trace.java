@@ -0,0 +1,92 @@
+package org.example.quizapp.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One traced request. Spans are appended as they end, possibly from async threads after the request
+// has finished; the span count is capped so a runaway loop cannot grow a trace without bound.
+public final class Trace {
+
+    public record Span(int id, int parentId, String name, String detail, long startOffsetNanos, long durationNanos,
+                       String thread, String error) {
+    }
+
+    public record SpanView(int id, int parentId, String name, String detail, double startMs, double durationMs,
+                           String thread, String error) {
+    }
+
+    public record View(String traceId, String name, Instant startedAt, double durationMs, boolean error,
+                       int droppedSpans, List<SpanView> spans) {
+    }
+
+    private final String id;
+    private final String name;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final int maxSpans;
+    private final AtomicInteger spanIds = new AtomicInteger();
+
+    private final List<Span> spans = new ArrayList<>(); // Guarded by this
+    private int droppedSpans; // Guarded by this
+    private volatile long durationNanos = -1;
+    private volatile boolean error;
+
+    Trace(String name, int maxSpans) {
+        this.id = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+        this.name = name;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+        this.maxSpans = maxSpans;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    int nextSpanId() {
+        return spanIds.incrementAndGet();
+    }
+
+    void markError() {
+        error = true;
+    }
+
+    void finish(long endNanos) {
+        durationNanos = endNanos - startNanos;
+    }
+
+    synchronized void addSpan(Span span) {
+        if (spans.size() < maxSpans) {
+            spans.add(span);
+        } else {
+            droppedSpans++;
+        }
+    }
+
+    public synchronized View view() {
+        List<SpanView> views = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            views.add(new SpanView(span.id(), span.parentId(), span.name(), span.detail(),
+                    span.startOffsetNanos() / 1_000_000.0, span.durationNanos() / 1_000_000.0, span.thread(), span.error()));
+        }
+        // Spans are recorded when they end; readers expect them in start order
+        views.sort(Comparator.comparingDouble(SpanView::startMs).thenComparingInt(SpanView::id));
+        return new View(id, name, startedAt, durationNanos / 1_000_000.0, error, droppedSpans, views);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.quizapp.tracing;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// In-process exporter: a ring of the most recently kept traces, read by the traces actuator endpoint
+@Component
+public class TraceStore {
+
+    @Value("${tracing.buffer-size:200}")
+    private int bufferSize;
+
+    private Trace[] ring;
+    private int next; // Guarded by this
+
+    @PostConstruct
+    public void init() {
+        ring = new Trace[bufferSize];
+    }
+
+    synchronized void add(Trace trace) {
+        ring[next] = trace;
+        next = (next + 1) % ring.length;
+    }
+
+    public List<Trace> slowest(int limit) {
+        List<Trace> traces = new ArrayList<>(ring.length);
+        synchronized (this) {
+            for (Trace trace : ring) {
+                if (trace != null) {
+                    traces.add(trace);
+                }
+            }
+        }
+        traces.sort(Comparator.comparingLong(Trace::getDurationNanos).reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    public Trace find(String traceId) {
+        synchronized (this) {
+            for (Trace trace : ring) {
+                if (trace != null && trace.getId().equals(traceId)) {
+                    return trace;
+                }
+            }
+        }
+        return null;
+    }
+}
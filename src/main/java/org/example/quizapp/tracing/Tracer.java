@@ -0,0 +1,115 @@
+package org.example.quizapp.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Span-based tracing kept in process. The current span lives in a thread local; every span of a
+// request is recorded, and the decision to keep the trace is taken when it ends (tail sampling):
+// only slow or failed traces reach the TraceStore.
+@Component
+public class Tracer {
+
+    private static final ThreadLocal<SpanScope> CURRENT = new ThreadLocal<>();
+
+    @Autowired
+    private TraceStore traceStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracing.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    @Value("${tracing.max-spans-per-trace:512}")
+    private int maxSpansPerTrace;
+
+    private Counter kept;
+    private Counter discarded;
+
+    @PostConstruct
+    public void init() {
+        kept = meterRegistry.counter("quiz.tracing.traces", "result", "kept");
+        discarded = meterRegistry.counter("quiz.tracing.traces", "result", "discarded");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Cheap enough for hot paths: a thread-local read when nothing is being traced
+    public boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    public String currentTraceId() {
+        SpanScope current = CURRENT.get();
+        return current != null ? current.getTrace().getId() : null;
+    }
+
+    public SpanScope startTrace(String name) {
+        if (!enabled) {
+            return SpanScope.NOOP;
+        }
+        Trace trace = new Trace(name, maxSpansPerTrace);
+        return open(new SpanScope(this, trace, trace.nextSpanId(), null, CURRENT.get(), name, null));
+    }
+
+    public SpanScope startSpan(String name) {
+        return startSpan(name, null);
+    }
+
+    public SpanScope startSpan(String name, String detail) {
+        SpanScope current = CURRENT.get();
+        if (current == null) {
+            return SpanScope.NOOP;
+        }
+        return open(new SpanScope(this, current.getTrace(), current.getTrace().nextSpanId(), current, current, name, detail));
+    }
+
+    // Carries the submitting thread's span into a task, recording how long the task sat in the queue
+    public Runnable propagate(Runnable task) {
+        SpanScope submitter = CURRENT.get();
+        if (submitter == null) {
+            return task;
+        }
+        long enqueuedAt = System.nanoTime();
+        return () -> {
+            Trace trace = submitter.getTrace();
+            long startedAt = System.nanoTime();
+            trace.addSpan(new Trace.Span(trace.nextSpanId(), submitter.getId(), "async.queue", null,
+                    enqueuedAt - trace.getStartNanos(), startedAt - enqueuedAt, Thread.currentThread().getName(), null));
+            try (SpanScope ignored = open(new SpanScope(this, trace, trace.nextSpanId(), submitter, CURRENT.get(),
+                    "async", null))) {
+                task.run();
+            }
+        };
+    }
+
+    void closed(SpanScope scope, long endNanos) {
+        CURRENT.set(scope.getPrevious());
+        if (scope.isRoot()) {
+            Trace trace = scope.getTrace();
+            trace.finish(endNanos);
+            if (trace.isError() || trace.getDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+                traceStore.add(trace);
+                kept.increment();
+            } else {
+                discarded.increment();
+            }
+        }
+    }
+
+    private SpanScope open(SpanScope scope) {
+        CURRENT.set(scope);
+        return scope;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.quizapp.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// /actuator/traces lists the slowest kept traces; /actuator/traces/{traceId} returns one
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    @Autowired
+    private TraceStore traceStore;
+
+    @ReadOperation
+    public List<Trace.View> slowest(@Nullable Integer limit) {
+        return traceStore.slowest(limit != null ? limit : DEFAULT_LIMIT).stream().map(Trace::view).toList();
+    }
+
+    @ReadOperation
+    public Trace.View trace(@Selector String traceId) {
+        Trace trace = traceStore.find(traceId);
+        return trace != null ? trace.view() : null;
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.quizapp.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Times every executed JDBC statement: a span while a trace is active, and an entry in the slow
+// query log when it crosses the threshold. With both switched off, or no trace active and the slow
+// query log disabled, connections are returned unwrapped.
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_SQL_LENGTH = 300;
+
+    private final Supplier<Tracer> tracer;
+    private final Supplier<SlowQueryLog> slowQueryLog;
+
+    public TracingDataSource(DataSource target, Supplier<Tracer> tracer, Supplier<SlowQueryLog> slowQueryLog) {
+        super(target);
+        this.tracer = tracer;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        if (!tracer.get().isActive() && !slowQueryLog.get().isEnabled()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                        return wrap(statement, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        // Bound values are only held until the statement is next executed, and only turned into
+        // shapes if that execution is slow
+        Object[][] parameters = {new Object[8]};
+        int[] batched = {0};
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    // Parameter setters are the only Statement setters with more than one argument
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        bind(parameters, index, name.equals("setNull") ? null : args[1]);
+                    } else if (name.equals("clearParameters")) {
+                        Arrays.fill(parameters[0], null);
+                    } else if (name.equals("addBatch")) {
+                        batched[0]++;
+                    } else if (name.startsWith("execute")) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                        return execute(statement, method, args, sql, parameters[0], batched);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private Object execute(Statement statement, Method method, Object[] args, String sql, Object[] parameters,
+                           int[] batched) throws Throwable {
+        Tracer currentTracer = tracer.get();
+        SpanScope scope = currentTracer.startSpan("jdbc." + method.getName(), truncate(sql));
+        long start = System.nanoTime();
+        try {
+            return invoke(statement, method, args);
+        } catch (SQLException | RuntimeException e) {
+            scope.error(e);
+            throw e;
+        } finally {
+            long durationNanos = System.nanoTime() - start;
+            SlowQueryLog log = slowQueryLog.get();
+            if (log.isSlow(durationNanos)) {
+                log.record(new SlowQueryLog.SlowQuery(Instant.now(), durationNanos / 1_000_000.0, truncate(sql),
+                        shapes(parameters), batched[0], Thread.currentThread().getName(), currentTracer.currentTraceId()));
+            }
+            scope.close();
+            if (method.getName().equals("executeBatch")) {
+                batched[0] = 0;
+            }
+        }
+    }
+
+    private static void bind(Object[][] parameters, int index, Object value) {
+        if (index > parameters[0].length) {
+            parameters[0] = Arrays.copyOf(parameters[0], Math.max(index, parameters[0].length * 2));
+        }
+        parameters[0][index - 1] = value;
+    }
+
+    private static List<String> shapes(Object[] parameters) {
+        int count = parameters.length;
+        while (count > 0 && parameters[count - 1] == null) {
+            count--;
+        }
+        List<String> shapes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shapes.add(SlowQueryLog.shape(parameters[i]));
+        }
+        return shapes;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String truncate(String sql) {
+        return sql != null && sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+}
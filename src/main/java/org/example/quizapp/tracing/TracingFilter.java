@@ -0,0 +1,42 @@
+package org.example.quizapp.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Opens the root span before the security filters, so token verification is part of the trace
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!tracer.isEnabled() || request.getRequestURI().startsWith("/actuator")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try (SpanScope scope = tracer.startTrace(request.getMethod() + " " + request.getRequestURI())) {
+            response.setHeader(TRACE_ID_HEADER, scope.getTrace().getId());
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                scope.error(e);
+                throw e;
+            }
+            if (response.getStatus() >= 500) {
+                scope.error("HTTP " + response.getStatus());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.quizapp.analytics;
+
+import org.example.quizapp.analytics.AttemptColumnStore.Dimension;
+import org.example.quizapp.entity.Quiz;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// mvn test -Pbenchmark -Dtest=AttemptColumnStoreBenchmark [-Dbenchmark.rows=100000000]
+@Tag("benchmark")
+class AttemptColumnStoreBenchmark {
+
+    private static final String[] CATEGORIES = {"Java", "SQL", "Spring", "Python", "Networking", "Security", "Math", "History"};
+
+    @Test
+    void benchmarkScanThroughput() {
+        long rows = Long.getLong("benchmark.rows", 100_000_000L);
+        AttemptColumnStore store = new AttemptColumnStore();
+        SplittableRandom random = new SplittableRandom(42);
+        int start = AttemptColumnStore.toEpochMinute(LocalDateTime.of(2024, 1, 1, 0, 0));
+        int minutesPerYear = 365 * 24 * 60;
+        Quiz.Difficulty[] difficulties = Quiz.Difficulty.values();
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long loadStart = System.nanoTime();
+        for (long i = 0; i < rows; i++) {
+            store.append(random.nextInt(50_000) + 1, random.nextInt(2_000_000) + 1,
+                    start + random.nextInt(minutesPerYear), random.nextInt(101),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], difficulties[random.nextInt(difficulties.length)]);
+        }
+        long loadNanos = System.nanoTime() - loadStart;
+        System.gc();
+        long heapAfter = usedHeap();
+
+        System.out.printf("rows=%,d load=%.1fs (%,.0f rows/s)%n", rows, loadNanos / 1e9, rows / (loadNanos / 1e9));
+        System.out.printf("memory: store=%,d bytes (%.1f bytes/row), measured heap delta=%.1f bytes/row%n",
+                store.memoryBytes(), store.memoryBytes() / (double) rows, (heapAfter - heapBefore) / (double) rows);
+
+        List<List<Dimension>> groupings = List.of(
+                List.of(),
+                List.of(Dimension.CATEGORY, Dimension.DIFFICULTY),
+                List.of(Dimension.CATEGORY, Dimension.DIFFICULTY, Dimension.WEEK),
+                List.of(Dimension.QUIZ));
+        AttemptColumnStore.Filter all = new AttemptColumnStore.Filter(null, null, null, null, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        AttemptColumnStore.Filter filtered = new AttemptColumnStore.Filter("Java", Quiz.Difficulty.HARD, null, null,
+                start, start + minutesPerYear / 4);
+
+        for (List<Dimension> groupBy : groupings) {
+            for (AttemptColumnStore.Filter filter : List.of(all, filtered)) {
+                store.query(filter, groupBy); // warm-up
+                long best = Long.MAX_VALUE;
+                int groups = 0;
+                for (int run = 0; run < 5; run++) {
+                    long queryStart = System.nanoTime();
+                    AttemptColumnStore.Result result = store.query(filter, groupBy);
+                    best = Math.min(best, System.nanoTime() - queryStart);
+                    groups = result.aggregates().size();
+                    assertEquals(rows, result.rowsScanned());
+                }
+                System.out.printf("groupBy=%s filtered=%s groups=%,d best=%.1fms scan=%,.0f rows/s%n",
+                        groupBy, filter == filtered, groups, best / 1e6, rows / (best / 1e9));
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.quizapp.analytics;
+
+import org.example.quizapp.analytics.AttemptColumnStore.Dimension;
+import org.example.quizapp.analytics.AttemptColumnStore.GroupKeyEncoder;
+import org.example.quizapp.entity.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttemptColumnStoreTest {
+
+    private AttemptColumnStore store;
+    private int monday;
+
+    @BeforeEach
+    void setUp() {
+        store = new AttemptColumnStore();
+        monday = AttemptColumnStore.toEpochMinute(LocalDateTime.of(2025, 10, 6, 9, 0));
+    }
+
+    @Test
+    void testQuery_GroupsByCategoryAndDifficulty() {
+        store.append(1, 10, monday, 80f, "Java", Quiz.Difficulty.EASY);
+        store.append(1, 11, monday, 60f, "Java", Quiz.Difficulty.EASY);
+        store.append(2, 10, monday, 90f, "Java", Quiz.Difficulty.HARD);
+        store.append(3, 10, monday, 40f, "SQL", Quiz.Difficulty.EASY);
+
+        AttemptColumnStore.Result result = store.query(allRows(null), List.of(Dimension.CATEGORY, Dimension.DIFFICULTY));
+
+        Map<String, double[]> groups = new HashMap<>();
+        result.aggregates().forEach((key, count, sum, min, max) -> groups.put(
+                store.decodeCategory(GroupKeyEncoder.category(key)) + "/"
+                        + AttemptColumnStore.difficulty(GroupKeyEncoder.difficulty(key)),
+                new double[]{count, sum / count, min, max}));
+
+        assertEquals(3, groups.size());
+        assertArrayEquals(new double[]{2, 70, 60, 80}, groups.get("Java/EASY"));
+        assertArrayEquals(new double[]{1, 90, 90, 90}, groups.get("Java/HARD"));
+        assertArrayEquals(new double[]{1, 40, 40, 40}, groups.get("SQL/EASY"));
+    }
+
+    @Test
+    void testQuery_FiltersAndGroupsByWeekAcrossSegments() {
+        int nextWeek = monday + 7 * 24 * 60;
+        int rows = AttemptColumnStore.SEGMENT_SIZE + 100;
+        for (int i = 0; i < rows; i++) {
+            store.append(1, i, i % 2 == 0 ? monday : nextWeek, 50f, i % 3 == 0 ? "SQL" : "Java", Quiz.Difficulty.MEDIUM);
+        }
+
+        AttemptColumnStore.Result result = store.query(allRows("Java"), List.of(Dimension.WEEK));
+
+        long[] total = new long[1];
+        int[] weeks = new int[1];
+        result.aggregates().forEach((key, count, sum, min, max) -> {
+            total[0] += count;
+            weeks[0]++;
+        });
+        assertEquals(rows, result.rowsScanned());
+        assertEquals(2, weeks[0]);
+        assertEquals(rows - (rows + 2) / 3, total[0]);
+    }
+
+    @Test
+    void testQuery_UnknownCategoryMatchesNothing() {
+        store.append(1, 10, monday, 80f, "Java", Quiz.Difficulty.EASY);
+
+        assertEquals(0, store.query(allRows("Go"), List.of()).aggregates().size());
+    }
+
+    private AttemptColumnStore.Filter allRows(String category) {
+        return new AttemptColumnStore.Filter(category, null, null, null, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+}
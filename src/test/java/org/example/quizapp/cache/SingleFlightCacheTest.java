@@ -0,0 +1,162 @@
+package org.example.quizapp.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightCacheTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGet_ConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightCache<Long, String> cache = newCache(key -> {
+            loads.incrementAndGet();
+            await(release);
+            return "quiz-" + key;
+        }, 60_000, 0, 5_000);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(executor.submit(() -> cache.get(1L)));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("quiz-1", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals("quiz-1", cache.get(1L));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_PropagatesLoadFailureToWaitersWithoutCaching() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightCache<Long, String> cache = newCache(key -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new RuntimeException("Quiz not found");
+        }, 60_000, 0, 5_000);
+
+        Future<String> leader = executor.submit(() -> cache.get(1L));
+        Thread.sleep(100);
+        Future<String> follower = executor.submit(() -> cache.get(1L));
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<String> result : List.of(leader, follower)) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertEquals("Quiz not found", e.getCause().getMessage());
+        }
+        assertEquals(1, loads.get());
+        assertThrows(RuntimeException.class, () -> cache.get(1L));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_WaiterTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightCache<Long, String> cache = newCache(key -> {
+            await(release);
+            return "slow";
+        }, 60_000, 0, 100);
+
+        Future<String> leader = executor.submit(() -> cache.get(1L));
+        Thread.sleep(100);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> cache.get(1L));
+        assertTrue(e.getMessage().startsWith("Timed out"));
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testGet_RefreshesAheadOfExpiry() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<Long, Integer> cache = newCache(key -> loads.incrementAndGet(), 300, 250, 1_000);
+
+        assertEquals(1, cache.get(1L));
+        Thread.sleep(100);
+        // Inside the refresh-ahead window: served from cache while a reload runs in the background
+        assertEquals(1, cache.get(1L));
+        for (int i = 0; i < 50 && loads.get() < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.get(1L));
+    }
+
+    @Test
+    void testInvalidate_ForcesReload() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<Long, Integer> cache = newCache(key -> loads.incrementAndGet(), 60_000, 0, 1_000);
+
+        assertEquals(1, cache.get(1L));
+        cache.invalidate(1L);
+        assertEquals(2, cache.get(1L));
+    }
+
+    @Test
+    void testGetAll_LoadsMissesInOneBatchAndSkipsMissingKeys() {
+        AtomicInteger singleLoads = new AtomicInteger();
+        List<Collection<Long>> batches = new ArrayList<>();
+        SingleFlightCache<Long, String> cache = newCache(key -> {
+            singleLoads.incrementAndGet();
+            return "quiz-" + key;
+        }, 60_000, 0, 1_000);
+        Function<Collection<Long>, Map<Long, String>> batchLoader = keys -> {
+            batches.add(List.copyOf(keys));
+            Map<Long, String> loaded = new HashMap<>();
+            keys.stream().filter(key -> key != 4L).forEach(key -> loaded.put(key, "batch-" + key));
+            return loaded;
+        };
+        cache.get(1L);
+
+        Map<Long, String> values = cache.getAll(List.of(3L, 1L, 4L, 2L, 3L), batchLoader);
+
+        assertEquals(Map.of(1L, "quiz-1", 2L, "batch-2", 3L, "batch-3"), values);
+        assertEquals(List.of(List.of(3L, 4L, 2L)), batches);
+        // Loaded keys are cached, the missing one is tried again
+        assertEquals("batch-2", cache.get(2L));
+        assertEquals(Map.of(3L, "batch-3"), cache.getAll(List.of(3L, 4L), batchLoader));
+        assertEquals(List.of(4L), batches.get(1));
+        assertEquals(1, singleLoads.get());
+    }
+
+    private <V> SingleFlightCache<Long, V> newCache(Function<Long, V> loader, long ttlMs, long refreshAheadMs, long timeoutMs) {
+        return new SingleFlightCache<>("test", loader, executor, ttlMs, refreshAheadMs, timeoutMs, 100, new SimpleMeterRegistry());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.quizapp.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.quizapp.dto.QuestionResponse;
+import org.example.quizapp.dto.QuizResponse;
+import org.example.quizapp.entity.Quiz;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPOutputStream;
+
+// mvn test -Pbenchmark -Dtest=PayloadEncodingBenchmark [-Dbenchmark.iterations=20000]
+@Tag("benchmark")
+class PayloadEncodingBenchmark {
+
+    @Test
+    void benchmarkFormatsAndCompression() throws Exception {
+        int iterations = Integer.getInteger("benchmark.iterations", 20_000);
+        QuizResponse quiz = quiz(50);
+        Map<PayloadFormat, ObjectMapper> mappers = Map.of(
+                PayloadFormat.JSON, new ObjectMapper().findAndRegisterModules(),
+                PayloadFormat.SMILE, new ObjectMapper(new SmileFactory()).findAndRegisterModules(),
+                PayloadFormat.CBOR, new ObjectMapper(new CBORFactory()).findAndRegisterModules());
+
+        for (int round = 0; round < 2; round++) {
+            for (PayloadFormat format : PayloadFormat.values()) {
+                ObjectMapper mapper = mappers.get(format);
+                byte[] identity = mapper.writeValueAsBytes(quiz);
+                long start = System.nanoTime();
+                long bytes = 0;
+                for (int i = 0; i < iterations; i++) {
+                    bytes += mapper.writeValueAsBytes(quiz).length;
+                }
+                long encodeNanos = System.nanoTime() - start;
+
+                // What nginx does on every response
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    bytes += gzip(identity, 6).length;
+                }
+                long gzipNanos = System.nanoTime() - start;
+
+                System.out.printf("round %d %-5s: %6d bytes, gzip -6 %5d, precompressed -9 %5d; encode %6.1f us,"
+                                + " gzip -6 per response %6.1f us (%d)%n",
+                        round, format, identity.length, gzip(identity, 6).length, PayloadEncoder.gzip(identity).length,
+                        encodeNanos / 1000.0 / iterations, gzipNanos / 1000.0 / iterations, bytes);
+            }
+        }
+    }
+
+    // Question and option text drawn from a seeded vocabulary, so gzip sees realistic repetition
+    private static QuizResponse quiz(int questions) {
+        SplittableRandom random = new SplittableRandom(7);
+        String[] vocabulary = new String[400];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int length = 2 + random.nextInt(8); word.length() < length; ) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+        List<QuestionResponse> questionResponses = new ArrayList<>(questions);
+        for (int i = 0; i < questions; i++) {
+            List<String> options = new ArrayList<>(4);
+            for (int option = 0; option < 4; option++) {
+                options.add(sentence(random, vocabulary, 3 + random.nextInt(6)));
+            }
+            questionResponses.add(new QuestionResponse(10_000L + i, sentence(random, vocabulary, 8 + random.nextInt(12)) + "?",
+                    options, i % 5 == 0));
+        }
+        return new QuizResponse(42L, "Benchmark Quiz", "Programming", Quiz.Difficulty.MEDIUM,
+                LocalDateTime.of(2024, 5, 1, 12, 0), questionResponses, 7L, null, null, null);
+    }
+
+    private static String sentence(SplittableRandom random, String[] vocabulary, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sentence.append(i > 0 ? " " : "").append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return sentence.toString();
+    }
+
+    private static byte[] gzip(byte[] data, int level) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
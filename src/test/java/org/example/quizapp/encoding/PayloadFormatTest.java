@@ -0,0 +1,30 @@
+package org.example.quizapp.encoding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadFormatTest {
+
+    @Test
+    void testNegotiate_PrefersQualityThenExactTypes() {
+        assertEquals(PayloadFormat.JSON, PayloadFormat.negotiate(null));
+        assertEquals(PayloadFormat.JSON, PayloadFormat.negotiate("*/*"));
+        assertEquals(PayloadFormat.JSON, PayloadFormat.negotiate("not a media type;;"));
+        assertEquals(PayloadFormat.SMILE, PayloadFormat.negotiate("application/x-jackson-smile"));
+        assertEquals(PayloadFormat.CBOR, PayloadFormat.negotiate("*/*, application/cbor"));
+        assertEquals(PayloadFormat.JSON, PayloadFormat.negotiate("application/cbor;q=0.4, application/json;q=0.9"));
+        assertEquals(PayloadFormat.JSON, PayloadFormat.negotiate("application/x-jackson-smile;q=0"));
+    }
+
+    @Test
+    void testAcceptsGzip_HonoursZeroQuality() {
+        assertTrue(EncodedPayload.acceptsGzip("gzip, deflate, br"));
+        assertTrue(EncodedPayload.acceptsGzip("br;q=1.0, GZIP;q=0.8"));
+        assertTrue(EncodedPayload.acceptsGzip("*"));
+        assertFalse(EncodedPayload.acceptsGzip(null));
+        assertFalse(EncodedPayload.acceptsGzip("br, deflate"));
+        assertFalse(EncodedPayload.acceptsGzip("gzip;q=0"));
+        assertFalse(EncodedPayload.acceptsGzip("*, gzip; q=0.000"));
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.quizapp.fixtures;
+
+import org.example.quizapp.scoring.AnswerCodec;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "fixtures.on-startup=false",
+        "fixtures.users=300",
+        "fixtures.quizzes=40",
+        "fixtures.attempts=5000",
+        "fixtures.partition-size=700",
+        "fixtures.rebuild-derived=false",
+        "jwt.revocation.sync-interval-ms=3600000"
+})
+@ActiveProfiles("fixtures")
+class FixtureGeneratorTest {
+
+    private static final String ATTEMPTS_SQL = "SELECT a.user_id - ?, a.quiz_id - ?, a.score, a.answers_bin FROM attempts a "
+            + "WHERE a.id >= ? AND a.id < ? ORDER BY a.id";
+
+    @Autowired
+    private FixtureGenerator fixtureGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testGenerate_SameSeedProducesSameRowsAtNewIds() {
+        FixtureGenerator.Summary first = fixtureGenerator.generate();
+        FixtureGenerator.Summary second = fixtureGenerator.generate();
+
+        assertEquals(5000, first.attempts());
+        assertTrue(second.firstAttemptId() >= first.firstAttemptId() + first.attempts());
+        assertEquals(attempts(first), attempts(second));
+        assertEquals(first.questions(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM questions WHERE quiz_id >= ? AND quiz_id < ?", Long.class,
+                first.firstQuizId(), first.firstQuizId() + first.quizzes()));
+
+        // Zipfian popularity: the top quiz gets far more attempts than a typical one
+        List<Long> perQuiz = jdbcTemplate.queryForList("SELECT COUNT(*) FROM attempts WHERE id >= ? AND id < ? "
+                        + "GROUP BY quiz_id ORDER BY COUNT(*) DESC", Long.class,
+                first.firstAttemptId(), first.firstAttemptId() + first.attempts());
+        assertTrue(perQuiz.get(0) > 5 * perQuiz.get(perQuiz.size() / 2));
+    }
+
+    @Test
+    void testZipfSampler_FavoursLowRanks() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.0);
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[sampler.size()];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        // P(rank 0) / P(rank 9) = 10 for exponent 1
+        assertEquals(10.0, (double) counts[0] / counts[9], 1.5);
+        assertTrue(counts[0] > 10_000);
+    }
+
+    // Rows relative to the run's first ids, answers keyed by question offset
+    private List<String> attempts(FixtureGenerator.Summary summary) {
+        return jdbcTemplate.query(ATTEMPTS_SQL, (rs, rowNum) -> {
+                    AnswerSheet answers = AnswerCodec.decode(rs.getBytes(4));
+                    StringBuilder row = new StringBuilder().append(rs.getLong(1)).append('|').append(rs.getLong(2))
+                            .append('|').append(rs.getDouble(3));
+                    for (int i = 0; i < answers.size(); i++) {
+                        row.append('|').append(answers.questionId(i) - summary.firstQuestionId()).append('=')
+                                .append(answers.isMultiSelect(i) ? Arrays.toString(answers.selection(i)) : answers.answer(i));
+                    }
+                    return row.toString();
+                },
+                summary.firstUserId(), summary.firstQuizId(), summary.firstAttemptId(),
+                summary.firstAttemptId() + summary.attempts());
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.quizapp.journal;
+
+import org.example.quizapp.scoring.AnswerCodec;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttemptJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReopen_ReplaysEntriesAfterCheckpoint() throws IOException {
+        AttemptJournal journal = new AttemptJournal(directory, SEGMENT_SIZE);
+        AttemptJournal.Appended first = journal.append(entry(1).encode());
+        AttemptJournal.Appended second = journal.append(entry(2).encode());
+        journal.append(entry(3).encode());
+        journal.awaitDurable(second.sequence() + 1);
+        journal.checkpoint(first.end());
+        journal.close();
+
+        AttemptJournal reopened = new AttemptJournal(directory, SEGMENT_SIZE);
+        List<AttemptJournal.Record> records = reopened.readFrom(reopened.readCheckpoint());
+
+        assertEquals(2, records.size());
+        assertEquals(entry(2), JournalEntry.decode(records.get(0).payload()));
+        assertEquals(entry(3), JournalEntry.decode(records.get(1).payload()));
+
+        // Appends after reopening continue behind the existing records
+        reopened.append(entry(4).encode());
+        assertEquals(3, reopened.readFrom(reopened.readCheckpoint()).size());
+    }
+
+    @Test
+    void testAppend_RollsSegmentsAndCheckpointDeletesAppliedOnes() throws IOException {
+        AttemptJournal journal = new AttemptJournal(directory, SEGMENT_SIZE);
+        AttemptJournal.Appended last = null;
+        for (int i = 0; i < 100; i++) {
+            last = journal.append(entry(i).encode());
+        }
+        journal.awaitDurable(last.sequence());
+        assertTrue(segmentCount() > 1);
+        assertEquals(100, journal.readFrom(JournalPosition.START).size());
+
+        journal.checkpoint(last.end());
+
+        assertEquals(1, segmentCount());
+        assertTrue(journal.readFrom(journal.readCheckpoint()).isEmpty());
+    }
+
+    @Test
+    void testReopen_DiscardsTornRecord() throws IOException {
+        AttemptJournal journal = new AttemptJournal(directory, SEGMENT_SIZE);
+        AttemptJournal.Appended appended = journal.append(entry(1).encode());
+        journal.close();
+
+        // Simulate a crash halfway through the next record: CRC and payload written, payload corrupted
+        try (Stream<Path> files = Files.list(directory);
+             FileChannel channel = FileChannel.open(files.filter(p -> p.toString().endsWith(".journal")).findFirst().orElseThrow(),
+                     StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(50).putInt(12345).putInt(7).flip(), appended.end().offset());
+        }
+
+        AttemptJournal reopened = new AttemptJournal(directory, SEGMENT_SIZE);
+        assertEquals(1, reopened.readFrom(JournalPosition.START).size());
+        reopened.append(entry(2).encode());
+        List<AttemptJournal.Record> records = reopened.readFrom(JournalPosition.START);
+        assertEquals(2, records.size());
+        assertEquals(entry(2), JournalEntry.decode(records.get(1).payload()));
+    }
+
+    private JournalEntry entry(long id) {
+        return new JournalEntry(id, 7L, "journal-user", 3L, id % 3 == 0 ? null : 11L, 50.0, LocalDateTime.of(2025, 10, 7, 10, 0, 0, 123_000_000),
+                id % 2 == 0 ? "key-" + id : null, AnswerCodec.encode(AnswerSheet.builder(2).answer(1, 2).answer(2, (int) id).build()),
+                id % 2 == 1 ? -id * 31 : null, id % 2 == 1 ? 5 : null);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.toString().endsWith(".journal")).count();
+        }
+    }
+}
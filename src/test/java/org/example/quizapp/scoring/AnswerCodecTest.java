@@ -0,0 +1,76 @@
+package org.example.quizapp.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerCodecTest {
+
+    @Test
+    void testEncode_RoundTripsEveryKindOfAnswer() {
+        AnswerSheet sheet = AnswerSheet.builder(6)
+                .answer(1_000_000_000_000L, 3)
+                .answer(12L, 250)
+                .answer(13L, -4)
+                .selection(14L, new int[]{0, 2, AnswerSheet.INVALID_INDEX})
+                .answer(-7L, 1)
+                .answer(Long.MAX_VALUE, 0)
+                .build();
+
+        AnswerSheet decoded = AnswerCodec.decode(AnswerCodec.encode(sheet));
+
+        assertEquals(sheet, decoded);
+        assertEquals(List.of(0, 2, -1), decoded.selectionMap().get(14L));
+        assertEquals(-4, decoded.answerMap().get(13L));
+    }
+
+    @Test
+    void testEncode_LaterAnswerToTheSameQuestionWins() {
+        AnswerSheet sheet = AnswerSheet.builder(3).answer(5L, 1).answer(3L, 0).answer(5L, 2).build();
+
+        assertEquals(Map.of(3L, 0, 5L, 2), AnswerCodec.decode(AnswerCodec.encode(sheet)).answerMap());
+    }
+
+    @Test
+    void testParseJson_ReadsLegacyAnswers() {
+        AnswerSheet sheet = AnswerCodec.parseJson(" { \"10\" : 2, \"11\":null, \"12\": [1, 3], \"13\":[] } ");
+
+        assertEquals(Map.of(10L, 2), sheet.answerMap());
+        assertEquals(Map.of(12L, List.of(1, 3), 13L, List.of()), sheet.selectionMap());
+        assertEquals(0, AnswerCodec.parseJson("{}").size());
+        assertThrows(IllegalArgumentException.class, () -> AnswerCodec.parseJson("{\"1\":}"));
+    }
+
+    @Test
+    void testDecode_AcceptsLegacyJsonBytes() {
+        byte[] json = "{\"1\":2,\"2\":1}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(Map.of(1L, 2, 2L, 1), AnswerCodec.decode(json).answerMap());
+        assertThrows(IllegalArgumentException.class, () -> AnswerCodec.decode(new byte[]{9}));
+        assertThrows(IllegalArgumentException.class, () -> AnswerCodec.decode(new byte[]{AnswerCodec.FORMAT_VERSION, 2, 0x10}));
+    }
+
+    @Test
+    void testEncode_IsMuchSmallerThanJson() {
+        Map<Long, Integer> answers = new LinkedHashMap<>();
+        StringBuilder json = new StringBuilder("{");
+        for (long questionId = 48_200; questionId < 48_250; questionId++) {
+            int index = (int) (questionId % 4);
+            answers.put(questionId, index);
+            json.append(json.length() > 1 ? "," : "").append('"').append(questionId).append("\":").append(index);
+        }
+        json.append('}');
+
+        byte[] binary = AnswerCodec.encode(AnswerSheet.of(answers, null));
+
+        // One byte per answer plus the first id, against about eleven bytes each as JSON
+        assertTrue(binary.length <= answers.size() + 8, "binary size " + binary.length);
+        assertTrue(binary.length * 8 < json.length(), "binary " + binary.length + " vs JSON " + json.length());
+        assertEquals(AnswerCodec.parseJson(json.toString()), AnswerCodec.decode(binary));
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.quizapp.scoring;
+
+import org.example.quizapp.dto.QuestionSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttemptLayoutTest {
+
+    private static List<QuestionSnapshot> questions(int count) {
+        List<QuestionSnapshot> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            questions.add(new QuestionSnapshot(100L + i, "Question " + i, List.of("A", "B", "C", "D", "E"), i % 5));
+        }
+        return questions;
+    }
+
+    @Test
+    void testOf_SameSeedGivesSameSampleAndOptionOrder() {
+        List<QuestionSnapshot> questions = questions(20);
+
+        AttemptLayout layout = AttemptLayout.of(questions, 42L, 5);
+        AttemptLayout again = AttemptLayout.of(questions, 42L, 5);
+        AttemptLayout other = AttemptLayout.of(questions, 43L, 5);
+
+        assertEquals(5, layout.size());
+        assertArrayEquals(layout.questionIds(), again.questionIds());
+        for (int i = 0; i < layout.size(); i++) {
+            assertArrayEquals(layout.optionOrder(i), again.optionOrder(i));
+            int[] sorted = layout.optionOrder(i).clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(new int[]{0, 1, 2, 3, 4}, sorted);
+            assertEquals(questions.get(layout.position(i)).getId(), layout.questionIds()[i]);
+        }
+        Set<Long> distinct = new HashSet<>();
+        Arrays.stream(layout.questionIds()).forEach(distinct::add);
+        assertEquals(5, distinct.size());
+        assertFalse(Arrays.equals(layout.questionIds(), other.questionIds()));
+        assertEquals(20, AttemptLayout.of(questions, 42L, 0).size());
+        assertEquals(20, AttemptLayout.of(questions, 42L, 50).size());
+    }
+
+    @Test
+    void testToOriginal_MapsPresentedIndexesBackAndScoresOnlyTheSample() {
+        List<QuestionSnapshot> questions = questions(10);
+        AttemptLayout layout = AttemptLayout.of(questions, 7L, 3);
+        ScoringPlan plan = layout.scoringPlan(ScoringPlan.compile(questions));
+
+        // Pick the correct option as the user sees it: its position in the presented order
+        AnswerSheet.Builder presented = AnswerSheet.builder(4);
+        for (int i = 0; i < layout.size(); i++) {
+            int correct = questions.get(layout.position(i)).getCorrectAnswerIndex();
+            int[] order = layout.optionOrder(i);
+            for (int shown = 0; shown < order.length; shown++) {
+                if (order[shown] == correct) {
+                    presented.answer(layout.questionIds()[i], shown);
+                }
+            }
+        }
+        long outside = questions.stream().mapToLong(QuestionSnapshot::getId)
+                .filter(id -> !layout.contains(id)).findFirst().orElseThrow();
+        presented.answer(outside, 0);
+
+        AnswerSheet original = layout.toOriginal(presented.build());
+        ScoringPlan.Result result = plan.evaluate(plan.selections(original));
+
+        assertEquals(3, plan.size());
+        assertEquals(3, original.size());
+        assertEquals(3, result.correct());
+        assertEquals(100.0, result.percent());
+        assertEquals(2, layout.retain(AnswerSheet.of(Map.of(outside, 1, layout.questionIds()[0], 1,
+                layout.questionIds()[1], 9), null)).size());
+    }
+}
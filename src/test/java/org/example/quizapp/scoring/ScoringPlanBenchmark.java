@@ -0,0 +1,127 @@
+package org.example.quizapp.scoring;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.quizapp.dto.QuestionSnapshot;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// mvn test -Pbenchmark -Dtest=ScoringPlanBenchmark [-Dbenchmark.attempts=2000000]
+@Tag("benchmark")
+class ScoringPlanBenchmark {
+
+    private static final int QUESTIONS = 50;
+    private static final int SHEETS = 1024;
+
+    @Test
+    void benchmarkAgainstMapLoop() throws Exception {
+        int attempts = Integer.getInteger("benchmark.attempts", 2_000_000);
+        ObjectMapper objectMapper = new ObjectMapper();
+        SplittableRandom random = new SplittableRandom(42);
+        List<QuestionSnapshot> questions = new ArrayList<>(QUESTIONS);
+        for (int i = 0; i < QUESTIONS; i++) {
+            questions.add(new QuestionSnapshot(1000L + i, "Question " + i, List.of("A", "B", "C", "D"), random.nextInt(4)));
+        }
+        List<Map<Long, Integer>> answerMaps = new ArrayList<>(SHEETS);
+        List<String> storedJson = new ArrayList<>(SHEETS);
+        List<byte[]> storedBinary = new ArrayList<>(SHEETS);
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        for (int i = 0; i < SHEETS; i++) {
+            // Jackson binds request maps as LinkedHashMap, in the order the client sent them
+            Map<Long, Integer> answers = new LinkedHashMap<>();
+            for (QuestionSnapshot question : questions) {
+                answers.put(question.getId(), random.nextInt(4));
+            }
+            answerMaps.add(answers);
+            storedJson.add(objectMapper.writeValueAsString(answers));
+            storedBinary.add(AnswerCodec.encode(AnswerSheet.of(answers, null)));
+            jsonBytes += storedJson.get(i).getBytes(StandardCharsets.UTF_8).length;
+            binaryBytes += storedBinary.get(i).length;
+        }
+        System.out.printf("stored answers: JSON %d bytes, binary %d bytes per attempt%n",
+                jsonBytes / SHEETS, binaryBytes / SHEETS);
+        ScoringPlan plan = ScoringPlan.compile(questions);
+        TypeReference<Map<Long, Integer>> answersType = new TypeReference<>() {
+        };
+
+        // Warm every path up before timing them
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            long mapCorrect = 0;
+            for (int i = 0; i < attempts; i++) {
+                mapCorrect += countCorrect(questions, answerMaps.get(i & (SHEETS - 1)));
+            }
+            long mapNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long planCorrect = 0;
+            for (int i = 0; i < attempts; i++) {
+                planCorrect += plan.evaluate(plan.selections(AnswerSheet.of(answerMaps.get(i & (SHEETS - 1)), null))).correct();
+            }
+            long planNanos = System.nanoTime() - start;
+            assertEquals(mapCorrect, planCorrect);
+
+            // Submitting also serializes the answers for storage
+            int submitted = attempts / 10;
+            long storedLength = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < submitted; i++) {
+                Map<Long, Integer> answers = answerMaps.get(i & (SHEETS - 1));
+                storedLength += countCorrect(questions, answers) + objectMapper.writeValueAsString(answers).length();
+            }
+            long jsonSubmitNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < submitted; i++) {
+                AnswerSheet sheet = AnswerSheet.of(answerMaps.get(i & (SHEETS - 1)), null);
+                storedLength += plan.evaluate(plan.selections(sheet)).correct() + AnswerCodec.encode(sheet).length;
+            }
+            long binarySubmitNanos = System.nanoTime() - start;
+
+            // Reading a stored attempt back: Jackson and the map loop against the codec and the plan
+            int stored = attempts / 10;
+            start = System.nanoTime();
+            long jsonCorrect = 0;
+            for (int i = 0; i < stored; i++) {
+                jsonCorrect += countCorrect(questions, objectMapper.readValue(storedJson.get(i & (SHEETS - 1)), answersType));
+            }
+            long jsonNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long binaryCorrect = 0;
+            for (int i = 0; i < stored; i++) {
+                binaryCorrect += plan.evaluate(plan.selections(AnswerCodec.decode(storedBinary.get(i & (SHEETS - 1))))).correct();
+            }
+            long binaryNanos = System.nanoTime() - start;
+            assertEquals(jsonCorrect, binaryCorrect);
+
+            System.out.printf("round %d: scoring map loop %.0f ns, plan %.0f ns; submit with JSON %.0f ns, binary %.0f ns;"
+                            + " reading stored JSON %.0f ns, binary %.0f ns (%d)%n",
+                    round, (double) mapNanos / attempts, (double) planNanos / attempts,
+                    (double) jsonSubmitNanos / submitted, (double) binarySubmitNanos / submitted,
+                    (double) jsonNanos / stored, (double) binaryNanos / stored, storedLength);
+        }
+    }
+
+    // The scoring loop the plan replaced
+    private static int countCorrect(List<QuestionSnapshot> answerKey, Map<Long, Integer> answers) {
+        int correctAnswers = 0;
+        for (QuestionSnapshot question : answerKey) {
+            Integer userAnswer = answers.get(question.getId());
+            if (userAnswer != null && userAnswer.equals(question.getCorrectAnswerIndex())) {
+                correctAnswers++;
+            }
+        }
+        return correctAnswers;
+    }
+}
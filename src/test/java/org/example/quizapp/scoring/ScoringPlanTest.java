@@ -0,0 +1,75 @@
+package org.example.quizapp.scoring;
+
+import org.example.quizapp.dto.QuestionSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringPlanTest {
+
+    private static QuestionSnapshot single(long id, int correctIndex) {
+        return new QuestionSnapshot(id, "Question " + id, List.of("A", "B", "C", "D"), correctIndex);
+    }
+
+    private static QuestionSnapshot multi(long id, long mask, Double weight, Boolean partialCredit, Double negativeMark) {
+        return new QuestionSnapshot(id, "Question " + id, List.of("A", "B", "C", "D"),
+                Long.numberOfTrailingZeros(mask), mask, weight, partialCredit, negativeMark);
+    }
+
+    @Test
+    void testEvaluate_SingleChoiceMatchesPlainCount() {
+        ScoringPlan plan = ScoringPlan.compile(List.of(single(1L, 2), single(2L, 3), single(3L, 0)));
+
+        ScoringPlan.Result result = plan.evaluate(plan.selections(AnswerSheet.of(Map.of(1L, 2, 2L, 1, 99L, 0), null)));
+
+        assertEquals(1, result.correct());
+        assertEquals(100.0 / 3, result.percent());
+    }
+
+    @Test
+    void testEvaluate_MultiSelectNeedsExactlyTheRightOptions() {
+        ScoringPlan plan = ScoringPlan.compile(List.of(multi(1L, 0b0101, null, null, null), single(2L, 1)));
+
+        ScoringPlan.Result exact = plan.evaluate(
+                plan.selections(AnswerSheet.of(Map.of(2L, 1), Map.of(1L, List.of(2, 0)))));
+        ScoringPlan.Result extra = plan.evaluate(plan.selections(AnswerSheet.of(null, Map.of(1L, List.of(0, 1, 2)))));
+
+        assertEquals(2, exact.correct());
+        assertEquals(100.0, exact.percent());
+        assertEquals(0, extra.correct());
+        assertEquals(0.0, extra.points());
+    }
+
+    @Test
+    void testEvaluate_PartialCreditAndWeights() {
+        ScoringPlan plan = ScoringPlan.compile(List.of(multi(1L, 0b0111, 3.0, true, null), single(2L, 0)));
+
+        // Two of three right options, no wrong ones: two thirds of the weight
+        ScoringPlan.Result twoRight = plan.evaluate(plan.selections(AnswerSheet.of(null, Map.of(1L, List.of(0, 1)))));
+        // One wrong pick cancels one right pick
+        ScoringPlan.Result netOne = plan.evaluate(
+                plan.selections(AnswerSheet.of(null, Map.of(1L, List.of(0, 1, 3)))));
+
+        assertEquals(2.0, twoRight.points(), 1e-9);
+        assertEquals(4.0, twoRight.maxPoints());
+        assertEquals(0, twoRight.correct());
+        assertEquals(1.0, netOne.points(), 1e-9);
+    }
+
+    @Test
+    void testEvaluate_NegativeMarkingSkipsUnansweredAndFloorsPercent() {
+        ScoringPlan plan = ScoringPlan.compile(List.of(
+                multi(1L, 0b0001, 1.0, false, 0.25),
+                multi(2L, 0b0010, 1.0, false, 0.25)));
+
+        ScoringPlan.Result oneWrong = plan.evaluate(plan.selections(AnswerSheet.of(Map.of(1L, 3), null)));
+        ScoringPlan.Result invalid = plan.evaluate(plan.selections(AnswerSheet.of(Map.of(1L, 70, 2L, 2), null)));
+
+        assertEquals(-0.25, oneWrong.points(), 1e-9);
+        assertEquals(0.0, oneWrong.percent());
+        assertEquals(-0.5, invalid.points(), 1e-9);
+    }
+}
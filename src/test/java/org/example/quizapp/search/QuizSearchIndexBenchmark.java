@@ -0,0 +1,99 @@
+package org.example.quizapp.search;
+
+import org.example.quizapp.entity.Quiz;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// mvn test -Pbenchmark -Dtest=QuizSearchIndexBenchmark [-Dbenchmark.quizzes=100000 -Dbenchmark.questions=20]
+@Tag("benchmark")
+class QuizSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int WORDS_PER_QUESTION = 12;
+    private static final int QUERIES = 2000;
+
+    @Test
+    void benchmarkBuildAndQuery() {
+        int quizzes = Integer.getInteger("benchmark.quizzes", 100_000);
+        int questions = Integer.getInteger("benchmark.questions", 20);
+        SplittableRandom random = new SplittableRandom(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = word(random);
+        }
+
+        long start = System.nanoTime();
+        QuizSearchIndex index = new QuizSearchIndex();
+        QuizSearchIndex.Analyzed[] chunk = new QuizSearchIndex.Analyzed[1000];
+        for (int first = 0; first < quizzes; first += chunk.length) {
+            int base = first;
+            long seed = random.nextLong();
+            Arrays.parallelSetAll(chunk, i -> QuizSearchIndex.analyze(
+                    document(base + i, words, questions, new SplittableRandom(seed + i))));
+            for (int i = 0; i < chunk.length && base + i < quizzes; i++) {
+                index.put(chunk[i]);
+            }
+        }
+        System.out.printf("built %d quizzes (%d questions) in %d ms: %d terms, ~%d MB%n", quizzes,
+                (long) quizzes * questions, (System.nanoTime() - start) / 1_000_000, index.terms(),
+                index.estimatedBytes() >> 20);
+
+        // Common, mid-frequency and rare words, alone, in pairs and as a prefix
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String common = words[zipf(random)];
+            String other = words[zipf(random)];
+            queries[i] = switch (i % 3) {
+                case 0 -> common;
+                case 1 -> common + " " + other;
+                default -> common + " " + other.substring(0, Math.min(3, other.length()));
+            };
+        }
+        for (int round = 0; round < 3; round++) {
+            long matches = 0;
+            long[] nanos = new long[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                long queryStart = System.nanoTime();
+                matches += index.search(queries[i], 10).total();
+                nanos[i] = System.nanoTime() - queryStart;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("round %d: median %.3f ms, p99 %.3f ms, max %.3f ms (%d matches)%n", round,
+                    nanos[QUERIES / 2] / 1e6, nanos[QUERIES * 99 / 100] / 1e6, nanos[QUERIES - 1] / 1e6, matches);
+            assertTrue(matches > 0);
+        }
+    }
+
+    private static QuizSearchIndex.Document document(long id, String[] words, int questions, SplittableRandom random) {
+        List<String> texts = new ArrayList<>(questions);
+        for (int q = 0; q < questions; q++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_QUESTION; w++) {
+                text.append(words[zipf(random)]).append(' ');
+            }
+            texts.add(text.append('?').toString());
+        }
+        return new QuizSearchIndex.Document(id, words[zipf(random)] + " " + words[zipf(random)],
+                words[random.nextInt(50)], Quiz.Difficulty.values()[random.nextInt(3)], texts);
+    }
+
+    // Roughly Zipfian word ranks, so a few words are in most quizzes and most words in few
+    private static int zipf(SplittableRandom random) {
+        return (int) Math.min(VOCABULARY - 1, Math.exp(random.nextDouble() * Math.log(VOCABULARY)) - 1);
+    }
+
+    private static String word(SplittableRandom random) {
+        char[] letters = new char[3 + random.nextInt(8)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+}
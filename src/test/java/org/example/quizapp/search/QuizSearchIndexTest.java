@@ -0,0 +1,77 @@
+package org.example.quizapp.search;
+
+import org.example.quizapp.entity.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizSearchIndexTest {
+
+    private static QuizSearchIndex.Analyzed quiz(long id, String title, String category, String... questions) {
+        return QuizSearchIndex.analyze(new QuizSearchIndex.Document(id, title, category, Quiz.Difficulty.EASY,
+                List.of(questions)));
+    }
+
+    private static List<Long> quizIds(QuizSearchIndex.Result result) {
+        return result.hits().stream().map(QuizSearchIndex.Hit::quizId).toList();
+    }
+
+    @Test
+    void testTokenize_LowercasesFoldsAccentsAndSplitsOnPunctuation() {
+        assertEquals(List.of("cafe", "creme", "brulee", "java", "8", "s", "lambda"),
+                Tokenizer.tokenize("Café crème-brûlée: Java 8's λ".replace("λ", "lambda")));
+        assertTrue(Tokenizer.tokenize("  ?! ").isEmpty());
+    }
+
+    @Test
+    void testSearch_RanksTitleMatchesFirstAndRequiresEveryTerm() {
+        QuizSearchIndex index = new QuizSearchIndex();
+        index.put(quiz(1, "World Capitals", "Geography", "What is the capital of France?"));
+        index.put(quiz(2, "Java Basics", "Programming", "Which keyword declares a constant in Java?"));
+        index.put(quiz(3, "Collections", "Programming", "Which Java collection keeps insertion order?"));
+        index.put(quiz(4, "Rivers", "Geography", "Which river flows through Paris?"));
+
+        QuizSearchIndex.Result java = index.search("JAVA", 10);
+        assertEquals(2, java.total());
+        assertEquals(List.of(2L, 3L), quizIds(java));
+        assertEquals("Java Basics", java.hits().get(0).title());
+        assertTrue(java.hits().get(0).score() > java.hits().get(1).score());
+
+        assertEquals(List.of(3L), quizIds(index.search("java collection", 10)));
+        assertEquals(0, index.search("java paris", 10).total());
+        assertEquals(1, index.search("java", 1).hits().size());
+        assertEquals(2, index.search("java", 1).total());
+    }
+
+    @Test
+    void testSearch_LastTermMatchesAsPrefix() {
+        QuizSearchIndex index = new QuizSearchIndex();
+        index.put(quiz(1, "Photosynthesis", "Biology", "Where does photosynthesis happen?"));
+        index.put(quiz(2, "Photography", "Arts", "What does the aperture control?"));
+        index.put(quiz(3, "Photo", "Arts", "Who took the first photo?"));
+
+        // The exact term outranks the longer terms it is a prefix of
+        assertEquals(List.of(3L, 1L, 2L), quizIds(index.search("photo", 10)));
+        assertEquals(List.of(1L), quizIds(index.search("biology photos", 10)));
+        assertEquals(0, index.search("p", 10).total());
+    }
+
+    @Test
+    void testPut_ReplacesEarlierDocumentAndRemoveDropsIt() {
+        QuizSearchIndex index = new QuizSearchIndex();
+        index.put(quiz(1, "Draft", "General"));
+        index.put(quiz(1, "Astronomy", "Science", "Which planet has the most moons?"));
+
+        assertEquals(0, index.search("draft", 10).total());
+        assertEquals(List.of(1L), quizIds(index.search("planet", 10)));
+        assertEquals(1, index.liveDocs());
+        assertEquals(1, index.deletedDocs());
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(0, index.search("planet", 10).total());
+        assertEquals(0, index.liveDocs());
+    }
+}
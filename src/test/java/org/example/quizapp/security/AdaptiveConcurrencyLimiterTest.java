@@ -0,0 +1,67 @@
+package org.example.quizapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.quizapp.security.AdaptiveConcurrencyLimiter.EndpointGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 4, 2, 50);
+    }
+
+    @Test
+    void testTryAcquire_RejectsAboveLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(EndpointGroup.RESULTS));
+        }
+
+        assertFalse(limiter.tryAcquire(EndpointGroup.RESULTS));
+        assertEquals(1.0, meterRegistry.get("quiz.concurrency.rejected").tag("group", "RESULTS").counter().count());
+    }
+
+    @Test
+    void testTryAcquire_SaturatedSubmissionsShedCatalog() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(EndpointGroup.SUBMIT));
+        }
+
+        assertFalse(limiter.tryAcquire(EndpointGroup.CATALOG));
+        assertFalse(limiter.tryAcquire(EndpointGroup.RESULTS));
+
+        limiter.onSuccess(EndpointGroup.SUBMIT, 1_000_000L, 4);
+        limiter.onSuccess(EndpointGroup.SUBMIT, 1_000_000L, 4);
+        assertTrue(limiter.tryAcquire(EndpointGroup.CATALOG));
+    }
+
+    @Test
+    void testOnSample_ShrinksWhenLatencyRises() {
+        assertTrue(limiter.tryAcquire(EndpointGroup.CATALOG));
+        limiter.onSuccess(EndpointGroup.CATALOG, 1_000_000L, 4);
+        double baseline = limiter.currentLimit(EndpointGroup.CATALOG);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire(EndpointGroup.CATALOG));
+            limiter.onSuccess(EndpointGroup.CATALOG, 50_000_000L, 4);
+        }
+
+        assertTrue(limiter.currentLimit(EndpointGroup.CATALOG) < baseline);
+    }
+
+    @Test
+    void testOnDropped_BacksOffLimit() {
+        assertTrue(limiter.tryAcquire(EndpointGroup.SUBMIT));
+        limiter.onDropped(EndpointGroup.SUBMIT);
+
+        assertEquals(3.6, limiter.currentLimit(EndpointGroup.SUBMIT), 0.001);
+        assertEquals(0, limiter.inFlight(EndpointGroup.SUBMIT));
+    }
+}
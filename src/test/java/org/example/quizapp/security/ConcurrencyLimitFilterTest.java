@@ -0,0 +1,59 @@
+package org.example.quizapp.security;
+
+import jakarta.servlet.ServletException;
+import org.example.quizapp.security.AdaptiveConcurrencyLimiter.EndpointGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = mock(AdaptiveConcurrencyLimiter.class);
+        when(limiter.isEnabled()).thenReturn(true);
+        when(limiter.tryAcquire(EndpointGroup.SUBMIT)).thenReturn(true);
+        filter = new ConcurrencyLimitFilter(limiter, 1);
+    }
+
+    @Test
+    void testDoFilter_ClientErrorsAreLatencySamplesNotDrops() {
+        assertThrows(RuntimeException.class, () -> filter.doFilter(submit(), new MockHttpServletResponse(),
+                (request, response) -> {
+                    throw new RuntimeException("Quiz not found");
+                }));
+
+        verify(limiter, never()).onDropped(any());
+        verify(limiter).onSuccess(eq(EndpointGroup.SUBMIT), anyLong(), anyInt());
+    }
+
+    @Test
+    void testDoFilter_TimeoutsAndUnavailableAreDrops() throws Exception {
+        assertThrows(ServletException.class, () -> filter.doFilter(submit(), new MockHttpServletResponse(),
+                (request, response) -> {
+                    throw new ServletException(new RuntimeException("Timed out", new TimeoutException()));
+                }));
+        filter.doFilter(submit(), new MockHttpServletResponse(),
+                (request, response) -> ((MockHttpServletResponse) response).setStatus(503));
+
+        verify(limiter, times(2)).onDropped(EndpointGroup.SUBMIT);
+        verify(limiter, never()).onSuccess(any(), anyLong(), anyInt());
+    }
+
+    private static MockHttpServletRequest submit() {
+        return new MockHttpServletRequest("POST", "/quizzes/1/attempt");
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.quizapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long NOW = 1_760_000_000_000L;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "expirationMs", 24 * HOUR);
+        revocationList.init();
+    }
+
+    @Test
+    void testRevoke_MatchesOnlyRevokedIdInItsExpiryBucket() {
+        String tokenId = UUID.randomUUID().toString();
+        long expiresAt = NOW + 5 * HOUR;
+
+        assertTrue(revocationList.revoke(tokenId, expiresAt, NOW));
+
+        assertTrue(revocationList.isRevoked(tokenId, expiresAt));
+        assertFalse(revocationList.isRevoked(UUID.randomUUID().toString(), expiresAt));
+        assertFalse(revocationList.isRevoked(tokenId, expiresAt + 2 * HOUR));
+        assertFalse(revocationList.isRevoked(null, expiresAt));
+        assertFalse(revocationList.isRevoked("not-a-uuid", expiresAt));
+        assertFalse(revocationList.revoke(UUID.randomUUID().toString(), NOW - 1, NOW));
+    }
+
+    @Test
+    void testRevoke_GrowsBucketsAndKeepsAllEntries() {
+        List<String> tokenIds = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String tokenId = UUID.randomUUID().toString();
+            tokenIds.add(tokenId);
+            revocationList.revoke(tokenId, NOW + (i % 24) * HOUR + 1, NOW);
+        }
+
+        assertEquals(10_000, revocationList.size());
+        for (int i = 0; i < tokenIds.size(); i++) {
+            assertTrue(revocationList.isRevoked(tokenIds.get(i), NOW + (i % 24) * HOUR + 1));
+        }
+    }
+
+    @Test
+    void testDropExpired_DiscardsWholeHours() {
+        String expiringSoon = UUID.randomUUID().toString();
+        String expiringLater = UUID.randomUUID().toString();
+        revocationList.revoke(expiringSoon, NOW + HOUR, NOW);
+        revocationList.revoke(expiringLater, NOW + 10 * HOUR, NOW);
+
+        revocationList.dropExpired(NOW + 3 * HOUR);
+
+        assertEquals(1, revocationList.size());
+        assertTrue(revocationList.isRevoked(expiringLater, NOW + 10 * HOUR));
+    }
+
+    @Test
+    void testIsRevoked_DoesNotAllocate() {
+        String tokenId = UUID.randomUUID().toString();
+        String otherId = UUID.randomUUID().toString();
+        revocationList.revoke(tokenId, NOW + HOUR, NOW);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        boolean result = false;
+        for (int i = 0; i < 100_000; i++) {
+            result ^= revocationList.isRevoked(i % 2 == 0 ? tokenId : otherId, NOW + HOUR);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000_000; i++) {
+            result ^= revocationList.isRevoked(i % 2 == 0 ? tokenId : otherId, NOW + HOUR);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertFalse(result);
+        // Allow for the allocation counter's own bookkeeping
+        assertTrue(allocated < 1024, "isRevoked allocated " + allocated + " bytes");
+    }
+}
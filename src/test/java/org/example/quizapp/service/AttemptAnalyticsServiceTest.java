@@ -0,0 +1,82 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.AttemptAnalyticsGroup;
+import org.example.quizapp.dto.QuizRequest;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AttemptAnalyticsServiceTest {
+
+    // Far above the IDs the sequence hands out during the tests
+    private static final long FIRST_ID = 9_000_000_000L;
+
+    @Autowired
+    private AttemptAnalyticsService attemptAnalyticsService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testLoad_PicksUpLateCommitsAndRecordedChanges() {
+        User user = saveUser("analytics-user");
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Analytics Quiz", "AnalyticsWindow", Quiz.Difficulty.EASY));
+
+        insertAttempt(FIRST_ID + 2, user, quiz, 80.0, LocalDateTime.now());
+        attemptAnalyticsService.loadNewAttempts();
+        assertEquals(1, summary().getAttempts());
+
+        // A lower ID committed after a higher one was loaded, and a re-scan of what is already loaded
+        insertAttempt(FIRST_ID + 1, user, quiz, 40.0, LocalDateTime.now());
+        attemptAnalyticsService.loadNewAttempts();
+        attemptAnalyticsService.loadNewAttempts();
+        assertEquals(2, summary().getAttempts());
+        assertEquals(60.0, summary().getAverageScore());
+
+        // Rescored and deleted rows, and an insert long after its submission, reach the store once recorded
+        jdbcTemplate.update("UPDATE attempts SET score = 100 WHERE id = ?", FIRST_ID + 2);
+        jdbcTemplate.update("DELETE FROM attempts WHERE id = ?", FIRST_ID + 1);
+        insertAttempt(FIRST_ID + 3, user, quiz, 50.0, LocalDateTime.now().minusHours(2));
+        attemptAnalyticsService.recordChange("test");
+        attemptAnalyticsService.loadNewAttempts();
+        assertEquals(2, summary().getAttempts());
+        assertEquals(75.0, summary().getAverageScore());
+    }
+
+    private AttemptAnalyticsGroup summary() {
+        List<AttemptAnalyticsGroup> groups = attemptAnalyticsService.query("AnalyticsWindow", null, null, null,
+                null, null, List.of()).getGroups();
+        assertEquals(1, groups.size());
+        return groups.get(0);
+    }
+
+    private void insertAttempt(long id, User user, Quiz quiz, double score, LocalDateTime submittedAt) {
+        jdbcTemplate.update("INSERT INTO attempts (id, user_id, quiz_id, score, submitted_at) VALUES (?, ?, ?, ?, ?)",
+                id, user.getId(), quiz.getId(), score, Timestamp.valueOf(submittedAt));
+    }
+
+    private User saveUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        return userRepository.save(user);
+    }
+}
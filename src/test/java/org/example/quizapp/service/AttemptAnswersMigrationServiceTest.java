@@ -0,0 +1,70 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.entity.Attempt;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.repository.AttemptRepository;
+import org.example.quizapp.repository.QuizRepository;
+import org.example.quizapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "answers-migration.batch-size=3")
+class AttemptAnswersMigrationServiceTest {
+
+    @Autowired
+    private AttemptAnswersMigrationService migrationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private AttemptRepository attemptRepository;
+
+    @Test
+    void testMigrate_RewritesLegacyJsonInBatches() {
+        User user = new User();
+        user.setUsername("migration-user");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Migration Quiz");
+        quiz.setCategory("Programming");
+        quiz.setDifficulty(Quiz.Difficulty.EASY);
+        quiz = quizRepository.save(quiz);
+
+        List<Long> attemptIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Attempt attempt = new Attempt();
+            attempt.setUser(user);
+            attempt.setQuiz(quiz);
+            attempt.setScore(50.0);
+            attempt.setAnswers("{\"1\":" + i + ",\"2\":[0,1]}");
+            attemptIds.add(attemptRepository.save(attempt).getId());
+        }
+
+        long after = attemptIds.get(0) - 1;
+        assertEquals(3, migrationService.migrateAfter(after));
+        assertEquals(2, migrationService.migrateAfter(attemptIds.get(2)));
+        assertEquals(0, migrationService.migrateAfter(attemptIds.get(4)));
+
+        for (int i = 0; i < attemptIds.size(); i++) {
+            Attempt migrated = attemptRepository.findById(attemptIds.get(i)).orElseThrow();
+            assertNull(migrated.getAnswers());
+            assertEquals(Map.of(1L, i), migrated.getAnswerSheet().answerMap());
+            assertEquals(Map.of(2L, List.of(0, 1)), migrated.getAnswerSheet().selectionMap());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.AttemptRequest;
+import org.example.quizapp.dto.AttemptSessionResponse;
+import org.example.quizapp.dto.QuestionRequest;
+import org.example.quizapp.dto.QuestionResponse;
+import org.example.quizapp.dto.QuizRequest;
+import org.example.quizapp.entity.Attempt;
+import org.example.quizapp.entity.AttemptDeadline;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.repository.AttemptDeadlineRepository;
+import org.example.quizapp.repository.AttemptRepository;
+import org.example.quizapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"attempt.timed.grace-ms=0", "attempt.timed.tick-ms=10"})
+class AttemptAutoSubmitServiceTest {
+
+    private static final List<String> OPTIONS = List.of("Mercury", "Jupiter", "Saturn", "Mars");
+
+    // Question text -> correct option text
+    private static final Map<String, String> ANSWER_KEY = Map.of(
+            "Largest planet?", "Jupiter",
+            "Closest planet to the Sun?", "Mercury");
+
+    @Autowired
+    private AttemptSessionService attemptSessionService;
+
+    @Autowired
+    private AttemptService attemptService;
+
+    @Autowired
+    private AttemptDeadlineService attemptDeadlineService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttemptRepository attemptRepository;
+
+    @Autowired
+    private AttemptDeadlineRepository attemptDeadlineRepository;
+
+    @Test
+    @WithMockUser(username = "timed-user")
+    void testTimedSession_DraftIsSubmittedAtTheDeadline() throws InterruptedException {
+        User user = createUser("timed-user");
+        Quiz quiz = createQuiz(1);
+
+        AttemptSessionResponse session = attemptSessionService.startSession(quiz.getId());
+        assertNotNull(session.getDeadline());
+        assertTrue(session.getRemainingMs() > 0 && session.getRemainingMs() <= 1000);
+        assertTrue(attemptDeadlineRepository.existsById(session.getSessionId()));
+
+        // Only the first question is answered, correctly, before time runs out
+        QuestionResponse first = session.getQuestions().get(0);
+        AttemptRequest draft = new AttemptRequest();
+        draft.setAnswers(Map.of(first.getId(), first.getOptions().indexOf(ANSWER_KEY.get(first.getText()))));
+        attemptSessionService.saveDraft(quiz.getId(), session.getSessionId(), draft);
+        assertNotNull(attemptDeadlineRepository.findById(session.getSessionId()).orElseThrow().getDraft());
+
+        Attempt attempt = awaitAttempt(user, session.getSessionId());
+        assertEquals(50.0, attempt.getScore());
+        assertEquals(2, attempt.getSessionQuestions());
+        assertFalse(attemptDeadlineRepository.existsById(session.getSessionId()));
+
+        // Too late for the user's own submit
+        AttemptRequest submit = new AttemptRequest();
+        submit.setSessionId(session.getSessionId());
+        submit.setAnswers(Map.of());
+        assertThrows(RuntimeException.class, () -> attemptService.submitAttempt(quiz.getId(), submit));
+        assertNull(attemptService.submitExpired(session.getSessionId()));
+
+        // Without a session there would be no clock
+        AttemptRequest direct = new AttemptRequest();
+        direct.setAnswers(Map.of(first.getId(), 0));
+        assertThrows(RuntimeException.class, () -> attemptService.submitAttempt(quiz.getId(), direct));
+    }
+
+    @Test
+    @WithMockUser(username = "timed-restart-user")
+    void testRecover_SubmitsDeadlinesStoredBeforeARestart() throws InterruptedException {
+        User user = createUser("timed-restart-user");
+        Quiz quiz = createQuiz(60);
+
+        // Left behind by an instance that stopped before the deadline passed
+        attemptDeadlineRepository.save(new AttemptDeadline("restart-session", "timed-restart-user", quiz.getId(),
+                quiz.getCurrentVersionId(), 7L, 1, System.currentTimeMillis() - 1000, null));
+        attemptDeadlineService.recover();
+
+        Attempt attempt = awaitAttempt(user, "restart-session");
+        assertEquals(0.0, attempt.getScore());
+        assertEquals(1, attempt.getSessionQuestions());
+        assertEquals(7L, attempt.getSessionSeed());
+    }
+
+    private Attempt awaitAttempt(User user, String sessionId) throws InterruptedException {
+        long giveUpAt = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < giveUpAt) {
+            Optional<Attempt> attempt = attemptRepository.findByUserAndIdempotencyKey(user, "deadline:" + sessionId);
+            if (attempt.isPresent()) {
+                return attempt.get();
+            }
+            Thread.sleep(50);
+        }
+        return fail("Session " + sessionId + " was not auto-submitted");
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        return userRepository.save(user);
+    }
+
+    private Quiz createQuiz(int timeLimitSeconds) {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Timed Planets", "Astronomy", Quiz.Difficulty.EASY,
+                timeLimitSeconds));
+        return quizService.addQuestionsToQuiz(quiz.getId(), ANSWER_KEY.entrySet().stream()
+                .map(entry -> new QuestionRequest(entry.getKey(), OPTIONS, OPTIONS.indexOf(entry.getValue())))
+                .toList());
+    }
+}
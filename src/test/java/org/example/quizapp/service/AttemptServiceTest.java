@@ -1,9 +1,11 @@
 package org.example.quizapp.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.quizapp.dto.AttemptRequest;
 import org.example.quizapp.dto.AttemptResponse;
+import org.example.quizapp.dto.QuestionSnapshot;
+import org.example.quizapp.dto.QuizVersionContent;
 import org.example.quizapp.entity.Attempt;
 import org.example.quizapp.entity.Question;
 import org.example.quizapp.entity.Quiz;
@@ -11,22 +13,28 @@ import org.example.quizapp.entity.User;
 import org.example.quizapp.repository.AttemptRepository;
 import org.example.quizapp.repository.QuizRepository;
 import org.example.quizapp.repository.UserRepository;
+import org.example.quizapp.scoring.ScoringPlan;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,12 +49,31 @@ class AttemptServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @Mock
-    private ObjectMapper objectMapper;
 
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private AttemptIdempotencyStore idempotencyStore;
+
+    @Mock
+    private UserProgressService userProgressService;
+
+    @Mock
+    private AttemptWriteBehindService writeBehindService;
+
+    @Mock
+    private QuizService quizService;
+
+    @Mock
+    private RecommendationService recommendationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AttemptService attemptService;
 
@@ -59,6 +86,8 @@ class AttemptServiceTest {
 
     @BeforeEach
     void setUp() {
+        attemptService.registerMetrics();
+
         user = new User();
         user.setId(1L);
         user.setUsername("testuser");
@@ -104,7 +133,7 @@ class AttemptServiceTest {
     }
 
     @Test
-    void testSubmitAttempt_Success() throws JsonProcessingException {
+    void testSubmitAttempt_Success() {
         SecurityContext securityContext = mock(SecurityContext.class);
         Authentication authentication = mock(Authentication.class);
         SecurityContextHolder.setContext(securityContext);
@@ -113,7 +142,6 @@ class AttemptServiceTest {
         when(authentication.getName()).thenReturn("testuser");
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
-        when(objectMapper.writeValueAsString(any())).thenReturn("{\"1\":2,\"2\":1}");
         when(attemptRepository.save(any(Attempt.class))).thenReturn(attempt);
         doNothing().when(notificationService).sendQuizAttemptNotification(anyString(), anyString(), anyDouble());
 
@@ -127,12 +155,16 @@ class AttemptServiceTest {
         assertEquals(2, response.getTotalQuestions());
         assertEquals(2, response.getCorrectAnswers());
 
-        verify(attemptRepository).save(any(Attempt.class));
+        verify(attemptRepository).save(argThat(saved -> saved.getAnswers() == null
+                && saved.getAnswerSheet().answerMap().equals(attemptRequest.getAnswers())));
         verify(notificationService).sendQuizAttemptNotification("testuser", "Test Quiz", 100.0);
+        verify(userProgressService).recordAttempt(eq(1L), eq("Programming"), eq(100.0), any());
+        assertEquals(1, meterRegistry.get("quiz.attempt.scoring").timer().count());
+        assertEquals(2.0, meterRegistry.get("quiz.attempt.questions").summary().totalAmount());
     }
 
     @Test
-    void testSubmitAttempt_PartiallyCorrect() throws JsonProcessingException {
+    void testSubmitAttempt_PartiallyCorrect() {
         Map<Long, Integer> answers = new HashMap<>();
         answers.put(1L, 2); // Correct
         answers.put(2L, 0); // Wrong
@@ -147,7 +179,6 @@ class AttemptServiceTest {
         when(authentication.getName()).thenReturn("testuser");
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
-        when(objectMapper.writeValueAsString(any())).thenReturn("{\"1\":2,\"2\":0}");
 
         Attempt partialAttempt = new Attempt();
         partialAttempt.setId(2L);
@@ -168,6 +199,111 @@ class AttemptServiceTest {
         verify(notificationService).sendQuizAttemptNotification("testuser", "Test Quiz", 50.0);
     }
 
+    @Test
+    void testSubmitAttempt_ScoresAgainstCurrentQuizVersionOnly() {
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.setContext(securityContext);
+
+        // Version 7 is current; question 2's answer key has since been changed in place
+        quiz.setCurrentVersionId(7L);
+        QuizVersionContent version = new QuizVersionContent(7L, 1L, 1, "Test Quiz", "Programming",
+                Quiz.Difficulty.EASY, quiz.getCreatedDate(), List.of(
+                new QuestionSnapshot(1L, "Question 1", List.of("A", "B", "C", "D"), 2),
+                new QuestionSnapshot(2L, "Question 2", List.of("A", "B", "C", "D"), 3)));
+
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        when(quizService.getScoringPlan(1L, 7L)).thenReturn(ScoringPlan.compile(version.getQuestions()));
+        when(attemptRepository.save(any(Attempt.class))).thenAnswer(invocation -> {
+            Attempt saved = invocation.getArgument(0);
+            saved.setSubmittedAt(LocalDateTime.now());
+            return saved;
+        });
+
+        // An older version would let the client choose the answer key it is scored by
+        attemptRequest.setQuizVersionId(6L);
+        assertThrows(RuntimeException.class, () -> attemptService.submitAttempt(1L, attemptRequest));
+        verify(attemptRepository, never()).save(any(Attempt.class));
+
+        attemptRequest.setQuizVersionId(7L);
+        AttemptResponse response = attemptService.submitAttempt(1L, attemptRequest);
+
+        assertEquals(50.0, response.getScore());
+        assertEquals(1, response.getCorrectAnswers());
+        assertEquals(7L, response.getQuizVersionId());
+        verify(attemptRepository).save(argThat(saved -> saved.getQuizVersionId().equals(7L)));
+    }
+
+    @Test
+    void testSubmitAttempt_ReplaysCachedIdempotentAttempt() {
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.setContext(securityContext);
+
+        AttemptResponse cached = new AttemptResponse();
+        cached.setId(1L);
+        cached.setQuizId(1L);
+        cached.setScore(100.0);
+
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(idempotencyStore.get("testuser:retry-1")).thenReturn(cached);
+
+        AttemptResponse response = attemptService.submitAttempt(1L, attemptRequest, "retry-1");
+
+        assertSame(cached, response);
+        verify(attemptRepository, never()).save(any(Attempt.class));
+        verify(notificationService, never()).sendQuizAttemptNotification(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    void testSubmitAttempt_ReplaysStoredIdempotentAttempt() {
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(attemptRepository.findByUserAndIdempotencyKey(user, "retry-1")).thenReturn(Optional.of(attempt));
+
+        AttemptResponse response = attemptService.submitAttempt(1L, attemptRequest, "retry-1");
+
+        assertEquals(1L, response.getId());
+        assertEquals(2, response.getCorrectAnswers());
+        verify(idempotencyStore).put("testuser:retry-1", response);
+        verify(attemptRepository, never()).save(any(Attempt.class));
+    }
+
+    @Test
+    void testSubmitAttempt_ConcurrentDuplicateKeyReplaysTheStoredAttempt() {
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        // Not stored yet when this request checks; stored by the other request by the time it inserts
+        when(attemptRepository.findByUserAndIdempotencyKey(user, "retry-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(attempt));
+        when(attemptRepository.save(any(Attempt.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(attemptRepository).flush();
+
+        AttemptResponse response = attemptService.submitAttempt(1L, attemptRequest, "retry-1");
+
+        assertEquals(1L, response.getId());
+        assertEquals(100.0, response.getScore());
+        verify(idempotencyStore).put("testuser:retry-1", response);
+        verify(transactionManager).rollback(any());
+        verify(notificationService, never()).sendQuizAttemptNotification(anyString(), anyString(), anyDouble());
+    }
+
     @Test
     void testSubmitAttempt_QuizNotFound() {
         SecurityContext securityContext = mock(SecurityContext.class);
@@ -187,23 +323,21 @@ class AttemptServiceTest {
     }
 
     @Test
-    void testGetAttemptResult_Success() throws JsonProcessingException {
+    void testGetAttemptResult_Success() {
         SecurityContext securityContext = mock(SecurityContext.class);
         Authentication authentication = mock(Authentication.class);
         SecurityContextHolder.setContext(securityContext);
 
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn("testuser");
-        when(attemptRepository.findById(1L)).thenReturn(Optional.of(attempt));
-        when(objectMapper.readValue(anyString(), any(com.fasterxml.jackson.core.type.TypeReference.class)))
-                .thenReturn(attemptRequest.getAnswers());
+        when(attemptRepository.findWithUserAndQuizById(1L)).thenReturn(Optional.of(attempt));
 
         AttemptResponse response = attemptService.getAttemptResult(1L);
 
         assertNotNull(response);
         assertEquals(1L, response.getId());
         assertEquals(100.0, response.getScore());
-        verify(attemptRepository).findById(1L);
+        verify(attemptRepository).findWithUserAndQuizById(1L);
     }
 
     @Test
@@ -219,7 +353,7 @@ class AttemptServiceTest {
 
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn("testuser");
-        when(attemptRepository.findById(1L)).thenReturn(Optional.of(attempt));
+        when(attemptRepository.findWithUserAndQuizById(1L)).thenReturn(Optional.of(attempt));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             attemptService.getAttemptResult(1L);
@@ -230,7 +364,7 @@ class AttemptServiceTest {
 
     @Test
     void testGetAttemptResult_AttemptNotFound() {
-        when(attemptRepository.findById(999L)).thenReturn(Optional.empty());
+        when(attemptRepository.findWithUserAndQuizById(999L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             attemptService.getAttemptResult(999L);
@@ -0,0 +1,99 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.AttemptRequest;
+import org.example.quizapp.dto.AttemptResponse;
+import org.example.quizapp.dto.AttemptSessionResponse;
+import org.example.quizapp.dto.QuestionRequest;
+import org.example.quizapp.dto.QuestionResponse;
+import org.example.quizapp.dto.QuizRequest;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AttemptSessionServiceTest {
+
+    // Question text -> correct option text
+    private static final Map<String, String> ANSWER_KEY = Map.of(
+            "Largest planet?", "Jupiter",
+            "Closest planet to the Sun?", "Mercury",
+            "Planet with the most visible rings?", "Saturn");
+
+    @Autowired
+    private AttemptSessionService attemptSessionService;
+
+    @Autowired
+    private AttemptService attemptService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @WithMockUser(username = "session-user")
+    void testSessionSamplesShufflesAndScoresDraftPlusSubmittedAnswers() {
+        User user = new User();
+        user.setUsername("session-user");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        userRepository.save(user);
+        List<String> planets = List.of("Mercury", "Jupiter", "Saturn", "Mars");
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Planets", "Astronomy", Quiz.Difficulty.EASY, null, 2));
+        quiz = quizService.addQuestionsToQuiz(quiz.getId(), ANSWER_KEY.entrySet().stream()
+                .map(entry -> new QuestionRequest(entry.getKey(), planets, planets.indexOf(entry.getValue())))
+                .toList());
+        Long quizId = quiz.getId();
+
+        // The quiz decides the sample size, and starting again brings back the same paper
+        AttemptSessionResponse session = attemptSessionService.startSession(quizId);
+        assertEquals(2, session.getQuestions().size());
+        AttemptSessionResponse restarted = attemptSessionService.startSession(quizId);
+        assertEquals(session.getSessionId(), restarted.getSessionId());
+        assertEquals(session.getQuestions(), restarted.getQuestions());
+        assertEquals(quiz.getCurrentVersionId(), session.getQuizVersionId());
+        QuestionResponse first = session.getQuestions().get(0);
+        QuestionResponse second = session.getQuestions().get(1);
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(planets.stream().sorted().toList(), first.getOptions().stream().sorted().toList());
+
+        // The draft holds the first answer, the submit brings the second, both in presented order
+        AttemptRequest draft = new AttemptRequest();
+        draft.setAnswers(Map.of(first.getId(), first.getOptions().indexOf(ANSWER_KEY.get(first.getText()))));
+        attemptSessionService.saveDraft(quizId, session.getSessionId(), draft);
+        assertEquals(draft.getAnswers(), attemptSessionService.getSession(quizId, session.getSessionId()).getDraftAnswers());
+
+        AttemptRequest submit = new AttemptRequest();
+        Map<Long, Integer> answers = new HashMap<>();
+        answers.put(second.getId(), second.getOptions().indexOf(ANSWER_KEY.get(second.getText())));
+        answers.put(-1L, 0); // Not in the sample, ignored
+        submit.setAnswers(answers);
+        submit.setSessionId(session.getSessionId());
+        AttemptResponse response = attemptService.submitAttempt(quizId, submit);
+
+        assertEquals(100.0, response.getScore());
+        assertEquals(2, response.getTotalQuestions());
+        assertEquals(2, response.getCorrectAnswers());
+        // Stored and returned with the original option indexes
+        assertEquals(planets.indexOf(ANSWER_KEY.get(first.getText())), response.getUserAnswers().get(first.getId()));
+        AttemptResponse result = attemptService.getAttemptResult(response.getId());
+        assertEquals(2, result.getTotalQuestions());
+        assertEquals(100.0, result.getScore());
+
+        // A session takes one attempt
+        assertThrows(RuntimeException.class, () -> attemptService.submitAttempt(quizId, submit));
+        assertThrows(RuntimeException.class, () -> attemptSessionService.getSession(quizId, session.getSessionId()));
+        assertNotEquals(session.getSessionId(), attemptSessionService.startSession(quizId).getSessionId());
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.DeadLetterReplayResponse;
+import org.example.quizapp.entity.Attempt;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.entity.UserProgress;
+import org.example.quizapp.journal.JournalEntry;
+import org.example.quizapp.repository.AttemptDeadLetterRepository;
+import org.example.quizapp.repository.AttemptRepository;
+import org.example.quizapp.repository.QuizRepository;
+import org.example.quizapp.repository.UserProgressRepository;
+import org.example.quizapp.repository.UserRepository;
+import org.example.quizapp.scoring.AnswerCodec;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "attempt.write-behind.enabled=true",
+        "attempt.write-behind.journal-dir=target/test-journal",
+        "attempt.write-behind.segment-size-mb=1"
+})
+class AttemptWriteBehindServiceTest {
+
+    @Autowired
+    private AttemptWriteBehindService writeBehindService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private AttemptRepository attemptRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private AttemptDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAppend_IsReadableUntilWrittenToDatabase() throws InterruptedException {
+        User user = new User();
+        user.setUsername("journal-user");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Journal Quiz");
+        quiz.setCategory("Programming");
+        quiz.setDifficulty(Quiz.Difficulty.EASY);
+        quiz = quizRepository.save(quiz);
+
+        // IDs from the journal and from Hibernate come from the same sequence without colliding
+        long journaledId = writeBehindService.nextAttemptId();
+        Attempt saved = new Attempt();
+        saved.setUser(user);
+        saved.setQuiz(quiz);
+        saved.setScore(0.0);
+        saved.setAnswers("{}");
+        assertNotEquals(journaledId, attemptRepository.save(saved).getId());
+
+        JournalEntry entry = new JournalEntry(journaledId, user.getId(), user.getUsername(), quiz.getId(), null, 75.0,
+                LocalDateTime.now(), "key-1", AnswerCodec.encode(AnswerSheet.builder(1).answer(1, 2).build()));
+        assertSame(entry, writeBehindService.append(entry));
+        assertSame(entry, writeBehindService.append(new JournalEntry(writeBehindService.nextAttemptId(), user.getId(),
+                user.getUsername(), quiz.getId(), null, 75.0, LocalDateTime.now(), "key-1", new byte[]{AnswerCodec.FORMAT_VERSION, 0})));
+
+        for (int i = 0; i < 100 && writeBehindService.getPending(journaledId) != null; i++) {
+            Thread.sleep(50);
+        }
+
+        assertNull(writeBehindService.getPending(journaledId));
+        Attempt stored = attemptRepository.findById(journaledId).orElseThrow();
+        assertEquals(75.0, stored.getScore());
+        assertEquals("key-1", stored.getIdempotencyKey());
+        assertEquals(AnswerSheet.builder(1).answer(1, 2).build(), stored.getAnswerSheet());
+        UserProgress progress = userProgressRepository.findById(
+                new UserProgress.Key(user.getId(), "Programming")).orElseThrow();
+        assertEquals(1L, progress.getAttempts());
+    }
+
+    @Test
+    void testRejectedEntry_IsDeadLetteredAndReplayedOnceFixed() throws InterruptedException {
+        User user = new User();
+        user.setUsername("dead-letter-user");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        // The quiz does not exist (yet), so the foreign key rejects the row
+        long missingQuizId = 987_654L;
+        long attemptId = writeBehindService.nextAttemptId();
+        writeBehindService.append(new JournalEntry(attemptId, user.getId(), user.getUsername(), missingQuizId, null, 50.0,
+                LocalDateTime.now(), null, AnswerCodec.encode(AnswerSheet.builder(1).answer(1, 0).build())));
+
+        for (int i = 0; i < 100 && writeBehindService.getPending(attemptId) != null; i++) {
+            Thread.sleep(50);
+        }
+        assertNull(writeBehindService.getPending(attemptId));
+        assertFalse(attemptRepository.existsById(attemptId));
+        assertEquals(missingQuizId, deadLetterRepository.findById(attemptId).orElseThrow().getQuizId());
+
+        assertEquals(new DeadLetterReplayResponse(0L, 1L), writeBehindService.replayDeadLetters());
+        assertNotNull(deadLetterRepository.findById(attemptId).orElseThrow().getReason());
+
+        jdbcTemplate.update("INSERT INTO quizzes (id, title, category, difficulty, created_date, archived) " +
+                "VALUES (?, 'Restored Quiz', 'Restored', 'EASY', CURRENT_TIMESTAMP, FALSE)", missingQuizId);
+        assertEquals(new DeadLetterReplayResponse(1L, 0L), writeBehindService.replayDeadLetters());
+        assertEquals(50.0, attemptRepository.findById(attemptId).orElseThrow().getScore());
+        assertFalse(deadLetterRepository.existsById(attemptId));
+    }
+}
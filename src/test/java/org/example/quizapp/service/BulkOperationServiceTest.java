@@ -0,0 +1,147 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.BulkJobRequest;
+import org.example.quizapp.dto.BulkJobResponse;
+import org.example.quizapp.dto.QuestionRequest;
+import org.example.quizapp.dto.QuizRequest;
+import org.example.quizapp.entity.Attempt;
+import org.example.quizapp.entity.BulkJob;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.entity.UserProgress;
+import org.example.quizapp.repository.AttemptRepository;
+import org.example.quizapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "bulk.batch-size=3")
+class BulkOperationServiceTest {
+
+    @Autowired
+    private BulkOperationService bulkOperationService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttemptRepository attemptRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testArchiveHidesQuizFromListing() throws InterruptedException {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Archived Quiz", "BulkArchive", Quiz.Difficulty.EASY));
+
+        BulkJobResponse job = await(bulkOperationService.startArchive(new BulkJobRequest(List.of(quiz.getId()), null, null)));
+
+        assertEquals(BulkJob.Status.COMPLETED, job.getStatus());
+        assertTrue(quizService.getQuizzes("BulkArchive", null, PageRequest.of(0, 5)).isEmpty());
+    }
+
+    @Test
+    void testDeleteRemovesQuizWithQuestionsVersionsAndAttemptsInBatches() throws InterruptedException {
+        User user = saveUser("bulk-delete-user");
+        Quiz doomed = quizWithQuestions("Doomed Quiz", 4);
+        Quiz kept = quizWithQuestions("Kept Quiz", 1);
+        for (int i = 0; i < 7; i++) {
+            saveAttempt(user, doomed);
+        }
+        Attempt keptAttempt = saveAttempt(user, kept);
+
+        BulkJobResponse job = await(bulkOperationService.startDelete(new BulkJobRequest(List.of(doomed.getId()), null, null)));
+
+        assertEquals(BulkJob.Status.COMPLETED, job.getStatus());
+        // 7 attempts + 4 questions + 5 versions (one at creation, one per added question) + the quiz
+        assertEquals(17L, job.getTotalRows());
+        assertEquals(17L, job.getProcessedRows());
+        assertEquals(100.0, job.getProgressPercent());
+        for (String table : List.of("attempts", "questions", "quiz_versions")) {
+            assertEquals(0, count(table, doomed.getId()));
+        }
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM quizzes WHERE id = ?", Integer.class, doomed.getId()));
+        assertTrue(attemptRepository.existsById(keptAttempt.getId()));
+        assertEquals(1, count("questions", kept.getId()));
+        // Progress summaries only count what is left
+        assertEquals(1, overallAttempts(user));
+    }
+
+    @Test
+    void testPurgeDeletesOnlyOldAttempts() throws InterruptedException {
+        User user = saveUser("bulk-purge-user");
+        Quiz quiz = quizWithQuestions("Purge Quiz", 1);
+        List<Long> oldIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            oldIds.add(saveAttempt(user, quiz).getId());
+        }
+        Attempt recent = saveAttempt(user, quiz);
+        for (Long id : oldIds) {
+            jdbcTemplate.update("UPDATE attempts SET submitted_at = ? WHERE id = ?",
+                    Timestamp.valueOf(LocalDateTime.now().minusDays(40)), id);
+        }
+
+        BulkJobResponse job = await(bulkOperationService.startPurge(new BulkJobRequest(null, null, 30)));
+
+        assertEquals(BulkJob.Status.COMPLETED, job.getStatus());
+        assertTrue(job.getProcessedRows() >= 5);
+        oldIds.forEach(id -> assertFalse(attemptRepository.existsById(id)));
+        assertTrue(attemptRepository.existsById(recent.getId()));
+        assertEquals(1, overallAttempts(user));
+    }
+
+    private BulkJobResponse await(BulkJobResponse job) throws InterruptedException {
+        for (int i = 0; i < 100 && job.getStatus() != BulkJob.Status.COMPLETED && job.getStatus() != BulkJob.Status.FAILED; i++) {
+            Thread.sleep(100);
+            job = bulkOperationService.getJob(job.getId());
+        }
+        return job;
+    }
+
+    private Quiz quizWithQuestions(String title, int questions) {
+        Quiz quiz = quizService.createQuiz(new QuizRequest(title, "Bulk", Quiz.Difficulty.MEDIUM));
+        for (int i = 0; i < questions; i++) {
+            quiz = quizService.addQuestionsToQuiz(quiz.getId(),
+                    List.of(new QuestionRequest("Question " + i, List.of("A", "B"), 0)));
+        }
+        return quiz;
+    }
+
+    private int count(String table, Long quizId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE quiz_id = ?", Integer.class, quizId);
+    }
+
+    private long overallAttempts(User user) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM user_progress WHERE user_id = ? AND category = ?",
+                Long.class, user.getId(), UserProgress.OVERALL);
+    }
+
+    private User saveUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        return userRepository.save(user);
+    }
+
+    private Attempt saveAttempt(User user, Quiz quiz) {
+        Attempt attempt = new Attempt();
+        attempt.setUser(user);
+        attempt.setQuiz(quiz);
+        attempt.setScore(50.0);
+        attempt.setAnswers("{}");
+        return attemptRepository.save(attempt);
+    }
+}
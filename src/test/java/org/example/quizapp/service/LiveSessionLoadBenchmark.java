@@ -0,0 +1,181 @@
+package org.example.quizapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.quizapp.dto.LiveAnswerRequest;
+import org.example.quizapp.entity.Question;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.live.FrameSink;
+import org.example.quizapp.live.LiveEvents;
+import org.example.quizapp.live.LiveFrame;
+import org.example.quizapp.repository.QuizRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// mvn test -Pbenchmark -Dtest=LiveSessionLoadBenchmark [-Dbenchmark.participants=10000]
+@Tag("benchmark")
+class LiveSessionLoadBenchmark {
+
+    private static final int QUESTIONS = 10;
+    private static final int OPTIONS = 4;
+
+    @Test
+    void benchmarkTenThousandParticipants() throws Exception {
+        int participants = Integer.getInteger("benchmark.participants", 10_000);
+        int slowParticipants = participants / 100;
+
+        Quiz quiz = new Quiz();
+        quiz.setId(1L);
+        quiz.setTitle("Load test");
+        for (int q = 0; q < QUESTIONS; q++) {
+            Question question = new Question();
+            question.setId(100L + q);
+            question.setText("Question " + q);
+            question.setOptions("[\"a\",\"b\",\"c\",\"d\"]");
+            question.setCorrectAnswerIndex(q % OPTIONS);
+            quiz.getQuestions().add(question);
+        }
+        QuizRepository quizRepository = mock(QuizRepository.class);
+        when(quizRepository.findWithQuestionsById(1L)).thenReturn(Optional.of(quiz));
+
+        LiveSessionService service = new LiveSessionService();
+        ReflectionTestUtils.setField(service, "quizRepository", quizRepository);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "writerThreads", 16);
+        ReflectionTestUtils.setField(service, "subscriberQueueCapacity", 32);
+        ReflectionTestUtils.setField(service, "maxParticipants", participants);
+        ReflectionTestUtils.setField(service, "maxSessionAgeMs", TimeUnit.HOURS.toMillis(1));
+        service.init();
+
+        String sessionId = service.createSession(1L, "host").getId();
+        List<CountingSink> sinks = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            // A few clients stall on every write, like participants on a bad network
+            CountingSink sink = i < slowParticipants ? new CountingSink(20) : new CountingSink(0);
+            sinks.add(sink);
+            service.subscribe(sessionId, "user" + i, sink);
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        SplittableRandom random = new SplittableRandom(42);
+        int[][] choices = new int[QUESTIONS][participants];
+        for (int[] questionChoices : choices) {
+            for (int i = 0; i < participants; i++) {
+                questionChoices[i] = random.nextInt(OPTIONS);
+            }
+        }
+
+        for (int q = 0; q < QUESTIONS; q++) {
+            long broadcastStart = System.nanoTime();
+            service.nextQuestion(sessionId, "host");
+            long broadcastNanos = System.nanoTime() - broadcastStart;
+            long delivered = awaitDelivery(sinks, slowParticipants, q * 2 + 2);
+            long deliveryNanos = System.nanoTime() - broadcastStart;
+
+            int question = q;
+            long answerStart = System.nanoTime();
+            CountDownLatch answered = new CountDownLatch(16);
+            for (int t = 0; t < 16; t++) {
+                int thread = t;
+                clients.execute(() -> {
+                    for (int i = thread; i < participants; i += 16) {
+                        service.submitAnswer(sessionId, "user" + i,
+                                new LiveAnswerRequest(100L + question, choices[question][i]));
+                    }
+                    answered.countDown();
+                });
+            }
+            answered.await();
+            long answerNanos = System.nanoTime() - answerStart;
+
+            long revealStart = System.nanoTime();
+            LiveEvents.Results results = service.revealQuestion(sessionId, "host");
+            long revealNanos = System.nanoTime() - revealStart;
+
+            int expectedCorrect = 0;
+            for (int i = 0; i < participants; i++) {
+                if (choices[q][i] == q % OPTIONS) {
+                    expectedCorrect++;
+                }
+            }
+            assertEquals(participants, results.answered());
+            assertEquals(expectedCorrect, results.correct());
+
+            System.out.printf("question %d: broadcast=%.2fms delivered to %,d fast subscribers in %.1fms, "
+                            + "answers=%,.0f/s, reveal=%.2fms, connected=%,d%n",
+                    q, broadcastNanos / 1e6, delivered, deliveryNanos / 1e6,
+                    participants / (answerNanos / 1e9), revealNanos / 1e6,
+                    service.getSession(sessionId).getConnected());
+        }
+        clients.shutdown();
+
+        long stillConnected = service.getSession(sessionId).getConnected();
+        assertTrue(stillConnected >= participants - slowParticipants,
+                "fast subscribers must not be dropped, connected=" + stillConnected);
+        service.endSession(sessionId, "host");
+        service.shutdown();
+    }
+
+    // Waits until every fast subscriber received the given number of frames
+    private static long awaitDelivery(List<CountingSink> sinks, int skip, int frames) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            long done = 0;
+            for (int i = skip; i < sinks.size(); i++) {
+                if (sinks.get(i).frames.get() >= frames) {
+                    done++;
+                }
+            }
+            if (done == sinks.size() - skip) {
+                return done;
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("Frames were not delivered within 30s");
+    }
+
+    private static class CountingSink implements FrameSink {
+
+        final AtomicLong frames = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        private final long delayMs;
+
+        CountingSink(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public void write(LiveFrame frame) {
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            frames.incrementAndGet();
+            bytes.addAndGet(frame.bytes().length);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
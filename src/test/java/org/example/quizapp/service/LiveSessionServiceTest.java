@@ -0,0 +1,230 @@
+package org.example.quizapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.quizapp.dto.LiveAnswerRequest;
+import org.example.quizapp.dto.LiveSessionResponse;
+import org.example.quizapp.entity.Question;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.live.FrameSink;
+import org.example.quizapp.live.LiveEvents;
+import org.example.quizapp.live.LiveFrame;
+import org.example.quizapp.live.LiveSubscriber;
+import org.example.quizapp.repository.QuizRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LiveSessionServiceTest {
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LiveSessionService liveSessionService;
+
+    private Quiz quiz;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(liveSessionService, "writerThreads", 2);
+        ReflectionTestUtils.setField(liveSessionService, "subscriberQueueCapacity", 4);
+        ReflectionTestUtils.setField(liveSessionService, "maxParticipants", 100);
+        ReflectionTestUtils.setField(liveSessionService, "maxSessionAgeMs", 60_000L);
+        liveSessionService.init();
+
+        quiz = new Quiz();
+        quiz.setId(1L);
+        quiz.setTitle("Java Basics");
+        quiz.getQuestions().add(question(10L, "What is JVM?", "[\"Java Virtual Machine\",\"Java Variable Method\"]", 0));
+        quiz.getQuestions().add(question(11L, "What is JDK?", "[\"Java Data Kit\",\"Java Development Kit\"]", 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveSessionService.shutdown();
+    }
+
+    @Test
+    void testSessionFlowScoresAnswersWithAnswerKey() throws Exception {
+        when(quizRepository.findWithQuestionsById(1L)).thenReturn(Optional.of(quiz));
+        String sessionId = liveSessionService.createSession(1L, "host").getId();
+        RecordingSink alice = new RecordingSink();
+        RecordingSink bob = new RecordingSink();
+        liveSessionService.subscribe(sessionId, "alice", alice);
+        liveSessionService.subscribe(sessionId, "bob", bob);
+
+        liveSessionService.nextQuestion(sessionId, "host");
+        liveSessionService.submitAnswer(sessionId, "alice", new LiveAnswerRequest(10L, 0));
+        liveSessionService.submitAnswer(sessionId, "bob", new LiveAnswerRequest(10L, 1));
+        assertThrows(RuntimeException.class,
+                () -> liveSessionService.submitAnswer(sessionId, "alice", new LiveAnswerRequest(10L, 1)));
+
+        LiveEvents.Results results = liveSessionService.revealQuestion(sessionId, "host");
+        assertArrayEquals(new long[]{1, 1}, results.optionCounts());
+        assertEquals(2, results.answered());
+        assertEquals(1, results.correct());
+        assertEquals("alice", results.leaderboard().get(0).username());
+        assertEquals(1, results.leaderboard().get(0).correctAnswers());
+        assertThrows(RuntimeException.class,
+                () -> liveSessionService.submitAnswer(sessionId, "bob", new LiveAnswerRequest(10L, 0)));
+
+        LiveSessionResponse ended = liveSessionService.endSession(sessionId, "host");
+        assertEquals("ENDED", ended.getState());
+        assertEquals(2, ended.getParticipants());
+
+        assertTrue(alice.closed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("state", "question", "results", "ended"), alice.events());
+        // The question frame must not leak the answer key
+        assertFalse(alice.frames.get(1).contains("correctAnswerIndex"));
+    }
+
+    @Test
+    void testRevealCountsEveryAcceptedAnswerWhileAnswersKeepArriving() throws Exception {
+        when(quizRepository.findWithQuestionsById(1L)).thenReturn(Optional.of(quiz));
+        String sessionId = liveSessionService.createSession(1L, "host").getId();
+        int players = 8;
+        for (int i = 0; i < players; i++) {
+            liveSessionService.subscribe(sessionId, "player" + i, new RecordingSink());
+        }
+        liveSessionService.nextQuestion(sessionId, "host");
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(players);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < players; i++) {
+            String username = "player" + i;
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                // Keeps answering through and after the reveal
+                for (int attempt = 0; attempt < 100_000; attempt++) {
+                    try {
+                        liveSessionService.submitAnswer(sessionId, username, new LiveAnswerRequest(10L, 0));
+                        accepted.incrementAndGet();
+                    } catch (RuntimeException ignored) {
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        LiveEvents.Results results = liveSessionService.revealQuestion(sessionId, "host");
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+        assertEquals(accepted.get(), results.answered());
+        assertEquals(results.answered(), results.optionCounts()[0]);
+    }
+
+    @Test
+    void testOnlyHostControlsSession() {
+        when(quizRepository.findWithQuestionsById(1L)).thenReturn(Optional.of(quiz));
+        String sessionId = liveSessionService.createSession(1L, "host").getId();
+        liveSessionService.subscribe(sessionId, "alice", new RecordingSink());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> liveSessionService.nextQuestion(sessionId, "alice"));
+        assertEquals("Only the host can control this live session", exception.getMessage());
+    }
+
+    @Test
+    void testSlowSubscriberIsDisconnected() throws Exception {
+        when(quizRepository.findWithQuestionsById(1L)).thenReturn(Optional.of(quiz));
+        String sessionId = liveSessionService.createSession(1L, "host").getId();
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void write(LiveFrame frame) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        LiveSubscriber slowSubscriber = liveSessionService.subscribe(sessionId, "slow", slow);
+        liveSessionService.subscribe(sessionId, "fast", fast);
+
+        // Queue capacity is 4: the blocked subscriber overflows while the other keeps up
+        for (int i = 1; i <= 10; i++) {
+            liveSessionService.sendHeartbeats();
+            awaitWrites(fast, i + 1);
+        }
+        release.countDown();
+
+        assertTrue(slowSubscriber.isClosed());
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, liveSessionService.getSession(sessionId).getConnected());
+        assertEquals(1.0, meterRegistry.counter("quiz.live.subscribers.dropped").count());
+    }
+
+    private static void awaitWrites(RecordingSink sink, int writes) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sink.writes.get() < writes && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(writes, sink.writes.get());
+    }
+
+    private static Question question(Long id, String text, String options, int correctAnswerIndex) {
+        Question question = new Question();
+        question.setId(id);
+        question.setText(text);
+        question.setOptions(options);
+        question.setCorrectAnswerIndex(correctAnswerIndex);
+        return question;
+    }
+
+    private static class RecordingSink implements FrameSink {
+
+        final List<String> frames = new CopyOnWriteArrayList<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+        final AtomicInteger writes = new AtomicInteger();
+
+        @Override
+        public void write(LiveFrame frame) {
+            writes.incrementAndGet();
+            String text = new String(frame.bytes(), StandardCharsets.UTF_8);
+            if (text.startsWith("event:")) {
+                frames.add(text);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        List<String> events() {
+            return frames.stream().map(frame -> frame.substring(6, frame.indexOf('\n'))).toList();
+        }
+    }
+}
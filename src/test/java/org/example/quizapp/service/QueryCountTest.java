@@ -0,0 +1,154 @@
+package org.example.quizapp.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.quizapp.dto.AttemptResponse;
+import org.example.quizapp.dto.QuestionRequest;
+import org.example.quizapp.dto.QuizBatchResponse;
+import org.example.quizapp.dto.QuizRequest;
+import org.example.quizapp.dto.QuizResponse;
+import org.example.quizapp.entity.Attempt;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.repository.AttemptRepository;
+import org.example.quizapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Statement counts against the real H2 schema; the revocation sync is pushed out so only the
+// call under test talks to Hibernate
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "jwt.revocation.sync-interval-ms=3600000"
+})
+class QueryCountTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AttemptService attemptService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttemptRepository attemptRepository;
+
+    private QueryCounter queryCounter;
+
+    @BeforeEach
+    void setUp() {
+        queryCounter = new QueryCounter(entityManagerFactory);
+    }
+
+    @Test
+    @WithMockUser(username = "query-count-user")
+    void testGetAttemptResult_LoadsAttemptUserAndQuizInOneStatement() {
+        User user = new User();
+        user.setUsername("query-count-user");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+        Quiz quiz = quizWithQuestions("Counted Attempt", "QueryCountAttempt", 3);
+        Attempt attempt = new Attempt();
+        attempt.setUser(user);
+        attempt.setQuiz(quiz);
+        attempt.setQuizVersionId(quiz.getCurrentVersionId());
+        attempt.setScore(100.0);
+        attempt.setAnswers("{}");
+        Long attemptId = attemptRepository.save(attempt).getId();
+
+        // The answer key comes from the version cache once it is warm
+        queryCounter.expectStatements(2, () -> attemptService.getAttemptResult(attemptId));
+        AttemptResponse response = queryCounter.expectStatements(1, () -> attemptService.getAttemptResult(attemptId));
+        assertEquals(3, response.getTotalQuestions());
+    }
+
+    @Test
+    void testGetQuizzes_DoesNotLoadQuestions() {
+        for (int i = 0; i < 3; i++) {
+            quizWithQuestions("Counted List " + i, "QueryCountList", 2);
+        }
+
+        Page<QuizResponse> page = queryCounter.expectStatements(1,
+                () -> quizService.getQuizzes("QueryCountList", null, PageRequest.of(0, 10)));
+        assertEquals(3, page.getNumberOfElements());
+    }
+
+    @Test
+    void testGetQuizById_FetchesQuestionsWithQuizThenServesFromCache() {
+        Quiz quiz = quizWithQuestions("Counted Detail", "QueryCountDetail", 4);
+
+        QuizResponse response = queryCounter.expectStatements(1, () -> quizService.getQuizById(quiz.getId()));
+        assertEquals(4, response.getQuestions().size());
+        queryCounter.expectStatements(0, () -> quizService.getQuizById(quiz.getId()));
+    }
+
+    @Test
+    void testSparseFields_SelectOnlyRequestedColumns() {
+        Quiz quiz = quizWithQuestions("Sparse A", "QueryCountSparse", 3);
+        quizWithQuestions("Sparse B", "QueryCountSparse", 1);
+
+        Page<QuizResponse> page = queryCounter.expectStatements(1,
+                () -> quizService.getQuizzes("QueryCountSparse", null, "title,questionCount", PageRequest.of(0, 10)));
+        Map<String, Integer> counts = page.getContent().stream()
+                .collect(Collectors.toMap(QuizResponse::getTitle, QuizResponse::getQuestionCount));
+        assertEquals(Map.of("Sparse A", 3, "Sparse B", 1), counts);
+        assertNull(page.getContent().get(0).getId());
+        assertNull(page.getContent().get(0).getQuestions());
+
+        // Without questions a cold detail read is one narrow query; once cached it is trimmed in memory
+        QuizResponse cold = queryCounter.expectStatements(1, () -> quizService.getQuizById(quiz.getId(), "id,questionCount"));
+        assertEquals(quiz.getId(), cold.getId());
+        assertEquals(3, cold.getQuestionCount());
+        assertNull(cold.getQuestions());
+        queryCounter.expectStatements(1, () -> quizService.getQuizById(quiz.getId(), "questions"));
+        QuizResponse warm = queryCounter.expectStatements(0, () -> quizService.getQuizById(quiz.getId(), "title,questionCount"));
+        assertEquals(3, warm.getQuestionCount());
+        assertNull(warm.getCategory());
+    }
+
+    @Test
+    void testGetQuizzesByIds_LoadsMissesInOneQuery() {
+        Quiz first = quizWithQuestions("Batch A", "QueryCountBatch", 2);
+        Quiz second = quizWithQuestions("Batch B", "QueryCountBatch", 3);
+        Quiz third = quizWithQuestions("Batch C", "QueryCountBatch", 1);
+        quizService.getQuizById(second.getId());
+        long missingId = third.getId() + 1000;
+
+        QuizBatchResponse batch = queryCounter.expectStatements(1, () -> quizService.getQuizzesByIds(
+                List.of(third.getId(), missingId, first.getId(), second.getId(), third.getId()), null));
+        assertEquals(List.of("Batch C", "Batch A", "Batch B"),
+                batch.getQuizzes().stream().map(QuizResponse::getTitle).toList());
+        assertEquals(List.of(1, 2, 3), batch.getQuizzes().stream().map(quiz -> quiz.getQuestions().size()).toList());
+        assertEquals(List.of(missingId), batch.getMissingIds());
+
+        // All three are cached now; only the missing ID is looked up again
+        queryCounter.expectStatements(0, () -> quizService.getQuizzesByIds(List.of(first.getId(), third.getId()), null));
+        queryCounter.expectStatements(1, () -> quizService.getQuizzesByIds(List.of(first.getId(), missingId), null));
+    }
+
+    private Quiz quizWithQuestions(String title, String category, int questions) {
+        Quiz quiz = quizService.createQuiz(new QuizRequest(title, category, Quiz.Difficulty.EASY));
+        for (int i = 0; i < questions; i++) {
+            quiz = quizService.addQuestionsToQuiz(quiz.getId(),
+                    List.of(new QuestionRequest("Question " + i, List.of("A", "B"), 0)));
+        }
+        return quiz;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.quizapp.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Pins the number of statements Hibernate prepares for one service call, so a lazy load or an
+// N+1 added later fails the build. Needs hibernate.generate_statistics and no other Hibernate
+// traffic in the context while counting.
+final class QueryCounter {
+
+    private final Statistics statistics;
+
+    QueryCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    <T> T expectStatements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), () -> "Statements prepared (entity fetches: "
+                + statistics.getEntityFetchCount() + ", collection fetches: " + statistics.getCollectionFetchCount()
+                + ", queries: " + Arrays.toString(statistics.getQueries()) + ")");
+        return result;
+    }
+}
@@ -0,0 +1,223 @@
+package org.example.quizapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.quizapp.dto.QuestionRequest;
+import org.example.quizapp.dto.QuizRequest;
+import org.example.quizapp.dto.QuizResponse;
+import org.example.quizapp.dto.QuizVersionContent;
+import org.example.quizapp.entity.Quiz;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class QuizServiceTest {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAddingQuestionsPublishesNewVersionAndKeepsOldOne() {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Versioned Quiz", "Java", Quiz.Difficulty.EASY));
+        Long firstVersionId = quiz.getCurrentVersionId();
+        assertNotNull(firstVersionId);
+
+        quiz = quizService.addQuestionsToQuiz(quiz.getId(),
+                List.of(new QuestionRequest("What is JVM?", List.of("Java Virtual Machine", "Java Variable Method"), 0)));
+        Long secondVersionId = quiz.getCurrentVersionId();
+        assertNotEquals(firstVersionId, secondVersionId);
+
+        quizService.addQuestionsToQuiz(quiz.getId(),
+                List.of(new QuestionRequest("What is JDK?", List.of("Java Data Kit", "Java Development Kit"), 1)));
+
+        QuizResponse second = quizService.getQuizVersion(quiz.getId(), secondVersionId);
+        assertEquals(1, second.getQuestions().size());
+        assertEquals("What is JVM?", second.getQuestions().get(0).getText());
+        assertEquals(secondVersionId, second.getVersionId());
+        assertTrue(quizService.getQuizVersion(quiz.getId(), firstVersionId).getQuestions().isEmpty());
+
+        QuizVersionContent content = quizService.getVersionContent(secondVersionId);
+        assertEquals(2, content.getVersionNumber());
+        assertEquals(0, content.getQuestions().get(0).getCorrectAnswerIndex());
+        assertEquals(2, quizService.getQuizById(quiz.getId()).getQuestions().size());
+
+        Long quizId = quiz.getId();
+        assertThrows(RuntimeException.class, () -> quizService.getQuizVersion(quizId + 1, secondVersionId));
+    }
+
+    @Test
+    void testCorrectAnswerIndexMustBeOneOfTheOptions() {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Answer Key Quiz", "Java", Quiz.Difficulty.EASY));
+        Long versionId = quiz.getCurrentVersionId();
+        List<String> options = List.of("Yes", "No");
+
+        for (int index : new int[]{-1, 2, 64}) {
+            assertThrows(RuntimeException.class, () -> quizService.addQuestionsToQuiz(quiz.getId(),
+                    List.of(new QuestionRequest("Is Java typed?", options, index))));
+        }
+        assertEquals(versionId, quizService.getQuizById(quiz.getId()).getVersionId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testQuizVersionIsServedAsImmutable() throws Exception {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Cached Quiz", "SQL", Quiz.Difficulty.HARD));
+        quiz = quizService.addQuestionsToQuiz(quiz.getId(),
+                List.of(new QuestionRequest("What is SQL?", List.of("A language", "A database"), 0)));
+
+        mockMvc.perform(get("/quizzes/{quizId}/versions/{versionId}", quiz.getId(), quiz.getCurrentVersionId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, private, immutable"))
+                .andExpect(jsonPath("$.questions[0].text").value("What is SQL?"))
+                .andExpect(jsonPath("$.questions[0].correctAnswerIndex").doesNotExist());
+    }
+
+    @Test
+    void testTokenCheckGuardingCachedVersions() throws Exception {
+        mockMvc.perform(get("/auth/check"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/auth/check").with(user("version-reader").roles("USER")))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testQuizVersionIsNegotiatedAndServedPrecompressed() throws Exception {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Binary Quiz", "Mobile", Quiz.Difficulty.MEDIUM));
+        List<QuestionRequest> questions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            questions.add(new QuestionRequest("Which option is number " + i + "?", List.of("One", "Two", "Three"), i % 3));
+        }
+        quiz = quizService.addQuestionsToQuiz(quiz.getId(), questions);
+
+        MvcResult result = mockMvc.perform(get("/quizzes/{quizId}/versions/{versionId}", quiz.getId(), quiz.getCurrentVersionId())
+                        .header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.5")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andReturn();
+
+        byte[] smile;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            smile = in.readAllBytes();
+        }
+        QuizResponse response = new ObjectMapper(new SmileFactory()).findAndRegisterModules().readValue(smile, QuizResponse.class);
+        assertEquals(20, response.getQuestions().size());
+        assertEquals("Which option is number 7?", response.getQuestions().get(7).getText());
+
+        // Any endpoint can be asked for CBOR
+        mockMvc.perform(get("/quizzes/{quizId}", quiz.getId()).header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/cbor"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSparseFieldsLeaveOtherFieldsOut() throws Exception {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Sparse Quiz", "SparseCatalog", Quiz.Difficulty.EASY));
+        quizService.addQuestionsToQuiz(quiz.getId(),
+                List.of(new QuestionRequest("What is REST?", List.of("A style", "A protocol"), 0)));
+
+        mockMvc.perform(get("/quizzes").param("category", "SparseCatalog").param("fields", "title,questionCount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Sparse Quiz"))
+                .andExpect(jsonPath("$.content[0].questionCount").value(1))
+                .andExpect(jsonPath("$.content[0].id").doesNotExist())
+                .andExpect(jsonPath("$.content[0].questions").doesNotExist());
+        mockMvc.perform(get("/quizzes/{quizId}", quiz.getId()).param("fields", "questions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.questions[0].text").value("What is REST?"))
+                .andExpect(jsonPath("$.title").doesNotExist());
+        assertThrows(RuntimeException.class, () -> quizService.getQuizById(quiz.getId(), "title,answers"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSparseFieldsIncludeTimeLimit() throws Exception {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Sparse Timed Quiz", "SparseTimed", Quiz.Difficulty.EASY, 90));
+
+        mockMvc.perform(get("/quizzes").param("category", "SparseTimed").param("fields", "title,timeLimitSeconds"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].timeLimitSeconds").value(90))
+                .andExpect(jsonPath("$.content[0].category").doesNotExist());
+        mockMvc.perform(get("/quizzes/{quizId}", quiz.getId()).param("fields", "timeLimitSeconds"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timeLimitSeconds").value(90))
+                .andExpect(jsonPath("$.title").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testBatchEndpointsKeepRequestedOrder() throws Exception {
+        Quiz first = quizService.createQuiz(new QuizRequest("Card One", "Dashboard", Quiz.Difficulty.EASY));
+        Quiz second = quizService.createQuiz(new QuizRequest("Card Two", "Dashboard", Quiz.Difficulty.HARD));
+
+        mockMvc.perform(get("/quizzes").param("ids", second.getId() + "," + first.getId() + ",999999")
+                        .param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quizzes[0].title").value("Card Two"))
+                .andExpect(jsonPath("$.quizzes[1].title").value("Card One"))
+                .andExpect(jsonPath("$.quizzes[1].difficulty").doesNotExist())
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+        mockMvc.perform(post("/quizzes/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + first.getId() + "," + second.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quizzes[0].title").value("Card One"))
+                .andExpect(jsonPath("$.quizzes[1].difficulty").value("HARD"))
+                .andExpect(jsonPath("$.missingIds").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSearchFindsQuestionTextOnceCommittedAndDropsArchivedQuizzes() throws Exception {
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Marine Zoology", "Biology", Quiz.Difficulty.MEDIUM));
+        quizService.addQuestionsToQuiz(quiz.getId(),
+                List.of(new QuestionRequest("Which cephalopod has three hearts?", List.of("Octopus", "Squid"), 0)));
+
+        mockMvc.perform(get("/quizzes/search").param("q", "zoology cephalo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.hits[0].quizId").value(quiz.getId()))
+                .andExpect(jsonPath("$.hits[0].title").value("Marine Zoology"))
+                .andExpect(jsonPath("$.hits[0].difficulty").value("MEDIUM"));
+
+        jdbcTemplate.update("UPDATE quizzes SET archived = TRUE WHERE id = ?", quiz.getId());
+        quizService.evictQuizzes(List.of(quiz.getId()), List.of());
+
+        mockMvc.perform(get("/quizzes/search").param("q", "cephalopod"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+    }
+}
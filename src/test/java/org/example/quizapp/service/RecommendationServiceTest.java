@@ -0,0 +1,47 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.entity.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationServiceTest {
+
+    private static final List<RecommendationService.CatalogQuiz> QUIZZES = List.of(
+            new RecommendationService.CatalogQuiz(1, "Java Basics", "Programming", Quiz.Difficulty.EASY, false),
+            new RecommendationService.CatalogQuiz(2, "Java Collections", "Programming", Quiz.Difficulty.MEDIUM, false),
+            new RecommendationService.CatalogQuiz(3, "Java Concurrency", "Programming", Quiz.Difficulty.HARD, false),
+            new RecommendationService.CatalogQuiz(4, "JVM Internals", "Programming", Quiz.Difficulty.HARD, true),
+            new RecommendationService.CatalogQuiz(5, "Java Streams", "Programming", Quiz.Difficulty.MEDIUM, false),
+            new RecommendationService.CatalogQuiz(6, "Capitals", "Geography", Quiz.Difficulty.EASY, false),
+            new RecommendationService.CatalogQuiz(7, "Rivers", "Geography", Quiz.Difficulty.MEDIUM, false));
+
+    private final RecommendationService.Catalog catalog =
+            new RecommendationService.Catalog(QUIZZES, Map.of(7L, 50L, 6L, 10L, 2L, 5L));
+
+    @Test
+    void testRank_StepsUpAfterHighScoresAndSkipsAttemptedAndArchived() {
+        RecommendationService.HistoryBuilder builder = new RecommendationService.HistoryBuilder();
+        builder.add(2, 90.0);
+        builder.add(1, 100.0);
+
+        RecommendationService.Recommendations recommendations = RecommendationService.rank(builder.build(), catalog, 3);
+
+        assertArrayEquals(new long[]{3, 5, 7}, recommendations.quizIds());
+        assertEquals(RecommendationService.Reason.STEP_UP.ordinal(), recommendations.reasons()[0]);
+        assertEquals(RecommendationService.Reason.EXPLORE.ordinal(), recommendations.reasons()[2]);
+        assertArrayEquals(new long[]{5, 7}, recommendations.without(3).quizIds());
+    }
+
+    @Test
+    void testRank_FallsBackToPopularQuizzesWithoutHistory() {
+        RecommendationService.Recommendations recommendations =
+                RecommendationService.rank(new RecommendationService.HistoryBuilder().build(), catalog, 2);
+
+        assertArrayEquals(new long[]{7, 6}, recommendations.quizIds());
+        assertEquals(RecommendationService.Reason.POPULAR.ordinal(), recommendations.reasons()[0]);
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.AnswerKeyRequest;
+import org.example.quizapp.dto.QuestionRequest;
+import org.example.quizapp.dto.QuizRequest;
+import org.example.quizapp.dto.RescoreJobResponse;
+import org.example.quizapp.entity.Attempt;
+import org.example.quizapp.entity.Question;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.RescoreJob;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.entity.UserProgress;
+import org.example.quizapp.repository.AttemptRepository;
+import org.example.quizapp.repository.QuestionRepository;
+import org.example.quizapp.repository.QuizRepository;
+import org.example.quizapp.repository.UserRepository;
+import org.example.quizapp.scoring.AnswerSheet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "rescore.chunk-size=7")
+class RescoreServiceTest {
+
+    @Autowired
+    private RescoreService rescoreService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AttemptRepository attemptRepository;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testRescore_AppliesCorrectedAnswerKey() throws InterruptedException {
+        User user = new User();
+        user.setUsername("rescore-user");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Rescore Quiz");
+        quiz.setCategory("Programming");
+        quiz.setDifficulty(Quiz.Difficulty.EASY);
+        quiz = quizRepository.save(quiz);
+
+        Question question1 = saveQuestion(quiz, 0);
+        Question question2 = saveQuestion(quiz, 1);
+
+        // Answered (2, 1): 50% under the stored key, 100% once question 1 is corrected to index 2
+        List<Long> attemptIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Attempt attempt = new Attempt();
+            attempt.setUser(user);
+            attempt.setQuiz(quiz);
+            attempt.setScore(50.0);
+            attempt.setAnswers("{\"" + question1.getId() + "\":2,\"" + question2.getId() + "\":1}");
+            attemptIds.add(attemptRepository.save(attempt).getId());
+        }
+
+        question1.setCorrectAnswerIndex(2);
+        questionRepository.save(question1);
+
+        RescoreJobResponse job = rescoreService.startJob(quiz.getId());
+        assertEquals(20L, job.getTotalAttempts());
+
+        job = awaitJob(job);
+        assertEquals(RescoreJob.Status.COMPLETED, job.getStatus());
+        assertEquals(20L, job.getProcessedAttempts());
+        assertEquals(20L, job.getChangedAttempts());
+        assertEquals(100.0, job.getProgressPercent());
+        for (Long attemptId : attemptIds) {
+            assertEquals(100.0, attemptRepository.findById(attemptId).orElseThrow().getScore());
+        }
+    }
+
+    @Test
+    void testRescore_ScoresEachAttemptOnItsOwnVersionUnderTheCorrectedKey() throws InterruptedException {
+        User user = new User();
+        user.setUsername("rescore-version-user");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        List<String> options = List.of("A", "B", "C");
+        Quiz quiz = quizService.createQuiz(new QuizRequest("Versioned Rescore Quiz", "Programming", Quiz.Difficulty.EASY));
+        quiz = quizService.addQuestionsToQuiz(quiz.getId(), List.of(
+                new QuestionRequest("First", options, 0), new QuestionRequest("Second", options, 1)));
+        Long answeredVersionId = quiz.getCurrentVersionId();
+        Long firstId = quiz.getQuestions().get(0).getId();
+        Long secondId = quiz.getQuestions().get(1).getId();
+
+        // Answered (2, 1) on the two-question version: 50% under the original key
+        Attempt attempt = new Attempt();
+        attempt.setUser(user);
+        attempt.setQuiz(quiz);
+        attempt.setQuizVersionId(answeredVersionId);
+        attempt.setScore(50.0);
+        attempt.setAnswerSheet(AnswerSheet.builder(2).answer(firstId, 2).answer(secondId, 1).build());
+        Long attemptId = attemptRepository.save(attempt).getId();
+
+        // A question added later is not part of that attempt; the correction is
+        Long quizId = quiz.getId();
+        quizService.addQuestionsToQuiz(quizId, List.of(new QuestionRequest("Third", options, 0)));
+        quiz = quizService.correctAnswerKey(quizId, firstId, new AnswerKeyRequest(2));
+        assertNotEquals(answeredVersionId, quiz.getCurrentVersionId());
+        assertThrows(RuntimeException.class, () -> quizService.correctAnswerKey(quizId, firstId, new AnswerKeyRequest(3)));
+
+        RescoreJobResponse job = awaitJob(rescoreService.startJob(quizId));
+        assertEquals(RescoreJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1L, job.getChangedAttempts());
+
+        Attempt rescored = attemptRepository.findById(attemptId).orElseThrow();
+        assertEquals(100.0, rescored.getScore());
+        assertNotEquals(answeredVersionId, rescored.getQuizVersionId());
+        assertNotEquals(quiz.getCurrentVersionId(), rescored.getQuizVersionId());
+        assertEquals(2, quizService.getVersionContent(rescored.getQuizVersionId()).getQuestions().size());
+        assertEquals(2, quizService.getVersionContent(rescored.getQuizVersionId()).getQuestions().get(0).getCorrectAnswerIndex());
+        // Versions stay immutable
+        assertEquals(0, quizService.getVersionContent(answeredVersionId).getQuestions().get(0).getCorrectAnswerIndex());
+
+        // Nothing left to change
+        assertEquals(0L, awaitJob(rescoreService.startJob(quizId)).getChangedAttempts());
+    }
+
+    @Test
+    void testRescore_RebuildsProgressSummaries() throws InterruptedException {
+        User user = new User();
+        user.setUsername("rescore-progress-user");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Rescore Progress Quiz");
+        quiz.setCategory("RescoreProgress");
+        quiz.setDifficulty(Quiz.Difficulty.EASY);
+        quiz = quizRepository.save(quiz);
+        Question question1 = saveQuestion(quiz, 0);
+        Question question2 = saveQuestion(quiz, 1);
+
+        for (int i = 0; i < 2; i++) {
+            Attempt attempt = new Attempt();
+            attempt.setUser(user);
+            attempt.setQuiz(quiz);
+            attempt.setScore(50.0);
+            attempt.setAnswers("{\"" + question1.getId() + "\":2,\"" + question2.getId() + "\":1}");
+            attemptRepository.save(attempt);
+            userProgressService.recordAttempt(user.getId(), "RescoreProgress", 50.0, LocalDate.now());
+        }
+        assertEquals(50.0, bestScore(user, "RescoreProgress"));
+
+        question1.setCorrectAnswerIndex(2);
+        questionRepository.save(question1);
+        assertEquals(RescoreJob.Status.COMPLETED, awaitJob(rescoreService.startJob(quiz.getId())).getStatus());
+
+        assertEquals(100.0, bestScore(user, "RescoreProgress"));
+        assertEquals(200.0, jdbcTemplate.queryForObject(
+                "SELECT total_score FROM user_progress WHERE user_id = ? AND category = ?",
+                Double.class, user.getId(), UserProgress.OVERALL));
+    }
+
+    private double bestScore(User user, String category) {
+        return jdbcTemplate.queryForObject("SELECT best_score FROM user_progress WHERE user_id = ? AND category = ?",
+                Double.class, user.getId(), category);
+    }
+
+    private RescoreJobResponse awaitJob(RescoreJobResponse job) throws InterruptedException {
+        for (int i = 0; i < 100 && job.getStatus() != RescoreJob.Status.COMPLETED; i++) {
+            Thread.sleep(100);
+            job = rescoreService.getJob(job.getId());
+        }
+        return job;
+    }
+
+    private Question saveQuestion(Quiz quiz, int correctAnswerIndex) {
+        Question question = new Question();
+        question.setQuiz(quiz);
+        question.setText("Question");
+        question.setOptions("[\"A\",\"B\",\"C\"]");
+        question.setCorrectAnswerIndex(correctAnswerIndex);
+        return questionRepository.save(question);
+    }
+}
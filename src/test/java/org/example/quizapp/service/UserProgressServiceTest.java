@@ -0,0 +1,128 @@
+package org.example.quizapp.service;
+
+import org.example.quizapp.dto.UserProgressRebuildResponse;
+import org.example.quizapp.dto.UserProgressSummaryResponse;
+import org.example.quizapp.entity.Attempt;
+import org.example.quizapp.entity.Quiz;
+import org.example.quizapp.entity.User;
+import org.example.quizapp.entity.UserProgress;
+import org.example.quizapp.repository.AttemptRepository;
+import org.example.quizapp.repository.QuizRepository;
+import org.example.quizapp.repository.UserProgressRepository;
+import org.example.quizapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserProgressServiceTest {
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private AttemptRepository attemptRepository;
+
+    @Test
+    void testRecordAttempt_UpsertsCategoryAndOverallRows() {
+        User user = saveUser("progress-user");
+        LocalDate monday = LocalDate.of(2025, 10, 6);
+
+        userProgressService.recordAttempt(user.getId(), "Java", 60.0, monday);
+        userProgressService.recordAttempt(user.getId(), "Java", 80.0, monday.plusDays(1));
+        userProgressService.recordAttempt(user.getId(), "SQL", 40.0, monday.plusDays(1));
+        userProgressService.recordAttempt(user.getId(), "SQL", 100.0, monday.plusDays(2));
+
+        UserProgress java = userProgressRepository.findById(new UserProgress.Key(user.getId(), "Java")).orElseThrow();
+        assertEquals(2L, java.getAttempts());
+        assertEquals(140.0, java.getTotalScore());
+        assertEquals(80.0, java.getBestScore());
+        assertEquals(2, java.getCurrentStreak());
+
+        UserProgress overall = userProgressRepository.findById(new UserProgress.Key(user.getId(), UserProgress.OVERALL)).orElseThrow();
+        assertEquals(4L, overall.getAttempts());
+        assertEquals(3, overall.getCurrentStreak());
+        assertEquals(monday.plusDays(2), overall.getLastAttemptDate());
+
+        // A gap restarts the current streak but keeps the longest one
+        userProgressService.recordAttempt(user.getId(), "SQL", 20.0, monday.plusDays(5));
+        overall = userProgressRepository.findById(new UserProgress.Key(user.getId(), UserProgress.OVERALL)).orElseThrow();
+        assertEquals(1, overall.getCurrentStreak());
+        assertEquals(3, overall.getLongestStreak());
+
+        UserProgressSummaryResponse summary = userProgressService.toSummary("progress-user",
+                userProgressRepository.findByUsername("progress-user"), monday.plusDays(5));
+        assertEquals(5L, summary.getTotalAttempts());
+        assertEquals(60.0, summary.getAverageScore());
+        assertEquals(100.0, summary.getBestScore());
+        assertEquals(1, summary.getCurrentStreak());
+        assertEquals(2, summary.getCategories().size());
+        assertEquals("Java", summary.getCategories().get(0).getCategory());
+        assertEquals(70.0, summary.getCategories().get(0).getAverageScore());
+    }
+
+    @Test
+    void testRebuild_RecomputesSummaryFromAttempts() {
+        User user = saveUser("rebuild-user");
+        Quiz java = saveQuiz("Java");
+        Quiz sql = saveQuiz("SQL");
+        saveAttempt(user, java, 50.0);
+        saveAttempt(user, java, 90.0);
+        saveAttempt(user, sql, 70.0);
+
+        // Stale row that the rebuild must replace
+        userProgressService.recordAttempt(user.getId(), "Java", 10.0, LocalDate.of(2020, 1, 1));
+
+        UserProgressRebuildResponse response = userProgressService.rebuild(user.getId());
+
+        assertEquals(1L, response.getUsers());
+        assertEquals(3L, response.getAttempts());
+        assertEquals(3L, response.getSummaryRows());
+        UserProgress javaRow = userProgressRepository.findById(new UserProgress.Key(user.getId(), "Java")).orElseThrow();
+        assertEquals(2L, javaRow.getAttempts());
+        assertEquals(140.0, javaRow.getTotalScore());
+        assertEquals(LocalDate.now(), javaRow.getLastAttemptDate());
+        UserProgress overall = userProgressRepository.findById(new UserProgress.Key(user.getId(), UserProgress.OVERALL)).orElseThrow();
+        assertEquals(3L, overall.getAttempts());
+        assertEquals(90.0, overall.getBestScore());
+        assertEquals(1, overall.getCurrentStreak());
+    }
+
+    private User saveUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        return userRepository.save(user);
+    }
+
+    private Quiz saveQuiz(String category) {
+        Quiz quiz = new Quiz();
+        quiz.setTitle(category + " Quiz");
+        quiz.setCategory(category);
+        quiz.setDifficulty(Quiz.Difficulty.EASY);
+        return quizRepository.save(quiz);
+    }
+
+    private void saveAttempt(User user, Quiz quiz, double score) {
+        Attempt attempt = new Attempt();
+        attempt.setUser(user);
+        attempt.setQuiz(quiz);
+        attempt.setScore(score);
+        attempt.setAnswers("{}");
+        attemptRepository.save(attempt);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.quizapp.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void testAdvance_FiresAtTheDeadlineRoundedUpToATick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(1_000, 100, 8);
+        wheel.schedule("soon", 1_250);
+        wheel.schedule("later", 1_300);
+        wheel.schedule("past", 500);
+
+        assertEquals(List.of("past"), wheel.advance(1_000));
+        assertEquals(List.of(), wheel.advance(1_299));
+        assertEquals(List.of("later", "soon"), wheel.advance(1_300).stream().sorted().toList());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvance_TimeoutsPastOneTurnWaitTheirRounds() {
+        // 4 buckets of 10ms: one turn is 40ms
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, 10, 3);
+        wheel.schedule("first-turn", 20);
+        wheel.schedule("third-turn", 100);
+
+        assertEquals(List.of("first-turn"), wheel.advance(20));
+        assertEquals(List.of(), wheel.advance(99));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("third-turn"), wheel.advance(100));
+
+        // An idle wheel skips ahead, and later timeouts still land in the right tick
+        assertEquals(List.of(), wheel.advance(1_000_000));
+        wheel.schedule("after-idle", 1_000_035);
+        assertEquals(List.of(), wheel.advance(1_000_039));
+        assertEquals(List.of("after-idle"), wheel.advance(1_000_040));
+    }
+
+    @Test
+    void testCancel_RemovesFromTheMiddleOfABucket() {
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(0, 10, 4);
+        HashedTimingWheel.Timeout<Integer> first = wheel.schedule(1, 30);
+        HashedTimingWheel.Timeout<Integer> middle = wheel.schedule(2, 30);
+        wheel.schedule(3, 30);
+
+        assertTrue(wheel.cancel(middle));
+        assertFalse(wheel.cancel(middle));
+        assertEquals(2, wheel.size());
+        assertEquals(List.of(1, 3), wheel.advance(30).stream().sorted().toList());
+        assertFalse(wheel.cancel(first));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.quizapp.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"tracing.slow-threshold-ms=0", "slow-query.threshold-ms=0"})
+@AutoConfigureMockMvc
+class TracerTest {
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private TracesEndpoint tracesEndpoint;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testRequestTraceCoversServiceRepositoryAndJdbc() throws Exception {
+        String traceId = mockMvc.perform(get("/quizzes").param("category", "Tracing"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(TracingFilter.TRACE_ID_HEADER);
+
+        Trace.View trace = tracesEndpoint.trace(traceId);
+        assertNotNull(trace);
+        assertEquals("GET /quizzes", trace.name());
+        List<String> names = trace.spans().stream().map(Trace.SpanView::name).toList();
+        assertEquals("GET /quizzes", names.get(0));
+        assertTrue(names.contains("QuizService.getQuizzes"), names::toString);
+        assertTrue(names.stream().anyMatch(name -> name.startsWith("QuizRepository.")), names::toString);
+        Trace.SpanView statement = trace.spans().stream()
+                .filter(span -> span.name().startsWith("jdbc.")).findFirst().orElseThrow();
+        assertTrue(statement.detail().contains("quizzes"));
+    }
+
+    @Test
+    void testContextFollowsTaskToAnotherThread() throws InterruptedException {
+        Runnable task;
+        String traceId;
+        try (SpanScope root = tracer.startTrace("manual")) {
+            traceId = root.getTrace().getId();
+            task = tracer.propagate(() -> {
+                try (SpanScope ignored = tracer.startSpan("inside")) {
+                    assertTrue(tracer.isActive());
+                }
+            });
+        }
+        Thread worker = new Thread(task);
+        worker.start();
+        worker.join();
+
+        assertFalse(tracer.isActive());
+        List<Trace.SpanView> spans = tracesEndpoint.trace(traceId).spans();
+        Trace.SpanView async = spans.stream().filter(span -> span.name().equals("async")).findFirst().orElseThrow();
+        Trace.SpanView inside = spans.stream().filter(span -> span.name().equals("inside")).findFirst().orElseThrow();
+        assertEquals(1, async.parentId());
+        assertEquals(async.id(), inside.parentId());
+        assertTrue(spans.stream().anyMatch(span -> span.name().equals("async.queue")));
+    }
+
+    @Test
+    void testSlowQueryLogRecordsParameterShapesNotValues() {
+        jdbcTemplate.queryForList("SELECT id FROM quizzes WHERE category = ? AND id > ?", "SlowQueryShape", 5L);
+
+        SlowQueryLog.SlowQuery query = slowQueryLog.recent(50).stream()
+                .filter(recorded -> recorded.sql().contains("category = ? AND id > ?"))
+                .findFirst().orElseThrow();
+        assertEquals("SELECT id FROM quizzes WHERE category = ? AND id > ?", query.sql());
+        assertEquals(List.of("String(14)", "Long"), query.parameters());
+    }
+}